@@ -0,0 +1,95 @@
+package com.example.todolist.benchmarks;
+
+import com.example.todolist.ToDoListApplication;
+import com.example.todolist.id.UuidV7Generator;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Starts the application against an in-process H2 database, and seeds it with _ToDo_ rows.
+ */
+final class BenchmarkApplication {
+
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Starts the application without web server on a private in-memory database.
+     * @param database The name of the in-memory database.
+     * @return The started application context.
+     */
+    static ConfigurableApplicationContext start(String database) {
+        return start(database, WebApplicationType.NONE);
+    }
+
+    /**
+     * Starts the application on a private in-memory database.
+     * @param database The name of the in-memory database.
+     * @param webApplicationType The type of web server to start, if any.
+     * @param properties Additional properties, as --name=value arguments, overriding the defaults.
+     * @return The started application context.
+     */
+    static ConfigurableApplicationContext start(String database, WebApplicationType webApplicationType,
+                                                String... properties) {
+        Map<String, String> args = new LinkedHashMap<>();
+        args.put("spring.datasource.url", h2Url(database));
+        args.put("spring.datasource.username", "sa");
+        args.put("spring.datasource.password", "");
+        args.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        args.put("spring.main.banner-mode", "off");
+        args.put("logging.level.root", "WARN");
+        for (String property : properties) {
+            int equals = property.indexOf('=');
+            args.put(property.substring(2, equals), property.substring(equals + 1)); // repeated options would be joined
+        }
+        return new SpringApplicationBuilder(ToDoListApplication.class)
+                .web(webApplicationType)
+                .run(args.entrySet().stream().map(arg -> "--" + arg.getKey() + "=" + arg.getValue()).toArray(String[]::new));
+    }
+
+    /**
+     * Builds the URL of a private in-memory database.
+     * @param database The name of the in-memory database.
+     * @return The H2 URL.
+     */
+    static String h2Url(String database) {
+        return "jdbc:h2:mem:" + database + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+    }
+
+    /**
+     * Inserts _ToDo_ rows with time ordered ids and due dates spread over a year.
+     * @param context The started application context.
+     * @param rows The number of rows to insert.
+     * @return The ids of the inserted rows, in insertion order.
+     */
+    static List<UUID> seed(ConfigurableApplicationContext context, int rows) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        UuidV7Generator generator = new UuidV7Generator();
+        LocalDate today = LocalDate.now();
+        List<UUID> ids = new ArrayList<>(rows);
+
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            UUID id = generator.generate();
+            ids.add(id);
+            batch.add(new Object[]{id, "Task " + i, "Seeded by the benchmarks.", Date.valueOf(today.plusDays(i % 365))});
+            if (batch.size() == SEED_BATCH_SIZE || i == rows - 1) {
+                jdbcTemplate.batchUpdate("insert into tb_todos (to_do_id, title, description, due_date) values (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.todolist.benchmarks;
+
+import com.example.todolist.id.RandomUuidGenerator;
+import com.example.todolist.id.ToDoIdGenerator;
+import com.example.todolist.id.UuidV7Generator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of generating one id with each ToDoIdGenerator, including under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    @Param({"random", "v7"})
+    public String scheme;
+
+    private ToDoIdGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = "v7".equals(scheme) ? new UuidV7Generator() : new RandomUuidGenerator();
+    }
+
+    @Benchmark
+    public UUID generate() {
+        return generator.generate();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public UUID generateContended() {
+        return generator.generate();
+    }
+}
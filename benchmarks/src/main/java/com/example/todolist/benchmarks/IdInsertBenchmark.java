@@ -0,0 +1,88 @@
+package com.example.todolist.benchmarks;
+
+import com.example.todolist.id.RandomUuidGenerator;
+import com.example.todolist.id.ToDoIdGenerator;
+import com.example.todolist.id.UuidV7Generator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares batched insert throughput into a uuid primary key index for random (v4) and time ordered (v7) ids.
+ * Runs against a file backed H2 database whose table is prefilled, so that inserts hit a B-tree of realistic depth.
+ * One operation inserts BATCH_SIZE rows as a single JDBC batch and commits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IdInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"random", "v7"})
+    public String scheme;
+
+    @Param({"200000"})
+    public int prefilledRows;
+
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement insert;
+    private ToDoIdGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        generator = "v7".equals(scheme) ? new UuidV7Generator() : new RandomUuidGenerator();
+        directory = Files.createTempDirectory("todo-id-bench");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("todos") + ";MODE=PostgreSQL", "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table tb_todos (to_do_id uuid primary key, title varchar(255), " +
+                    "description varchar(255), due_date date)");
+        }
+        insert = connection.prepareStatement("insert into tb_todos (to_do_id, title, description, due_date) values (?, ?, ?, ?)");
+        for (int i = 0; i < prefilledRows; i += BATCH_SIZE) {
+            insertBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        insert.close();
+        connection.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int[] insertBatch() throws SQLException {
+        Date dueDate = Date.valueOf(LocalDate.now());
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setObject(1, generator.generate());
+            insert.setString(2, "Benchmark task");
+            insert.setString(3, "Inserted by IdInsertBenchmark.");
+            insert.setDate(4, dueDate);
+            insert.addBatch();
+        }
+        int[] counts = insert.executeBatch();
+        connection.commit();
+        return counts;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.todolist.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * JDBC driver adding a fixed delay to every statement execution of an H2 database, standing in for the network
+ * round trip and server time of a remote database, during which the calling thread is blocked on I/O.
+ * URLs have the form {@code jdbc:latency:<millis>:h2:...}; the pool and the bulkhead of the application stay in place.
+ */
+public class LatencyDriver implements Driver {
+
+    private static final String PREFIX = "jdbc:latency:";
+
+    private final Driver h2Driver = new org.h2.Driver();
+
+    /**
+     * Builds the URL of an H2 in-memory database whose statements are delayed.
+     * @param latencyMillis The delay added to each statement execution, in milliseconds.
+     * @param h2Url The H2 URL, starting with jdbc:h2:.
+     * @return The URL to use with this driver.
+     */
+    static String url(long latencyMillis, String h2Url) {
+        return PREFIX + latencyMillis + ":" + h2Url.substring("jdbc:".length());
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        String rest = url.substring(PREFIX.length());
+        int colon = rest.indexOf(':');
+        long latencyMillis = Long.parseLong(rest.substring(0, colon));
+        return delaying(h2Driver.connect("jdbc:" + rest.substring(colon + 1), info), Connection.class, latencyMillis);
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException {
+        return h2Driver.getPropertyInfo(url, info);
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return h2Driver.getMajorVersion();
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return h2Driver.getMinorVersion();
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    /**
+     * Wraps a connection, or a statement it created, so that statement executions are delayed.
+     * @param target The object to wrap.
+     * @param type The JDBC interface of the object.
+     * @param latencyMillis The delay added to each statement execution.
+     * @return The wrapping object.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T delaying(T target, Class<T> type, long latencyMillis) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                Thread.sleep(latencyMillis);
+            }
+            Object result = invoke(method, target, args);
+            if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return delaying(result, (Class<Object>) method.getReturnType(), latencyMillis);
+            }
+            return result;
+        });
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
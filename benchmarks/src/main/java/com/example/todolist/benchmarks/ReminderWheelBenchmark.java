@@ -0,0 +1,92 @@
+package com.example.todolist.benchmarks;
+
+import com.example.todolist.reminder.HierarchicalTimingWheel;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures moving one pending reminder to a new due instant, among 100k and 1M reminders spread over a week, in the
+ * HierarchicalTimingWheel of ToDoReminderScheduler versus one ScheduledThreadPoolExecutor task per reminder; and
+ * one tick of the wheel, rescheduling what expired a week later so that the number of reminders stays the same.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReminderWheelBenchmark {
+
+    private static final long WEEK_MILLIS = Duration.ofDays(7).toMillis();
+    private static final long TICK_MILLIS = 1000;
+
+    @Param({"100000", "1000000"})
+    public int pending;
+
+    private HierarchicalTimingWheel<UUID> wheel;
+    private ScheduledThreadPoolExecutor executor;
+    private ScheduledFuture<?>[] futures;
+    private UUID[] ids;
+    private long now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        now = System.currentTimeMillis();
+        wheel = new HierarchicalTimingWheel<>(Duration.ofMillis(TICK_MILLIS), 64, now);
+        executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        ids = new UUID[pending];
+        futures = new ScheduledFuture<?>[pending];
+        for (int i = 0; i < pending; i++) {
+            ids[i] = UUID.randomUUID();
+            long delay = randomDelay();
+            wheel.schedule(ids[i], now + delay);
+            futures[i] = executor.schedule(() -> { }, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public void rescheduleWheel() {
+        wheel.schedule(ids[ThreadLocalRandom.current().nextInt(pending)], now + randomDelay());
+    }
+
+    @Benchmark
+    public ScheduledFuture<?> rescheduleExecutor() {
+        int i = ThreadLocalRandom.current().nextInt(pending);
+        futures[i].cancel(false);
+        futures[i] = executor.schedule(() -> { }, randomDelay(), TimeUnit.MILLISECONDS);
+        return futures[i];
+    }
+
+    @Benchmark
+    public int tickWheel() {
+        List<UUID> expired = new ArrayList<>();
+        List<Long> deadlines = new ArrayList<>();
+        now += TICK_MILLIS;
+        wheel.advance(now, (id, deadline) -> {
+            expired.add(id);
+            deadlines.add(deadline);
+        });
+        for (int i = 0; i < expired.size(); i++) {
+            wheel.schedule(expired.get(i), deadlines.get(i) + WEEK_MILLIS);
+        }
+        return expired.size();
+    }
+
+    private static long randomDelay() {
+        return ThreadLocalRandom.current().nextLong(TICK_MILLIS, WEEK_MILLIS);
+    }
+}
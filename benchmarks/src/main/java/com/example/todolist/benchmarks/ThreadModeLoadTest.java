@@ -0,0 +1,165 @@
+package com.example.todolist.benchmarks;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test comparing request execution on Tomcat platform threads and on virtual threads.
+ * Starts the application once per mode on a random port against an in-process H2 database whose statements are
+ * delayed by LatencyDriver, as if the database were remote, then drives it with a fixed number of concurrent clients,
+ * each sending its next request as soon as the previous one is answered, or after Retry-After when rejected.
+ * Not a JMH benchmark: run it with {@code java -cp target/benchmarks.jar
+ * com.example.todolist.benchmarks.ThreadModeLoadTest [clients] [seconds] [latencyMillis] [path] [--property=value...]}.
+ * Throughput is computed over the time until the last response, since requests sent just before the end
+ * may be answered long after it.
+ */
+public final class ThreadModeLoadTest {
+
+    private static final int DEFAULT_CLIENTS = 5_000;
+    private static final int DEFAULT_SECONDS = 30;
+    private static final int DEFAULT_LATENCY_MILLIS = 5;
+    private static final String DEFAULT_PATH = "/todos?size=20&links=none";
+    private static final int ROWS = 100_000;
+
+    private ThreadModeLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CLIENTS;
+        Duration duration = Duration.ofSeconds(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SECONDS);
+        int latencyMillis = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_LATENCY_MILLIS;
+        String path = args.length > 3 ? args[3] : DEFAULT_PATH;
+        List<String> properties = args.length > 4 ? List.of(args).subList(4, args.length) : List.of();
+
+        System.out.printf("%d clients, %d s per mode, %d ms per statement, GET %s%n",
+                clients, duration.toSeconds(), latencyMillis, path);
+        System.out.printf("%-9s %10s %10s %9s %9s %9s %9s%n", "mode", "requests", "req/s", "errors", "p50 ms", "p99 ms", "max ms");
+        for (boolean virtual : new boolean[]{false, true}) {
+            Result result = run(virtual, clients, duration, latencyMillis, path, properties);
+            System.out.printf("%-9s %10d %10.0f %9d %9.1f %9.1f %9.1f%n", virtual ? "virtual" : "platform",
+                    result.requests(), result.throughput(), result.errors(),
+                    result.percentile(0.50), result.percentile(0.99), result.percentile(1.0));
+        }
+    }
+
+    /**
+     * Starts the application in one thread mode, warms it up and measures it.
+     * @param virtual Whether requests run on virtual threads.
+     * @param clients The number of concurrent clients.
+     * @param duration The measurement duration.
+     * @param latencyMillis The delay added to each statement execution.
+     * @param path The requested path and query.
+     * @param properties Additional application properties, as --name=value arguments.
+     * @return The measured result.
+     */
+    private static Result run(boolean virtual, int clients, Duration duration, int latencyMillis, String path,
+                              List<String> properties) throws Exception {
+        String database = "load-" + virtual;
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + LatencyDriver.url(latencyMillis, BenchmarkApplication.h2Url(database)),
+                "--spring.datasource.driver-class-name=" + LatencyDriver.class.getName(),
+                "--logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=OFF",
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--spring.jpa.properties.hibernate.generate_statistics=false"));
+        args.addAll(properties);
+        try (ConfigurableApplicationContext context = BenchmarkApplication.start(database, WebApplicationType.SERVLET,
+                args.toArray(String[]::new))) {
+            BenchmarkApplication.seed(context, ROWS);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + path);
+
+            drive(uri, clients, duration.dividedBy(3));
+            return drive(uri, clients, duration);
+        }
+    }
+
+    /**
+     * Sends requests from the given number of clients until the duration is over.
+     * @param uri The requested URI.
+     * @param clients The number of concurrent clients.
+     * @param duration How long the clients keep sending.
+     * @return The latencies of the answered requests, the number of failed ones and the time until the last response.
+     */
+    private static Result drive(URI uri, int clients, Duration duration) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+        LongAdder errors = new LongAdder();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor).build()) {
+            List<Future<long[]>> futures = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    long[] latencies = new long[64];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.increment();
+                                // like a well behaved client, waits as asked by a 503 before sending again
+                                Thread.sleep(Duration.ofSeconds(response.headers()
+                                        .firstValueAsLong("Retry-After").orElse(0)));
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - sent;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+
+            List<long[]> perClient = new ArrayList<>(clients);
+            for (Future<long[]> future : futures) {
+                perClient.add(future.get());
+            }
+            long[] latencies = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            return new Result(latencies, errors.sum(), Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Latencies of the answered requests, sorted, number of failed requests and time until the last response.
+     */
+    private record Result(long[] latencies, long errors, Duration elapsed) {
+
+        long requests() {
+            return latencies.length;
+        }
+
+        double throughput() {
+            return latencies.length / (elapsed.toNanos() / 1_000_000_000.0);
+        }
+
+        double percentile(double percentile) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(percentile * latencies.length) - 1);
+            return latencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
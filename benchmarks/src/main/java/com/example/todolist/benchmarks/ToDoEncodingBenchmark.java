@@ -0,0 +1,114 @@
+package com.example.todolist.benchmarks;
+
+import com.example.todolist.codec.ToDoCborHttpMessageConverter;
+import com.example.todolist.codec.ToDoProtobufHttpMessageConverter;
+import com.example.todolist.codec.ToDoSmileHttpMessageConverter;
+import com.example.todolist.dtos.ToDoResponseDto;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.luben.zstd.Zstd;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Measures the encoding of a default sized list page of _ToDo_ responses with the message converters of the
+ * application, in each negotiable format, followed by the response compression.
+ * The setup prints the payload size of every format, raw and compressed, once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToDoEncodingBenchmark {
+
+    private static final String PREFIX = "http://localhost:8080/todos/";
+    private static final int PAGE_SIZE = 100;
+    private static final int ZSTD_LEVEL = 3;
+
+    @Param({"json-links", "json", "cbor", "smile", "protobuf"})
+    public String format;
+
+    @Param({"none", "gzip", "zstd"})
+    public String compression;
+
+    private GenericHttpMessageConverter<Object> converter;
+    private MediaType mediaType;
+    private List<?> page;
+
+    @Setup
+    public void setUp() {
+        List<ToDoResponseDto> responses = new ArrayList<>(PAGE_SIZE);
+        List<EntityModel<ToDoResponseDto>> models = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            UUID id = UUID.randomUUID();
+            ToDoResponseDto response = new ToDoResponseDto(id, "Task " + i, "Encoded by the benchmarks.",
+                    LocalDate.now().plusDays(i % 30));
+            responses.add(response);
+            models.add(EntityModel.of(response, Link.of(PREFIX + id, IanaLinkRelations.SELF)));
+        }
+
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        page = "json-links".equals(format) ? models : responses;
+        converter = switch (format) {
+            case "json-links", "json" -> new MappingJackson2HttpMessageConverter(builder.build());
+            case "cbor" -> new ToDoCborHttpMessageConverter(builder);
+            case "smile" -> new ToDoSmileHttpMessageConverter(builder);
+            case "protobuf" -> new ToDoProtobufHttpMessageConverter();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        mediaType = converter.getSupportedMediaTypes().get(0);
+
+        byte[] raw = encodePage();
+        System.out.printf("%n%s: %d bytes, gzip %d bytes, zstd %d bytes%n", format, raw.length,
+                gzip(raw).length, Zstd.compress(raw, ZSTD_LEVEL).length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        byte[] raw = encodePage();
+        return switch (compression) {
+            case "gzip" -> gzip(raw);
+            case "zstd" -> Zstd.compress(raw, ZSTD_LEVEL);
+            default -> raw;
+        };
+    }
+
+    private byte[] encodePage() {
+        try {
+            MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+            converter.write(page, List.class, mediaType, outputMessage);
+            return outputMessage.getBodyAsBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.todolist.benchmarks;
+
+import com.example.todolist.dtos.ToDoMapper;
+import com.example.todolist.dtos.ToDoRecordDto;
+import com.example.todolist.dtos.ToDoResponseDto;
+import com.example.todolist.entity.ToDo;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.BeanUtils;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reflective BeanUtils.copyProperties with the hand written ToDoMapper, for the mappings the controller
+ * used to do with BeanUtils (creation and update from a ToDoRecordDto) and for building responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToDoMappingBenchmark {
+
+    private ToDoRecordDto toDoRecord;
+    private ToDo toDo;
+
+    @Setup
+    public void setUp() {
+        toDoRecord = new ToDoRecordDto("Task 1.", "Mapped by the benchmarks.", LocalDate.now());
+        toDo = ToDoMapper.toEntity(UUID.randomUUID(), toDoRecord);
+    }
+
+    @Benchmark
+    public ToDo beanUtilsToEntity() {
+        var mapped = new ToDo();
+        BeanUtils.copyProperties(toDoRecord, mapped);
+        return mapped;
+    }
+
+    @Benchmark
+    public ToDo mapperToEntity() {
+        return ToDoMapper.toEntity(toDoRecord);
+    }
+
+    @Benchmark
+    public ToDo beanUtilsUpdateEntity() {
+        BeanUtils.copyProperties(toDoRecord, toDo);
+        return toDo;
+    }
+
+    @Benchmark
+    public ToDo mapperUpdateEntity() {
+        return ToDoMapper.toEntity(toDo.getToDoId(), toDoRecord);
+    }
+
+    @Benchmark
+    public ToDoResponseDto mapperToResponse() {
+        return ToDoMapper.toResponse(toDo);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.todolist.benchmarks;
+
+import com.example.todolist.dtos.ToDoResponseDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Jackson serialization of _ToDo_ responses with and without their HATEOAS "self" links,
+ * for a single record and for a default sized list page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ToDoSerializationBenchmark {
+
+    private static final String PREFIX = "http://localhost:8080/todos/";
+    private static final int PAGE_SIZE = 100;
+
+    private ObjectMapper objectMapper;
+    private ToDoResponseDto toDo;
+    private EntityModel<ToDoResponseDto> toDoModel;
+    private List<ToDoResponseDto> page;
+    private List<EntityModel<ToDoResponseDto>> pageModels;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        page = new ArrayList<>(PAGE_SIZE);
+        pageModels = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            UUID id = UUID.randomUUID();
+            ToDoResponseDto response = new ToDoResponseDto(id, "Task " + i, "Serialized by the benchmarks.", LocalDate.now());
+            page.add(response);
+            pageModels.add(EntityModel.of(response, Link.of(PREFIX + id, IanaLinkRelations.SELF)));
+        }
+        toDo = page.get(0);
+        toDoModel = pageModels.get(0);
+    }
+
+    @Benchmark
+    public byte[] single() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(toDo);
+    }
+
+    @Benchmark
+    public byte[] singleWithLinks() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(toDoModel);
+    }
+
+    @Benchmark
+    public byte[] page() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] pageWithLinks() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pageModels);
+    }
+}
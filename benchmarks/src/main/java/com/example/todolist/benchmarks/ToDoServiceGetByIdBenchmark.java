@@ -0,0 +1,58 @@
+package com.example.todolist.benchmarks;
+
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.service.ToDoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ToDoService.getById when served from the cache (hot) and from the database (cold).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ToDoServiceGetByIdBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int HOT_IDS = 100;
+
+    private ConfigurableApplicationContext context;
+    private ToDoService service;
+    private CacheManager cacheManager;
+    private List<UUID> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("get-by-id");
+        ids = BenchmarkApplication.seed(context, ROWS);
+        service = context.getBean(ToDoService.class);
+        cacheManager = context.getBean(CacheManager.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<ToDo> hot() {
+        return service.getById(ids.get(ThreadLocalRandom.current().nextInt(HOT_IDS)));
+    }
+
+    @Benchmark
+    public Optional<ToDo> cold() {
+        UUID id = ids.get(ThreadLocalRandom.current().nextInt(ROWS));
+        cacheManager.getCache(ToDoService.CACHE_NAME).evict(id);
+        return service.getById(id);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.todolist.benchmarks;
+
+import com.example.todolist.dtos.ToDoCursor;
+import com.example.todolist.dtos.ToDoPage;
+import com.example.todolist.service.ToDoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ToDoService.getList against tables of growing size.
+ * With keyset pagination the cost of a page, first or deep, should not depend on the table size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ToDoServiceListBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"100"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ToDoService service;
+    private ToDoCursor middle;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("list-" + rows);
+        BenchmarkApplication.seed(context, rows);
+        service = context.getBean(ToDoService.class);
+
+        // walks to the middle of the table once, to benchmark a deep page
+        ToDoPage page = service.getList(null, ToDoService.MAX_PAGE_SIZE);
+        for (int seen = page.content().size(); seen < rows / 2 && page.hasNext(); seen += page.content().size()) {
+            page = service.getList(page.next(), ToDoService.MAX_PAGE_SIZE);
+        }
+        middle = page.next();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ToDoPage firstPage() {
+        return service.getList(null, pageSize);
+    }
+
+    @Benchmark
+    public ToDoPage deepPage() {
+        return service.getList(middle, pageSize);
+    }
+}
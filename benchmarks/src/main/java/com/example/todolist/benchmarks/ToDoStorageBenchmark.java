@@ -0,0 +1,127 @@
+package com.example.todolist.benchmarks;
+
+import com.example.todolist.dtos.ToDoFilter;
+import com.example.todolist.dtos.ToDoPage;
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.service.ToDoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ToDoService on JPA over the in-memory H2 database against the embedded store of the "embedded" profile,
+ * with and without forcing each commit to disk.
+ * Reads by id evict the cache first, so they reach the store.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ToDoStorageBenchmark {
+
+    private static final int SEED_CHUNK_SIZE = 1000;
+
+    @Param({"jpa", "embedded", "embedded-fsync"})
+    public String storage;
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private ToDoService service;
+    private CacheManager cacheManager;
+    private List<UUID> ids;
+    private Path directory;
+    private ToDoFilter textFilter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (storage.equals("jpa")) {
+            context = BenchmarkApplication.start("storage-" + rows);
+        } else {
+            directory = Files.createTempDirectory("todo-storage-benchmark");
+            context = BenchmarkApplication.start("storage-" + rows, WebApplicationType.NONE,
+                    "--spring.profiles.active=embedded",
+                    "--todo.storage.embedded.directory=" + directory,
+                    "--todo.storage.embedded.fsync=" + storage.equals("embedded-fsync"));
+        }
+        service = context.getBean(ToDoService.class);
+        cacheManager = context.getBean(CacheManager.class);
+
+        // seeded through the service, so that both stores are filled by their own write path
+        LocalDate today = LocalDate.now();
+        ids = new ArrayList<>(rows);
+        for (int from = 0; from < rows; from += SEED_CHUNK_SIZE) {
+            List<ToDo> chunk = new ArrayList<>(SEED_CHUNK_SIZE);
+            for (int i = from; i < Math.min(from + SEED_CHUNK_SIZE, rows); i++) {
+                chunk.add(newToDo("Task " + i, today.plusDays(i % 365)));
+            }
+            service.saveAll(chunk).forEach(toDo -> ids.add(toDo.getToDoId()));
+        }
+        textFilter = ToDoFilter.of(null, null, null, null, "task 12", today);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        if (directory != null) {
+            FileSystemUtils.deleteRecursively(directory.toFile());
+        }
+    }
+
+    @Benchmark
+    public Optional<ToDo> getById() {
+        UUID id = randomId();
+        cacheManager.getCache(ToDoService.CACHE_NAME).evict(id);
+        return service.getById(id);
+    }
+
+    @Benchmark
+    public ToDoPage firstPage() {
+        return service.getList(null, 100);
+    }
+
+    @Benchmark
+    public ToDoPage textSearch() {
+        return service.getList(textFilter, null, 100);
+    }
+
+    @Benchmark
+    public Optional<ToDo> update() {
+        ToDo toDo = newToDo("Updated " + ThreadLocalRandom.current().nextInt(), LocalDate.now());
+        toDo.setToDoId(randomId());
+        return service.update(toDo, null);
+    }
+
+    @Benchmark
+    public ToDo create() {
+        return service.save(newToDo("Created", LocalDate.now()));
+    }
+
+    private UUID randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private static ToDo newToDo(String title, LocalDate dueDate) {
+        ToDo toDo = new ToDo();
+        toDo.setTitle(title);
+        toDo.setDescription("Seeded by the benchmarks.");
+        toDo.setDueDate(dueDate);
+        return toDo;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.todolist.benchmarks;
+
+import com.example.todolist.controller.ToDoController;
+import com.example.todolist.controller.ValidationExceptionHandler;
+import com.example.todolist.dtos.ToDoRecordDto;
+import com.example.todolist.metrics.ToDoMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of rejecting an invalid _ToDo_: bean validation of the body, then the error response built by
+ * ValidationExceptionHandler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationErrorPathBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private ValidationExceptionHandler handler;
+    private ToDoRecordDto invalidRecord;
+    private MethodArgumentNotValidException exception;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        handler = new ValidationExceptionHandler(new ToDoMetrics(new SimpleMeterRegistry()));
+        invalidRecord = new ToDoRecordDto("", "", null);
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(invalidRecord, "toDoRecordDto");
+        bindingResult.addError(new FieldError("toDoRecordDto", "title", "must not be blank"));
+        bindingResult.addError(new FieldError("toDoRecordDto", "description", "must not be blank"));
+        bindingResult.addError(new FieldError("toDoRecordDto", "dueDate", "must not be null"));
+        MethodParameter parameter = new MethodParameter(
+                ToDoController.class.getMethod("createToDo", ToDoRecordDto.class), 0);
+        exception = new MethodArgumentNotValidException(parameter, bindingResult);
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("POST", "/todos")));
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ToDoRecordDto>> validate() {
+        return validator.validate(invalidRecord);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> handleValidationException() {
+        return handler.handleValidationExceptions(exception);
+    }
+}
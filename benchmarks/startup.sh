@@ -0,0 +1,80 @@
+#!/usr/bin/env bash
+# Startup time and resident memory of the application on the JVM, on the JVM with a CDS archive, and as a native image.
+#
+#   mvn -Pcds package -DskipTests                 # target/cds, for the jvm and cds modes
+#   mvn -Pnative native:compile -DskipTests       # target/to-do-list, for the native mode (GraalVM)
+#   benchmarks/startup.sh [runs=5] [modes="jvm cds native"] [-- application arguments...]
+#
+# Each run starts the application, waits for "Started ToDoListApplication", reads the "process running for" time
+# Spring Boot logs and the resident set size, then stops it; the median of the runs is printed per mode.
+# The cds mode records the archive with a training run first (-Dspring.context.exit=onRefresh), if it is missing.
+# All modes connect to the database configured for the application, which must be reachable; arguments after --
+# are passed to the application, and EXTRA_CLASSPATH is added to the JVM class path (e.g. a JDBC driver).
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+runs=${1:-5}
+modes=${2:-jvm cds native}
+shift $(( $# > 2 ? 2 : $# ))
+[[ ${1:-} == -- ]] && shift
+app_args=("$@")
+
+jar=$(ls target/cds/*-cds.jar 2>/dev/null | head -1 || true)
+classpath=${jar}${EXTRA_CLASSPATH:+:$EXTRA_CLASSPATH}
+archive=target/cds/application.jsa
+main=com.example.todolist.ToDoListApplication
+log=$(mktemp)
+trap 'rm -f "$log"' EXIT
+
+command_of() {
+  case $1 in
+    jvm) echo java -cp "$classpath" "$main" ;;
+    cds) echo java -XX:SharedArchiveFile="$archive" -Xlog:cds=off -cp "$classpath" "$main" ;;
+    native) echo target/to-do-list ;;
+  esac
+}
+
+available() {
+  case $1 in
+    jvm|cds) [[ -n $jar ]] || { echo "$1: skipped, run mvn -Pcds package first" >&2; return 1; } ;;
+    native) [[ -x target/to-do-list ]] || { echo "native: skipped, run mvn -Pnative native:compile first" >&2; return 1; } ;;
+    *) echo "$1: unknown mode" >&2; return 1 ;;
+  esac
+}
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+run_once() {
+  $(command_of "$1") "${app_args[@]}" > "$log" 2>&1 &
+  local pid=$! started=""
+  for _ in $(seq 1 1200); do
+    started=$(grep -o 'process running for [0-9.]*' "$log" | grep -o '[0-9.]*$' || true)
+    [[ -n $started ]] && break
+    kill -0 "$pid" 2>/dev/null || { cat "$log" >&2; echo "$1: application exited before it started" >&2; exit 1; }
+    sleep 0.1
+  done
+  [[ -n $started ]] || { kill "$pid"; echo "$1: no startup within 120 s" >&2; exit 1; }
+  local rss_kb
+  rss_kb=$(awk '/VmRSS/ { print $2 }' "/proc/$pid/status")
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "$started $rss_kb"
+}
+
+printf '%-8s %12s %10s\n' mode startup_s rss_mb
+for mode in $modes; do
+  available "$mode" || continue
+  if [[ $mode == cds && ! -f $archive ]]; then
+    java -XX:ArchiveClassesAtExit="$archive" -Dspring.context.exit=onRefresh -Xlog:cds=off -cp "$classpath" "$main" \
+      "${app_args[@]}" > "$log" 2>&1 || { cat "$log" >&2; echo "cds: training run failed" >&2; continue; }
+  fi
+  results=()
+  for _ in $(seq 1 "$runs"); do
+    results+=("$(run_once "$mode")")
+  done
+  startup=$(printf '%s\n' "${results[@]}" | awk '{ print $1 }' | median)
+  rss=$(printf '%s\n' "${results[@]}" | awk '{ print $2 / 1024 }' | median)
+  printf '%-8s %12.2f %10.0f\n' "$mode" "$startup" "$rss"
+done
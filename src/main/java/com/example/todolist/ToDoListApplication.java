@@ -2,7 +2,14 @@ package com.example.todolist;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE) // cache hits must not open a transaction
+@EnableScheduling // outbox relay, statistics, reminders, partitions and embedded store compaction
+@ImportRuntimeHints(ToDoRuntimeHints.class) // for the native image
 @SpringBootApplication
 public class ToDoListApplication {
 
@@ -0,0 +1,52 @@
+package com.example.todolist;
+
+import com.example.todolist.controller.ToDoController;
+import com.example.todolist.controller.ToDoEventController;
+import com.example.todolist.controller.ValidationExceptionHandler;
+import com.example.todolist.dtos.ToDoBatchResultDto;
+import com.example.todolist.dtos.ToDoBatchUpdateDto;
+import com.example.todolist.dtos.ToDoRecordDto;
+import com.example.todolist.dtos.ToDoResponseDto;
+import com.example.todolist.dtos.ToDoStatsDto;
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.events.ToDoChangeEvent;
+import com.example.todolist.id.ToDoIdAssigner;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import java.sql.Connection;
+
+/**
+ * Hints for the native image of what Spring AOT cannot infer from the bean definitions.
+ * <ul>
+ *     <li>JSON binding of the _ToDo_ entity and DTOs, including those serialized by the change feed and the
+ *     outbox through the ObjectMapper rather than by a controller.</li>
+ *     <li>The Swagger annotations of the controllers, read by springdoc; springdoc and Spring HATEOAS register
+ *     hints for their own types.</li>
+ *     <li>The JPA callback of ToDoIdAssigner, invoked reflectively by Hibernate.</li>
+ *     <li>The Flyway migrations, which live in vendor folders below db/migration and db/partitioning.</li>
+ *     <li>The Protocol Buffers schema served at /todo.proto.</li>
+ *     <li>The JDK proxies of connections created by ConnectionBulkhead and LazyConnectionDataSourceProxy.</li>
+ * </ul>
+ */
+public class ToDoRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                ToDo.class, ToDoRecordDto.class, ToDoResponseDto.class, ToDoBatchUpdateDto.class,
+                ToDoBatchResultDto.class, ToDoStatsDto.class, ToDoChangeEvent.class);
+        for (Class<?> controller : new Class<?>[]{ToDoController.class, ToDoEventController.class, ValidationExceptionHandler.class}) {
+            hints.reflection().registerType(controller, MemberCategory.INTROSPECT_PUBLIC_METHODS);
+        }
+        hints.reflection().registerType(ToDoIdAssigner.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.resources().registerPattern("db/migration/*/*.sql");
+        hints.resources().registerPattern("db/partitioning/*/*.sql");
+        hints.resources().registerPattern("static/todo.proto");
+        hints.proxies().registerJdkProxy(Connection.class);
+        hints.proxies().registerJdkProxy(ConnectionProxy.class);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.todolist.codec;
+
+import com.example.todolist.dtos.ToDoRecordDto;
+import com.example.todolist.dtos.ToDoResponseDto;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base of the converters of _ToDo_ records to and from a compact binary encoding.
+ * <p>
+ * They only handle the bodies of the _ToDo_ endpoints: ToDoRecordDto request bodies, and ToDoResponseDto responses,
+ * alone, wrapped in an EntityModel or in a list page. The HATEOAS links of the EntityModel are left out, the next
+ * page of a list stays linked in the Link header. Any other body, such as an error, is left to the converters of
+ * Spring, so a client only accepting the binary encoding may get 406 Not Acceptable instead of the error body.
+ */
+public abstract class ToDoBinaryHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    /**
+     * Constructs a ToDoBinaryHttpMessageConverter for the specified media type.
+     * @param mediaType The media type of the encoding.
+     */
+    protected ToDoBinaryHttpMessageConverter(MediaType mediaType) {
+        super(mediaType);
+    }
+
+    /**
+     * Writes a _ToDo_ record.
+     * @param toDo The _ToDo_ record.
+     * @param outputStream The response body, left open.
+     * @throws IOException if the body cannot be written.
+     */
+    protected abstract void writeToDo(ToDoResponseDto toDo, OutputStream outputStream) throws IOException;
+
+    /**
+     * Writes a page of _ToDo_ records.
+     * @param toDos The _ToDo_ records.
+     * @param outputStream The response body, left open.
+     * @throws IOException if the body cannot be written.
+     */
+    protected abstract void writeToDoList(List<ToDoResponseDto> toDos, OutputStream outputStream) throws IOException;
+
+    /**
+     * Reads a _ToDo_ record sent to be created or updated.
+     * @param inputStream The request body.
+     * @return The _ToDo_ record.
+     * @throws IOException if the body cannot be read or is not a valid encoding of the record.
+     */
+    protected abstract ToDoRecordDto readRecord(InputStream inputStream) throws IOException;
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == ToDoRecordDto.class || isWritable(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return clazz == ToDoRecordDto.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return type == ToDoRecordDto.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return isWritable(clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readInternal(ToDoRecordDto.class, inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return readRecord(inputMessage.getBody());
+        } catch (IOException ex) {
+            throw new HttpMessageNotReadableException("Invalid ToDo record: " + ex.getMessage(), ex, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (body instanceof List<?> list) {
+            List<ToDoResponseDto> toDos = new ArrayList<>(list.size());
+            for (Object element : list) {
+                toDos.add(toResponse(element));
+            }
+            writeToDoList(toDos, outputMessage.getBody());
+        } else {
+            writeToDo(toResponse(body), outputMessage.getBody());
+        }
+    }
+
+    private ToDoResponseDto toResponse(Object body) {
+        if (body instanceof ToDoResponseDto toDo) {
+            return toDo;
+        }
+        if (body instanceof EntityModel<?> model && model.getContent() instanceof ToDoResponseDto toDo) {
+            return toDo;
+        }
+        throw new HttpMessageNotWritableException("Cannot write " + (body == null ? null : body.getClass().getName())
+                + " as " + getSupportedMediaTypes().get(0));
+    }
+
+    private static boolean isWritable(Class<?> clazz) {
+        return clazz == ToDoResponseDto.class || EntityModel.class.isAssignableFrom(clazz)
+                || List.class.isAssignableFrom(clazz);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.todolist.codec;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Converter of _ToDo_ records to and from CBOR, configured like the JSON ObjectMapper of the application.
+ */
+@Component
+@Profile("!reactive")
+public class ToDoCborHttpMessageConverter extends ToDoJacksonBinaryHttpMessageConverter {
+
+    /**
+     * Constructs a ToDoCborHttpMessageConverter with the specified Jackson2ObjectMapperBuilder.
+     * @param objectMapperBuilder The builder of the application ObjectMapper.
+     */
+    public ToDoCborHttpMessageConverter(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        super(objectMapperBuilder.factory(new CBORFactory()).build(), ToDoMediaTypes.APPLICATION_CBOR);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.todolist.codec;
+
+import com.example.todolist.dtos.ToDoRecordDto;
+import com.example.todolist.dtos.ToDoResponseDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Converter of _ToDo_ records to and from a binary format of Jackson.
+ * The writers and the reader are built once for their fixed types, so their serializers are looked up when the
+ * converter is created rather than on every request.
+ */
+public abstract class ToDoJacksonBinaryHttpMessageConverter extends ToDoBinaryHttpMessageConverter {
+
+    private final ObjectWriter toDoWriter;
+    private final ObjectWriter toDoListWriter;
+    private final ObjectReader recordReader;
+
+    /**
+     * Constructs a ToDoJacksonBinaryHttpMessageConverter with the specified ObjectMapper.
+     * @param objectMapper The ObjectMapper of the binary format.
+     * @param mediaType The media type of the binary format.
+     */
+    protected ToDoJacksonBinaryHttpMessageConverter(ObjectMapper objectMapper, MediaType mediaType) {
+        super(mediaType);
+        this.toDoWriter = objectMapper.writerFor(ToDoResponseDto.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.toDoListWriter = objectMapper.writerFor(new TypeReference<List<ToDoResponseDto>>() {})
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.recordReader = objectMapper.readerFor(ToDoRecordDto.class);
+    }
+
+    @Override
+    protected void writeToDo(ToDoResponseDto toDo, OutputStream outputStream) throws IOException {
+        toDoWriter.writeValue(outputStream, toDo);
+    }
+
+    @Override
+    protected void writeToDoList(List<ToDoResponseDto> toDos, OutputStream outputStream) throws IOException {
+        toDoListWriter.writeValue(outputStream, toDos);
+    }
+
+    @Override
+    protected ToDoRecordDto readRecord(InputStream inputStream) throws IOException {
+        return recordReader.readValue(inputStream);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.todolist.codec;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Media types of the compact encodings of _ToDo_ records, negotiated next to JSON through the Accept and
+ * Content-Type headers.
+ */
+public final class ToDoMediaTypes {
+
+    /**
+     * CBOR, the binary form of the JSON document.
+     */
+    public static final String APPLICATION_CBOR_VALUE = MediaType.APPLICATION_CBOR_VALUE;
+
+    /**
+     * Smile, the binary JSON format of Jackson, which also shares repeated property names.
+     */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    /**
+     * Protocol Buffers, with the messages of todo.proto.
+     */
+    public static final String APPLICATION_PROTOBUF_VALUE = "application/x-protobuf";
+
+    /**
+     * CBOR media type.
+     */
+    public static final MediaType APPLICATION_CBOR = MediaType.APPLICATION_CBOR;
+
+    /**
+     * Smile media type.
+     */
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    /**
+     * Protocol Buffers media type.
+     */
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.parseMediaType(APPLICATION_PROTOBUF_VALUE);
+
+    private ToDoMediaTypes() {
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.todolist.codec;
+
+import com.example.todolist.dtos.ToDoRecordDto;
+import com.example.todolist.dtos.ToDoResponseDto;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Encodes and decodes _ToDo_ records as the Protocol Buffers messages of todo.proto.
+ * <p>
+ * The messages are written field by field with CodedOutputStream, straight from the DTOs, rather than through
+ * classes generated by protoc, so that no intermediate message objects are built. Fields left at their proto3
+ * default are not written, and unknown fields are skipped when reading, so clients built from a newer schema
+ * keep working.
+ */
+public final class ToDoProtobufCodec {
+
+    // ToDo
+    private static final int TO_DO_ID = 1;
+    private static final int TITLE = 2;
+    private static final int DESCRIPTION = 3;
+    private static final int DUE_DATE = 4;
+    // ToDoList
+    private static final int TODOS = 1;
+    // ToDoRecord
+    private static final int RECORD_TITLE = 1;
+    private static final int RECORD_DESCRIPTION = 2;
+    private static final int RECORD_DUE_DATE = 3;
+
+    private static final int UUID_SIZE = 16;
+
+    private ToDoProtobufCodec() {
+    }
+
+    /**
+     * Writes a _ToDo_ record as a ToDo message.
+     * @param toDo The _ToDo_ record.
+     * @param outputStream The stream written to, left open.
+     * @throws IOException if the stream cannot be written.
+     */
+    public static void writeToDo(ToDoResponseDto toDo, OutputStream outputStream) throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(outputStream);
+        writeToDoFields(toDo, output);
+        output.flush();
+    }
+
+    /**
+     * Writes _ToDo_ records as a ToDoList message.
+     * @param toDos The _ToDo_ records.
+     * @param outputStream The stream written to, left open.
+     * @throws IOException if the stream cannot be written.
+     */
+    public static void writeToDoList(List<ToDoResponseDto> toDos, OutputStream outputStream) throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(outputStream);
+        for (ToDoResponseDto toDo : toDos) {
+            output.writeTag(TODOS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(toDoSize(toDo));
+            writeToDoFields(toDo, output);
+        }
+        output.flush();
+    }
+
+    /**
+     * Writes a _ToDo_ record as a ToDoRecord message.
+     * @param toDoRecord The _ToDo_ record.
+     * @param outputStream The stream written to, left open.
+     * @throws IOException if the stream cannot be written.
+     */
+    public static void writeRecord(ToDoRecordDto toDoRecord, OutputStream outputStream) throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(outputStream);
+        writeString(RECORD_TITLE, toDoRecord.title(), output);
+        writeString(RECORD_DESCRIPTION, toDoRecord.description(), output);
+        if (toDoRecord.dueDate() != null) {
+            output.writeSInt32(RECORD_DUE_DATE, Math.toIntExact(toDoRecord.dueDate().toEpochDay()));
+        }
+        output.flush();
+    }
+
+    /**
+     * Reads a ToDo message.
+     * @param inputStream The stream holding the message, and nothing after it.
+     * @return The _ToDo_ record.
+     * @throws IOException if the stream cannot be read or does not hold a valid message.
+     */
+    public static ToDoResponseDto readToDo(InputStream inputStream) throws IOException {
+        return readToDo(CodedInputStream.newInstance(inputStream));
+    }
+
+    /**
+     * Reads a ToDoList message.
+     * @param inputStream The stream holding the message, and nothing after it.
+     * @return The _ToDo_ records.
+     * @throws IOException if the stream cannot be read or does not hold a valid message.
+     */
+    public static List<ToDoResponseDto> readToDoList(InputStream inputStream) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(inputStream);
+        List<ToDoResponseDto> toDos = new ArrayList<>();
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (tag == tag(TODOS, WireFormat.WIRETYPE_LENGTH_DELIMITED)) {
+                int limit = input.pushLimit(input.readRawVarint32());
+                toDos.add(readToDo(input));
+                input.popLimit(limit);
+            } else if (!input.skipField(tag)) {
+                break;
+            }
+        }
+        return toDos;
+    }
+
+    /**
+     * Reads a ToDoRecord message.
+     * @param inputStream The stream holding the message, and nothing after it.
+     * @return The _ToDo_ record, with empty strings for a missing title or description.
+     * @throws IOException if the stream cannot be read or does not hold a valid message.
+     */
+    public static ToDoRecordDto readRecord(InputStream inputStream) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(inputStream);
+        String title = "";
+        String description = "";
+        LocalDate dueDate = null;
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (tag == tag(RECORD_TITLE, WireFormat.WIRETYPE_LENGTH_DELIMITED)) {
+                title = input.readStringRequireUtf8();
+            } else if (tag == tag(RECORD_DESCRIPTION, WireFormat.WIRETYPE_LENGTH_DELIMITED)) {
+                description = input.readStringRequireUtf8();
+            } else if (tag == tag(RECORD_DUE_DATE, WireFormat.WIRETYPE_VARINT)) {
+                dueDate = LocalDate.ofEpochDay(input.readSInt32());
+            } else if (!input.skipField(tag)) {
+                break;
+            }
+        }
+        return new ToDoRecordDto(title, description, dueDate);
+    }
+
+    private static ToDoResponseDto readToDo(CodedInputStream input) throws IOException {
+        UUID toDoId = null;
+        String title = "";
+        String description = "";
+        LocalDate dueDate = null;
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (tag == tag(TO_DO_ID, WireFormat.WIRETYPE_LENGTH_DELIMITED)) {
+                ByteBuffer id = input.readByteBuffer();
+                toDoId = id.remaining() == UUID_SIZE ? new UUID(id.getLong(), id.getLong()) : null;
+            } else if (tag == tag(TITLE, WireFormat.WIRETYPE_LENGTH_DELIMITED)) {
+                title = input.readStringRequireUtf8();
+            } else if (tag == tag(DESCRIPTION, WireFormat.WIRETYPE_LENGTH_DELIMITED)) {
+                description = input.readStringRequireUtf8();
+            } else if (tag == tag(DUE_DATE, WireFormat.WIRETYPE_VARINT)) {
+                dueDate = LocalDate.ofEpochDay(input.readSInt32());
+            } else if (!input.skipField(tag)) {
+                break;
+            }
+        }
+        return new ToDoResponseDto(toDoId, title, description, dueDate);
+    }
+
+    private static void writeToDoFields(ToDoResponseDto toDo, CodedOutputStream output) throws IOException {
+        if (toDo.toDoId() != null) {
+            output.writeTag(TO_DO_ID, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(UUID_SIZE);
+            output.writeRawBytes(ByteBuffer.allocate(UUID_SIZE)
+                    .putLong(toDo.toDoId().getMostSignificantBits())
+                    .putLong(toDo.toDoId().getLeastSignificantBits())
+                    .flip());
+        }
+        writeString(TITLE, toDo.title(), output);
+        writeString(DESCRIPTION, toDo.description(), output);
+        if (toDo.dueDate() != null) {
+            output.writeSInt32(DUE_DATE, Math.toIntExact(toDo.dueDate().toEpochDay()));
+        }
+    }
+
+    private static int toDoSize(ToDoResponseDto toDo) {
+        int size = 0;
+        if (toDo.toDoId() != null) {
+            size += CodedOutputStream.computeTagSize(TO_DO_ID) + CodedOutputStream.computeUInt32SizeNoTag(UUID_SIZE)
+                    + UUID_SIZE;
+        }
+        size += stringSize(TITLE, toDo.title());
+        size += stringSize(DESCRIPTION, toDo.description());
+        if (toDo.dueDate() != null) {
+            size += CodedOutputStream.computeSInt32Size(DUE_DATE, Math.toIntExact(toDo.dueDate().toEpochDay()));
+        }
+        return size;
+    }
+
+    private static int tag(int fieldNumber, int wireType) {
+        return fieldNumber << 3 | wireType;
+    }
+
+    private static void writeString(int fieldNumber, String value, CodedOutputStream output) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            output.writeString(fieldNumber, value);
+        }
+    }
+
+    private static int stringSize(int fieldNumber, String value) {
+        return value != null && !value.isEmpty() ? CodedOutputStream.computeStringSize(fieldNumber, value) : 0;
+    }
+}
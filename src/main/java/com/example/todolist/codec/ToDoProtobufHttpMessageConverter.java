@@ -0,0 +1,42 @@
+package com.example.todolist.codec;
+
+import com.example.todolist.dtos.ToDoRecordDto;
+import com.example.todolist.dtos.ToDoResponseDto;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Converter of _ToDo_ records to and from the Protocol Buffers messages of todo.proto: ToDo for a single record,
+ * ToDoList for a page and ToDoRecord for request bodies.
+ */
+@Component
+@Profile("!reactive")
+public class ToDoProtobufHttpMessageConverter extends ToDoBinaryHttpMessageConverter {
+
+    /**
+     * Constructs a ToDoProtobufHttpMessageConverter.
+     */
+    public ToDoProtobufHttpMessageConverter() {
+        super(ToDoMediaTypes.APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected void writeToDo(ToDoResponseDto toDo, OutputStream outputStream) throws IOException {
+        ToDoProtobufCodec.writeToDo(toDo, outputStream);
+    }
+
+    @Override
+    protected void writeToDoList(List<ToDoResponseDto> toDos, OutputStream outputStream) throws IOException {
+        ToDoProtobufCodec.writeToDoList(toDos, outputStream);
+    }
+
+    @Override
+    protected ToDoRecordDto readRecord(InputStream inputStream) throws IOException {
+        return ToDoProtobufCodec.readRecord(inputStream);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.todolist.codec;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Converter of _ToDo_ records to and from Smile, configured like the JSON ObjectMapper of the application.
+ */
+@Component
+@Profile("!reactive")
+public class ToDoSmileHttpMessageConverter extends ToDoJacksonBinaryHttpMessageConverter {
+
+    /**
+     * Constructs a ToDoSmileHttpMessageConverter with the specified Jackson2ObjectMapperBuilder.
+     * @param objectMapperBuilder The builder of the application ObjectMapper.
+     */
+    public ToDoSmileHttpMessageConverter(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        super(objectMapperBuilder.factory(new SmileFactory()).build(), ToDoMediaTypes.APPLICATION_SMILE);
+    }
+}
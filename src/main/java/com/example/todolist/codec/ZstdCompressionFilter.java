@@ -0,0 +1,336 @@
+package com.example.todolist.codec;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Filter compressing responses with zstd for clients sending "zstd" in Accept-Encoding, alongside the gzip
+ * compression of the server, which backs off once Content-Encoding is set.
+ * <p>
+ * It follows the server.compression properties: only responses of server.compression.mime-types are compressed,
+ * and only once their body exceeds server.compression.min-response-size. Their body is buffered up to that size,
+ * even when flushed, and a response completed before reaching it is sent unchanged. Streamed responses, such as the NDJSON
+ * export, are compressed as they are written and the frame is ended when their asynchronous dispatch completes.
+ * <p>
+ * Like the gzip compression of Tomcat, it makes the strong ETag of a compressed response weak, as the compressed
+ * body is not the byte-for-byte representation the ETag was built for; If-None-Match still matches it, since it
+ * compares ETags weakly.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "server.compression.enabled", havingValue = "true")
+public class ZstdCompressionFilter extends OncePerRequestFilter {
+
+    /**
+     * Content-Encoding of zstd compressed responses.
+     */
+    public static final String ZSTD = "zstd";
+
+    private final int minResponseSize;
+    private final List<MediaType> mimeTypes;
+    private final int level;
+
+    /**
+     * Constructs a ZstdCompressionFilter.
+     * @param minResponseSize The smallest response body compressed.
+     * @param mimeTypes The media types of the responses compressed.
+     * @param level The zstd compression level, from 1 (fastest) to 22.
+     */
+    public ZstdCompressionFilter(@Value("${server.compression.min-response-size:2KB}") DataSize minResponseSize,
+                                 @Value("${server.compression.mime-types:text/html,text/xml,text/plain,text/css,text/javascript,application/javascript,application/json,application/xml}")
+                                 String[] mimeTypes,
+                                 @Value("${todo.compression.zstd.level:3}") int level) {
+        this.minResponseSize = Math.toIntExact(minResponseSize.toBytes());
+        this.mimeTypes = MediaType.parseMediaTypes(List.of(mimeTypes));
+        this.level = level;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ZstdResponse zstdResponse = WebUtils.getNativeResponse(response, ZstdResponse.class);
+        if (zstdResponse == null) {
+            if (isAsyncDispatch(request) || "HEAD".equals(request.getMethod()) || !acceptsZstd(request)) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            zstdResponse = new ZstdResponse(response);
+            response = zstdResponse;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // a streamed body is still being written, and is ended by the dispatch following it
+            if (!isAsyncStarted(request)) {
+                zstdResponse.finish();
+            }
+        }
+    }
+
+    private static boolean acceptsZstd(HttpServletRequest request) {
+        Enumeration<String> acceptEncodings = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (acceptEncodings != null && acceptEncodings.hasMoreElements()) {
+            for (String coding : acceptEncodings.nextElement().split(",")) {
+                String[] parameters = coding.split(";");
+                if (ZSTD.equalsIgnoreCase(parameters[0].trim())) {
+                    return qualityOf(parameters) > 0;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static double qualityOf(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Response buffering its body until it is known whether it is compressed.
+     */
+    private final class ZstdResponse extends HttpServletResponseWrapper {
+
+        private final BodyOutputStream body = new BodyOutputStream();
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream target;
+        private ZstdOutputStream zstd;
+        private long contentLength = -1;
+        private boolean outputStreamUsed;
+        private PrintWriter writer;
+
+        ZstdResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called for this response");
+            }
+            outputStreamUsed = true;
+            return body;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (outputStreamUsed) {
+                throw new IllegalStateException("getOutputStream() has already been called for this response");
+            }
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(body, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int length) {
+            setContentLengthLong(length);
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            if (buffer != null) {
+                contentLength = length;
+            } else if (zstd == null) {
+                super.setContentLengthLong(length);
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value == null ? -1 : Long.parseLong(value));
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value == null ? -1 : Long.parseLong(value));
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+            } else {
+                super.setIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            // a compressible body is held until it is large enough, a stream of another type, such as events, is not
+            if (buffer != null && !isCompressible()) {
+                start(false);
+            }
+            if (buffer == null) {
+                target.flush();
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            if (buffer != null) {
+                buffer.reset();
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            if (buffer != null) {
+                buffer.reset();
+                contentLength = -1;
+            }
+        }
+
+        /**
+         * Sends what is still buffered, uncompressed, or ends the zstd frame.
+         */
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (buffer != null) {
+                if (contentLength < 0 && buffer.size() > 0) {
+                    contentLength = buffer.size();
+                }
+                start(false);
+            }
+            if (zstd != null) {
+                zstd.close();
+            }
+        }
+
+        private void write(byte[] bytes, int offset, int length) throws IOException {
+            if (buffer != null) {
+                if (buffer.size() + length <= minResponseSize) {
+                    buffer.write(bytes, offset, length);
+                    return;
+                }
+                start(isCompressible());
+            }
+            target.write(bytes, offset, length);
+        }
+
+        private void flush() throws IOException {
+            if (buffer == null) {
+                target.flush();
+            }
+        }
+
+        private void start(boolean compress) throws IOException {
+            ByteArrayOutputStream buffered = buffer;
+            buffer = null;
+            if (compress) {
+                String eTag = getHeader(HttpHeaders.ETAG);
+                if (eTag != null && !eTag.startsWith("W/")) {
+                    super.setHeader(HttpHeaders.ETAG, "W/" + eTag);
+                }
+                super.setHeader(HttpHeaders.CONTENT_ENCODING, ZSTD);
+                super.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                zstd = new ZstdOutputStream(super.getOutputStream(), level);
+                target = zstd;
+            } else {
+                if (contentLength >= 0) {
+                    super.setContentLengthLong(contentLength);
+                }
+                target = super.getOutputStream();
+            }
+            buffered.writeTo(target);
+        }
+
+        private boolean isCompressible() {
+            if (getHeader(HttpHeaders.CONTENT_ENCODING) != null || getStatus() == HttpServletResponse.SC_PARTIAL_CONTENT
+                    || getContentType() == null) {
+                return false;
+            }
+            try {
+                MediaType contentType = MediaType.parseMediaType(getContentType());
+                return mimeTypes.stream().anyMatch(mimeType -> mimeType.isCompatibleWith(contentType));
+            } catch (InvalidMediaTypeException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Body of the response, passed to the buffer or to the compressing stream.
+         */
+        private final class BodyOutputStream extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                ZstdResponse.this.write(bytes, offset, length);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                ZstdResponse.this.flush();
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                throw new UnsupportedOperationException("Non-blocking writes are not supported by zstd compression");
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.todolist.controller;
+
+import com.example.todolist.exceptions.BatchTooLargeException;
+import com.example.todolist.exceptions.InvalidCursorException;
+import com.example.todolist.exceptions.InvalidFilterException;
+import com.example.todolist.exceptions.ToDoNotFoundException;
+import com.example.todolist.exceptions.ToDoVersionMismatchException;
+import com.example.todolist.metrics.ToDoMetrics;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Global exception handler of ReactiveToDoController, the "reactive" profile counterpart of
+ * ValidationExceptionHandler answering the same errors with the same status codes and bodies.
+ */
+@RestControllerAdvice
+@Profile("reactive")
+public class ReactiveExceptionHandler {
+
+    private final ToDoMetrics toDoMetrics;
+
+    /**
+     * Constructs a ReactiveExceptionHandler with the specified ToDoMetrics.
+     * @param toDoMetrics The ToDoMetrics counting handled errors.
+     */
+    public ReactiveExceptionHandler(ToDoMetrics toDoMetrics) {
+        this.toDoMetrics = toDoMetrics;
+    }
+
+    /**
+     * Handles WebExchangeBindException thrown during request body validation.
+     * @param ex The WebExchangeBindException to handle.
+     * @param request The current request.
+     * @return ResponseEntity containing error response.
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Object> handleValidationExceptions(WebExchangeBindException ex, ServerHttpRequest request) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getAllErrors().forEach(error ->
+                errors.put(((FieldError) error).getField(), error.getDefaultMessage()));
+        errors.keySet().forEach(toDoMetrics::validationFailed);
+
+        return response(HttpStatus.BAD_REQUEST, errors, request);
+    }
+
+    /**
+     * Handles ToDoNotFoundException thrown when a _ToDo_ entity is not found.
+     * @param ex The ToDoNotFoundException to handle.
+     * @param request The current request.
+     * @return ResponseEntity containing error response.
+     */
+    @ExceptionHandler(ToDoNotFoundException.class)
+    public ResponseEntity<Object> handleToDoNotFoundException(ToDoNotFoundException ex, ServerHttpRequest request) {
+        toDoMetrics.toDoNotFound();
+        return response(HttpStatus.NOT_FOUND, ex.getMessage(), request);
+    }
+
+    /**
+     * Handles ToDoVersionMismatchException thrown when an If-Match precondition does not hold.
+     * @param ex The ToDoVersionMismatchException to handle.
+     * @param request The current request.
+     * @return ResponseEntity containing error response.
+     */
+    @ExceptionHandler(ToDoVersionMismatchException.class)
+    public ResponseEntity<Object> handleToDoVersionMismatchException(ToDoVersionMismatchException ex, ServerHttpRequest request) {
+        return response(HttpStatus.PRECONDITION_FAILED, ex.getMessage(), request);
+    }
+
+    /**
+     * Handles InvalidCursorException and InvalidFilterException thrown when a list parameter cannot be used.
+     * @param ex The exception to handle.
+     * @param request The current request.
+     * @return ResponseEntity containing error response.
+     */
+    @ExceptionHandler({InvalidCursorException.class, InvalidFilterException.class})
+    public ResponseEntity<Object> handleInvalidListParameterException(RuntimeException ex, ServerHttpRequest request) {
+        return response(HttpStatus.BAD_REQUEST, ex.getMessage(), request);
+    }
+
+    /**
+     * Handles BatchTooLargeException thrown when a bulk request carries too many elements.
+     * @param ex The BatchTooLargeException to handle.
+     * @param request The current request.
+     * @return ResponseEntity containing error response.
+     */
+    @ExceptionHandler(BatchTooLargeException.class)
+    public ResponseEntity<Object> handleBatchTooLargeException(BatchTooLargeException ex, ServerHttpRequest request) {
+        return response(HttpStatus.PAYLOAD_TOO_LARGE, ex.getMessage(), request);
+    }
+
+    /**
+     * Handles CannotCreateTransactionException thrown when no database connection could be obtained in time.
+     * @param ex The CannotCreateTransactionException to handle.
+     * @param request The current request.
+     * @return ResponseEntity containing error response, asking the client to retry shortly.
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<Object> handleCannotCreateTransactionException(CannotCreateTransactionException ex,
+                                                                         ServerHttpRequest request) {
+        toDoMetrics.databaseUnavailable();
+        ResponseEntity<Object> response = response(HttpStatus.SERVICE_UNAVAILABLE, "Database busy, retry later", request);
+
+        return ResponseEntity.status(response.getStatusCode()).header(HttpHeaders.RETRY_AFTER, "1").body(response.getBody());
+    }
+
+    /**
+     * Creates an error response with the same body as ValidationExceptionHandler.
+     * @param httpStatus The HTTP status of the response.
+     * @param errors The errors or exception message.
+     * @param request The current request.
+     * @return ResponseEntity containing error response.
+     */
+    private static ResponseEntity<Object> response(HttpStatus httpStatus, Object errors, ServerHttpRequest request) {
+        Map<String, Object> responseBody = new HashMap<>();
+        responseBody.put("timestamp", LocalDateTime.now());
+        responseBody.put("status", httpStatus.value());
+        responseBody.put("path", request.getPath().value());
+        responseBody.put("errors", errors);
+
+        return ResponseEntity.status(httpStatus).body(responseBody);
+    }
+}
@@ -0,0 +1,357 @@
+package com.example.todolist.controller;
+
+import com.example.todolist.dtos.ToDoBatchResultDto;
+import com.example.todolist.dtos.ToDoBatchUpdateDto;
+import com.example.todolist.dtos.ToDoCursor;
+import com.example.todolist.dtos.ToDoFilter;
+import com.example.todolist.dtos.ToDoMapper;
+import com.example.todolist.dtos.ToDoRecordDto;
+import com.example.todolist.dtos.ToDoResponseDto;
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.exceptions.BatchTooLargeException;
+import com.example.todolist.exceptions.ToDoNotFoundException;
+import com.example.todolist.exceptions.ToDoVersionMismatchException;
+import com.example.todolist.service.ReactiveToDoService;
+import com.example.todolist.service.ToDoService;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Non-blocking counterpart of ToDoController, serving the same endpoints on WebFlux in the "reactive" profile.
+ * Requests, headers, status codes and bodies are those of ToDoController; only the threading model differs.
+ */
+@RestController
+@Profile("reactive")
+public class ReactiveToDoController {
+
+    private final ReactiveToDoService toDoService;
+    private final Validator validator;
+
+    /**
+     * Constructs a new ReactiveToDoController with the specified ReactiveToDoService.
+     * @param toDoService The ReactiveToDoService to be used by the controller.
+     * @param validator The Validator used to check each element of bulk requests.
+     */
+    public ReactiveToDoController(ReactiveToDoService toDoService, Validator validator) {
+        this.toDoService = toDoService;
+        this.validator = validator;
+    }
+
+    /**
+     * Handles the creation of a new _ToDo_ record.
+     * @param toDoRecord The ToDoRecordDto containing data for the new _ToDo_ record.
+     * @return Mono emitting the ResponseEntity containing the created _ToDo_ record.
+     */
+    @PostMapping(value = "/todos", produces = "application/json")
+    public Mono<ResponseEntity<ToDoResponseDto>> createToDo(@RequestBody @Valid ToDoRecordDto toDoRecord) {
+        return toDoService.save(ToDoMapper.toEntity(toDoRecord))
+                .map(savedToDo -> ResponseEntity.status(HttpStatus.CREATED).body(ToDoMapper.toResponse(savedToDo)));
+    }
+
+    /**
+     * Handles the retrieval of one page of _ToDo_ records, optionally filtered by due date and text.
+     * @param cursor The continuation token of the requested page, or null for the first page.
+     * @param size The maximum number of _ToDo_ records of the page.
+     * @param links "none" to leave out the "self" link of each record, any other value or null to include them.
+     * @param dueFrom The earliest due date, inclusive, or null.
+     * @param dueTo The latest due date, inclusive, or null.
+     * @param window "overdue" or "upcoming" to keep only the records past their due date or due in the next days.
+     * @param days The number of days of the "upcoming" window, 7 when null.
+     * @param q The text searched, case insensitively, in the title or the description, or null.
+     * @param exchange The current exchange, checked against the list ETag.
+     * @return Mono emitting the ResponseEntity containing a page of _ToDo_ records and a "next" Link header if more
+     * records exist, or completing empty with 304 Not Modified if the If-None-Match header holds the current list ETag.
+     * @throws com.example.todolist.exceptions.InvalidCursorException if the continuation token is malformed.
+     * @throws com.example.todolist.exceptions.InvalidFilterException if the window or the number of days is not supported.
+     */
+    @GetMapping(value = "/todos", produces = "application/json")
+    public Mono<ResponseEntity<List<?>>> getToDoList(@RequestParam(value = "cursor", required = false) String cursor,
+                                                     @RequestParam(value = "size", required = false) Integer size,
+                                                     @RequestParam(value = "links", required = false) String links,
+                                                     @RequestParam(value = "dueFrom", required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+                                                     @RequestParam(value = "dueTo", required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+                                                     @RequestParam(value = "window", required = false) String window,
+                                                     @RequestParam(value = "days", required = false) Integer days,
+                                                     @RequestParam(value = "q", required = false) String q,
+                                                     ServerWebExchange exchange) {
+        int pageSize = size == null ? ToDoService.DEFAULT_PAGE_SIZE : size;
+        LocalDate today = LocalDate.now();
+        ToDoFilter filter = ToDoFilter.of(dueFrom, dueTo, window, days, q, today);
+        ToDoCursor position = cursor == null ? null : ToDoCursor.decode(cursor);
+
+        // read before the page, so a concurrent change can only make the ETag older than the body, never newer
+        return toDoService.getListVersion().flatMap(listVersion -> {
+            String eTag = listVersion.eTag(window == null ? null : today,
+                    ToDoETags.listRepresentation(MediaType.APPLICATION_JSON, links));
+            if(exchange.checkNotModified(eTag)){
+                return Mono.empty();
+            }
+
+            return toDoService.getList(filter, position, pageSize).map(page -> {
+                List<ToDo> toDoList = page.content();
+                if(toDoList.isEmpty()){
+                    return ResponseEntity.status(HttpStatus.NO_CONTENT).eTag(eTag).build();
+                }
+
+                List<?> body;
+                if(ToDoController.LINKS_NONE.equals(links)){
+                    body = ToDoMapper.toResponses(toDoList);
+                } else {
+                    String prefix = baseUri(exchange.getRequest()) + "/todos/";
+                    List<EntityModel<ToDoResponseDto>> toDoModels = new ArrayList<>(toDoList.size());
+                    for(ToDo toDo: toDoList){
+                        toDoModels.add(EntityModel.of(ToDoMapper.toResponse(toDo),
+                                Link.of(prefix + toDo.getToDoId(), IanaLinkRelations.SELF)));
+                    }
+                    body = toDoModels;
+                }
+
+                ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK).eTag(eTag);
+                if(page.hasNext()){
+                    String next = UriComponentsBuilder.fromUri(exchange.getRequest().getURI())
+                            .replaceQueryParam("cursor", page.next().encode())
+                            .build(true).toUriString();
+                    response.header(HttpHeaders.LINK, Link.of(next, IanaLinkRelations.NEXT).toString());
+                }
+
+                return response.body(body);
+            });
+        });
+    }
+
+    /**
+     * Handles the export of all _ToDo_ records as newline delimited JSON.
+     * Records are written as they are read from the database, with backpressure, so memory use does not depend on
+     * the table size.
+     * @return Flux streaming every _ToDo_ record, one JSON document per line.
+     */
+    @GetMapping(value = "/todos", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ToDoResponseDto> exportToDoList() {
+        return toDoService.export().map(ToDoMapper::toResponse);
+    }
+
+    /**
+     * Handles the retrieval of a single _ToDo_ record by its id.
+     * @param id The id of the _ToDo_ record to retrieve.
+     * @param exchange The current exchange, checked against the record ETag and Last-Modified date.
+     * @return Mono emitting the ResponseEntity containing the requested _ToDo_ record with its ETag and
+     * Last-Modified headers, or completing empty with 304 Not Modified if the If-None-Match or If-Modified-Since
+     * header shows the client copy is current.
+     * @throws ToDoNotFoundException if the requested _ToDo_ record is not found.
+     */
+    @GetMapping(value = "/todos/{id}", produces = "application/json")
+    public Mono<ResponseEntity<Object>> getToDo(@PathVariable("id") UUID id, ServerWebExchange exchange) {
+        return toDoService.getById(id)
+                .switchIfEmpty(Mono.error(() -> new ToDoNotFoundException(id)))
+                .flatMap(foundToDo -> {
+                    if(exchange.checkNotModified(ToDoETags.of(foundToDo), foundToDo.getUpdatedAt())){
+                        return Mono.empty();
+                    }
+
+                    EntityModel<ToDoResponseDto> toDoModel = EntityModel.of(ToDoMapper.toResponse(foundToDo),
+                            Link.of(baseUri(exchange.getRequest()) + "/todos", "ToDo List"));
+
+                    return Mono.just(ResponseEntity.status(HttpStatus.OK).eTag(ToDoETags.of(foundToDo))
+                            .lastModified(foundToDo.getUpdatedAt()).body(toDoModel));
+                });
+    }
+
+    /**
+     * Handles the update of an existing _ToDo_ record.
+     * @param id The id of the _ToDo_ record to update.
+     * @param toDoRecord The ToDoRecordDto containing updated data for the _ToDo_ record.
+     * @param ifMatch The ETag the _ToDo_ record must still have, or null to update it unconditionally.
+     * @return Mono emitting the ResponseEntity containing the updated _ToDo_ record with its new ETag.
+     * @throws ToDoNotFoundException if the requested _ToDo_ record is not found.
+     * @throws ToDoVersionMismatchException if the _ToDo_ record no longer has the ETag given in If-Match.
+     */
+    @PutMapping(value = "/todos/{id}", produces = "application/json")
+    public Mono<ResponseEntity<Object>> updateToDo(@PathVariable(value = "id") UUID id, @RequestBody @Valid ToDoRecordDto toDoRecord,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return toDoService.update(ToDoMapper.toEntity(id, toDoRecord), ToDoETags.expectedVersion(ifMatch, id))
+                .switchIfEmpty(Mono.error(() -> new ToDoNotFoundException(id)))
+                .map(updatedToDo -> ResponseEntity.status(HttpStatus.OK).eTag(ToDoETags.of(updatedToDo))
+                        .lastModified(updatedToDo.getUpdatedAt()).body(ToDoMapper.toResponse(updatedToDo)));
+    }
+
+    /**
+     * Handles the deletion of an existing _ToDo_ record.
+     * @param id The id of the _ToDo_ record to delete.
+     * @param ifMatch The ETag the _ToDo_ record must still have, or null to delete it unconditionally.
+     * @return Mono emitting the ResponseEntity indicating success of the deletion operation.
+     * @throws ToDoNotFoundException if the requested _ToDo_ record is not found.
+     * @throws ToDoVersionMismatchException if the _ToDo_ record no longer has the ETag given in If-Match.
+     */
+    @DeleteMapping(value = "/todos/{id}", produces = "application/json")
+    public Mono<ResponseEntity<Object>> deleteToDo(@PathVariable("id") UUID id,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return toDoService.delete(id, ToDoETags.expectedVersion(ifMatch, id))
+                .switchIfEmpty(Mono.error(() -> new ToDoNotFoundException(id)))
+                .map(deletedToDo -> ResponseEntity.status(HttpStatus.OK).body(ToDoMapper.toResponse(deletedToDo)));
+    }
+
+    /**
+     * Handles the creation of several _ToDo_ records at once.
+     * Each element is validated on its own; valid elements are saved together with one batched statement.
+     * @param toDoRecords The ToDoRecordDto elements containing data for the new _ToDo_ records.
+     * @return Mono emitting the ResponseEntity containing one result per element, in request order.
+     * @throws BatchTooLargeException if more than MAX_BATCH_SIZE elements are sent.
+     */
+    @PostMapping(value = "/todos/batch", produces = "application/json")
+    public Mono<ResponseEntity<List<ToDoBatchResultDto>>> createToDoBatch(@RequestBody List<ToDoRecordDto> toDoRecords) {
+        checkBatchSize(toDoRecords);
+
+        ToDoBatchResultDto[] results = new ToDoBatchResultDto[toDoRecords.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+        List<ToDo> toDos = new ArrayList<>();
+        for (int i = 0; i < toDoRecords.size(); i++) {
+            Map<String, String> errors = validate(toDoRecords.get(i));
+            if (!errors.isEmpty()) {
+                results[i] = ToDoBatchResultDto.failed(i, HttpStatus.BAD_REQUEST.value(), errors);
+                continue;
+            }
+            validIndexes.add(i);
+            toDos.add(ToDoMapper.toEntity(toDoRecords.get(i)));
+        }
+
+        return toDoService.saveAll(toDos).map(savedToDos -> {
+            for (int i = 0; i < savedToDos.size(); i++) {
+                int index = validIndexes.get(i);
+                results[index] = ToDoBatchResultDto.of(index, HttpStatus.CREATED.value(), ToDoMapper.toResponse(savedToDos.get(i)));
+            }
+            return ResponseEntity.status(HttpStatus.OK).body(List.of(results));
+        });
+    }
+
+    /**
+     * Handles the update of several existing _ToDo_ records at once.
+     * Each element is validated on its own; valid elements are updated together in one transaction.
+     * @param toDoRecords The ToDoBatchUpdateDto elements containing the id and updated data of each _ToDo_ record.
+     * @return Mono emitting the ResponseEntity containing one result per element, in request order.
+     * @throws BatchTooLargeException if more than MAX_BATCH_SIZE elements are sent.
+     */
+    @PutMapping(value = "/todos/batch", produces = "application/json")
+    public Mono<ResponseEntity<List<ToDoBatchResultDto>>> updateToDoBatch(@RequestBody List<ToDoBatchUpdateDto> toDoRecords) {
+        checkBatchSize(toDoRecords);
+
+        ToDoBatchResultDto[] results = new ToDoBatchResultDto[toDoRecords.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+        List<ToDo> toDos = new ArrayList<>();
+        for (int i = 0; i < toDoRecords.size(); i++) {
+            Map<String, String> errors = validate(toDoRecords.get(i));
+            if (!errors.isEmpty()) {
+                results[i] = ToDoBatchResultDto.failed(i, HttpStatus.BAD_REQUEST.value(), errors);
+                continue;
+            }
+            validIndexes.add(i);
+            toDos.add(ToDoMapper.toEntity(toDoRecords.get(i)));
+        }
+
+        return toDoService.updateAll(toDos).map(updatedToDos -> {
+            for (int i = 0; i < updatedToDos.size(); i++) {
+                int index = validIndexes.get(i);
+                UUID id = toDos.get(i).getToDoId();
+                Optional<ToDo> updatedToDo = updatedToDos.get(i);
+                results[index] = updatedToDo
+                        .map(toDo -> ToDoBatchResultDto.of(index, HttpStatus.OK.value(), ToDoMapper.toResponse(toDo)))
+                        .orElseGet(() -> ToDoBatchResultDto.failed(index, HttpStatus.NOT_FOUND.value(), id,
+                                new ToDoNotFoundException(id).getMessage()));
+            }
+            return ResponseEntity.status(HttpStatus.OK).body(List.of(results));
+        });
+    }
+
+    /**
+     * Handles the deletion of several existing _ToDo_ records at once.
+     * @param ids The ids of the _ToDo_ records to delete.
+     * @return Mono emitting the ResponseEntity containing one result per id, in request order.
+     * @throws BatchTooLargeException if more than MAX_BATCH_SIZE ids are sent.
+     */
+    @DeleteMapping(value = "/todos/batch", produces = "application/json")
+    public Mono<ResponseEntity<List<ToDoBatchResultDto>>> deleteToDoBatch(@RequestBody List<UUID> ids) {
+        checkBatchSize(ids);
+
+        return toDoService.deleteAll(ids.stream().filter(Objects::nonNull).toList()).map(deletedIds -> {
+            List<ToDoBatchResultDto> results = new ArrayList<>(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                UUID id = ids.get(i);
+                if (id == null) {
+                    results.add(ToDoBatchResultDto.failed(i, HttpStatus.BAD_REQUEST.value(), Map.of("toDoId", "must not be null")));
+                } else if (deletedIds.contains(id)) {
+                    results.add(ToDoBatchResultDto.of(i, HttpStatus.OK.value(), id));
+                } else {
+                    results.add(ToDoBatchResultDto.failed(i, HttpStatus.NOT_FOUND.value(), id, new ToDoNotFoundException(id).getMessage()));
+                }
+            }
+            return ResponseEntity.status(HttpStatus.OK).body(results);
+        });
+    }
+
+    /**
+     * Resolves the scheme, host and context path of the current request, the prefix of the links of the API.
+     * @param request The current request.
+     * @return The base URI, without trailing slash.
+     */
+    private static String baseUri(ServerHttpRequest request) {
+        return UriComponentsBuilder.fromUri(request.getURI())
+                .replacePath(request.getPath().contextPath().value())
+                .replaceQuery(null)
+                .build().toUriString();
+    }
+
+    /**
+     * Rejects bulk requests carrying more elements than ToDoService.MAX_BATCH_SIZE.
+     * @param elements The elements of the bulk request.
+     * @throws BatchTooLargeException if there are too many elements.
+     */
+    private void checkBatchSize(List<?> elements) {
+        if (elements.size() > ToDoService.MAX_BATCH_SIZE) {
+            throw new BatchTooLargeException(elements.size(), ToDoService.MAX_BATCH_SIZE);
+        }
+    }
+
+    /**
+     * Validates one element of a bulk request.
+     * @param element The element to validate.
+     * @return Map containing field errors, empty if the element is valid.
+     */
+    private Map<String, String> validate(Object element) {
+        Map<String, String> errors = new HashMap<>();
+        if (element == null) {
+            errors.put("element", "must not be null");
+            return errors;
+        }
+        for (ConstraintViolation<Object> violation : validator.validate(element)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+}
@@ -1,50 +1,119 @@
 package com.example.todolist.controller;
 
+import com.example.todolist.codec.ToDoMediaTypes;
+import com.example.todolist.dtos.ToDoBatchResultDto;
+import com.example.todolist.dtos.ToDoBatchUpdateDto;
+import com.example.todolist.dtos.ToDoCursor;
+import com.example.todolist.dtos.ToDoFilter;
+import com.example.todolist.dtos.ToDoListVersion;
+import com.example.todolist.dtos.ToDoMapper;
+import com.example.todolist.dtos.ToDoPage;
 import com.example.todolist.dtos.ToDoRecordDto;
+import com.example.todolist.dtos.ToDoResponseDto;
+import com.example.todolist.dtos.ToDoStatsDto;
 import com.example.todolist.entity.ToDo;
+import com.example.todolist.exceptions.BatchTooLargeException;
 import com.example.todolist.exceptions.ToDoNotFoundException;
+import com.example.todolist.exceptions.ToDoPendingWriteException;
+import com.example.todolist.exceptions.ToDoVersionMismatchException;
+import com.example.todolist.ratelimit.RateLimitBucket;
+import com.example.todolist.ratelimit.RateLimited;
 import com.example.todolist.service.ToDoService;
+import com.example.todolist.service.ToDoStatistics;
+import com.example.todolist.service.ToDoWriteBehindBuffer;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
-import org.springframework.beans.BeanUtils;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 
 /**
  * Controller class for handling _ToDo_ related endpoints.
+ * Single records and list pages are answered as JSON, or as Protocol Buffers, CBOR or Smile when the Accept header
+ * asks for them, and read from any of these Content-Types; bulk endpoints and statistics only speak JSON.
  */
 @Tag(name = "ToDo", description = "the ToDo Restful Api")
 @RestController
+@Profile("!reactive")
 public class ToDoController {
+    /**
+     * Value of the "links" query parameter that leaves per record links out of list responses.
+     */
+    static final String LINKS_NONE = "none";
+
+    /**
+     * Media types of list responses, in the order of the produces attribute of getToDoList.
+     */
+    private static final List<MediaType> LIST_MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON,
+            ToDoMediaTypes.APPLICATION_PROTOBUF, ToDoMediaTypes.APPLICATION_CBOR, ToDoMediaTypes.APPLICATION_SMILE);
+
     private final ToDoService toDoService;
+    private final ObjectWriter objectWriter;
+    private final Validator validator;
+    private final ToDoWriteBehindBuffer writeBehindBuffer;
+    private final ToDoStatistics toDoStatistics;
 
     /**
      * Constructs a new ToDoController with the specified ToDoService.
      * @param toDoService The ToDoService to be used by the controller.
+     * @param toDoStatistics The ToDoStatistics answering the statistics of the list.
+     * @param objectMapper The ObjectMapper used to write streamed _ToDo_ records.
+     * @param validator The Validator used to check each element of bulk requests.
+     * @param writeBehindBuffer The ToDoWriteBehindBuffer queuing new records, available when write-behind is enabled.
      */
-    public ToDoController(ToDoService toDoService){
+    public ToDoController(ToDoService toDoService, ToDoStatistics toDoStatistics, ObjectMapper objectMapper,
+                          Validator validator, ObjectProvider<ToDoWriteBehindBuffer> writeBehindBuffer){
         this.toDoService = toDoService;
+        this.toDoStatistics = toDoStatistics;
+        this.validator = validator;
+        this.writeBehindBuffer = writeBehindBuffer.getIfAvailable();
+        this.objectWriter = objectMapper.writerFor(ToDoResponseDto.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     /**
      * Handles the creation of a new _ToDo_ record.
+     * With write-behind enabled, the record is only queued and answered with 202 Accepted; it can be read by id
+     * right away, and shows up in lists once written.
      * @param toDoRecord The ToDoRecordDto containing data for the new _ToDo_ record.
-     * @return ResponseEntity containing the created _ToDo_ record.
+     * @return ResponseEntity containing the created, or accepted, _ToDo_ record.
+     * @throws com.example.todolist.exceptions.WriteBehindQueueFullException if the write-behind queue is full.
      */
     @Operation(
             summary = "Create a new ToDo",
@@ -55,54 +124,188 @@ public class ToDoController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201",
                     description = "successful operation",
-                    content = @Content(schema = @Schema(implementation = ToDoRecordDto.class))
+                    content = @Content(schema = @Schema(implementation = ToDoResponseDto.class))
+            ),
+            @ApiResponse(responseCode = "202",
+                    description = "queued for writing, with write-behind enabled",
+                    content = @Content(schema = @Schema(implementation = ToDoResponseDto.class))
+            ),
+            @ApiResponse(responseCode = "429",
+                    description = "write-behind queue full or rate limit exceeded, retry after the delay given in Retry-After"
             )
     })
-    @PostMapping(value="/todos", produces = "application/json")
-    public ResponseEntity<ToDo> createToDo(@RequestBody @Valid ToDoRecordDto toDoRecord) {
-        var toDo = new ToDo();
-        BeanUtils.copyProperties(toDoRecord, toDo);
+    @RateLimited(RateLimitBucket.WRITE)
+    @PostMapping(value="/todos", produces = {MediaType.APPLICATION_JSON_VALUE, ToDoMediaTypes.APPLICATION_PROTOBUF_VALUE,
+            ToDoMediaTypes.APPLICATION_CBOR_VALUE, ToDoMediaTypes.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<ToDoResponseDto> createToDo(@RequestBody @Valid ToDoRecordDto toDoRecord) {
+        if(writeBehindBuffer != null){
+            ToDoResponseDto acceptedToDo = writeBehindBuffer.enqueue(ToDoMapper.toEntity(toDoRecord));
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(linkTo(methodOn(ToDoController.class).getToDo(acceptedToDo.toDoId(), null)).toUri())
+                    .body(acceptedToDo);
+        }
+
+        ToDo savedToDo = toDoService.save(ToDoMapper.toEntity(toDoRecord));
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(toDoService.save(toDo));
+        return ResponseEntity.status(HttpStatus.CREATED).body(ToDoMapper.toResponse(savedToDo));
     }
 
     /**
-     * Handles the retrieval of all _ToDo_ records.
-     * @return ResponseEntity containing a list of all _ToDo_ records.
+     * Handles the retrieval of one page of _ToDo_ records, optionally filtered by due date and text.
+     * @param cursor The continuation token of the requested page, or null for the first page.
+     * @param size The maximum number of _ToDo_ records of the page.
+     * @param links "none" to leave out the "self" link of each record, any other value or null to include them.
+     * @param dueFrom The earliest due date, inclusive, or null.
+     * @param dueTo The latest due date, inclusive, or null.
+     * @param window "overdue" or "upcoming" to keep only the records past their due date or due in the next days.
+     * @param days The number of days of the "upcoming" window, 7 when null.
+     * @param q The text searched, case insensitively, in the title or the description, or null.
+     * @param request The current request, checked against the list ETag.
+     * @return ResponseEntity containing a page of _ToDo_ records and a "next" Link header if more records exist,
+     * or 304 Not Modified if the If-None-Match header holds the current list ETag.
+     * @throws com.example.todolist.exceptions.InvalidCursorException if the continuation token is malformed.
+     * @throws com.example.todolist.exceptions.InvalidFilterException if the window or the number of days is not supported.
      */
     @Operation(
-            summary = "Fetch all ToDo´s",
-            description = "fetches all ToDo´s entities and their data from data source",
+            summary = "Fetch a page of ToDo´s",
+            description = "fetches a page of ToDo´s entities ordered by due date, optionally filtered by due date range, " +
+                    "overdue/upcoming window and title/description text, the next page is linked in the Link header",
             method = "GET"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200",
                     description = "successful operation",
-                    content = @Content(schema = @Schema(implementation = ToDoRecordDto.class))
+                    content = @Content(schema = @Schema(implementation = ToDoResponseDto.class))
             ),
             @ApiResponse(responseCode = "204",
                     description = "no content"
+            ),
+            @ApiResponse(responseCode = "304",
+                    description = "not modified since the ETag given in If-None-Match"
+            ),
+            @ApiResponse(responseCode = "400",
+                    description = "invalid cursor or filter"
             )
     })
-    @GetMapping(value = "/todos", produces = "application/json")
-    public ResponseEntity<List<ToDo>> getToDoList() {
-        List <ToDo> toDoList = toDoService.getList();
+    @RateLimited(RateLimitBucket.LIST)
+    @GetMapping(value = "/todos", produces = {MediaType.APPLICATION_JSON_VALUE, ToDoMediaTypes.APPLICATION_PROTOBUF_VALUE,
+            ToDoMediaTypes.APPLICATION_CBOR_VALUE, ToDoMediaTypes.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<List<?>> getToDoList(@RequestParam(value = "cursor", required = false) String cursor,
+                                                  @RequestParam(value = "size", required = false) Integer size,
+                                                  @RequestParam(value = "links", required = false) String links,
+                                                  @RequestParam(value = "dueFrom", required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+                                                  @RequestParam(value = "dueTo", required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+                                                  @RequestParam(value = "window", required = false) String window,
+                                                  @RequestParam(value = "days", required = false) Integer days,
+                                                  @RequestParam(value = "q", required = false) String q,
+                                                  WebRequest request) {
+        int pageSize = size == null ? ToDoService.DEFAULT_PAGE_SIZE : size;
+        LocalDate today = LocalDate.now();
+        ToDoFilter filter = ToDoFilter.of(dueFrom, dueTo, window, days, q, today);
+        ToDoCursor position = cursor == null ? null : ToDoCursor.decode(cursor);
+
+        // read before the page, so a concurrent change can only make the ETag older than the body, never newer
+        ToDoListVersion listVersion = toDoService.getListVersion();
+        String[] accept = request.getHeaderValues(HttpHeaders.ACCEPT);
+        MediaType mediaType = ToDoETags.negotiate(accept == null ? List.of() : MediaType.parseMediaTypes(List.of(accept)),
+                LIST_MEDIA_TYPES);
+        String eTag = listVersion.eTag(window == null ? null : today, ToDoETags.listRepresentation(mediaType, links));
+        if(request.checkNotModified(eTag)){
+            return null;
+        }
+
+        ToDoPage page = toDoService.getList(filter, position, pageSize);
+        List <ToDo> toDoList = page.content();
         if(toDoList.isEmpty()){
-            return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).eTag(eTag).build();
         }
 
-        for(ToDo toDo: toDoList){
-            UUID id = toDo.getToDoId();
-            toDo.add(linkTo(methodOn(ToDoController.class).getToDo(id)).withSelfRel());
+        List<?> body;
+        if(LINKS_NONE.equals(links)){
+            body = ToDoMapper.toResponses(toDoList);
+        } else {
+            ToDoSelfLinks selfLinks = ToDoSelfLinks.forCurrentRequest();
+            List<EntityModel<ToDoResponseDto>> toDoModels = new ArrayList<>(toDoList.size());
+            for(ToDo toDo: toDoList){
+                toDoModels.add(EntityModel.of(ToDoMapper.toResponse(toDo), selfLinks.self(toDo.getToDoId())));
+            }
+            body = toDoModels;
         }
 
-        return ResponseEntity.status(HttpStatus.OK).body(toDoList);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK).eTag(eTag).varyBy(HttpHeaders.ACCEPT);
+        if(page.hasNext()){
+            Link next = linkTo(methodOn(ToDoController.class).getToDoList(page.next().encode(), size, links,
+                    dueFrom, dueTo, window, days, q, null))
+                    .withRel(IanaLinkRelations.NEXT);
+            response.header(HttpHeaders.LINK, next.toString());
+        }
+
+        return response.body(body);
+    }
+
+    /**
+     * Handles the export of all _ToDo_ records as newline delimited JSON.
+     * Records are streamed from a database cursor, so memory use does not depend on the table size.
+     * @return ResponseEntity streaming every _ToDo_ record, one JSON document per line.
+     */
+    @Operation(
+            summary = "Export all ToDo´s",
+            description = "streams all ToDo´s entities ordered by due date as newline delimited JSON",
+            method = "GET"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "successful operation",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = ToDoResponseDto.class))
+            )
+    })
+    @RateLimited(RateLimitBucket.LIST)
+    @GetMapping(value = "/todos", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportToDoList() {
+        StreamingResponseBody body = outputStream -> toDoService.export(toDo -> {
+            try {
+                objectWriter.writeValue(outputStream, ToDoMapper.toResponse(toDo));
+                outputStream.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Handles the retrieval of the statistics of the _ToDo_ list, answered from memory whatever the table size.
+     * @return ResponseEntity containing the number of records, overdue, due today and due this week.
+     */
+    @Operation(
+            summary = "Fetch the ToDo statistics",
+            description = "counts all, overdue, due today and due this week ToDo´s entities, from counters kept in " +
+                    "memory and reconciled with the data source periodically",
+            method = "GET"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "successful operation",
+                    content = @Content(schema = @Schema(implementation = ToDoStatsDto.class))
+            )
+    })
+    @RateLimited(RateLimitBucket.READ)
+    @GetMapping(value = "/todos/stats", produces = "application/json")
+    public ResponseEntity<ToDoStatsDto> getToDoStats() {
+        return ResponseEntity.status(HttpStatus.OK).body(toDoStatistics.snapshot(LocalDate.now()));
     }
 
     /**
      * Handles the retrieval of a single _ToDo_ record by its id.
      * @param id The id of the _ToDo_ record to retrieve.
-     * @return ResponseEntity containing the requested _ToDo_ record.
+     * @param request The current request, checked against the record ETag and Last-Modified date.
+     * @return ResponseEntity containing the requested _ToDo_ record with its ETag and Last-Modified headers,
+     * or 304 Not Modified if the If-None-Match or If-Modified-Since header shows the client copy is current.
+     * A record still waiting in the write-behind buffer is returned without these headers.
      * @throws ToDoNotFoundException if the requested _ToDo_ record is not found.
      */
     @Operation(
@@ -113,27 +316,43 @@ public class ToDoController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200",
                     description = "successful operation",
-                    content = @Content(schema = @Schema(implementation = ToDoRecordDto.class))
+                    content = @Content(schema = @Schema(implementation = ToDoResponseDto.class))
+            ),
+            @ApiResponse(responseCode = "304",
+                    description = "not modified since the ETag or date given in If-None-Match or If-Modified-Since"
             )
     })
-    @GetMapping(value = "/todos/{id}", produces = "application/json")
-    public ResponseEntity<Object> getToDo(@PathVariable("id") UUID id) {
-        Optional<ToDo> foundToDo = toDoService.getById(id);
-        if(foundToDo.isEmpty()){
-            throw new ToDoNotFoundException(id);
+    @RateLimited(RateLimitBucket.READ)
+    @GetMapping(value = "/todos/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, ToDoMediaTypes.APPLICATION_PROTOBUF_VALUE,
+            ToDoMediaTypes.APPLICATION_CBOR_VALUE, ToDoMediaTypes.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<Object> getToDo(@PathVariable("id") UUID id, WebRequest request) {
+        Optional<ToDoResponseDto> pendingToDo = writeBehindBuffer != null ? writeBehindBuffer.getPending(id) : Optional.empty();
+        if(pendingToDo.isPresent()){ // accepted but not written yet, so it has no version to build an ETag from
+            return ResponseEntity.status(HttpStatus.OK).body(EntityModel.of(pendingToDo.get(),
+                    linkTo(methodOn(ToDoController.class).getToDoList(null, null, null, null, null, null, null, null, null)).withRel("ToDo List")));
+        }
+
+        ToDo foundToDo = toDoService.getById(id).orElseThrow(() -> new ToDoNotFoundException(id));
+        if(request.checkNotModified(ToDoETags.of(foundToDo), foundToDo.getUpdatedAt().toEpochMilli())){
+            return null;
         }
 
-        foundToDo.get().add(linkTo(methodOn(ToDoController.class).getToDoList()).withRel("ToDo List"));
+        EntityModel<ToDoResponseDto> toDoModel = EntityModel.of(ToDoMapper.toResponse(foundToDo),
+                linkTo(methodOn(ToDoController.class).getToDoList(null, null, null, null, null, null, null, null, null)).withRel("ToDo List"));
 
-        return ResponseEntity.status(HttpStatus.OK).body(toDoService.getById(id));
+        return ResponseEntity.status(HttpStatus.OK).eTag(ToDoETags.of(foundToDo)).lastModified(foundToDo.getUpdatedAt())
+                .body(toDoModel);
     }
 
     /**
      * Handles the update of an existing _ToDo_ record.
      * @param id The id of the _ToDo_ record to update.
      * @param toDoRecord The ToDoRecordDto containing updated data for the _ToDo_ record.
-     * @return ResponseEntity containing the updated _ToDo_ record.
+     * @param ifMatch The ETag the _ToDo_ record must still have, or null to update it unconditionally.
+     * @return ResponseEntity containing the updated _ToDo_ record with its new ETag.
      * @throws ToDoNotFoundException if the requested _ToDo_ record is not found.
+     * @throws ToDoVersionMismatchException if the _ToDo_ record no longer has the ETag given in If-Match.
+     * @throws ToDoPendingWriteException if the _ToDo_ record is still waiting in the write-behind buffer.
      */
     @Operation(
             summary = "Updates a ToDo",
@@ -143,29 +362,36 @@ public class ToDoController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200",
                     description = "successful operation",
-                    content = @Content(schema = @Schema(implementation = ToDoRecordDto.class))
+                    content = @Content(schema = @Schema(implementation = ToDoResponseDto.class))
+            ),
+            @ApiResponse(responseCode = "409",
+                    description = "created with write-behind and not written yet, retry after the Retry-After delay"
+            ),
+            @ApiResponse(responseCode = "412",
+                    description = "modified since the ETag given in If-Match"
             )
     })
-    @PutMapping(value="/todos/{id}", produces = "application/json")
-    public ResponseEntity<Object> updateToDo(@PathVariable(value="id") UUID id, @RequestBody @Valid ToDoRecordDto toDoRecord) {
-        Optional<ToDo> foundToDoOptional = toDoService.getById(id);
-
-        if (foundToDoOptional.isEmpty()) {
-            throw new ToDoNotFoundException(id);
-        }
-
-        ToDo foundToDo = foundToDoOptional.get();
-        BeanUtils.copyProperties(toDoRecord, foundToDo);
-
-        return ResponseEntity.status(HttpStatus.OK).body(toDoService.update(foundToDo));
+    @RateLimited(RateLimitBucket.WRITE)
+    @PutMapping(value="/todos/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, ToDoMediaTypes.APPLICATION_PROTOBUF_VALUE,
+            ToDoMediaTypes.APPLICATION_CBOR_VALUE, ToDoMediaTypes.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<Object> updateToDo(@PathVariable(value="id") UUID id, @RequestBody @Valid ToDoRecordDto toDoRecord,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        checkWritten(id);
+        ToDo updatedToDo = toDoService.update(ToDoMapper.toEntity(id, toDoRecord), ToDoETags.expectedVersion(ifMatch, id))
+                .orElseThrow(() -> new ToDoNotFoundException(id));
 
+        return ResponseEntity.status(HttpStatus.OK).eTag(ToDoETags.of(updatedToDo)).lastModified(updatedToDo.getUpdatedAt())
+                .body(ToDoMapper.toResponse(updatedToDo));
     }
 
     /**
      * Handles the deletion of an existing _ToDo_ record.
      * @param id The id of the _ToDo_ record to delete.
+     * @param ifMatch The ETag the _ToDo_ record must still have, or null to delete it unconditionally.
      * @return ResponseEntity indicating success of the deletion operation.
      * @throws ToDoNotFoundException if the requested _ToDo_ record is not found.
+     * @throws ToDoVersionMismatchException if the _ToDo_ record no longer has the ETag given in If-Match.
+     * @throws ToDoPendingWriteException if the _ToDo_ record is still waiting in the write-behind buffer.
      */
     @Operation(
             summary = "Deletes a ToDo",
@@ -175,16 +401,224 @@ public class ToDoController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200",
                     description = "successful operation",
-                    content = @Content(schema = @Schema(implementation = ToDoRecordDto.class))
+                    content = @Content(schema = @Schema(implementation = ToDoResponseDto.class))
+            ),
+            @ApiResponse(responseCode = "409",
+                    description = "created with write-behind and not written yet, retry after the Retry-After delay"
+            ),
+            @ApiResponse(responseCode = "412",
+                    description = "modified since the ETag given in If-Match"
+            )
+    })
+    @RateLimited(RateLimitBucket.WRITE)
+    @DeleteMapping(value="/todos/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, ToDoMediaTypes.APPLICATION_PROTOBUF_VALUE,
+            ToDoMediaTypes.APPLICATION_CBOR_VALUE, ToDoMediaTypes.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<Object> deleteToDo(@PathVariable("id") UUID id,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        checkWritten(id);
+        ToDo deletedToDo = toDoService.delete(id, ToDoETags.expectedVersion(ifMatch, id))
+                .orElseThrow(() -> new ToDoNotFoundException(id));
+
+        return ResponseEntity.status(HttpStatus.OK).body(ToDoMapper.toResponse(deletedToDo));
+    }
+
+    /**
+     * Handles the creation of several _ToDo_ records at once.
+     * Each element is validated on its own; valid elements are saved together in JDBC batches.
+     * @param toDoRecords The ToDoRecordDto elements containing data for the new _ToDo_ records.
+     * @return ResponseEntity containing one result per element, in request order.
+     * @throws BatchTooLargeException if more than MAX_BATCH_SIZE elements are sent.
+     */
+    @Operation(
+            summary = "Create several ToDo´s",
+            description = "validates each element and saves the valid ones on data source in batches",
+            method = "POST"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "one result per element, created elements have status 201 and invalid ones 400",
+                    content = @Content(schema = @Schema(implementation = ToDoBatchResultDto.class))
+            )
+    })
+    @RateLimited(RateLimitBucket.WRITE)
+    @PostMapping(value="/todos/batch", produces = "application/json")
+    public ResponseEntity<List<ToDoBatchResultDto>> createToDoBatch(@RequestBody List<ToDoRecordDto> toDoRecords) {
+        checkBatchSize(toDoRecords);
+
+        ToDoBatchResultDto[] results = new ToDoBatchResultDto[toDoRecords.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+        List<ToDo> toDos = new ArrayList<>();
+        for (int i = 0; i < toDoRecords.size(); i++) {
+            Map<String, String> errors = validate(toDoRecords.get(i));
+            if (!errors.isEmpty()) {
+                results[i] = ToDoBatchResultDto.failed(i, HttpStatus.BAD_REQUEST.value(), errors);
+                continue;
+            }
+            validIndexes.add(i);
+            toDos.add(ToDoMapper.toEntity(toDoRecords.get(i)));
+        }
+
+        List<ToDo> savedToDos = toDoService.saveAll(toDos);
+        for (int i = 0; i < savedToDos.size(); i++) {
+            int index = validIndexes.get(i);
+            results[index] = ToDoBatchResultDto.of(index, HttpStatus.CREATED.value(), ToDoMapper.toResponse(savedToDos.get(i)));
+        }
+
+        return ResponseEntity.status(HttpStatus.OK).body(List.of(results));
+    }
+
+    /**
+     * Handles the update of several existing _ToDo_ records at once.
+     * Each element is validated on its own; valid elements are updated together in JDBC batches.
+     * @param toDoRecords The ToDoBatchUpdateDto elements containing the id and updated data of each _ToDo_ record.
+     * @return ResponseEntity containing one result per element, in request order.
+     * @throws BatchTooLargeException if more than MAX_BATCH_SIZE elements are sent.
+     */
+    @Operation(
+            summary = "Update several ToDo´s",
+            description = "validates each element and updates the matching ToDo entities on data source in batches",
+            method = "PUT"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "one result per element, updated elements have status 200, invalid ones 400, " +
+                            "unknown ones 404 and those not written yet by write-behind 409",
+                    content = @Content(schema = @Schema(implementation = ToDoBatchResultDto.class))
+            )
+    })
+    @RateLimited(RateLimitBucket.WRITE)
+    @PutMapping(value="/todos/batch", produces = "application/json")
+    public ResponseEntity<List<ToDoBatchResultDto>> updateToDoBatch(@RequestBody List<ToDoBatchUpdateDto> toDoRecords) {
+        checkBatchSize(toDoRecords);
+
+        ToDoBatchResultDto[] results = new ToDoBatchResultDto[toDoRecords.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+        List<ToDo> toDos = new ArrayList<>();
+        for (int i = 0; i < toDoRecords.size(); i++) {
+            Map<String, String> errors = validate(toDoRecords.get(i));
+            if (!errors.isEmpty()) {
+                results[i] = ToDoBatchResultDto.failed(i, HttpStatus.BAD_REQUEST.value(), errors);
+                continue;
+            }
+            UUID id = toDoRecords.get(i).toDoId();
+            if (isPending(id)) {
+                results[i] = ToDoBatchResultDto.failed(i, HttpStatus.CONFLICT.value(), id, new ToDoPendingWriteException(id).getMessage());
+                continue;
+            }
+            validIndexes.add(i);
+            toDos.add(ToDoMapper.toEntity(toDoRecords.get(i)));
+        }
+
+        List<Optional<ToDo>> updatedToDos = toDoService.updateAll(toDos);
+        for (int i = 0; i < updatedToDos.size(); i++) {
+            int index = validIndexes.get(i);
+            UUID id = toDos.get(i).getToDoId();
+            results[index] = updatedToDos.get(i)
+                    .map(toDo -> ToDoBatchResultDto.of(index, HttpStatus.OK.value(), ToDoMapper.toResponse(toDo)))
+                    .orElseGet(() -> ToDoBatchResultDto.failed(index, HttpStatus.NOT_FOUND.value(), id,
+                            new ToDoNotFoundException(id).getMessage()));
+        }
+
+        return ResponseEntity.status(HttpStatus.OK).body(List.of(results));
+    }
+
+    /**
+     * Handles the deletion of several existing _ToDo_ records at once.
+     * @param ids The ids of the _ToDo_ records to delete.
+     * @return ResponseEntity containing one result per id, in request order.
+     * @throws BatchTooLargeException if more than MAX_BATCH_SIZE ids are sent.
+     */
+    @Operation(
+            summary = "Delete several ToDo´s",
+            description = "deletes the ToDo entities matching the given ids from data source in batches",
+            method = "DELETE"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "one result per id, deleted elements have status 200, unknown ones 404 " +
+                            "and those not written yet by write-behind 409",
+                    content = @Content(schema = @Schema(implementation = ToDoBatchResultDto.class))
             )
     })
-    @DeleteMapping(value="/todos/{id}", produces = "application/json")
-    public ResponseEntity<Object> deleteToDo(@PathVariable("id") UUID id) {
-        Optional<ToDo> foundTodo = toDoService.getById(id);
-        if(foundTodo.isEmpty()){
-            throw new ToDoNotFoundException(id);
+    @RateLimited(RateLimitBucket.WRITE)
+    @DeleteMapping(value="/todos/batch", produces = "application/json")
+    public ResponseEntity<List<ToDoBatchResultDto>> deleteToDoBatch(@RequestBody List<UUID> ids) {
+        checkBatchSize(ids);
+
+        Set<UUID> pendingIds = new HashSet<>();
+        List<UUID> writtenIds = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            if (id != null && isPending(id)) {
+                pendingIds.add(id);
+            } else if (id != null) {
+                writtenIds.add(id);
+            }
+        }
+        Set<UUID> deletedIds = toDoService.deleteAll(writtenIds);
+
+        List<ToDoBatchResultDto> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            UUID id = ids.get(i);
+            if (id == null) {
+                results.add(ToDoBatchResultDto.failed(i, HttpStatus.BAD_REQUEST.value(), Map.of("toDoId", "must not be null")));
+            } else if (deletedIds.contains(id)) {
+                results.add(ToDoBatchResultDto.of(i, HttpStatus.OK.value(), id));
+            } else if (pendingIds.contains(id)) {
+                results.add(ToDoBatchResultDto.failed(i, HttpStatus.CONFLICT.value(), id, new ToDoPendingWriteException(id).getMessage()));
+            } else {
+                results.add(ToDoBatchResultDto.failed(i, HttpStatus.NOT_FOUND.value(), id, new ToDoNotFoundException(id).getMessage()));
+            }
+        }
+
+        return ResponseEntity.status(HttpStatus.OK).body(results);
+    }
+
+    /**
+     * Refuses to change a _ToDo_ record still waiting in the write-behind buffer, which the data source does not
+     * have yet.
+     * @param id The id of the _ToDo_ record to change.
+     * @throws ToDoPendingWriteException if the _ToDo_ record is not written yet.
+     */
+    private void checkWritten(UUID id) {
+        if (isPending(id)) {
+            throw new ToDoPendingWriteException(id);
         }
+    }
+
+    /**
+     * Tells whether a _ToDo_ record was accepted by the write-behind buffer and is not written yet.
+     * @param id The id of the _ToDo_ record.
+     * @return true if the _ToDo_ record is waiting in the write-behind buffer.
+     */
+    private boolean isPending(UUID id) {
+        return writeBehindBuffer != null && writeBehindBuffer.getPending(id).isPresent();
+    }
 
-        return ResponseEntity.status(HttpStatus.OK).body(toDoService.delete(id));
+    /**
+     * Rejects bulk requests carrying more elements than ToDoService.MAX_BATCH_SIZE.
+     * @param elements The elements of the bulk request.
+     * @throws BatchTooLargeException if there are too many elements.
+     */
+    private void checkBatchSize(List<?> elements) {
+        if (elements.size() > ToDoService.MAX_BATCH_SIZE) {
+            throw new BatchTooLargeException(elements.size(), ToDoService.MAX_BATCH_SIZE);
+        }
+    }
+
+    /**
+     * Validates one element of a bulk request.
+     * @param element The element to validate.
+     * @return Map containing field errors, empty if the element is valid.
+     */
+    private Map<String, String> validate(Object element) {
+        Map<String, String> errors = new HashMap<>();
+        if (element == null) {
+            errors.put("element", "must not be null");
+            return errors;
+        }
+        for (ConstraintViolation<Object> violation : validator.validate(element)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
     }
 }
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.example.todolist.controller;
+
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.exceptions.ToDoVersionMismatchException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Builds and parses the ETags of _ToDo_ records, shared by ToDoController and ReactiveToDoController.
+ */
+final class ToDoETags {
+
+    private ToDoETags() {
+    }
+
+    /**
+     * Builds the strong ETag of a _ToDo_ record from its version.
+     * @param toDo The _ToDo_ record.
+     * @return The quoted ETag.
+     */
+    static String of(ToDo toDo) {
+        return "\"" + toDo.getVersion() + "\"";
+    }
+
+    /**
+     * Names the representation of a list response, which the list ETag includes, so that a cache never takes the
+     * body of one media type or links mode for another.
+     * @param mediaType The negotiated media type of the response.
+     * @param links The links request parameter, or null.
+     * @return The subtype of the media type without its "x-" prefixes, followed by "-nolinks" if links are left out.
+     */
+    static String listRepresentation(MediaType mediaType, String links) {
+        String subtype = mediaType.getSubtype();
+        String name = subtype.substring(subtype.lastIndexOf('-') + 1);
+        return ToDoController.LINKS_NONE.equals(links) ? name + "-nolinks" : name;
+    }
+
+    /**
+     * Picks the media type content negotiation writes a response in, before the body exists: the first produced
+     * media type compatible with the accepted ones, taken by quality and then specificity.
+     * @param accepted The media types of the Accept header, empty if there is none.
+     * @param produced The media types the handler produces, in order of preference.
+     * @return The negotiated media type, or the first produced one if none is compatible.
+     */
+    static MediaType negotiate(List<MediaType> accepted, List<MediaType> produced) {
+        List<MediaType> sorted = new ArrayList<>(accepted.isEmpty() ? List.of(MediaType.ALL) : accepted);
+        MimeTypeUtils.sortBySpecificity(sorted);
+        for (MediaType acceptedType : sorted) {
+            if (acceptedType.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType producedType : produced) {
+                if (acceptedType.isCompatibleWith(producedType)) {
+                    return producedType;
+                }
+            }
+        }
+        return produced.get(0);
+    }
+
+    /**
+     * Extracts the version a conditional update or deletion expects from its If-Match header.
+     * @param ifMatch The If-Match header, or null.
+     * @param id The id of the targeted _ToDo_ record.
+     * @return The expected version, or null if the request is unconditional ("*" or no header).
+     * @throws ToDoVersionMismatchException if the header cannot match any ETag of this API, such as a weak one.
+     */
+    static Long expectedVersion(String ifMatch, UUID id) {
+        if (ifMatch == null || ifMatch.strip().equals("*")) {
+            return null;
+        }
+        String eTag = ifMatch.strip();
+        if (eTag.length() < 3 || eTag.charAt(0) != '"' || eTag.charAt(eTag.length() - 1) != '"') {
+            throw new ToDoVersionMismatchException(id);
+        }
+        try {
+            return Long.parseLong(eTag.substring(1, eTag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new ToDoVersionMismatchException(id);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.todolist.controller;
+
+import com.example.todolist.events.ToDoEventBroker;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Controller class streaming _ToDo_ changes as server-sent events.
+ */
+@Tag(name = "ToDo", description = "the ToDo Restful Api")
+@RestController
+@Profile("!reactive")
+public class ToDoEventController {
+
+    private final ToDoEventBroker toDoEventBroker;
+
+    /**
+     * Constructs a new ToDoEventController with the specified ToDoEventBroker.
+     * @param toDoEventBroker The ToDoEventBroker fanning out the change events.
+     */
+    public ToDoEventController(ToDoEventBroker toDoEventBroker) {
+        this.toDoEventBroker = toDoEventBroker;
+    }
+
+    /**
+     * Handles a subscription to the changes of _ToDo_ records.
+     * Each change is sent as a "created", "updated" or "deleted" event carrying the record, or only its id for
+     * deletions. A client reconnecting with the Last-Event-ID header first receives the events it missed, or a
+     * "reset" event if they are no longer retained.
+     * @param lastEventId The id of the last event received before reconnecting, if any.
+     * @return SseEmitter streaming the change events.
+     */
+    @Operation(
+            summary = "Stream ToDo changes",
+            description = "streams created, updated and deleted ToDo´s as server-sent events, resuming after the Last-Event-ID header",
+            method = "GET"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "successful operation",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)
+            )
+    })
+    @GetMapping(value = "/todos/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamToDoEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return toDoEventBroker.subscribe(lastEventId);
+    }
+}
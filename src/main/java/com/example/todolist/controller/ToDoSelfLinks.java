@@ -0,0 +1,39 @@
+package com.example.todolist.controller;
+
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+
+import java.util.UUID;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+/**
+ * Builds "self" links of _ToDo_ records for the current request.
+ * The /todos/{id} prefix is resolved once, instead of going through a method invocation proxy and URI template
+ * expansion for every record of a list; each link then costs one string concatenation.
+ */
+final class ToDoSelfLinks {
+
+    private final String prefix;
+
+    private ToDoSelfLinks(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Resolves the /todos/{id} prefix against the current request (scheme, host, context path and forwarded headers).
+     * @return The link builder for the current request.
+     */
+    static ToDoSelfLinks forCurrentRequest() {
+        return new ToDoSelfLinks(linkTo(ToDoController.class).slash("todos").toUri() + "/");
+    }
+
+    /**
+     * Builds the "self" link of a _ToDo_ record.
+     * @param id The id of the _ToDo_ record.
+     * @return The "self" link, equal to the one built from ToDoController.getToDo.
+     */
+    Link self(UUID id) {
+        return Link.of(prefix + id, IanaLinkRelations.SELF);
+    }
+}
@@ -1,9 +1,22 @@
 package com.example.todolist.controller;
 
+import com.example.todolist.exceptions.BatchTooLargeException;
+import com.example.todolist.exceptions.InvalidCursorException;
+import com.example.todolist.exceptions.InvalidFilterException;
+import com.example.todolist.exceptions.RateLimitExceededException;
 import com.example.todolist.exceptions.ToDoNotFoundException;
+import com.example.todolist.exceptions.ToDoPendingWriteException;
+import com.example.todolist.exceptions.ToDoVersionMismatchException;
+import com.example.todolist.exceptions.WriteBehindQueueFullException;
+import com.example.todolist.metrics.ToDoMetrics;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -20,8 +33,19 @@ import java.util.Map;
  * Global exception handler for handling validation errors and ToDoNotFoundException.
  */
 @RestControllerAdvice
+@Profile("!reactive")
 public class ValidationExceptionHandler {
 
+    private final ToDoMetrics toDoMetrics;
+
+    /**
+     * Constructs a ValidationExceptionHandler with the specified ToDoMetrics.
+     * @param toDoMetrics The ToDoMetrics counting handled errors.
+     */
+    public ValidationExceptionHandler(ToDoMetrics toDoMetrics) {
+        this.toDoMetrics = toDoMetrics;
+    }
+
     /**
      * Handles MethodArgumentNotValidException thrown during request body validation.
      * @param ex The MethodArgumentNotValidException to handle.
@@ -31,6 +55,7 @@ public class ValidationExceptionHandler {
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<Object> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = extractFieldErrors(ex);
+        errors.keySet().forEach(toDoMetrics::validationFailed);
         Map<String, Object> responseBody = createResponseBody(errors);
 
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseBody);
@@ -43,11 +68,115 @@ public class ValidationExceptionHandler {
      */
     @ExceptionHandler(ToDoNotFoundException.class)
     public ResponseEntity<Object> handleToDoNotFoundException(ToDoNotFoundException ex) {
+        toDoMetrics.toDoNotFound();
         Map<String, Object> responseBody = createResponseBody(ex.getMessage());
 
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(responseBody);
     }
 
+    /**
+     * Handles ToDoVersionMismatchException thrown when an If-Match precondition does not hold.
+     * @param ex The ToDoVersionMismatchException to handle.
+     * @return ResponseEntity containing error response.
+     */
+    @ExceptionHandler(ToDoVersionMismatchException.class)
+    public ResponseEntity<Object> handleToDoVersionMismatchException(ToDoVersionMismatchException ex) {
+        Map<String, Object> responseBody = createResponseBody(ex.getMessage(), HttpStatus.PRECONDITION_FAILED);
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(responseBody);
+    }
+
+    /**
+     * Handles ToDoPendingWriteException thrown when an update or deletion targets a _ToDo_ not written yet.
+     * @param ex The ToDoPendingWriteException to handle.
+     * @return ResponseEntity containing error response, asking the client to retry shortly.
+     */
+    @ExceptionHandler(ToDoPendingWriteException.class)
+    public ResponseEntity<Object> handleToDoPendingWriteException(ToDoPendingWriteException ex) {
+        Map<String, Object> responseBody = createResponseBody(ex.getMessage(), HttpStatus.CONFLICT);
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).header(HttpHeaders.RETRY_AFTER, "1").body(responseBody);
+    }
+
+    /**
+     * Handles InvalidCursorException thrown when a continuation token cannot be decoded.
+     * @param ex The InvalidCursorException to handle.
+     * @return ResponseEntity containing error response.
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Object> handleInvalidCursorException(InvalidCursorException ex) {
+        Map<String, Object> responseBody = createResponseBody(ex.getMessage(), HttpStatus.BAD_REQUEST);
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseBody);
+    }
+
+    /**
+     * Handles InvalidFilterException thrown when a list filter parameter has an unsupported value.
+     * @param ex The InvalidFilterException to handle.
+     * @return ResponseEntity containing error response.
+     */
+    @ExceptionHandler(InvalidFilterException.class)
+    public ResponseEntity<Object> handleInvalidFilterException(InvalidFilterException ex) {
+        Map<String, Object> responseBody = createResponseBody(ex.getMessage(), HttpStatus.BAD_REQUEST);
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseBody);
+    }
+
+    /**
+     * Handles BatchTooLargeException thrown when a bulk request carries too many elements.
+     * @param ex The BatchTooLargeException to handle.
+     * @return ResponseEntity containing error response.
+     */
+    @ExceptionHandler(BatchTooLargeException.class)
+    public ResponseEntity<Object> handleBatchTooLargeException(BatchTooLargeException ex) {
+        Map<String, Object> responseBody = createResponseBody(ex.getMessage(), HttpStatus.PAYLOAD_TOO_LARGE);
+
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(responseBody);
+    }
+
+    /**
+     * Handles CannotCreateTransactionException thrown when no database connection could be obtained in time,
+     * because the connection bulkhead or the pool stayed full, and DataAccessResourceFailureException thrown when
+     * it happens on the first statement, as connections are fetched lazily once read replicas are configured.
+     * Also handles QueryTimeoutException thrown when the identical read a request joined did not complete in time.
+     * @param ex The CannotCreateTransactionException, DataAccessResourceFailureException or QueryTimeoutException to handle.
+     * @return ResponseEntity containing error response, asking the client to retry shortly.
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class,
+            QueryTimeoutException.class})
+    public ResponseEntity<Object> handleCannotCreateTransactionException(RuntimeException ex) {
+        toDoMetrics.databaseUnavailable();
+        Map<String, Object> responseBody = createResponseBody("Database busy, retry later", HttpStatus.SERVICE_UNAVAILABLE);
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(responseBody);
+    }
+
+    /**
+     * Handles WriteBehindQueueFullException thrown when the write-behind buffer cannot take more _ToDo_ records.
+     * @param ex The WriteBehindQueueFullException to handle.
+     * @return ResponseEntity containing error response, asking the client to retry shortly.
+     */
+    @ExceptionHandler(WriteBehindQueueFullException.class)
+    public ResponseEntity<Object> handleWriteBehindQueueFullException(WriteBehindQueueFullException ex) {
+        Map<String, Object> responseBody = createResponseBody(ex.getMessage(), HttpStatus.TOO_MANY_REQUESTS);
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(responseBody);
+    }
+
+    /**
+     * Handles RateLimitExceededException thrown when a client sent more requests than its rate limit allows.
+     * @param ex The RateLimitExceededException to handle.
+     * @return ResponseEntity containing error response, asking the client to retry once its bucket has refilled.
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Object> handleRateLimitExceededException(RateLimitExceededException ex) {
+        Map<String, Object> responseBody = createResponseBody(ex.getMessage(), HttpStatus.TOO_MANY_REQUESTS);
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds)).body(responseBody);
+    }
+
     /**
      * Extracts field errors from MethodArgumentNotValidException.
      * @param ex The MethodArgumentNotValidException to extract errors from.
@@ -69,8 +198,18 @@ public class ValidationExceptionHandler {
      * @return Map containing error response body.
      */
     private Map<String, Object> createResponseBody(Object errors) {
+        return createResponseBody(errors, errors instanceof Map ? HttpStatus.BAD_REQUEST : HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Creates a response body for error responses with an explicit status.
+     * @param errors The errors or exception message.
+     * @param httpStatus The HTTP status of the response.
+     * @return Map containing error response body.
+     */
+    private Map<String, Object> createResponseBody(Object errors, HttpStatus httpStatus) {
         Map<String, Object> responseBody = new HashMap<>();
-        fillResponseBody(responseBody, errors instanceof Map ? HttpStatus.BAD_REQUEST.value() : HttpStatus.NOT_FOUND.value());
+        fillResponseBody(responseBody, httpStatus.value());
         responseBody.put("errors", errors);
         return responseBody;
     }
@@ -0,0 +1,129 @@
+package com.example.todolist.datasource;
+
+import com.example.todolist.exceptions.ConnectionBulkheadFullException;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource admitting at most as many concurrent connection holders as the pool has connections.
+ * With virtual threads nothing bounds the number of request threads anymore, so thousands of them may ask for
+ * a connection at once; the bulkhead lets no more callers than the pool has connections through, queues a bounded
+ * number of the others fairly, as parked threads, for at most maxWait, and rejects the rest at once.
+ */
+public class ConnectionBulkhead extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final Duration maxWait;
+    private final int maxWaiting;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    /**
+     * Constructs a ConnectionBulkhead in front of the specified DataSource.
+     * @param targetDataSource The pooled DataSource.
+     * @param maxConnections The number of connections that may be held at once, usually the pool size.
+     * @param maxWait The longest time a caller waits for a permit.
+     * @param maxWaiting The largest number of callers waiting for a permit; further callers are rejected at once.
+     */
+    public ConnectionBulkhead(DataSource targetDataSource, int maxConnections, Duration maxWait, int maxWaiting) {
+        super(targetDataSource);
+        this.permits = new Semaphore(maxConnections, true);
+        this.maxWait = maxWait;
+        this.maxWaiting = maxWaiting;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Get the number of connections that can still be handed out without waiting.
+     * @return The number of free permits.
+     */
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Takes a free permit, or waits for one for at most maxWait if fewer than maxWaiting callers are waiting.
+     * @throws ConnectionBulkheadFullException if the queue is full or no permit freed up in time.
+     * @throws SQLException if the waiting thread was interrupted.
+     */
+    private void acquire() throws SQLException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            throw new ConnectionBulkheadFullException(Duration.ZERO);
+        }
+        try {
+            if (!permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new ConnectionBulkheadFullException(maxWait);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Wraps a connection so that closing it, once, gives its permit back.
+     * @param connection The pooled connection.
+     * @return The wrapping connection.
+     */
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        default: break;
+                    }
+                    if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
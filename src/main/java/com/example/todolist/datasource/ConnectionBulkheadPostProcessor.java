@@ -0,0 +1,40 @@
+package com.example.todolist.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Places a ConnectionBulkhead, sized to the Hikari pool, in front of the application DataSource.
+ * Enabled unless todo.datasource.bulkhead.enabled is false.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.datasource.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class ConnectionBulkheadPostProcessor implements BeanPostProcessor {
+
+    private final Duration maxWait;
+    private final int maxWaiting;
+
+    /**
+     * Constructs a ConnectionBulkheadPostProcessor.
+     * @param maxWait The longest time a caller waits for a connection permit.
+     * @param maxWaiting The largest number of callers waiting for a connection permit.
+     */
+    public ConnectionBulkheadPostProcessor(@Value("${todo.datasource.bulkhead.max-wait:30s}") Duration maxWait,
+                                           @Value("${todo.datasource.bulkhead.max-waiting:10000}") int maxWaiting) {
+        this.maxWait = maxWait;
+        this.maxWaiting = maxWaiting;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource hikariDataSource) {
+            return new ConnectionBulkhead(hikariDataSource, hikariDataSource.getMaximumPoolSize(), maxWait, maxWaiting);
+        }
+        return bean;
+    }
+}
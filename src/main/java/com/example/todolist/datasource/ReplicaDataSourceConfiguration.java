@@ -0,0 +1,114 @@
+package com.example.todolist.datasource;
+
+import com.example.todolist.metrics.ToDoMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration of read replicas, active once todo.datasource.replica.urls lists at least one replica.
+ * The primary pool is built from the spring.datasource properties, as Spring Boot would, and the application
+ * DataSource becomes a lazy proxy over a ReplicaRoutingDataSource, so that read-only transactions go to the replicas.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("!reactive & !embedded")
+@ConditionalOnProperty(name = "todo.datasource.replica.urls")
+public class ReplicaDataSourceConfiguration {
+
+    /**
+     * Creates the pool of the primary database, configured by the spring.datasource properties.
+     * @param properties The spring.datasource properties.
+     * @return The HikariDataSource of the primary.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Creates the pools of the replicas, behind a connection bulkhead when enabled, and routes between them and the
+     * primary.
+     * @param primaryDataSource The DataSource of the primary.
+     * @param properties The spring.datasource properties, providing the JDBC driver.
+     * @param bulkheadPostProcessor The connection bulkhead post-processor, if enabled.
+     * @param meterRegistry The MeterRegistry receiving the replica pool meters.
+     * @param toDoMetrics The application meters.
+     * @param urls The JDBC URLs of the replicas.
+     * @param username The user name on the replicas.
+     * @param password The password on the replicas.
+     * @param maximumPoolSize The maximum number of connections to each replica.
+     * @param connectionTimeout The longest time to wait for a replica connection.
+     * @param healthCheckInterval The time between two probes of the replicas.
+     * @return The ReplicaRoutingDataSource.
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            DataSourceProperties properties,
+            ObjectProvider<ConnectionBulkheadPostProcessor> bulkheadPostProcessor,
+            MeterRegistry meterRegistry,
+            ToDoMetrics toDoMetrics,
+            @Value("${todo.datasource.replica.urls}") String[] urls,
+            @Value("${todo.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${todo.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${todo.datasource.replica.maximum-pool-size:20}") int maximumPoolSize,
+            @Value("${todo.datasource.replica.connection-timeout:2s}") Duration connectionTimeout,
+            @Value("${todo.datasource.replica.health-check-interval:5s}") Duration healthCheckInterval) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.length; i++) {
+            String name = "replica-" + i;
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(name);
+            pool.setJdbcUrl(urls[i].trim());
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setDriverClassName(properties.getDriverClassName());
+            pool.setReadOnly(true);
+            pool.setMaximumPoolSize(maximumPoolSize);
+            pool.setConnectionTimeout(connectionTimeout.toMillis());
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            ConnectionBulkheadPostProcessor bulkhead = bulkheadPostProcessor.getIfAvailable();
+            replicas.put(name, bulkhead == null ? pool : (DataSource) bulkhead.postProcessAfterInitialization(pool, name));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, healthCheckInterval, connectionTimeout, toDoMetrics);
+    }
+
+    /**
+     * Creates the application DataSource, fetching connections from the ReplicaRoutingDataSource on first use.
+     * @param replicaRoutingDataSource The ReplicaRoutingDataSource.
+     * @return The LazyConnectionDataSourceProxy used by JPA, Flyway and the transaction manager.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * Creates the filter keeping a client's reads on the primary right after it wrote.
+     * @param stickiness The time after a write during which the client's reads go to the primary.
+     * @return The ReplicaStickinessFilter.
+     */
+    @Bean
+    public ReplicaStickinessFilter replicaStickinessFilter(
+            @Value("${todo.datasource.replica.stickiness:5s}") Duration stickiness) {
+        return new ReplicaStickinessFilter(stickiness);
+    }
+}
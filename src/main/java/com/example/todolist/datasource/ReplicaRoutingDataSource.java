@@ -0,0 +1,171 @@
+package com.example.todolist.datasource;
+
+import com.example.todolist.metrics.ToDoMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource sending read-only transactions to the healthy replicas, in turn, and everything else to the primary.
+ * The target is looked up when a connection is requested, so this DataSource must sit behind a
+ * LazyConnectionDataSourceProxy: the connection is then only requested by the first statement, once the transaction
+ * manager has published whether the transaction is read-only.
+ * Replicas are probed every health check interval and skipped while they fail; when none is healthy, reads go to the
+ * primary. Threads pinned to the primary, see {@link #pinToPrimary()}, read from the primary as well.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final Map<String, DataSource> replicas;
+    private final Duration healthCheckInterval;
+    private final int validationTimeoutSeconds;
+    private final Map<String, Boolean> replicaStates = new HashMap<>();
+    private final AtomicInteger healthyCount = new AtomicInteger();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+    private volatile List<String> healthyReplicas = List.of();
+
+    /**
+     * Constructs a ReplicaRoutingDataSource, which starts probing the replicas once its properties are set.
+     * Replicas count as unhealthy until their first successful probe.
+     * @param primary The DataSource of the primary database.
+     * @param replicas The DataSources of the replicas, by name.
+     * @param healthCheckInterval The time between two probes of the replicas.
+     * @param validationTimeout The longest time a replica may take to validate a connection.
+     * @param toDoMetrics The application meters, holding the gauge of healthy replicas.
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration healthCheckInterval,
+                                    Duration validationTimeout, ToDoMetrics toDoMetrics) {
+        Map<Object, Object> targetDataSources = new HashMap<>(replicas);
+        targetDataSources.put(PRIMARY, primary);
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+        this.replicas = Map.copyOf(replicas);
+        this.healthCheckInterval = healthCheckInterval;
+        this.validationTimeoutSeconds = (int) Math.max(1, validationTimeout.toSeconds());
+        toDoMetrics.registerHealthyReplicas(healthyCount);
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("todo-replica-health").daemon().factory());
+    }
+
+    /**
+     * Resolves the target DataSources and starts probing the replicas.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, 0, healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Pins the reads of the current thread to the primary until the returned Pin is closed.
+     * Nested pins leave the thread pinned until the outermost one is closed.
+     * @return The Pin to close once the reads may go to the replicas again.
+     */
+    public static Pin pinToPrimary() {
+        if (PINNED_TO_PRIMARY.get() != null) {
+            return () -> {};
+        }
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        return PINNED_TO_PRIMARY::remove;
+    }
+
+    /**
+     * Get the number of replicas that passed their last probe.
+     * @return The number of healthy replicas.
+     */
+    public int getHealthyReplicaCount() {
+        return healthyReplicas.size();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || PINNED_TO_PRIMARY.get() != null) {
+            return PRIMARY;
+        }
+        List<String> healthy = healthyReplicas;
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(nextReplica.getAndIncrement(), healthy.size()));
+    }
+
+    /**
+     * Probes each replica with a fresh connection and keeps those that answered for routing. A replica going down or
+     * coming back is logged once, on its first probe in the new state.
+     */
+    void checkReplicas() {
+        List<String> healthy = new ArrayList<>();
+        replicas.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(replica -> {
+            String name = replica.getKey();
+            Exception failure = probe(replica.getValue());
+            Boolean wasHealthy = replicaStates.put(name, failure == null);
+            if (failure == null) {
+                healthy.add(name);
+                if (!Boolean.TRUE.equals(wasHealthy)) {
+                    log.info("Replica {} is healthy, routing reads to it", name);
+                }
+            } else if (!Boolean.FALSE.equals(wasHealthy)) {
+                log.warn("Replica {} is down, routing its reads elsewhere until it answers again", name, failure);
+            }
+        });
+        healthyReplicas = List.copyOf(healthy);
+        healthyCount.set(healthy.size());
+    }
+
+    /**
+     * Opens a connection to a replica and validates it.
+     * @param replica The DataSource of the replica.
+     * @return null if the connection is valid, otherwise the reason it is not.
+     */
+    private Exception probe(DataSource replica) {
+        try (Connection connection = replica.getConnection()) {
+            return connection.isValid(validationTimeoutSeconds) ? null : new SQLException("Connection failed validation");
+        } catch (SQLException | RuntimeException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Stops the health checks and closes the replica pools.
+     */
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        for (DataSource replica : replicas.values()) {
+            try {
+                if (replica.isWrapperFor(Closeable.class)) {
+                    replica.unwrap(Closeable.class).close();
+                }
+            } catch (Exception e) {
+                log.warn("Could not close a replica pool", e);
+            }
+        }
+    }
+
+    /**
+     * Pin of the current thread's reads to the primary, released by closing it.
+     */
+    public interface Pin extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.todolist.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Filter keeping the reads of a client that just wrote on the primary, so that it reads its own writes while the
+ * replicas catch up.
+ * Every request with a non-safe method runs pinned to the primary and sets a cookie holding the end of the
+ * stickiness window; requests carrying that cookie run pinned to the primary until the window ends. The window
+ * travels with the client, so it holds across instances.
+ */
+public class ReplicaStickinessFilter extends OncePerRequestFilter {
+
+    /**
+     * Name of the cookie holding the instant, in epoch milliseconds, until which the client reads from the primary.
+     */
+    public static final String COOKIE_NAME = "todo-read-primary-until";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final Duration window;
+
+    /**
+     * Constructs a ReplicaStickinessFilter.
+     * @param window The time after a write during which the client's reads go to the primary.
+     */
+    public ReplicaStickinessFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write) {
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(now + window.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            response.addCookie(cookie);
+        }
+        if (write || readsFromPrimaryUntil(request) > now) {
+            ReplicaRoutingDataSource.Pin pin = ReplicaRoutingDataSource.pinToPrimary();
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                pin.close();
+            }
+        } else {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private static long readsFromPrimaryUntil(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
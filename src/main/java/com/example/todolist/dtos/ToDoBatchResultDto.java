@@ -0,0 +1,63 @@
+package com.example.todolist.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) representing the outcome of one element of a bulk request.
+ * @param index The position of the element in the request body.
+ * @param status The HTTP status describing the outcome for this element.
+ * @param toDoId The id of the affected _ToDo_ record, if any.
+ * @param toDo The resulting _ToDo_ record, if any.
+ * @param errors The validation errors or error message, if the element was rejected.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ToDoBatchResultDto(int index, int status, UUID toDoId, ToDoResponseDto toDo, Object errors) {
+
+    /**
+     * Creates the result of an element that was applied.
+     * @param index The position of the element in the request body.
+     * @param status The HTTP status describing the outcome.
+     * @param toDo The resulting _ToDo_ record.
+     * @return The successful result.
+     */
+    public static ToDoBatchResultDto of(int index, int status, ToDoResponseDto toDo) {
+        return new ToDoBatchResultDto(index, status, toDo.toDoId(), toDo, null);
+    }
+
+    /**
+     * Creates the result of an element that was applied and has no body, such as a deletion.
+     * @param index The position of the element in the request body.
+     * @param status The HTTP status describing the outcome.
+     * @param toDoId The id of the affected _ToDo_ record.
+     * @return The successful result.
+     */
+    public static ToDoBatchResultDto of(int index, int status, UUID toDoId) {
+        return new ToDoBatchResultDto(index, status, toDoId, null, null);
+    }
+
+    /**
+     * Creates the result of an element that was rejected because of invalid fields.
+     * @param index The position of the element in the request body.
+     * @param status The HTTP status describing the outcome.
+     * @param errors The field errors, by field name.
+     * @return The failed result.
+     */
+    public static ToDoBatchResultDto failed(int index, int status, Map<String, String> errors) {
+        return new ToDoBatchResultDto(index, status, null, null, errors);
+    }
+
+    /**
+     * Creates the result of an element that was rejected.
+     * @param index The position of the element in the request body.
+     * @param status The HTTP status describing the outcome.
+     * @param toDoId The id of the _ToDo_ record the element referred to.
+     * @param message The error message.
+     * @return The failed result.
+     */
+    public static ToDoBatchResultDto failed(int index, int status, UUID toDoId, String message) {
+        return new ToDoBatchResultDto(index, status, toDoId, null, message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.todolist.dtos;
+
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) representing one element of a bulk _ToDo_ update.
+ */
+public record ToDoBatchUpdateDto(@NotNull UUID toDoId, @NotBlank @Size(max = 255) String title, @NotBlank @Size(max = 255) String description, @NotNull @FutureOrPresent LocalDate dueDate) {
+
+}
@@ -0,0 +1,71 @@
+package com.example.todolist.dtos;
+
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.exceptions.InvalidCursorException;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position of a _ToDo_ record inside the list ordered by (dueDate, toDoId), records without a due date last.
+ * Clients only ever see it as an opaque continuation token.
+ * @param dueDate The due date of the record, or null if it has none.
+ * @param toDoId The id of the record.
+ */
+public record ToDoCursor(LocalDate dueDate, UUID toDoId) {
+
+    private static final int TOKEN_BYTES = Long.BYTES * 3;
+    private static final long NO_DUE_DATE = Long.MIN_VALUE;
+
+    /**
+     * Builds the cursor pointing right after the given _ToDo_ record.
+     * @param toDo The last _ToDo_ record of a page.
+     * @return The cursor for the following page.
+     */
+    public static ToDoCursor after(ToDo toDo) {
+        return new ToDoCursor(toDo.getDueDate(), toDo.getToDoId());
+    }
+
+    /**
+     * Encodes the cursor as an URL safe continuation token.
+     * @return The opaque continuation token.
+     */
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(TOKEN_BYTES);
+        buffer.putLong(dueDate == null ? NO_DUE_DATE : dueDate.toEpochDay());
+        buffer.putLong(toDoId.getMostSignificantBits());
+        buffer.putLong(toDoId.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodes a continuation token previously produced by {@link #encode()}.
+     * @param token The opaque continuation token.
+     * @return The decoded cursor.
+     * @throws InvalidCursorException if the token is malformed.
+     */
+    public static ToDoCursor decode(String token) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException(token);
+        }
+        if (bytes.length != TOKEN_BYTES) {
+            throw new InvalidCursorException(token);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long epochDay = buffer.getLong();
+        LocalDate dueDate;
+        try {
+            dueDate = epochDay == NO_DUE_DATE ? null : LocalDate.ofEpochDay(epochDay);
+        } catch (DateTimeException ex) {
+            throw new InvalidCursorException(token);
+        }
+        return new ToDoCursor(dueDate, new UUID(buffer.getLong(), buffer.getLong()));
+    }
+}
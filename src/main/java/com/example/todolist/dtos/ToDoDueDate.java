@@ -0,0 +1,12 @@
+package com.example.todolist.dtos;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Id and due date of a _ToDo_ record, read without loading the entity.
+ * @param toDoId The id of the _ToDo_ record.
+ * @param dueDate The due date of the _ToDo_ record, or null.
+ */
+public record ToDoDueDate(UUID toDoId, LocalDate dueDate) {
+}
@@ -0,0 +1,11 @@
+package com.example.todolist.dtos;
+
+import java.time.LocalDate;
+
+/**
+ * Number of _ToDo_ records sharing a due date, one bucket of the due date histogram.
+ * @param dueDate The due date, or null for the records without one.
+ * @param count The number of _ToDo_ records due on that date.
+ */
+public record ToDoDueDateCount(LocalDate dueDate, long count) {
+}
@@ -0,0 +1,84 @@
+package com.example.todolist.dtos;
+
+import com.example.todolist.exceptions.InvalidFilterException;
+
+import java.time.LocalDate;
+
+/**
+ * Server side filter applied to the list of _ToDo_ records.
+ * Every criterion is optional; a null criterion matches every record.
+ * @param dueFrom The earliest due date, inclusive.
+ * @param dueTo The latest due date, inclusive.
+ * @param text The text searched, case insensitively, in the title or the description.
+ */
+public record ToDoFilter(LocalDate dueFrom, LocalDate dueTo, String text) {
+
+    /**
+     * Filter matching every _ToDo_ record.
+     */
+    public static final ToDoFilter NONE = new ToDoFilter(null, null, null);
+
+    /**
+     * Due date window of the _ToDos_ that are past their due date.
+     */
+    public static final String WINDOW_OVERDUE = "overdue";
+
+    /**
+     * Due date window of the _ToDos_ that are due within the next days.
+     */
+    public static final String WINDOW_UPCOMING = "upcoming";
+
+    /**
+     * Number of days covered by the upcoming window when the client does not ask for one.
+     */
+    public static final int DEFAULT_UPCOMING_DAYS = 7;
+
+    /**
+     * Builds a filter from the list query parameters.
+     * A window narrows the explicit due date range, so both can be combined.
+     * @param dueFrom The earliest due date, or null.
+     * @param dueTo The latest due date, or null.
+     * @param window The due date window, overdue or upcoming, or null.
+     * @param days The number of days of the upcoming window, or null for the default.
+     * @param text The searched text, or null.
+     * @param today The current date the window is relative to.
+     * @return The filter.
+     * @throws InvalidFilterException if the window or the number of days is not supported.
+     */
+    public static ToDoFilter of(LocalDate dueFrom, LocalDate dueTo, String window, Integer days, String text,
+                                LocalDate today) {
+        if(days != null && days < 0){
+            throw new InvalidFilterException("days", days);
+        }
+
+        if(window != null){
+            switch (window) {
+                case WINDOW_OVERDUE -> dueTo = earliest(dueTo, today.minusDays(1));
+                case WINDOW_UPCOMING -> {
+                    dueFrom = latest(dueFrom, today);
+                    dueTo = earliest(dueTo, today.plusDays(days == null ? DEFAULT_UPCOMING_DAYS : days));
+                }
+                default -> throw new InvalidFilterException("window", window);
+            }
+        }
+
+        String trimmed = text == null ? null : text.strip();
+        return new ToDoFilter(dueFrom, dueTo, trimmed == null || trimmed.isEmpty() ? null : trimmed);
+    }
+
+    /**
+     * Tells whether the filter matches every _ToDo_ record.
+     * @return true if no criterion is set.
+     */
+    public boolean isEmpty() {
+        return dueFrom == null && dueTo == null && text == null;
+    }
+
+    private static LocalDate earliest(LocalDate date, LocalDate bound) {
+        return date == null || bound.isBefore(date) ? bound : date;
+    }
+
+    private static LocalDate latest(LocalDate date, LocalDate bound) {
+        return date == null || bound.isAfter(date) ? bound : date;
+    }
+}
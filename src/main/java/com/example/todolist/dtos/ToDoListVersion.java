@@ -0,0 +1,27 @@
+package com.example.todolist.dtos;
+
+import java.time.LocalDate;
+
+/**
+ * Version of the whole _ToDo_ list, from which the list ETag is derived.
+ * Every committed write increments it, so it is read with one primary key lookup rather than aggregated over the
+ * _ToDo_ records.
+ * @param version The number of the last committed write, which never repeats for another content of the list.
+ */
+public record ToDoListVersion(long version) {
+
+    /**
+     * Builds the strong ETag of a list response.
+     * @param day The day relative windows were resolved against, or null if the list does not depend on it.
+     * @param representation The name of the negotiated representation, such as "json" or "cbor-nolinks", since each
+     * representation of the same list has an ETag of its own.
+     * @return The quoted ETag.
+     */
+    public String eTag(LocalDate day, String representation) {
+        StringBuilder eTag = new StringBuilder("\"").append(Long.toHexString(version));
+        if (day != null) {
+            eTag.append('-').append(Long.toHexString(day.toEpochDay()));
+        }
+        return eTag.append('-').append(representation).append('"').toString();
+    }
+}
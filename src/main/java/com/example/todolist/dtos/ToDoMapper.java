@@ -0,0 +1,76 @@
+package com.example.todolist.dtos;
+
+import com.example.todolist.entity.ToDo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Maps between _ToDo_ entities and their DTOs with plain field copies, in place of reflective property copying.
+ */
+public final class ToDoMapper {
+
+    private ToDoMapper() {
+    }
+
+    /**
+     * Creates a new _ToDo_ entity from a ToDoRecordDto.
+     * @param toDoRecord The ToDoRecordDto carrying the field values.
+     * @return The new _ToDo_ entity, without id.
+     */
+    public static ToDo toEntity(ToDoRecordDto toDoRecord) {
+        return toEntity(null, toDoRecord);
+    }
+
+    /**
+     * Creates a _ToDo_ entity with the given id from a ToDoRecordDto.
+     * @param id The id of the _ToDo_ entity, or null for a new one.
+     * @param toDoRecord The ToDoRecordDto carrying the field values.
+     * @return The _ToDo_ entity.
+     */
+    public static ToDo toEntity(UUID id, ToDoRecordDto toDoRecord) {
+        var toDo = new ToDo();
+        toDo.setToDoId(id);
+        toDo.setTitle(toDoRecord.title());
+        toDo.setDescription(toDoRecord.description());
+        toDo.setDueDate(toDoRecord.dueDate());
+        return toDo;
+    }
+
+    /**
+     * Creates a _ToDo_ entity from one element of a bulk update.
+     * @param toDoRecord The ToDoBatchUpdateDto carrying the id and the field values.
+     * @return The _ToDo_ entity.
+     */
+    public static ToDo toEntity(ToDoBatchUpdateDto toDoRecord) {
+        var toDo = new ToDo();
+        toDo.setToDoId(toDoRecord.toDoId());
+        toDo.setTitle(toDoRecord.title());
+        toDo.setDescription(toDoRecord.description());
+        toDo.setDueDate(toDoRecord.dueDate());
+        return toDo;
+    }
+
+    /**
+     * Creates the response representation of a _ToDo_ entity.
+     * @param toDo The _ToDo_ entity.
+     * @return The ToDoResponseDto.
+     */
+    public static ToDoResponseDto toResponse(ToDo toDo) {
+        return new ToDoResponseDto(toDo.getToDoId(), toDo.getTitle(), toDo.getDescription(), toDo.getDueDate());
+    }
+
+    /**
+     * Creates the response representations of a list of _ToDo_ entities.
+     * @param toDos The _ToDo_ entities.
+     * @return The ToDoResponseDto list, in the same order.
+     */
+    public static List<ToDoResponseDto> toResponses(List<ToDo> toDos) {
+        List<ToDoResponseDto> responses = new ArrayList<>(toDos.size());
+        for (ToDo toDo : toDos) {
+            responses.add(toResponse(toDo));
+        }
+        return responses;
+    }
+}
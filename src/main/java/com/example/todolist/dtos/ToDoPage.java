@@ -0,0 +1,21 @@
+package com.example.todolist.dtos;
+
+import com.example.todolist.entity.ToDo;
+
+import java.util.List;
+
+/**
+ * A single keyset page of _ToDo_ records.
+ * @param content The _ToDo_ records of the page, ordered by (dueDate, toDoId).
+ * @param next The cursor of the following page, or null if this is the last one.
+ */
+public record ToDoPage(List<ToDo> content, ToDoCursor next) {
+
+    /**
+     * Tells whether a following page exists.
+     * @return true if there are more _ToDo_ records after this page.
+     */
+    public boolean hasNext() {
+        return next != null;
+    }
+}
@@ -3,12 +3,13 @@ package com.example.todolist.dtos;
 import jakarta.validation.constraints.FutureOrPresent;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 import java.time.LocalDate;
 
 /**
  * Data Transfer Object (DTO) representing a _ToDo_ record.
  */
-public record ToDoRecordDto(@NotBlank String title, @NotBlank String description, @NotNull @FutureOrPresent LocalDate dueDate) {
+public record ToDoRecordDto(@NotBlank @Size(max = 255) String title, @NotBlank @Size(max = 255) String description, @NotNull @FutureOrPresent LocalDate dueDate) {
 
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.example.todolist.dtos;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) representing a _ToDo_ record in API responses.
+ * Immutable, so that responses never hold on to or modify managed entities.
+ */
+public record ToDoResponseDto(UUID toDoId, String title, String description, LocalDate dueDate) {
+
+}
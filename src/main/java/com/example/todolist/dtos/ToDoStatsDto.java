@@ -0,0 +1,17 @@
+package com.example.todolist.dtos;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object (DTO) representing the statistics of the _ToDo_ list in API responses.
+ * The overdue and due this week counts match the overdue and upcoming list windows of the same day.
+ * @param day The day the counts are relative to.
+ * @param total The number of _ToDo_ records.
+ * @param withoutDueDate The number of _ToDo_ records without a due date.
+ * @param overdue The number of _ToDo_ records due before the day.
+ * @param dueToday The number of _ToDo_ records due on the day.
+ * @param dueThisWeek The number of _ToDo_ records due from the day to seven days later, both included.
+ */
+public record ToDoStatsDto(LocalDate day, long total, long withoutDueDate, long overdue, long dueToday,
+                           long dueThisWeek) {
+}
@@ -1,10 +1,12 @@
 package com.example.todolist.entity;
 
+import com.example.todolist.id.ToDoIdAssigner;
 import jakarta.annotation.Nonnull;
 import jakarta.persistence.*;
-import org.springframework.hateoas.RepresentationModel;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.UUID;
 
@@ -12,17 +14,25 @@ import java.util.UUID;
  * Entity class representing a _ToDo_ item.
  */
 @Entity
-@Table(name = "TB_TODOS")
-public class ToDo extends RepresentationModel<ToDo> implements Serializable {
+@Table(name = "TB_TODOS", indexes = {
+        @Index(name = "IDX_TODOS_DUE_DATE_ID", columnList = "due_date, to_do_id") // keyset pagination order
+})
+@EntityListeners(ToDoIdAssigner.class)
+public class ToDo implements Serializable {
 
-    @Id
-    @GeneratedValue(strategy= GenerationType.AUTO) // Automatic id generation
+    @Id // Assigned by ToDoIdAssigner before insert, so that inserts can be JDBC batched
     private UUID toDoId;
 
     private String title;
     private String description;
     private LocalDate dueDate;
 
+    @Version // Incremented on every update, exposed as the ETag of the _ToDo_ item
+    private Long version;
+
+    @UpdateTimestamp // Set on insert and on every update, exposed as its Last-Modified date
+    private Instant updatedAt;
+
     /**
      * Get the unique identifier of the _ToDo_ item.
      * @return The _ToDo_ item's unique identifier.
@@ -86,4 +96,36 @@ public class ToDo extends RepresentationModel<ToDo> implements Serializable {
     public void setDueDate(LocalDate dueDate) {
         this.dueDate = dueDate;
     }
+
+    /**
+     * Get the version of the _ToDo_ item, incremented on every update.
+     * @return The version of the _ToDo_ item.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Set the version of the _ToDo_ item.
+     * @param version The version to set.
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Get the instant of the last change of the _ToDo_ item.
+     * @return The instant the _ToDo_ item was created or last updated.
+     */
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Set the instant of the last change of the _ToDo_ item.
+     * @param updatedAt The instant to set.
+     */
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
@@ -0,0 +1,111 @@
+package com.example.todolist.entity;
+
+import com.example.todolist.events.ToDoChangeEvent;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Entity class representing a change of a _ToDo_ item waiting in the outbox to be published downstream.
+ */
+@Entity
+@Table(name = "TB_TODO_OUTBOX")
+public class ToDoOutboxMessage {
+
+    @Id // Time ordered, so that messages are relayed oldest first
+    private UUID messageId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private ToDoChangeEvent.Type eventType;
+
+    @Column(nullable = false)
+    private UUID toDoId;
+
+    @Column(length = 2048, nullable = false) // JSON of the _ToDo_ item, or of its id for deletions
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    /**
+     * Get the unique identifier of the message.
+     * @return The message's unique identifier.
+     */
+    public UUID getMessageId() {
+        return messageId;
+    }
+
+    /**
+     * Set the unique identifier of the message.
+     * @param messageId The unique identifier to set.
+     */
+    public void setMessageId(UUID messageId) {
+        this.messageId = messageId;
+    }
+
+    /**
+     * Get the kind of change carried by the message.
+     * @return The kind of change.
+     */
+    public ToDoChangeEvent.Type getEventType() {
+        return eventType;
+    }
+
+    /**
+     * Set the kind of change carried by the message.
+     * @param eventType The kind of change to set.
+     */
+    public void setEventType(ToDoChangeEvent.Type eventType) {
+        this.eventType = eventType;
+    }
+
+    /**
+     * Get the unique identifier of the changed _ToDo_ item.
+     * @return The _ToDo_ item's unique identifier.
+     */
+    public UUID getToDoId() {
+        return toDoId;
+    }
+
+    /**
+     * Set the unique identifier of the changed _ToDo_ item.
+     * @param toDoId The unique identifier to set.
+     */
+    public void setToDoId(UUID toDoId) {
+        this.toDoId = toDoId;
+    }
+
+    /**
+     * Get the JSON payload of the message.
+     * @return The _ToDo_ item after the change, or only its id for deletions, as JSON.
+     */
+    public String getPayload() {
+        return payload;
+    }
+
+    /**
+     * Set the JSON payload of the message.
+     * @param payload The payload to set.
+     */
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    /**
+     * Get the instant the change was written to the outbox.
+     * @return The instant the message was created.
+     */
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Set the instant the change was written to the outbox.
+     * @param createdAt The instant to set.
+     */
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
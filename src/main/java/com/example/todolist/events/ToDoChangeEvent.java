@@ -0,0 +1,74 @@
+package com.example.todolist.events;
+
+import com.example.todolist.dtos.ToDoMapper;
+import com.example.todolist.dtos.ToDoResponseDto;
+import com.example.todolist.entity.ToDo;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Application event published by ToDoService for every created, updated or deleted _ToDo_ record.
+ * Listeners receive it once the surrounding transaction, if any, has committed.
+ * @param type The kind of change.
+ * @param toDoId The id of the changed _ToDo_ record.
+ * @param toDo The _ToDo_ record after the change, or null for deletions.
+ * @param previousDueDate The due date of the _ToDo_ record before an update or deletion, which may be null;
+ * always null for creations. It is not sent downstream.
+ */
+public record ToDoChangeEvent(Type type, UUID toDoId, ToDoResponseDto toDo, LocalDate previousDueDate) {
+
+    /**
+     * Kinds of change of a _ToDo_ record.
+     */
+    public enum Type {
+        CREATED, UPDATED, DELETED;
+
+        /**
+         * Get the name of the server-sent event carrying this kind of change.
+         * @return The lower case event name.
+         */
+        public String eventName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Get the body sent downstream for this change.
+     * @return The _ToDo_ record after the change, or only its id for deletions.
+     */
+    public Object payload() {
+        return toDo != null ? toDo : Map.of("toDoId", toDoId);
+    }
+
+    /**
+     * Creates the event of a created _ToDo_ record.
+     * @param toDo The created _ToDo_ entity.
+     * @return The event.
+     */
+    public static ToDoChangeEvent created(ToDo toDo) {
+        return new ToDoChangeEvent(Type.CREATED, toDo.getToDoId(), ToDoMapper.toResponse(toDo), null);
+    }
+
+    /**
+     * Creates the event of an updated _ToDo_ record.
+     * @param toDo The updated _ToDo_ entity.
+     * @param previousDueDate The due date the _ToDo_ record had before the update.
+     * @return The event.
+     */
+    public static ToDoChangeEvent updated(ToDo toDo, LocalDate previousDueDate) {
+        return new ToDoChangeEvent(Type.UPDATED, toDo.getToDoId(), ToDoMapper.toResponse(toDo), previousDueDate);
+    }
+
+    /**
+     * Creates the event of a deleted _ToDo_ record.
+     * @param toDoId The id of the deleted _ToDo_ record.
+     * @param previousDueDate The due date the _ToDo_ record had when it was deleted.
+     * @return The event.
+     */
+    public static ToDoChangeEvent deleted(UUID toDoId, LocalDate previousDueDate) {
+        return new ToDoChangeEvent(Type.DELETED, toDoId, null, previousDueDate);
+    }
+}
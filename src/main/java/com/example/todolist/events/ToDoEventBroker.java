@@ -0,0 +1,340 @@
+package com.example.todolist.events;
+
+import com.example.todolist.metrics.ToDoMetrics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans _ToDo_ change events out to server-sent event subscribers, without touching the database.
+ * <p>
+ * Each event is serialized once, numbered and kept in a ring buffer of the last replaySize events, so that a client
+ * reconnecting with a Last-Event-ID header receives the events it missed. When those are no longer retained, or the
+ * id comes from an earlier run of the server, the client gets a "reset" event and should reload the list instead.
+ * <p>
+ * Publishing only queues the event for each subscriber; the frames are written by a virtual thread per subscriber
+ * with pending events, so one slow client never delays the others. A subscriber whose bounded queue of bufferSize
+ * frames is full is either disconnected, and resumes from the ring buffer when it reconnects, or loses its oldest
+ * queued frame, depending on the overflow policy.
+ */
+@Component
+@Profile("!reactive")
+public class ToDoEventBroker implements DisposableBean {
+
+    /**
+     * What happens when an event is published to a subscriber whose queue is full.
+     */
+    public enum OverflowPolicy {
+        /** The subscriber is disconnected; it catches up from the ring buffer when it reconnects. */
+        DISCONNECT,
+        /** The oldest queued frame of the subscriber is dropped to make room. */
+        DROP_OLDEST
+    }
+
+    private final ObjectMapper objectMapper;
+    private final ToDoMetrics toDoMetrics;
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+    private final Executor deliveries;
+    private final ScheduledExecutorService heartbeats;
+
+    /**
+     * Prefix of the event ids of this run, telling ids of an earlier run apart.
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // guarded by lock, which also keeps the frames of every subscriber in sequence order
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Frame[] ring;
+    private long sequence;
+
+    /**
+     * Constructs a ToDoEventBroker delivering frames on virtual threads.
+     * @param objectMapper The ObjectMapper serializing event payloads.
+     * @param toDoMetrics The ToDoMetrics counting subscribers, dropped frames and disconnections.
+     * @param replaySize The number of past events kept for clients resuming with Last-Event-ID.
+     * @param bufferSize The number of frames queued per subscriber before the overflow policy applies.
+     * @param overflowPolicy What happens when a subscriber queue is full.
+     * @param heartbeat The interval of the comments keeping idle connections open, or zero for none.
+     */
+    @Autowired
+    public ToDoEventBroker(ObjectMapper objectMapper, ToDoMetrics toDoMetrics,
+                           @Value("${todo.events.replay-size:1024}") int replaySize,
+                           @Value("${todo.events.buffer-size:256}") int bufferSize,
+                           @Value("${todo.events.overflow:disconnect}") OverflowPolicy overflowPolicy,
+                           @Value("${todo.events.heartbeat:15s}") Duration heartbeat) {
+        this(objectMapper, toDoMetrics, replaySize, bufferSize, overflowPolicy, heartbeat,
+                Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Constructs a ToDoEventBroker delivering frames on the given Executor.
+     * @param objectMapper The ObjectMapper serializing event payloads.
+     * @param toDoMetrics The ToDoMetrics counting subscribers, dropped frames and disconnections.
+     * @param replaySize The number of past events kept for clients resuming with Last-Event-ID.
+     * @param bufferSize The number of frames queued per subscriber before the overflow policy applies.
+     * @param overflowPolicy What happens when a subscriber queue is full.
+     * @param heartbeat The interval of the comments keeping idle connections open, or zero for none.
+     * @param deliveries The Executor running the delivery of queued frames.
+     */
+    public ToDoEventBroker(ObjectMapper objectMapper, ToDoMetrics toDoMetrics, int replaySize, int bufferSize,
+                           OverflowPolicy overflowPolicy, Duration heartbeat, Executor deliveries) {
+        this.objectMapper = objectMapper;
+        this.toDoMetrics = toDoMetrics;
+        this.ring = new Frame[replaySize];
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = overflowPolicy;
+        this.deliveries = deliveries;
+        toDoMetrics.registerEventSubscribers(subscribers);
+
+        if (heartbeat.isZero()) {
+            this.heartbeats = null;
+        } else {
+            this.heartbeats = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("todo-events-heartbeat").daemon().factory());
+            heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Opens a subscription to the change events.
+     * @param lastEventId The Last-Event-ID header of a reconnecting client, or null for a new one.
+     * @return The SseEmitter streaming the missed events, if any, then every new one.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter();
+        Subscriber subscriber;
+        lock.lock();
+        try {
+            List<Frame> replay = lastEventId == null ? List.of() : replayAfter(lastEventId);
+            subscriber = new Subscriber(emitter, bufferSize + (replay == null ? 1 : replay.size()));
+            if (replay == null) {
+                subscriber.queue.add(resetFrame());
+            } else {
+                replay.forEach(subscriber.queue::add);
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscriber.schedule();
+        return emitter;
+    }
+
+    /**
+     * Publishes a change to every subscriber, once the transaction that made it has committed.
+     * @param event The change event.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ToDoChangeEvent event) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event.payload());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        lock.lock();
+        try {
+            long next = sequence + 1;
+            Frame frame = new Frame(next, SseEmitter.event().id(eventId(next)).name(event.type().eventName())
+                    .data(data, MediaType.APPLICATION_JSON).build());
+            ring[(int) (next % ring.length)] = frame;
+            sequence = next;
+
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(frame);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of open subscriptions.
+     * @return The number of subscribers.
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Closes every subscription and stops the heartbeat.
+     */
+    @Override
+    public void destroy() {
+        if (heartbeats != null) {
+            heartbeats.shutdownNow();
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+        if (deliveries instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Collects the retained frames following the given event id. Must be called holding the lock.
+     * @param lastEventId The id of the last event the client received.
+     * @return The frames to replay, or null if the id is unknown or the frames following it are no longer retained.
+     */
+    private List<Frame> replayAfter(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            return null;
+        }
+        long last;
+        try {
+            last = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (last > sequence || last < sequence - ring.length) {
+            return null;
+        }
+
+        Frame[] replay = new Frame[(int) (sequence - last)];
+        for (long i = last + 1; i <= sequence; i++) {
+            replay[(int) (i - last - 1)] = ring[(int) (i % ring.length)];
+        }
+        return List.of(replay);
+    }
+
+    /**
+     * Builds the frame telling a client that missed events cannot be replayed. Must be called holding the lock.
+     * @return The "reset" frame, carrying the current event id to resume from.
+     */
+    private Frame resetFrame() {
+        return new Frame(sequence, SseEmitter.event().id(eventId(sequence)).name("reset").data("{}", MediaType.APPLICATION_JSON).build());
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * Queues a comment for every idle subscriber, so that proxies keep the connection open and closed clients
+     * are noticed even when no change happens.
+     */
+    private void heartbeat() {
+        Frame comment = new Frame(-1, SseEmitter.event().comment("").build());
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queue.isEmpty() && subscriber.queue.offer(comment)) {
+                subscriber.schedule();
+            }
+        }
+    }
+
+    /**
+     * A serialized server-sent event.
+     * @param sequence The sequence number of the event.
+     * @param data The event, as written by SseEmitter.
+     */
+    private record Frame(long sequence, Set<DataWithMediaType> data) {
+    }
+
+    /**
+     * One open subscription with its bounded queue of frames waiting to be written.
+     */
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Frame> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        /**
+         * Queues a frame, applying the overflow policy if the queue is full. Called holding the lock.
+         * @param frame The frame to deliver.
+         */
+        private void offer(Frame frame) {
+            if (!queue.offer(frame)) {
+                if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                    toDoMetrics.eventSubscriberDisconnected();
+                    close();
+                    return;
+                }
+                queue.poll();
+                queue.offer(frame);
+                toDoMetrics.eventDropped();
+            }
+            schedule();
+        }
+
+        /**
+         * Starts a delivery unless one is running already.
+         */
+        private void schedule() {
+            if (!closed && scheduled.compareAndSet(false, true)) {
+                deliveries.execute(this);
+            }
+        }
+
+        /**
+         * Writes the queued frames, then checks again for frames queued after the queue was seen empty.
+         */
+        @Override
+        public void run() {
+            try {
+                Frame frame;
+                while (!closed && (frame = queue.poll()) != null) {
+                    emitter.send(frame.data());
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                closed = true;
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        /**
+         * Ends the subscription; the client may reconnect with its Last-Event-ID.
+         */
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.todolist.exceptions;
+
+/**
+ * Exception thrown when a bulk request carries more elements than allowed.
+ */
+public class BatchTooLargeException extends RuntimeException {
+
+    /**
+     * Constructs a BatchTooLargeException with the received and allowed sizes.
+     * @param size The number of elements received.
+     * @param maxSize The maximum number of elements allowed.
+     */
+    public BatchTooLargeException(int size, int maxSize) {
+        super("Batch of " + size + " elements exceeds the limit of " + maxSize);
+    }
+}
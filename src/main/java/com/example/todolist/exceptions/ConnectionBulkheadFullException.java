@@ -0,0 +1,20 @@
+package com.example.todolist.exceptions;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+/**
+ * Exception thrown when the database connection bulkhead has no permit to give within its wait time,
+ * or too many callers are already waiting for one.
+ * It is an SQLException, since it is raised from DataSource.getConnection().
+ */
+public class ConnectionBulkheadFullException extends SQLTransientConnectionException {
+
+    /**
+     * Constructs a ConnectionBulkheadFullException for the specified wait time.
+     * @param maxWait The time waited for a permit, zero if the caller was rejected without waiting.
+     */
+    public ConnectionBulkheadFullException(Duration maxWait) {
+        super("No database connection available within " + maxWait.toMillis() + " ms");
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.todolist.exceptions;
+
+/**
+ * Exception thrown when a continuation token cannot be decoded.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    /**
+     * Constructs an InvalidCursorException for the specified token.
+     * @param cursor The continuation token that could not be decoded.
+     */
+    public InvalidCursorException(String cursor) {
+        super("Invalid cursor: " + cursor);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.todolist.exceptions;
+
+/**
+ * Exception thrown when a list filter parameter has an unsupported value.
+ */
+public class InvalidFilterException extends RuntimeException {
+
+    /**
+     * Constructs an InvalidFilterException for the specified parameter.
+     * @param parameter The name of the filter parameter.
+     * @param value The value that is not supported.
+     */
+    public InvalidFilterException(String parameter, Object value) {
+        super("Invalid value for " + parameter + ": " + value);
+    }
+}
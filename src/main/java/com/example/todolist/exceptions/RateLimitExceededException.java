@@ -0,0 +1,29 @@
+package com.example.todolist.exceptions;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a client sent more requests to a group of endpoints than its rate limit allows.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    /**
+     * Constructs a RateLimitExceededException.
+     * @param bucket The name of the group of endpoints whose limit was exceeded.
+     * @param retryAfter The time after which the next request of the client will be allowed.
+     */
+    public RateLimitExceededException(String bucket, Duration retryAfter) {
+        super("Rate limit of " + bucket + " requests exceeded, retry later");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Get the time after which the next request of the client will be allowed.
+     * @return The time to wait before retrying.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.todolist.exceptions;
+
+import java.util.UUID;
+
+/**
+ * Exception thrown when an update or deletion targets a _ToDo_ that is still waiting in the write-behind buffer.
+ */
+public class ToDoPendingWriteException extends RuntimeException {
+
+    /**
+     * Constructs a ToDoPendingWriteException for the specified _ToDo_ id.
+     * @param id The id of the _ToDo_ not written yet.
+     */
+    public ToDoPendingWriteException(UUID id) {
+        super("ToDo " + id + " is not written yet, retry shortly");
+    }
+}
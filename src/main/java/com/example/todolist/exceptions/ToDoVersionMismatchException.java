@@ -0,0 +1,17 @@
+package com.example.todolist.exceptions;
+
+import java.util.UUID;
+
+/**
+ * Exception thrown when a conditional update or deletion targets a version of a _ToDo_ that is no longer current.
+ */
+public class ToDoVersionMismatchException extends RuntimeException {
+
+    /**
+     * Constructs a ToDoVersionMismatchException for the specified _ToDo_ id.
+     * @param id The id of the _ToDo_ whose version did not match.
+     */
+    public ToDoVersionMismatchException(UUID id) {
+        super("ToDo " + id + " was modified since the given version");
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.todolist.exceptions;
+
+/**
+ * Exception thrown when a _ToDo_ record cannot be accepted because the write-behind queue is full,
+ * or no longer accepts records because the application is shutting down.
+ */
+public class WriteBehindQueueFullException extends RuntimeException {
+
+    /**
+     * Constructs a WriteBehindQueueFullException for the specified capacity.
+     * @param capacity The maximum number of records waiting to be written.
+     */
+    public WriteBehindQueueFullException(int capacity) {
+        super("Write-behind queue full (" + capacity + " records waiting), retry later");
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.todolist.id;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Generates random (version 4) UUIDs, as ids were generated before time ordered UUIDs were introduced.
+ * Enabled with todo.id.generator=random.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.id.generator", havingValue = "random")
+public class RandomUuidGenerator implements ToDoIdGenerator {
+
+    /**
+     * Generates a random version 4 UUID.
+     * @return The generated identifier.
+     */
+    @Override
+    public UUID generate() {
+        return UUID.randomUUID();
+    }
+}
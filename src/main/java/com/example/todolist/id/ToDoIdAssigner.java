@@ -0,0 +1,35 @@
+package com.example.todolist.id;
+
+import com.example.todolist.entity.ToDo;
+import jakarta.persistence.PrePersist;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener assigning an id to new _ToDo_ entities right before they are persisted.
+ * Ids are assigned by the application, not the database, so that inserts can be JDBC batched.
+ * Hibernate obtains this listener from the Spring context, which injects the configured ToDoIdGenerator.
+ */
+@Component
+public class ToDoIdAssigner {
+
+    private final ToDoIdGenerator toDoIdGenerator;
+
+    /**
+     * Constructs a ToDoIdAssigner with the specified ToDoIdGenerator.
+     * @param toDoIdGenerator The generator of new _ToDo_ ids.
+     */
+    public ToDoIdAssigner(ToDoIdGenerator toDoIdGenerator) {
+        this.toDoIdGenerator = toDoIdGenerator;
+    }
+
+    /**
+     * Assigns a generated id to the _ToDo_ entity unless it already has one.
+     * @param toDo The _ToDo_ entity about to be persisted.
+     */
+    @PrePersist
+    public void assignToDoId(ToDo toDo) {
+        if (toDo.getToDoId() == null) {
+            toDo.setToDoId(toDoIdGenerator.generate());
+        }
+    }
+}
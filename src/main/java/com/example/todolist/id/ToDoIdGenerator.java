@@ -0,0 +1,17 @@
+package com.example.todolist.id;
+
+import java.util.UUID;
+
+/**
+ * Strategy producing the unique identifiers assigned to new _ToDo_ entities.
+ * The implementation in use is selected with the todo.id.generator property.
+ */
+@FunctionalInterface
+public interface ToDoIdGenerator {
+
+    /**
+     * Generates a new unique identifier.
+     * @return The generated identifier.
+     */
+    UUID generate();
+}
@@ -0,0 +1,83 @@
+package com.example.todolist.id;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time ordered (version 7) UUIDs as described by RFC 9562.
+ * New ids land at the right edge of the primary key index instead of being scattered across it.
+ * <p>
+ * The 48 bit millisecond timestamp is followed by a 12 bit counter (RFC 9562 "method 1"), so ids generated by this
+ * instance are strictly increasing even within the same millisecond. When the counter overflows the timestamp is
+ * advanced by one millisecond ahead of the clock. The remaining 62 bits are random, but not meant to be unguessable.
+ * <p>
+ * This is the default generator; it is selected by todo.id.generator=v7 or when the property is missing.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.id.generator", havingValue = "v7", matchIfMissing = true)
+public class UuidV7Generator implements ToDoIdGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private final Clock clock;
+
+    /**
+     * Last issued timestamp and counter, packed as (millis << COUNTER_BITS) | counter.
+     */
+    private final AtomicLong lastState = new AtomicLong();
+
+    /**
+     * Constructs a UuidV7Generator reading the system UTC clock.
+     */
+    public UuidV7Generator() {
+        this(Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a UuidV7Generator reading the given clock.
+     * @param clock The clock providing the timestamp of generated ids.
+     */
+    public UuidV7Generator(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Generates a time ordered version 7 UUID, greater than any previously generated by this instance.
+     * @return The generated identifier.
+     */
+    @Override
+    public UUID generate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long state = nextState(random);
+
+        long mostSigBits = (state >>> COUNTER_BITS) << 16 | VERSION | (state & COUNTER_MASK);
+        long leastSigBits = VARIANT | (random.nextLong() & RANDOM_MASK);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Reserves the next (timestamp, counter) pair.
+     * A new millisecond starts the counter at a random value in its lower half, leaving room for increments.
+     * @param random The random source for the initial counter value.
+     * @return The packed timestamp and counter.
+     */
+    private long nextState(ThreadLocalRandom random) {
+        long fresh = clock.millis() << COUNTER_BITS | random.nextLong(COUNTER_MASK >>> 1);
+        while (true) {
+            long last = lastState.get();
+            long next = fresh > last ? fresh : last + 1;
+            if (lastState.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+}
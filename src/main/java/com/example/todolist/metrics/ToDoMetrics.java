@@ -0,0 +1,322 @@
+package com.example.todolist.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Application specific meters of the _ToDo_ API.
+ * Request and service timings are recorded by http.server.requests and the @Timed "todo.service" timer;
+ * this class holds what those cannot see: list result sizes, error outcomes, and the state of the change feed,
+ * the outbox relay, the write-behind buffer, the read replicas and the rate limiter.
+ */
+@Component
+public class ToDoMetrics {
+
+    /**
+     * Name of the timer recorded around each ToDoService operation, tagged by "operation".
+     */
+    public static final String SERVICE_TIMER = "todo.service";
+
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary listSize;
+    private final Counter notFound;
+    private final Counter unavailable;
+    private final Counter eventsDropped;
+    private final Counter eventSubscribersDisconnected;
+    private final Timer outboxLag;
+    private final Counter outboxFailures;
+    private final Counter writeBehindRejected;
+    private final Counter writeBehindFailures;
+    private final Counter writeBehindDropped;
+    private final DistributionSummary writeBehindFlushSize;
+    private final Counter statsDrift;
+    private final Counter storageReclaimed;
+    private final Timer reminderDelay;
+    private final Counter reminderFailures;
+    private final Counter remindersStale;
+
+    /**
+     * Constructs a ToDoMetrics registering its meters on the specified MeterRegistry.
+     * @param meterRegistry The MeterRegistry holding the meters.
+     */
+    public ToDoMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.listSize = DistributionSummary.builder("todo.service.list.size")
+                .description("Number of _ToDo_ records returned by one getList call")
+                .baseUnit("todos")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.notFound = Counter.builder("todo.errors.not.found")
+                .description("Requests answered with 404 because the _ToDo_ record does not exist")
+                .register(meterRegistry);
+        this.unavailable = Counter.builder("todo.errors.unavailable")
+                .description("Requests answered with 503 because no database connection was available in time")
+                .register(meterRegistry);
+        this.eventsDropped = Counter.builder("todo.events.dropped")
+                .description("Change events dropped from the queue of a slow subscriber")
+                .register(meterRegistry);
+        this.eventSubscribersDisconnected = Counter.builder("todo.events.disconnected")
+                .description("Change feed subscribers disconnected because their queue was full")
+                .register(meterRegistry);
+        this.outboxLag = Timer.builder("todo.outbox.lag")
+                .description("Time from writing a change to the outbox to its publication; the count is the number of published messages")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.outboxFailures = Counter.builder("todo.outbox.failures")
+                .description("Outbox batches the relay failed to publish, left in the outbox for the next run")
+                .register(meterRegistry);
+        this.writeBehindRejected = Counter.builder("todo.writebehind.rejected")
+                .description("Creations answered with 429 because the write-behind queue was full")
+                .register(meterRegistry);
+        this.writeBehindFailures = Counter.builder("todo.writebehind.flush.failures")
+                .description("Write-behind batches the database rejected, retried by the next flush")
+                .register(meterRegistry);
+        this.writeBehindDropped = Counter.builder("todo.writebehind.dropped")
+                .description("Write-behind records violating a database constraint, dropped from their batch and logged")
+                .register(meterRegistry);
+        this.writeBehindFlushSize = DistributionSummary.builder("todo.writebehind.flush.size")
+                .description("Number of _ToDo_ records written by one write-behind flush")
+                .baseUnit("todos")
+                .register(meterRegistry);
+        this.statsDrift = Counter.builder("todo.stats.drift")
+                .description("_ToDo_ records the in-memory statistics were off by, corrected by reconciliation")
+                .baseUnit("todos")
+                .register(meterRegistry);
+        this.storageReclaimed = Counter.builder("todo.storage.compaction.reclaimed")
+                .description("Log bytes of the embedded store freed by compaction")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.reminderDelay = Timer.builder("todo.reminders.delay")
+                .description("Time from the due instant of a reminder to its callbacks; the count is the number of fired reminders")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.reminderFailures = Counter.builder("todo.reminders.failures")
+                .description("Reminder callbacks that threw, not retried")
+                .register(meterRegistry);
+        this.remindersStale = Counter.builder("todo.reminders.stale")
+                .description("Reminders dropped on expiry because their _ToDo_ record was deleted or moved elsewhere")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers the gauge of records waiting in the write-behind buffer.
+     * @param queued The counter of waiting records.
+     */
+    public void registerWriteBehindQueue(AtomicInteger queued) {
+        Gauge.builder("todo.writebehind.queued", queued, AtomicInteger::get)
+                .description("_ToDo_ records accepted and not written yet")
+                .baseUnit("todos")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers the gauge of clients tracked by the rate limiter.
+     * @param clients The buckets of the tracked clients, whose size is read on each scrape.
+     */
+    public void registerRateLimitedClients(Map<?, ?> clients) {
+        Gauge.builder("todo.ratelimit.clients", clients, Map::size)
+                .description("Client buckets held by the rate limiter, idle ones being evicted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers the gauge of read replicas receiving reads.
+     * @param healthy The counter of replicas that passed their last health check.
+     */
+    public void registerHealthyReplicas(AtomicInteger healthy) {
+        Gauge.builder("todo.datasource.replicas.healthy", healthy, AtomicInteger::get)
+                .description("Read replicas that passed their last health check")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers the gauges of the reminder scheduler.
+     * @param scheduled The number of reminders waiting in the timing wheel, read on each scrape.
+     * @param ownedShards The number of reminder shards leased by this instance, read on each scrape.
+     */
+    public void registerReminders(IntSupplier scheduled, IntSupplier ownedShards) {
+        Gauge.builder("todo.reminders.scheduled", scheduled, IntSupplier::getAsInt)
+                .description("Reminders waiting in the timing wheel of this instance")
+                .baseUnit("todos")
+                .register(meterRegistry);
+        Gauge.builder("todo.reminders.shards.owned", ownedShards, IntSupplier::getAsInt)
+                .description("Reminder shards leased by this instance")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers the gauge of open change feed subscriptions.
+     * @param subscribers The collection of subscribers, whose size is read on each scrape.
+     */
+    public void registerEventSubscribers(Collection<?> subscribers) {
+        Gauge.builder("todo.events.subscribers", subscribers, Collection::size)
+                .description("Open subscriptions to the change feed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the size of a list result.
+     * @param size The number of _ToDo_ records returned.
+     */
+    public void recordListSize(int size) {
+        listSize.record(size);
+    }
+
+    /**
+     * Counts a request that failed with ToDoNotFoundException.
+     */
+    public void toDoNotFound() {
+        notFound.increment();
+    }
+
+    /**
+     * Counts a request that failed because no database connection was available in time.
+     */
+    public void databaseUnavailable() {
+        unavailable.increment();
+    }
+
+    /**
+     * Counts a change event dropped from the queue of a slow subscriber.
+     */
+    public void eventDropped() {
+        eventsDropped.increment();
+    }
+
+    /**
+     * Counts a change feed subscriber disconnected because its queue was full.
+     */
+    public void eventSubscriberDisconnected() {
+        eventSubscribersDisconnected.increment();
+    }
+
+    /**
+     * Records the publication of one outbox message.
+     * @param lag The time the message spent in the outbox.
+     */
+    public void outboxMessagePublished(Duration lag) {
+        outboxLag.record(lag);
+    }
+
+    /**
+     * Counts an outbox batch that could not be published.
+     */
+    public void outboxRelayFailed() {
+        outboxFailures.increment();
+    }
+
+    /**
+     * Records a fired reminder.
+     * @param delay The time from the due instant of the reminder to its callbacks.
+     */
+    public void reminderFired(Duration delay) {
+        reminderDelay.record(delay);
+    }
+
+    /**
+     * Counts a reminder callback that threw.
+     */
+    public void reminderFailed() {
+        reminderFailures.increment();
+    }
+
+    /**
+     * Counts a reminder dropped on expiry because its _ToDo_ record no longer has that due date.
+     */
+    public void reminderStale() {
+        remindersStale.increment();
+    }
+
+    /**
+     * Counts a creation refused because the write-behind queue was full.
+     */
+    public void writeBehindRejected() {
+        writeBehindRejected.increment();
+    }
+
+    /**
+     * Counts a write-behind batch the database rejected.
+     */
+    public void writeBehindFlushFailed() {
+        writeBehindFailures.increment();
+    }
+
+    /**
+     * Counts a write-behind record dropped because it violates a database constraint.
+     */
+    public void writeBehindDropped() {
+        writeBehindDropped.increment();
+    }
+
+    /**
+     * Records the size of a written write-behind batch.
+     * @param size The number of _ToDo_ records written.
+     */
+    public void recordWriteBehindFlush(int size) {
+        writeBehindFlushSize.record(size);
+    }
+
+    /**
+     * Records a reconciliation of the in-memory statistics.
+     * @param drift The number of _ToDo_ records the statistics were off by.
+     */
+    public void statsReconciled(long drift) {
+        statsDrift.increment(drift);
+    }
+
+    /**
+     * Records a compaction of the log of the embedded store.
+     * @param reclaimedBytes The number of log bytes freed by deleting the compacted segments.
+     */
+    public void storageCompacted(long reclaimedBytes) {
+        storageReclaimed.increment(reclaimedBytes);
+    }
+
+    /**
+     * Counts a decision of the rate limiter.
+     * @param bucket The name of the bucket the request was counted against.
+     * @param allowed Whether the request was let through.
+     */
+    public void rateLimitDecision(String bucket, boolean allowed) {
+        Counter.builder("todo.ratelimit.requests")
+                .description("Requests checked by the rate limiter")
+                .tag("bucket", bucket)
+                .tag("outcome", allowed ? "allowed" : "rejected")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Counts a read that joined an identical read in flight instead of querying the database.
+     * @param operation The name of the service operation.
+     */
+    public void readCollapsed(String operation) {
+        Counter.builder("todo.singleflight.collapsed")
+                .description("Reads served by an identical read in flight")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Counts a rejected field of a request body.
+     * @param field The name of the invalid field.
+     */
+    public void validationFailed(String field) {
+        Counter.builder("todo.errors.validation")
+                .description("Invalid fields of rejected request bodies")
+                .tag("field", field)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.todolist.outbox;
+
+import com.example.todolist.entity.ToDoOutboxMessage;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * ToDoOutboxSink appending each message as one line of JSON to a local file, synced to disk before the batch is
+ * acknowledged. The payload is embedded as a JSON object rather than as a string.
+ * <p>
+ * The file is neither rotated nor truncated, and every batch waits for its sync to disk: a sink for local runs, as
+ * configured by the local profile, not for production. It is selected by todo.outbox.sink=file.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.outbox.sink", havingValue = "file")
+public class FileToDoOutboxSink implements ToDoOutboxSink {
+
+    private final JsonFactory jsonFactory = new JsonFactory().setRootValueSeparator("\n");
+    private final Path file;
+
+    /**
+     * Constructs a FileToDoOutboxSink appending to the given file.
+     * @param file The file the messages are appended to, created if missing.
+     */
+    public FileToDoOutboxSink(@Value("${todo.outbox.file:todo-outbox.ndjson}") Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void publish(List<ToDoOutboxMessage> messages) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(file, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+             JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+            for (ToDoOutboxMessage message : messages) {
+                generator.writeStartObject();
+                generator.writeStringField("messageId", message.getMessageId().toString());
+                generator.writeStringField("eventType", message.getEventType().eventName());
+                generator.writeStringField("toDoId", message.getToDoId().toString());
+                generator.writeStringField("createdAt", message.getCreatedAt().toString());
+                generator.writeFieldName("payload");
+                generator.writeRawValue(message.getPayload());
+                generator.writeEndObject();
+            }
+            generator.writeRaw('\n');
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.todolist.outbox;
+
+import com.example.todolist.entity.ToDoOutboxMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ToDoOutboxSink keeping the published messages in memory, for tests and local runs.
+ * It is selected by todo.outbox.sink=memory.
+ */
+@Component
+@ConditionalOnProperty(name = "todo.outbox.sink", havingValue = "memory")
+public class InMemoryToDoOutboxSink implements ToDoOutboxSink {
+
+    private final List<ToDoOutboxMessage> messages = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(List<ToDoOutboxMessage> messages) {
+        this.messages.addAll(messages);
+    }
+
+    /**
+     * Get the messages published so far.
+     * @return A copy of the published messages, in publication order.
+     */
+    public synchronized List<ToDoOutboxMessage> getMessages() {
+        return new ArrayList<>(messages);
+    }
+
+    /**
+     * Forgets the messages published so far.
+     */
+    public synchronized void clear() {
+        messages.clear();
+    }
+}
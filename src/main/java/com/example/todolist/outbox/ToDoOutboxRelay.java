@@ -0,0 +1,118 @@
+package com.example.todolist.outbox;
+
+import com.example.todolist.entity.ToDoOutboxMessage;
+import com.example.todolist.metrics.ToDoMetrics;
+import com.example.todolist.repository.ToDoOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Background relay publishing the outbox to the ToDoOutboxSink.
+ * <p>
+ * Each batch is locked, published and deleted in one transaction. The batch is locked with FOR UPDATE SKIP LOCKED,
+ * so relays of several application instances drain the outbox concurrently, each taking the oldest messages that
+ * no other relay holds. Messages are removed only once the sink accepted them: a failed batch, or a crash before
+ * commit, leaves them to be published again.
+ * <p>
+ * Enabled unless todo.outbox.relay.enabled=false, for instance on instances that should only write. There is no
+ * default sink: an enabled relay without a ToDoOutboxSink fails the startup rather than publish nowhere.
+ */
+@Component
+@Profile("!reactive & !embedded")
+@ConditionalOnProperty(name = "todo.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class ToDoOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToDoOutboxRelay.class);
+
+    private final ToDoOutboxRepository toDoOutboxRepository;
+    private final ToDoOutboxSink toDoOutboxSink;
+    private final TransactionTemplate transactionTemplate;
+    private final ToDoMetrics toDoMetrics;
+    private final int batchSize;
+
+    /**
+     * Constructs a ToDoOutboxRelay with the specified ToDoOutboxRepository and ToDoOutboxSink.
+     * @param toDoOutboxRepository The ToDoOutboxRepository reading and deleting the messages.
+     * @param toDoOutboxSink The ToDoOutboxSink publishing the messages, selected by todo.outbox.sink.
+     * @throws IllegalStateException If no ToDoOutboxSink is configured.
+     * @param transactionManager The PlatformTransactionManager running each batch.
+     * @param toDoMetrics The ToDoMetrics recording throughput, lag and failures.
+     * @param batchSize The maximum number of messages locked, published and deleted together.
+     */
+    public ToDoOutboxRelay(ToDoOutboxRepository toDoOutboxRepository, ObjectProvider<ToDoOutboxSink> toDoOutboxSink,
+                           PlatformTransactionManager transactionManager, ToDoMetrics toDoMetrics,
+                           @Value("${todo.outbox.relay.batch-size:500}") int batchSize) {
+        this.toDoOutboxRepository = toDoOutboxRepository;
+        this.toDoOutboxSink = toDoOutboxSink.getIfAvailable();
+        if (this.toDoOutboxSink == null) {
+            throw new IllegalStateException("No ToDoOutboxSink configured: set todo.outbox.sink, provide a "
+                    + "ToDoOutboxSink bean, or disable the relay with todo.outbox.relay.enabled=false");
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.toDoMetrics = toDoMetrics;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Publishes batches until the outbox holds less than a full batch, or a batch fails.
+     * Runs todo.outbox.relay.interval after the previous run ended.
+     * @return The number of messages published.
+     */
+    @Scheduled(fixedDelayString = "${todo.outbox.relay.interval:PT1S}")
+    public int drain() {
+        int published = 0;
+        int relayed;
+        do {
+            relayed = relayBatch();
+            published += relayed;
+        } while (relayed == batchSize);
+        return published;
+    }
+
+    /**
+     * Locks, publishes and deletes the oldest batch of messages in one transaction.
+     * @return The number of messages published, zero if the outbox was empty or the batch failed.
+     */
+    private int relayBatch() {
+        List<ToDoOutboxMessage> batch;
+        try {
+            batch = transactionTemplate.execute(status -> {
+                List<ToDoOutboxMessage> messages = toDoOutboxRepository.lockOldest(Limit.of(batchSize));
+                if (!messages.isEmpty()) {
+                    try {
+                        toDoOutboxSink.publish(messages);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    toDoOutboxRepository.deleteAllInBatch(messages);
+                }
+                return messages;
+            });
+        } catch (RuntimeException e) {
+            toDoMetrics.outboxRelayFailed();
+            logger.warn("Outbox batch not published, retrying in the next run", e);
+            return 0;
+        }
+
+        Instant now = Instant.now();
+        for (ToDoOutboxMessage message : batch) {
+            toDoMetrics.outboxMessagePublished(Duration.between(message.getCreatedAt(), now));
+        }
+        return batch.size();
+    }
+}
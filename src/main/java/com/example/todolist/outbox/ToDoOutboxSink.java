@@ -0,0 +1,23 @@
+package com.example.todolist.outbox;
+
+import com.example.todolist.entity.ToDoOutboxMessage;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of the _ToDo_ changes relayed from the outbox, such as a message broker.
+ * <p>
+ * The built-in sinks are selected by the todo.outbox.sink property; any other value leaves it to the application
+ * to provide its own ToDoOutboxSink bean.
+ */
+public interface ToDoOutboxSink {
+
+    /**
+     * Publishes a batch of messages, in order. Returning normally acknowledges the whole batch, which is then
+     * removed from the outbox; throwing leaves it there to be published again, so delivery is at least once.
+     * @param messages The messages to publish, oldest first.
+     * @throws IOException if the batch could not be published.
+     */
+    void publish(List<ToDoOutboxMessage> messages) throws IOException;
+}
@@ -0,0 +1,64 @@
+package com.example.todolist.outbox;
+
+import com.example.todolist.entity.ToDoOutboxMessage;
+import com.example.todolist.events.ToDoChangeEvent;
+import com.example.todolist.id.UuidV7Generator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+/**
+ * Writes every ToDoChangeEvent to the outbox table inside the transaction that made the change, so that the change
+ * and its message are committed or rolled back together. Publishing is left to ToDoOutboxRelay.
+ * <p>
+ * Messages are persisted through the EntityManager of the transaction, so Hibernate sends them as JDBC batches
+ * together with the other statements flushed at commit.
+ */
+@Component
+@Profile("!reactive & !embedded")
+public class ToDoOutboxWriter {
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Message ids always come from a v7 generator, whatever todo.id.generator says, since the relay orders by them.
+     */
+    private final UuidV7Generator messageIdGenerator = new UuidV7Generator();
+
+    /**
+     * Constructs a ToDoOutboxWriter with the specified EntityManager.
+     * @param entityManager The EntityManager of the current transaction.
+     * @param objectMapper The ObjectMapper serializing the message payloads.
+     */
+    public ToDoOutboxWriter(EntityManager entityManager, ObjectMapper objectMapper) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Adds a change to the outbox. Runs synchronously in the publishing thread, inside its transaction.
+     * @param event The change event.
+     * @throws jakarta.persistence.TransactionRequiredException if the change was published outside a transaction.
+     */
+    @EventListener
+    public void onChange(ToDoChangeEvent event) {
+        ToDoOutboxMessage message = new ToDoOutboxMessage();
+        message.setMessageId(messageIdGenerator.generate());
+        message.setEventType(event.type());
+        message.setToDoId(event.toDoId());
+        try {
+            message.setPayload(objectMapper.writeValueAsString(event.payload()));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        message.setCreatedAt(Instant.now());
+        entityManager.persist(message);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.todolist.ratelimit;
+
+/**
+ * Groups of endpoints limited separately, so that a client looping on lists does not use up its reads and writes.
+ * Each is configured by todo.rate-limit.&lt;name&gt;.rate and .burst.
+ */
+public enum RateLimitBucket {
+    /**
+     * Pages and exports of the _ToDo_ list, the most expensive reads.
+     */
+    LIST(20, 40),
+    /**
+     * Reads of a single _ToDo_ record.
+     */
+    READ(100, 200),
+    /**
+     * Creations, updates and deletions, single or batched.
+     */
+    WRITE(20, 40);
+
+    private final double defaultRate;
+    private final int defaultBurst;
+
+    RateLimitBucket(double defaultRate, int defaultBurst) {
+        this.defaultRate = defaultRate;
+        this.defaultBurst = defaultBurst;
+    }
+
+    /**
+     * Get the number of requests per second allowed when todo.rate-limit.&lt;name&gt;.rate is not set.
+     * @return The default sustained rate.
+     */
+    public double getDefaultRate() {
+        return defaultRate;
+    }
+
+    /**
+     * Get the number of requests allowed at once when todo.rate-limit.&lt;name&gt;.burst is not set.
+     * @return The default burst.
+     */
+    public int getDefaultBurst() {
+        return defaultBurst;
+    }
+
+    /**
+     * Get the name of the bucket in properties and metrics.
+     * @return The lower case name.
+     */
+    public String propertyName() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.todolist.ratelimit;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.security.Principal;
+
+/**
+ * Interceptor counting the requests of controller methods annotated with @RateLimited against the bucket of the
+ * calling client, before they run.
+ * Clients are identified by their authenticated principal, or else by their address, which is the one of the
+ * original client behind a proxy when server.forward-headers-strategy is set.
+ * The RateLimitExceededException of a refused request is rendered by the exception handler of the controller.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "todo.rate-limit.enabled", havingValue = "true")
+public class RateLimitInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+    private final ToDoRateLimiter toDoRateLimiter;
+
+    /**
+     * Constructs a RateLimitInterceptor with the specified ToDoRateLimiter.
+     * @param toDoRateLimiter The ToDoRateLimiter holding the client buckets.
+     */
+    public RateLimitInterceptor(ToDoRateLimiter toDoRateLimiter) {
+        this.toDoRateLimiter = toDoRateLimiter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // the dispatch completing an export or stream was counted when the request came in
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        RateLimited rateLimited = handlerMethod.getMethodAnnotation(RateLimited.class);
+        if (rateLimited != null) {
+            toDoRateLimiter.acquire(clientOf(request), rateLimited.value());
+        }
+        return true;
+    }
+
+    private static String clientOf(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? "user:" + principal.getName() : "address:" + request.getRemoteAddr();
+    }
+}
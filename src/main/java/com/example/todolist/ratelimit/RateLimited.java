@@ -0,0 +1,20 @@
+package com.example.todolist.ratelimit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a controller method as counted against the given rate limit bucket of the calling client.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    /**
+     * The bucket the requests are counted against.
+     * @return The RateLimitBucket.
+     */
+    RateLimitBucket value();
+}
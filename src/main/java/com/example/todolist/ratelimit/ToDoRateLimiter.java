@@ -0,0 +1,102 @@
+package com.example.todolist.ratelimit;
+
+import com.example.todolist.exceptions.RateLimitExceededException;
+import com.example.todolist.metrics.ToDoMetrics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket rate limiter, one bucket per client and RateLimitBucket.
+ * <p>
+ * Each bucket is a single AtomicLong holding its theoretical arrival time (the generic cell rate algorithm): a
+ * request is allowed when that time, pushed one emission interval further, stays within burst intervals of now,
+ * and the new time is published with a compare-and-set, so that deciding takes no lock. This is equivalent to a
+ * bucket of burst tokens refilled at rate tokens per second.
+ * <p>
+ * Buckets live in a Caffeine cache bounded to todo.rate-limit.max-clients entries, evicting those idle for
+ * todo.rate-limit.idle-timeout. A bucket idle for longer than burst / rate seconds is full again, so evicting it
+ * loses nothing as long as the idle timeout exceeds that time.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "todo.rate-limit.enabled", havingValue = "true")
+public class ToDoRateLimiter {
+
+    private final ToDoMetrics toDoMetrics;
+    private final Map<RateLimitBucket, Limit> limits = new EnumMap<>(RateLimitBucket.class);
+    private final Cache<ClientBucket, AtomicLong> buckets;
+
+    /**
+     * Constructs a ToDoRateLimiter with the limits of todo.rate-limit.&lt;bucket&gt;.rate and .burst.
+     * @param toDoMetrics The ToDoMetrics counting the decisions.
+     * @param environment The Environment holding the limits of each bucket.
+     * @param maxClients The maximum number of client buckets held.
+     * @param idleTimeout The time after which the bucket of an idle client is evicted.
+     */
+    public ToDoRateLimiter(ToDoMetrics toDoMetrics, Environment environment,
+                           @Value("${todo.rate-limit.max-clients:100000}") long maxClients,
+                           @Value("${todo.rate-limit.idle-timeout:1m}") Duration idleTimeout) {
+        this.toDoMetrics = toDoMetrics;
+        for (RateLimitBucket bucket : RateLimitBucket.values()) {
+            String prefix = "todo.rate-limit." + bucket.propertyName();
+            double rate = environment.getProperty(prefix + ".rate", Double.class, bucket.getDefaultRate());
+            int burst = environment.getProperty(prefix + ".burst", Integer.class, bucket.getDefaultBurst());
+            long emissionInterval = (long) (Duration.ofSeconds(1).toNanos() / rate);
+            limits.put(bucket, new Limit(emissionInterval, emissionInterval * burst));
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        toDoMetrics.registerRateLimitedClients(buckets.asMap());
+    }
+
+    /**
+     * Counts a request of the client against the bucket, or refuses it when the bucket is empty.
+     * @param client The identity of the client.
+     * @param bucket The bucket the request is counted against.
+     * @throws RateLimitExceededException if the client sent more requests than the limit of the bucket allows.
+     */
+    public void acquire(String client, RateLimitBucket bucket) {
+        Limit limit = limits.get(bucket);
+        long now = System.nanoTime();
+        AtomicLong theoreticalArrival = buckets.get(new ClientBucket(client, bucket), key -> new AtomicLong(now));
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = (current - now > 0 ? current : now) + limit.emissionInterval();
+            long ahead = next - now;
+            if (ahead > limit.burstWindow()) {
+                toDoMetrics.rateLimitDecision(bucket.propertyName(), false);
+                throw new RateLimitExceededException(bucket.propertyName(), Duration.ofNanos(ahead - limit.burstWindow()));
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                toDoMetrics.rateLimitDecision(bucket.propertyName(), true);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Limit of one bucket.
+     * @param emissionInterval The nanoseconds between two requests at the sustained rate.
+     * @param burstWindow The nanoseconds ahead of now the theoretical arrival time may reach, burst intervals.
+     */
+    private record Limit(long emissionInterval, long burstWindow) {
+    }
+
+    /**
+     * Key of the bucket of one client.
+     */
+    private record ClientBucket(String client, RateLimitBucket bucket) {
+    }
+}
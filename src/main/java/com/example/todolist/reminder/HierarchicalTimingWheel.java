@@ -0,0 +1,278 @@
+package com.example.todolist.reminder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Hierarchical timing wheel holding one deadline per key, in epoch milliseconds.
+ * <p>
+ * The lowest wheel has wheelSize slots of one tick; each wheel above has as many slots, each spanning the whole
+ * wheel below, and is added only once a deadline needs it. A key sits in the slot of the lowest wheel whose span
+ * reaches its deadline, in a doubly linked list, and is found through a map by key, so scheduling, rescheduling
+ * and cancelling are O(1) whatever the number of keys. Advancing by one tick expires the current slot of the
+ * lowest wheel and, each time a wheel completes a turn, moves the next slot of the wheel above into the wheels
+ * below it; every key is moved at most once per wheel.
+ * <p>
+ * Deadlines are rounded up to the tick: a key expires on the first tick at or after its deadline, never before.
+ * Deadlines already passed expire on the next advance.
+ * <p>
+ * Not thread-safe: callers hold their own lock.
+ * @param <K> The type of the keys.
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private final long tick;
+    private final int wheelSize;
+    private final List<Slot<K>[]> wheels = new ArrayList<>();
+    private final Map<K, Node<K>> nodes = new HashMap<>();
+    private final Slot<K> overdue = new Slot<>();
+    private long currentTime;
+
+    /**
+     * Constructs a HierarchicalTimingWheel whose clock starts at the given instant.
+     * @param tick The duration of one slot of the lowest wheel, at least one millisecond.
+     * @param wheelSize The number of slots of each wheel, at least 2.
+     * @param startTime The instant the clock starts at, in epoch milliseconds.
+     */
+    public HierarchicalTimingWheel(Duration tick, int wheelSize, long startTime) {
+        if (tick.toMillis() < 1 || wheelSize < 2) {
+            throw new IllegalArgumentException("A timing wheel needs a tick of 1ms or more and 2 slots or more");
+        }
+        this.tick = tick.toMillis();
+        this.wheelSize = wheelSize;
+        this.currentTime = Math.floorDiv(startTime, this.tick) * this.tick;
+    }
+
+    /**
+     * Get the instant the clock reached: every key whose deadline is at or before it has expired.
+     * @return The current time, in epoch milliseconds.
+     */
+    public long currentTime() {
+        return currentTime;
+    }
+
+    /**
+     * Counts the scheduled keys.
+     * @return The number of keys waiting to expire.
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Tells whether a key is scheduled.
+     * @param key The key.
+     * @return true if the key waits to expire.
+     */
+    public boolean contains(K key) {
+        return nodes.containsKey(key);
+    }
+
+    /**
+     * Schedules a key, replacing its previous deadline if it had one.
+     * @param key The key.
+     * @param deadline The instant the key expires at, in epoch milliseconds.
+     */
+    public void schedule(K key, long deadline) {
+        Node<K> node = nodes.get(key);
+        if (node == null) {
+            node = new Node<>(key);
+            nodes.put(key, node);
+        } else {
+            node.unlink();
+        }
+        node.deadline = deadline;
+        node.fireTime = Math.ceilDiv(deadline, tick) * tick;
+        place(node);
+    }
+
+    /**
+     * Cancels a key.
+     * @param key The key.
+     * @return true if the key was scheduled.
+     */
+    public boolean cancel(K key) {
+        Node<K> node = nodes.remove(key);
+        if (node == null) {
+            return false;
+        }
+        node.unlink();
+        return true;
+    }
+
+    /**
+     * Cancels the keys matching a predicate, visiting every scheduled key.
+     * @param filter The predicate receiving each key and its deadline.
+     * @return The number of cancelled keys.
+     */
+    public int cancelIf(BiPredicate<K, Long> filter) {
+        int cancelled = 0;
+        for (Iterator<Node<K>> iterator = nodes.values().iterator(); iterator.hasNext(); ) {
+            Node<K> node = iterator.next();
+            if (filter.test(node.key, node.deadline)) {
+                iterator.remove();
+                node.unlink();
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * Advances the clock to the given instant tick by tick, expiring every key whose deadline it reaches, those of
+     * an earlier tick first. An instant before the current time only expires the overdue keys.
+     * @param now The instant to advance to, in epoch milliseconds.
+     * @param expired The consumer receiving each expired key and its deadline, once removed from the wheel; it must
+     * not change the wheel.
+     */
+    public void advance(long now, ObjLongConsumer<K> expired) {
+        expire(overdue, expired);
+        long target = Math.floorDiv(now, tick) * tick;
+        while (currentTime < target) {
+            if (nodes.isEmpty()) {
+                currentTime = target;
+                break;
+            }
+            currentTime += tick;
+            // cascade the top wheels first, so that a key moved down is moved again if the wheel below turned too
+            for (int level = wheels.size() - 1; level > 0; level--) {
+                long levelTick = tickOf(level);
+                if (currentTime % levelTick == 0) {
+                    Slot<K> slot = wheels.get(level)[slotIndex(currentTime, levelTick)];
+                    for (Node<K> node = slot.takeAll(); node != null; ) {
+                        Node<K> next = node.next;
+                        node.next = null;
+                        place(node);
+                        node = next;
+                    }
+                }
+            }
+            if (!wheels.isEmpty()) {
+                expire(wheels.get(0)[slotIndex(currentTime, tick)], expired);
+            }
+            expire(overdue, expired);
+        }
+    }
+
+    /**
+     * Puts a node in the slot of the lowest wheel whose span reaches its fire time, or in the overdue slot.
+     * @param node The node, unlinked.
+     */
+    private void place(Node<K> node) {
+        if (node.fireTime <= currentTime) {
+            overdue.add(node);
+            return;
+        }
+        for (int level = 0; ; level++) {
+            if (level == wheels.size()) {
+                wheels.add(newWheel());
+            }
+            long levelTick = tickOf(level);
+            long levelStart = Math.floorDiv(currentTime, levelTick) * levelTick;
+            boolean topmost = levelTick > Long.MAX_VALUE / wheelSize / 2;
+            if (topmost || node.fireTime - levelStart < levelTick * wheelSize) {
+                wheels.get(level)[slotIndex(node.fireTime, levelTick)].add(node);
+                return;
+            }
+        }
+    }
+
+    private void expire(Slot<K> slot, ObjLongConsumer<K> expired) {
+        for (Node<K> node = slot.takeAll(); node != null; ) {
+            Node<K> next = node.next;
+            node.next = null;
+            nodes.remove(node.key);
+            expired.accept(node.key, node.deadline);
+            node = next;
+        }
+    }
+
+    private long tickOf(int level) {
+        long levelTick = tick;
+        for (int i = 0; i < level; i++) {
+            levelTick *= wheelSize;
+        }
+        return levelTick;
+    }
+
+    private int slotIndex(long time, long levelTick) {
+        return (int) Math.floorMod(Math.floorDiv(time, levelTick), (long) wheelSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Slot<K>[] newWheel() {
+        Slot<K>[] wheel = (Slot<K>[]) new Slot<?>[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new Slot<>();
+        }
+        return wheel;
+    }
+
+    /**
+     * Scheduled key, linked in the list of its slot.
+     * @param <K> The type of the key.
+     */
+    private static final class Node<K> {
+
+        private final K key;
+        private long deadline;
+        private long fireTime;
+        private Node<K> previous;
+        private Node<K> next;
+
+        private Node(K key) {
+            this.key = key;
+        }
+
+        /**
+         * Removes the node from the list of its slot, if it is in one.
+         */
+        void unlink() {
+            if (previous != null) {
+                previous.next = next;
+                if (next != null) {
+                    next.previous = previous;
+                }
+                previous = null;
+                next = null;
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list of the nodes of one slot, headed by a sentinel node.
+     * @param <K> The type of the keys.
+     */
+    private static final class Slot<K> {
+
+        private final Node<K> head = new Node<>(null);
+
+        void add(Node<K> node) {
+            node.previous = head;
+            node.next = head.next;
+            if (head.next != null) {
+                head.next.previous = node;
+            }
+            head.next = node;
+        }
+
+        /**
+         * Empties the slot.
+         * @return The first node of the former list, whose nodes are still chained by next, or null.
+         */
+        Node<K> takeAll() {
+            Node<K> first = head.next;
+            head.next = null;
+            for (Node<K> node = first; node != null; node = node.next) {
+                node.previous = null;
+            }
+            return first;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.todolist.reminder;
+
+import com.example.todolist.entity.ToDo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * ToDoReminderCallback logging every reminder, so that reminders are visible before any notification is plugged in.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@Profile("!reactive & !embedded")
+@ConditionalOnProperty(name = "todo.reminders.enabled", havingValue = "true")
+public class LoggingToDoReminderCallback implements ToDoReminderCallback {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingToDoReminderCallback.class);
+
+    @Override
+    public void remind(ToDo toDo, Instant dueAt) {
+        logger.info("_ToDo_ {} \"{}\" is due since {}", toDo.getToDoId(), toDo.getTitle(), dueAt);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.todolist.reminder;
+
+import com.example.todolist.entity.ToDo;
+
+import java.time.Instant;
+
+/**
+ * Notification run by ToDoReminderScheduler when a _ToDo_ record comes due, such as sending an e-mail or a push
+ * message.
+ * <p>
+ * Every ToDoReminderCallback bean is called, in order, on the scheduler thread: slow notifications should be handed
+ * off to an executor. A callback that throws is counted and logged, and not retried. A reminder may be fired again
+ * after its shard changes owner, if the previous owner stopped before recording it as fired.
+ */
+public interface ToDoReminderCallback {
+
+    /**
+     * Notifies that a _ToDo_ record is due.
+     * @param toDo The _ToDo_ entity, as read when the reminder fired.
+     * @param dueAt The instant its due date was reached.
+     */
+    void remind(ToDo toDo, Instant dueAt);
+}
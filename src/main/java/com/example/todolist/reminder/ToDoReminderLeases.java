@@ -0,0 +1,246 @@
+package com.example.todolist.reminder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Leases on the shards of the due-date reminders, kept in tb_reminder_leases.
+ * <p>
+ * Each instance heartbeats in tb_reminder_members, renews the leases it holds, and takes free or expired ones, up to
+ * its fair share: the number of shards divided by the number of live instances. An instance holding more than its
+ * share, because another one started, releases the excess, so the shards spread over the instances within a few
+ * renewals. Leases
+ * are taken and renewed by conditional updates, so one shard never has two live owners; an owner that stops
+ * renewing, because it crashed or lost the database, loses its shards once the lease duration passed.
+ * <p>
+ * Every renewal also records, per shard, the instant up to which its reminders were fired. Instances compare lease
+ * expiries with their own clock, which must therefore agree within a fraction of the lease duration.
+ */
+@Component
+@Profile("!reactive & !embedded")
+@ConditionalOnProperty(name = "todo.reminders.enabled", havingValue = "true")
+public class ToDoReminderLeases {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToDoReminderLeases.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int shards;
+    private final Duration leaseDuration;
+    private final String owner;
+
+    /**
+     * Constructs a ToDoReminderLeases.
+     * @param jdbcTemplate The JdbcTemplate running the lease statements.
+     * @param shards The number of shards, the same on every instance.
+     * @param leaseDuration The time a lease lasts without renewal.
+     * @param owner The name of this instance in the lease table, or empty for a random one.
+     */
+    public ToDoReminderLeases(JdbcTemplate jdbcTemplate,
+                              @Value("${todo.reminders.shards:64}") int shards,
+                              @Value("${todo.reminders.lease.duration:30s}") Duration leaseDuration,
+                              @Value("${todo.reminders.lease.owner:}") String owner) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shards = shards;
+        this.leaseDuration = leaseDuration;
+        this.owner = StringUtils.hasText(owner) ? owner : UUID.randomUUID().toString();
+    }
+
+    /**
+     * Get the number of shards.
+     * @return The number of shards.
+     */
+    public int shards() {
+        return shards;
+    }
+
+    /**
+     * Get the time a lease lasts without renewal.
+     * @return The lease duration.
+     */
+    public Duration leaseDuration() {
+        return leaseDuration;
+    }
+
+    /**
+     * Get the name of this instance in the lease table.
+     * @return The owner name.
+     */
+    public String owner() {
+        return owner;
+    }
+
+    /**
+     * Get the shard a _ToDo_ record belongs to.
+     * @param toDoId The id of the _ToDo_ record.
+     * @return The shard, between 0 and shards - 1.
+     */
+    public int shardOf(UUID toDoId) {
+        return Math.floorMod(toDoId.hashCode(), shards);
+    }
+
+    /**
+     * Inserts the rows of the shards missing from the lease table.
+     */
+    public void createShards() {
+        Set<Integer> existing = new HashSet<>(jdbcTemplate.queryForList("select shard from tb_reminder_leases", Integer.class));
+        for (int shard = 0; shard < shards; shard++) {
+            if (!existing.contains(shard)) {
+                try {
+                    jdbcTemplate.update("insert into tb_reminder_leases (shard) values (?)", shard);
+                } catch (DuplicateKeyException e) {
+                    // inserted by another instance starting at the same time
+                }
+            }
+        }
+    }
+
+    /**
+     * Renews the leases held, releases those beyond the fair share and takes free ones up to it.
+     * @param now The current instant.
+     * @param firedThrough The instant up to which the reminders of the held shards were fired.
+     * @return The shards held after the renewal, with the instant up to which their reminders were fired, if any.
+     */
+    public Map<Integer, Instant> renew(Instant now, Instant firedThrough) {
+        List<Lease> leases = jdbcTemplate.query(
+                "select shard, lease_owner, expires_at, fired_through from tb_reminder_leases where shard < ?",
+                (rs, rowNum) -> new Lease(rs.getInt("shard"), rs.getString("lease_owner"),
+                        toInstant(rs.getObject("expires_at", OffsetDateTime.class)),
+                        toInstant(rs.getObject("fired_through", OffsetDateTime.class))),
+                shards);
+        OffsetDateTime expiresAt = toOffsetDateTime(now.plus(leaseDuration));
+        OffsetDateTime fired = toOffsetDateTime(firedThrough);
+        if (jdbcTemplate.update("update tb_reminder_members set expires_at = ? where member_name = ?", expiresAt, owner) == 0) {
+            try {
+                jdbcTemplate.update("insert into tb_reminder_members (member_name, expires_at) values (?, ?)", owner, expiresAt);
+            } catch (DuplicateKeyException e) {
+                // inserted by a concurrent renewal of the same owner name
+            }
+        }
+        jdbcTemplate.update("delete from tb_reminder_members where expires_at <= ?", toOffsetDateTime(now));
+        Set<String> members = new HashSet<>(jdbcTemplate.queryForList(
+                "select member_name from tb_reminder_members where expires_at > ?", String.class, toOffsetDateTime(now)));
+        Plan plan = plan(owner, members, leases, now, shards);
+
+        for (int shard : plan.release()) {
+            jdbcTemplate.update("update tb_reminder_leases set lease_owner = null, expires_at = null, " +
+                    "fired_through = ? where shard = ? and lease_owner = ?", fired, shard, owner);
+        }
+        if (!plan.renew().isEmpty()) {
+            jdbcTemplate.update("update tb_reminder_leases set expires_at = ?, fired_through = ? " +
+                    "where lease_owner = ? and expires_at > ? and shard < ?", expiresAt, fired, owner, toOffsetDateTime(now), shards);
+        }
+        for (int shard : plan.acquire()) {
+            jdbcTemplate.update("update tb_reminder_leases set lease_owner = ?, expires_at = ? " +
+                    "where shard = ? and (lease_owner is null or expires_at is null or expires_at <= ?)",
+                    owner, expiresAt, shard, toOffsetDateTime(now));
+        }
+
+        Map<Integer, Instant> held = new TreeMap<>();
+        jdbcTemplate.query("select shard, fired_through from tb_reminder_leases where lease_owner = ? and expires_at > ? " +
+                        "and shard < ?",
+                rs -> {
+                    held.put(rs.getInt("shard"), toInstant(rs.getObject("fired_through", OffsetDateTime.class)));
+                },
+                owner, toOffsetDateTime(now), shards);
+        if (!plan.release().isEmpty() || !plan.acquire().isEmpty()) {
+            logger.debug("Reminder shards of {}: released {}, took {} of {}, holding {}", owner, plan.release(),
+                    held.keySet().stream().filter(plan.acquire()::contains).toList(), plan.acquire(), held.size());
+        }
+        return held;
+    }
+
+    /**
+     * Releases every lease held, recording up to when their reminders were fired, so that other instances take
+     * them over without waiting for them to expire.
+     * @param firedThrough The instant up to which the reminders of the held shards were fired.
+     */
+    public void releaseAll(Instant firedThrough) {
+        jdbcTemplate.update("delete from tb_reminder_members where member_name = ?", owner);
+        jdbcTemplate.update("update tb_reminder_leases set lease_owner = null, expires_at = null, " +
+                "fired_through = ? where lease_owner = ?", toOffsetDateTime(firedThrough), owner);
+    }
+
+    /**
+     * Computes the leases to renew, release and take.
+     * @param owner The name of this instance.
+     * @param members The names of the live instances.
+     * @param leases The current leases of every shard.
+     * @param now The current instant.
+     * @param shards The number of shards.
+     * @return The shards to renew, those to release and those to try to take, in that order of preference.
+     */
+    public static Plan plan(String owner, Set<String> members, List<Lease> leases, Instant now, int shards) {
+        Set<String> liveOwners = new HashSet<>(members);
+        liveOwners.add(owner);
+        List<Integer> held = new ArrayList<>();
+        List<Lease> free = new ArrayList<>();
+        for (Lease lease : leases) {
+            boolean live = lease.owner() != null && lease.expiresAt() != null && lease.expiresAt().isAfter(now);
+            if (live) {
+                liveOwners.add(lease.owner());
+                if (lease.owner().equals(owner)) {
+                    held.add(lease.shard());
+                }
+            } else {
+                free.add(lease);
+            }
+        }
+        int fairShare = (shards + liveOwners.size() - 1) / liveOwners.size();
+        held.sort(Comparator.naturalOrder());
+
+        if (held.size() > fairShare) {
+            return new Plan(held.subList(0, fairShare), held.subList(fairShare, held.size()), List.of());
+        }
+        // the expired leases of this instance are taken back first, so that a short outage leaves the shards in place
+        free.sort(Comparator.comparing((Lease lease) -> !owner.equals(lease.owner())).thenComparing(Lease::shard));
+        List<Integer> acquire = free.stream().limit(fairShare - held.size()).map(Lease::shard).toList();
+        return new Plan(held, List.of(), acquire);
+    }
+
+    private static Instant toInstant(OffsetDateTime dateTime) {
+        return dateTime == null ? null : dateTime.toInstant();
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Instant instant) {
+        return instant == null ? null : instant.atOffset(ZoneOffset.UTC);
+    }
+
+    /**
+     * Lease row of one shard.
+     * @param shard The shard.
+     * @param owner The instance holding the lease, or null.
+     * @param expiresAt The instant the lease expires at, or null.
+     * @param firedThrough The instant up to which the reminders of the shard were fired, or null.
+     */
+    public record Lease(int shard, String owner, Instant expiresAt, Instant firedThrough) {
+    }
+
+    /**
+     * Outcome of one renewal.
+     * @param renew The shards held and kept.
+     * @param release The shards held beyond the fair share.
+     * @param acquire The free shards to try to take.
+     */
+    public record Plan(List<Integer> renew, List<Integer> release, List<Integer> acquire) {
+    }
+}
@@ -0,0 +1,513 @@
+package com.example.todolist.reminder;
+
+import com.example.todolist.dtos.ToDoDueDate;
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.events.ToDoChangeEvent;
+import com.example.todolist.metrics.ToDoMetrics;
+import com.example.todolist.repository.ToDoStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Fires the ToDoReminderCallback beans when _ToDo_ records come due, at todo.reminders.time on their due date in
+ * todo.reminders.zone.
+ * <p>
+ * The reminders of the next todo.reminders.horizon-days days wait in a HierarchicalTimingWheel, advanced every
+ * todo.reminders.tick, so that pending reminders cost one wheel node each rather than one timer or one scan. They
+ * are sharded by the hash of the record id, and each instance only loads the shards it leases through
+ * ToDoReminderLeases. Loading reads the (due_date, to_do_id) index over the due dates of the loaded shards: when a
+ * shard is taken, once a day as the horizon moves, and every todo.reminders.reload-interval.
+ * <p>
+ * Every committed ToDoChangeEvent of this instance schedules, moves or cancels its reminder in O(1). Changes made
+ * by other instances or without the service are picked up by the next reload; on expiry, each reminder is checked
+ * against the store first, so that a record deleted or moved meanwhile is not reminded of. Records created or moved
+ * to a due instant already passed are not reminded of.
+ * <p>
+ * A shard taken over from a stopped instance fires the reminders it missed, up to todo.reminders.catch-up late.
+ * Leases are renewed on a thread of their own rather than by the shared task scheduler, so that a long outbox
+ * drain or reload never holds a renewal back until the leases expire.
+ * Enabled by todo.reminders.enabled=true; not available with the "embedded" profile, which has no database to
+ * hold the leases.
+ */
+@Component
+@Profile("!reactive & !embedded")
+@ConditionalOnProperty(name = "todo.reminders.enabled", havingValue = "true")
+public class ToDoReminderScheduler implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToDoReminderScheduler.class);
+    private static final int FIRE_CHUNK_SIZE = 500;
+
+    private final ToDoStore toDoStore;
+    private final ToDoReminderLeases leases;
+    private final List<ToDoReminderCallback> callbacks;
+    private final TransactionTemplate readTransaction;
+    private final ToDoMetrics toDoMetrics;
+    private final LocalTime time;
+    private final ZoneId zone;
+    private final int horizonDays;
+    private final Duration catchUp;
+    private final Duration renewInterval;
+    private final ScheduledExecutorService leaseRenewer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final HierarchicalTimingWheel<UUID> wheel;
+
+    private volatile Set<Integer> ownedShards = Set.of();
+    private volatile Instant firedThrough;
+    private volatile boolean started;
+    private Instant leasedUntil;
+    private LocalDate loadedThrough;
+    private List<ToDoChangeEvent> changesWhileLoading;
+
+    /**
+     * Constructs a ToDoReminderScheduler.
+     * @param toDoStore The ToDoStore the reminders are loaded from and checked against.
+     * @param leases The ToDoReminderLeases sharing the shards among the instances.
+     * @param callbacks The ToDoReminderCallback beans notified of each reminder, in order.
+     * @param transactionManager The PlatformTransactionManager running the loading queries.
+     * @param toDoMetrics The ToDoMetrics recording the reminders.
+     * @param time The time of day a _ToDo_ record is reminded of on its due date, as HH:mm[:ss].
+     * @param zone The time zone of the due dates, or empty for the system one.
+     * @param horizonDays The number of days ahead whose reminders are kept in the timing wheel.
+     * @param catchUp How late the reminders missed while no instance held their shard may still be fired.
+     * @param renewInterval The time between the end of a lease renewal and the start of the next one.
+     * @param tick The duration of one slot of the timing wheel, and the interval it is advanced at.
+     * @param wheelSize The number of slots of each level of the timing wheel.
+     */
+    public ToDoReminderScheduler(ToDoStore toDoStore, ToDoReminderLeases leases,
+                                 ObjectProvider<ToDoReminderCallback> callbacks,
+                                 PlatformTransactionManager transactionManager, ToDoMetrics toDoMetrics,
+                                 @Value("${todo.reminders.time:09:00}") String time,
+                                 @Value("${todo.reminders.zone:}") String zone,
+                                 @Value("${todo.reminders.horizon-days:7}") int horizonDays,
+                                 @Value("${todo.reminders.catch-up:P1D}") Duration catchUp,
+                                 @Value("${todo.reminders.lease.renew-interval:PT10S}") Duration renewInterval,
+                                 @Value("${todo.reminders.tick:PT1S}") Duration tick,
+                                 @Value("${todo.reminders.wheel-size:64}") int wheelSize) {
+        this.toDoStore = toDoStore;
+        this.leases = leases;
+        this.callbacks = callbacks.orderedStream().toList();
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.toDoMetrics = toDoMetrics;
+        this.time = LocalTime.parse(time);
+        this.zone = StringUtils.hasText(zone) ? ZoneId.of(zone) : ZoneId.systemDefault();
+        this.horizonDays = horizonDays;
+        this.catchUp = catchUp;
+        this.renewInterval = renewInterval;
+        this.wheel = new HierarchicalTimingWheel<>(tick, wheelSize, System.currentTimeMillis());
+        this.firedThrough = Instant.ofEpochMilli(wheel.currentTime());
+        this.leaseRenewer = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("todo-reminder-leases").daemon().factory());
+    }
+
+    /**
+     * Takes the first leases and loads their reminders once the application is up, then renews them every
+     * todo.reminders.lease.renew-interval.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        toDoMetrics.registerReminders(this::scheduledCount, () -> ownedShards.size());
+        leases.createShards();
+        lock.lock();
+        try {
+            loadedThrough = today().plusDays(horizonDays);
+        } finally {
+            lock.unlock();
+        }
+        started = true;
+        renewLeases();
+        leaseRenewer.scheduleWithFixedDelay(() -> {
+            try {
+                renewLeases();
+            } catch (RuntimeException e) {
+                logger.warn("Could not renew the reminder leases of {}", leases.owner(), e);
+            }
+        }, renewInterval.toMillis(), renewInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedules, moves or cancels the reminder of a changed _ToDo_ record once the transaction that changed it has
+     * committed.
+     * @param event The change event.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ToDoChangeEvent event) {
+        lock.lock();
+        try {
+            if (changesWhileLoading != null) {
+                changesWhileLoading.add(event);
+            }
+            apply(event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fires the reminders that came due.
+     */
+    @Scheduled(fixedRateString = "${todo.reminders.tick:PT1S}")
+    public void tick() {
+        fireDue(Instant.now());
+    }
+
+    /**
+     * Advances the timing wheel to the given instant and fires the reminders due by then.
+     * @param now The instant to advance to.
+     */
+    public void fireDue(Instant now) {
+        if (!started) {
+            return;
+        }
+        List<Due> due = new ArrayList<>();
+        long through;
+        lock.lock();
+        try {
+            if (leasedUntil != null && Instant.now().isAfter(leasedUntil) && !ownedShards.isEmpty()) {
+                // the leases could not be renewed in time, other instances may hold the shards by now
+                logger.warn("Reminder leases of {} expired without renewal, dropping {} shards", leases.owner(),
+                        ownedShards.size());
+                ownedShards = Set.of();
+                wheel.cancelIf((id, deadline) -> true);
+            }
+            wheel.advance(now.toEpochMilli(), (id, deadline) -> due.add(new Due(id, deadline)));
+            through = wheel.currentTime();
+        } finally {
+            lock.unlock();
+        }
+        for (int from = 0; from < due.size(); from += FIRE_CHUNK_SIZE) {
+            fire(due, from, Math.min(from + FIRE_CHUNK_SIZE, due.size()));
+        }
+        firedThrough = Instant.ofEpochMilli(through);
+    }
+
+    /**
+     * Renews the leases, drops the reminders of the shards lost, loads those of the shards taken and moves the
+     * horizon with the day.
+     */
+    public void renewLeases() {
+        if (!started) {
+            return;
+        }
+        Instant now = Instant.now();
+        Map<Integer, Instant> held = leases.renew(now, firedThrough);
+
+        Set<Integer> previous;
+        long currentTime;
+        lock.lock();
+        try {
+            previous = ownedShards;
+            ownedShards = Set.copyOf(held.keySet());
+            leasedUntil = now.plus(leases.leaseDuration());
+            Set<Integer> lost = new HashSet<>(previous);
+            lost.removeAll(held.keySet());
+            if (!lost.isEmpty()) {
+                wheel.cancelIf((id, deadline) -> lost.contains(leases.shardOf(id)));
+            }
+            currentTime = wheel.currentTime();
+        } finally {
+            lock.unlock();
+        }
+
+        Map<Integer, Long> acquired = new HashMap<>();
+        long oldest = currentTime - catchUp.toMillis();
+        for (Map.Entry<Integer, Instant> lease : held.entrySet()) {
+            if (!previous.contains(lease.getKey())) {
+                long firedThroughShard = lease.getValue() == null ? currentTime : lease.getValue().toEpochMilli();
+                acquired.put(lease.getKey(), Math.max(firedThroughShard, oldest));
+            }
+        }
+        if (!acquired.isEmpty()) {
+            long from = acquired.values().stream().mapToLong(Long::longValue).min().orElseThrow();
+            load(acquired.keySet(), dateOf(from), null, acquired::get, false);
+        }
+
+        LocalDate horizon = today().plusDays(horizonDays);
+        LocalDate extendFrom;
+        lock.lock();
+        try {
+            extendFrom = horizon.isAfter(loadedThrough) ? loadedThrough.plusDays(1) : null;
+        } finally {
+            lock.unlock();
+        }
+        if (extendFrom != null) {
+            load(ownedShards, extendFrom, horizon, shard -> wheel.currentTime(), false);
+        }
+    }
+
+    /**
+     * Loads the reminders of the shards held again, to pick up the changes made by other instances or without the
+     * service.
+     */
+    @Scheduled(fixedDelayString = "${todo.reminders.reload-interval:PT15M}",
+            initialDelayString = "${todo.reminders.reload-interval:PT15M}")
+    public void reload() {
+        if (!started) {
+            return;
+        }
+        long currentTime;
+        lock.lock();
+        try {
+            currentTime = wheel.currentTime();
+        } finally {
+            lock.unlock();
+        }
+        load(ownedShards, dateOf(currentTime), null, shard -> currentTime, true);
+    }
+
+    /**
+     * Stops renewing the leases and releases them, so that the other instances take the shards over right away.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        leaseRenewer.shutdownNow();
+        // a renewal still running would take the leases back right after they are released
+        leaseRenewer.awaitTermination(5, TimeUnit.SECONDS);
+        if (started) {
+            started = false;
+            try {
+                leases.releaseAll(firedThrough);
+            } catch (RuntimeException e) {
+                logger.warn("Could not release the reminder leases of {}, they will expire", leases.owner(), e);
+            }
+        }
+    }
+
+    /**
+     * Counts the reminders waiting in the timing wheel.
+     * @return The number of scheduled reminders.
+     */
+    public int scheduledCount() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the shards held by this instance.
+     * @return The shards whose reminders this instance fires.
+     */
+    public Set<Integer> ownedShards() {
+        return ownedShards;
+    }
+
+    /**
+     * Loads the reminders of some shards over a range of due dates into the timing wheel. Changes committed while
+     * the query runs are applied again on top of its result.
+     * @param shards The shards to load.
+     * @param from The first due date to load.
+     * @param to The last due date to load, which becomes the end of the horizon if later, or null for the current
+     * end of the horizon.
+     * @param firedThrough The instant up to which the reminders of each shard were already fired.
+     * @param replace Whether to cancel the scheduled reminders of these shards in the range that were not found.
+     */
+    private void load(Set<Integer> shards, LocalDate from, LocalDate to, ToLongFunction<Integer> firedThrough,
+                      boolean replace) {
+        loadLock.lock();
+        try {
+            LocalDate through;
+            lock.lock();
+            try {
+                through = to == null ? loadedThrough : to;
+                changesWhileLoading = new ArrayList<>();
+            } finally {
+                lock.unlock();
+            }
+
+            List<ToDoDueDate> found = new ArrayList<>();
+            if (!shards.isEmpty() && !from.isAfter(through)) {
+                try {
+                    readTransaction.executeWithoutResult(status -> toDoStore.exportDueDates(from, through, dueDate -> {
+                        if (shards.contains(leases.shardOf(dueDate.toDoId()))) {
+                            found.add(dueDate);
+                        }
+                    }));
+                } catch (RuntimeException e) {
+                    lock.lock();
+                    try {
+                        changesWhileLoading = null;
+                    } finally {
+                        lock.unlock();
+                    }
+                    throw e;
+                }
+            }
+
+            lock.lock();
+            try {
+                if (through.isAfter(loadedThrough)) {
+                    loadedThrough = through;
+                }
+                if (replace) {
+                    Set<UUID> ids = new HashSet<>();
+                    found.forEach(dueDate -> ids.add(dueDate.toDoId()));
+                    long currentTime = wheel.currentTime();
+                    wheel.cancelIf((id, deadline) -> deadline > currentTime && !ids.contains(id)
+                            && shards.contains(leases.shardOf(id)));
+                }
+                Set<Integer> owned = ownedShards;
+                for (ToDoDueDate dueDate : found) {
+                    int shard = leases.shardOf(dueDate.toDoId());
+                    long deadline = deadlineOf(dueDate.dueDate());
+                    if (owned.contains(shard) && deadline > firedThrough.applyAsLong(shard)) {
+                        wheel.schedule(dueDate.toDoId(), deadline);
+                    }
+                }
+                changesWhileLoading.forEach(this::apply);
+                changesWhileLoading = null;
+            } finally {
+                lock.unlock();
+            }
+            logger.debug("Loaded {} reminders due from {} to {} of {} shards", found.size(), from, through,
+                    shards.size());
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Updates the timing wheel for a change. Must be called holding the lock.
+     * @param event The change event.
+     */
+    private void apply(ToDoChangeEvent event) {
+        if (event.type() == ToDoChangeEvent.Type.UPDATED && event.toDo().dueDate() != null
+                && event.toDo().dueDate().equals(event.previousDueDate())) {
+            return; // same due date: keep the reminder, or do not fire it again if it already fired
+        }
+        wheel.cancel(event.toDoId());
+        if (event.type() != ToDoChangeEvent.Type.DELETED) {
+            scheduleIfOwned(event.toDoId(), event.toDo().dueDate());
+        }
+    }
+
+    /**
+     * Schedules the reminder of a _ToDo_ record if this instance holds its shard and its due instant is ahead,
+     * within the horizon. Must be called holding the lock.
+     * @param toDoId The id of the _ToDo_ record.
+     * @param dueDate Its due date, or null.
+     */
+    private void scheduleIfOwned(UUID toDoId, LocalDate dueDate) {
+        if (dueDate == null || loadedThrough == null || dueDate.isAfter(loadedThrough)
+                || !ownedShards.contains(leases.shardOf(toDoId))) {
+            return;
+        }
+        long deadline = deadlineOf(dueDate);
+        if (deadline > wheel.currentTime()) {
+            wheel.schedule(toDoId, deadline);
+        }
+    }
+
+    /**
+     * Fires a chunk of expired reminders, checking them against the store first. If the store fails, the reminders
+     * not fired yet are put back into the timing wheel, to be fired on the next tick.
+     * @param due The expired reminders.
+     * @param from The index of the first reminder of the chunk.
+     * @param to The index after the last reminder of the chunk.
+     */
+    private void fire(List<Due> due, int from, int to) {
+        List<Due> chunk = due.subList(from, to);
+        Map<UUID, ToDo> toDos = new HashMap<>();
+        try {
+            toDoStore.findAllById(chunk.stream().map(Due::toDoId).toList())
+                    .forEach(toDo -> toDos.put(toDo.getToDoId(), toDo));
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                Set<Integer> owned = ownedShards;
+                for (Due reminder : due.subList(from, due.size())) {
+                    if (owned.contains(leases.shardOf(reminder.toDoId()))) {
+                        wheel.schedule(reminder.toDoId(), reminder.deadline());
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+
+        for (Due reminder : chunk) {
+            ToDo toDo = toDos.get(reminder.toDoId());
+            if (toDo != null && toDo.getDueDate() != null && deadlineOf(toDo.getDueDate()) == reminder.deadline()) {
+                remind(toDo, Instant.ofEpochMilli(reminder.deadline()));
+            } else {
+                toDoMetrics.reminderStale();
+                if (toDo != null) {
+                    lock.lock();
+                    try {
+                        scheduleIfOwned(toDo.getToDoId(), toDo.getDueDate());
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }
+        }
+    }
+
+    private void remind(ToDo toDo, Instant dueAt) {
+        for (ToDoReminderCallback callback : callbacks) {
+            try {
+                callback.remind(toDo, dueAt);
+            } catch (RuntimeException e) {
+                toDoMetrics.reminderFailed();
+                logger.warn("Reminder callback {} failed for _ToDo_ {}", callback.getClass().getName(),
+                        toDo.getToDoId(), e);
+            }
+        }
+        toDoMetrics.reminderFired(Duration.between(dueAt, Instant.now()));
+    }
+
+    private long deadlineOf(LocalDate dueDate) {
+        return dueDate.atTime(time).atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private LocalDate dateOf(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(zone).toLocalDate();
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(zone);
+    }
+
+    /**
+     * Expired reminder.
+     * @param toDoId The id of the _ToDo_ record.
+     * @param deadline The due instant it was scheduled at, in epoch milliseconds.
+     */
+    private record Due(UUID toDoId, long deadline) {
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.dtos.ToDoCursor;
+import com.example.todolist.dtos.ToDoDueDate;
+import com.example.todolist.dtos.ToDoDueDateCount;
+import com.example.todolist.dtos.ToDoFilter;
+import com.example.todolist.dtos.ToDoListVersion;
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.service.ToDoService;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ToDoStore on the relational database, through ToDoRepository and the EntityManager of the current transaction.
+ * Bulk operations work by chunks of ToDoService.JDBC_BATCH_SIZE entities, flushed as JDBC batches and cleared
+ * from the persistence context, so that its size does not depend on the size of the request.
+ * Every write that changed a row also counts an increment of the list version with ToDoListVersionCounter, applied
+ * once it committed.
+ */
+@Component
+@Profile("!reactive & !embedded")
+public class JpaToDoStore implements ToDoStore {
+
+    private final ToDoRepository toDoRepository;
+    private final EntityManager entityManager;
+    private final ToDoListVersionCounter listVersionCounter;
+
+    /**
+     * Constructs a JpaToDoStore with the specified ToDoRepository.
+     * @param toDoRepository The ToDoRepository running the queries.
+     * @param entityManager The EntityManager used to flush, clear and detach entities.
+     * @param listVersionCounter The ToDoListVersionCounter incrementing the list version after each write.
+     */
+    public JpaToDoStore(ToDoRepository toDoRepository, EntityManager entityManager,
+                        ToDoListVersionCounter listVersionCounter) {
+        this.toDoRepository = toDoRepository;
+        this.entityManager = entityManager;
+        this.listVersionCounter = listVersionCounter;
+    }
+
+    @Override
+    public Optional<ToDo> findById(UUID id) {
+        return toDoRepository.findById(id);
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return toDoRepository.existsById(id);
+    }
+
+    @Override
+    public List<ToDo> findAllById(Collection<UUID> ids) {
+        return toDoRepository.findAllById(ids);
+    }
+
+    @Override
+    public long count() {
+        return toDoRepository.count();
+    }
+
+    /**
+     * Runs the queries of one keyset page: the index ordered queries of ToDoRepository without filter, or else
+     * queries built from ToDoSpecifications, evaluated by the database so that only matching rows leave it.
+     * After a cursor with a due date, the page starts with a range scan of the dated entities from the cursor on,
+     * and only if that leaves it short, continues with the first entities without a due date, which no due date
+     * bound matches.
+     */
+    @Override
+    public List<ToDo> findPage(ToDoFilter filter, ToDoCursor cursor, int limit) {
+        if(cursor == null || cursor.dueDate() == null){
+            if(!filter.isEmpty()){
+                return findBy(toSpecification(filter, cursor), limit);
+            }
+            return cursor == null
+                    ? toDoRepository.findFirstPage(Limit.of(limit))
+                    : toDoRepository.findPageAfterNoDueDate(cursor.toDoId(), Limit.of(limit));
+        }
+        List<ToDo> page = new ArrayList<>(filter.isEmpty()
+                ? toDoRepository.findPageAfter(cursor.dueDate(), cursor.toDoId(), Limit.of(limit))
+                : findBy(toSpecification(filter, cursor), limit));
+        if(page.size() < limit && filter.dueFrom() == null && filter.dueTo() == null){
+            page.addAll(filter.isEmpty()
+                    ? toDoRepository.findFirstPageNoDueDate(Limit.of(limit - page.size()))
+                    : findBy(toSpecification(filter, null).and(ToDoSpecifications.withoutDueDate()), limit - page.size()));
+        }
+        return page;
+    }
+
+    /**
+     * Runs a query built from a specification in the keyset order of the list.
+     * @param specification The specification the entities must match.
+     * @param limit The maximum number of entities to fetch.
+     * @return The first matching entities.
+     */
+    private List<ToDo> findBy(Specification<ToDo> specification, int limit) {
+        return toDoRepository.findBy(specification.and(ToDoSpecifications.inKeysetOrder()),
+                query -> query.limit(limit).all());
+    }
+
+    /**
+     * Streams the entities from a database cursor, detaching each once consumed so the persistence context stays
+     * small whatever the table size.
+     */
+    @Override
+    public void export(Consumer<ToDo> consumer) {
+        try (Stream<ToDo> toDoStream = toDoRepository.streamAll()) {
+            toDoStream.forEach(toDo -> {
+                consumer.accept(toDo);
+                entityManager.detach(toDo);
+            });
+        }
+    }
+
+    @Override
+    public void exportDueDates(LocalDate from, LocalDate to, Consumer<ToDoDueDate> consumer) {
+        try (Stream<ToDoDueDate> dueDates = toDoRepository.streamDueDatesBetween(from, to)) {
+            dueDates.forEach(consumer);
+        }
+    }
+
+    @Override
+    public void awaitListVersion() {
+        listVersionCounter.awaitIncrements();
+    }
+
+    @Override
+    public ToDoListVersion findListVersion() {
+        return new ToDoListVersion(toDoRepository.findListVersion());
+    }
+
+    @Override
+    public List<ToDoDueDateCount> countByDueDate() {
+        return toDoRepository.countByDueDate();
+    }
+
+    @Override
+    public ToDo create(ToDo toDo) {
+        ToDo savedToDo = toDoRepository.save(toDo);
+        listVersionCounter.incrementAfterCommit();
+        return savedToDo;
+    }
+
+    /**
+     * Merges the entity; merging loads the row anyway, so finding it first costs no statement and tells its
+     * previous due date.
+     */
+    @Override
+    public UpdatedToDo merge(ToDo toDo) {
+        ToDo previousToDo = entityManager.find(ToDo.class, toDo.getToDoId());
+        LocalDate previousDueDate = previousToDo == null ? null : previousToDo.getDueDate();
+        ToDo savedToDo = toDoRepository.save(toDo);
+        listVersionCounter.incrementAfterCommit();
+        return new UpdatedToDo(savedToDo, previousDueDate);
+    }
+
+    @Override
+    public Optional<UpdatedToDo> update(ToDo toDo, Long expectedVersion) {
+        Optional<UpdatedToDo> updatedToDo = toDoRepository.updateReturning(toDo, expectedVersion);
+        updatedToDo.ifPresent(updated -> listVersionCounter.incrementAfterCommit());
+        return updatedToDo;
+    }
+
+    @Override
+    public Optional<ToDo> delete(UUID id, Long expectedVersion) {
+        Optional<ToDo> deletedToDo = toDoRepository.deleteReturning(id, expectedVersion);
+        deletedToDo.ifPresent(deleted -> listVersionCounter.incrementAfterCommit());
+        return deletedToDo;
+    }
+
+    @Override
+    public void createAll(List<ToDo> toDos) {
+        for (List<ToDo> chunk : chunks(toDos)) {
+            toDoRepository.saveAll(chunk);
+            entityManager.flush();
+            entityManager.clear();
+        }
+        if (!toDos.isEmpty()) {
+            listVersionCounter.incrementAfterCommit();
+        }
+    }
+
+    /**
+     * Loads each chunk with one query and writes it back as one JDBC batch.
+     */
+    @Override
+    public List<Optional<UpdatedToDo>> updateAll(List<ToDo> toDos) {
+        List<Optional<UpdatedToDo>> updated = new ArrayList<>(toDos.size());
+        for (List<ToDo> chunk : chunks(toDos)) {
+            List<UUID> ids = chunk.stream().map(ToDo::getToDoId).toList();
+            Map<UUID, ToDo> foundToDos = toDoRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(ToDo::getToDoId, Function.identity()));
+
+            for (ToDo toDo : chunk) {
+                ToDo foundToDo = foundToDos.get(toDo.getToDoId());
+                if (foundToDo == null) {
+                    updated.add(Optional.empty());
+                    continue;
+                }
+                LocalDate previousDueDate = foundToDo.getDueDate();
+                foundToDo.setTitle(toDo.getTitle());
+                foundToDo.setDescription(toDo.getDescription());
+                foundToDo.setDueDate(toDo.getDueDate());
+                updated.add(Optional.of(new UpdatedToDo(foundToDo, previousDueDate)));
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+        if (updated.stream().anyMatch(Optional::isPresent)) {
+            listVersionCounter.incrementAfterCommit();
+        }
+        return updated;
+    }
+
+    /**
+     * Deletes with one DELETE statement per chunk of ids, after reading which of them exist.
+     */
+    @Override
+    public List<ToDoDueDate> deleteAll(Collection<UUID> ids) {
+        List<ToDoDueDate> deleted = new ArrayList<>();
+        for (List<UUID> chunk : chunks(List.copyOf(ids))) {
+            List<ToDoDueDate> existing = toDoRepository.findExistingDueDates(chunk);
+            toDoRepository.deleteAllByIdInBatch(existing.stream().map(ToDoDueDate::toDoId).toList());
+            deleted.addAll(existing);
+        }
+        if (!deleted.isEmpty()) {
+            listVersionCounter.incrementAfterCommit();
+        }
+        return deleted;
+    }
+
+    /**
+     * Combines the criteria of a filter and the keyset position into one specification.
+     * @param filter The filter the entities must match.
+     * @param cursor The position to continue from, or null for the first page.
+     * @return The specification.
+     */
+    private static Specification<ToDo> toSpecification(ToDoFilter filter, ToDoCursor cursor) {
+        List<Specification<ToDo>> specifications = new ArrayList<>(4);
+        if(filter.dueFrom() != null){
+            specifications.add(ToDoSpecifications.dueOnOrAfter(filter.dueFrom()));
+        }
+        if(filter.dueTo() != null){
+            specifications.add(ToDoSpecifications.dueOnOrBefore(filter.dueTo()));
+        }
+        if(filter.text() != null){
+            specifications.add(ToDoSpecifications.textContains(filter.text()));
+        }
+        if(cursor != null){
+            specifications.add(ToDoSpecifications.after(cursor.dueDate(), cursor.toDoId()));
+        }
+        return Specification.allOf(specifications);
+    }
+
+    /**
+     * Splits a list into consecutive views of at most JDBC_BATCH_SIZE elements.
+     * @param list The list to split.
+     * @return The chunks of the list.
+     */
+    private static <T> List<List<T>> chunks(List<T> list) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += ToDoService.JDBC_BATCH_SIZE) {
+            chunks.add(list.subList(from, Math.min(from + ToDoService.JDBC_BATCH_SIZE, list.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.dtos.ToDoCursor;
+import com.example.todolist.dtos.ToDoFilter;
+import com.example.todolist.dtos.ToDoListVersion;
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.id.ToDoIdGenerator;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Parameters;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Statement;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Non-blocking repository of the _ToDo_ rows of TB_TODOS, running over R2DBC in the "reactive" profile.
+ * Statements mirror the ones of ToDoRepository and ToDoRepositoryCustomImpl: keyset pages in (due_date, to_do_id)
+ * order, filters written to match the indexes of the migrations, and single statement updates and deletes that
+ * also return the row, with UPDATE/DELETE ... RETURNING on PostgreSQL and FINAL TABLE/OLD TABLE on H2.
+ * Since no ORM is involved, ids, versions and updated_at instants are maintained here.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveToDoRepository {
+
+    private static final String COLUMNS = "to_do_id, title, description, due_date, version, updated_at";
+    private static final String SELECT = "select " + COLUMNS + " from tb_todos";
+    private static final String KEYSET_ORDER = " order by due_date asc nulls last, to_do_id asc";
+    private static final String INSERT = "insert into tb_todos (" + COLUMNS + ") values ($1, $2, $3, $4, $5, $6)";
+    private static final String SET_FIELDS = "tb_todos set title = :title, description = :description, " +
+            "due_date = :dueDate, version = version + 1, updated_at = :updatedAt";
+    private static final String WHERE_ID = " where to_do_id = :toDoId";
+    private static final String WHERE_ID_AND_VERSION = WHERE_ID + " and version = :version";
+
+    /**
+     * Number of rows fetched per round trip when streaming the whole list, like the JPA export.
+     */
+    private static final int FETCH_SIZE = 500;
+
+    private final DatabaseClient databaseClient;
+    private final ToDoIdGenerator toDoIdGenerator;
+    private final boolean postgres;
+
+    /**
+     * Constructs a ReactiveToDoRepository with the specified DatabaseClient.
+     * @param databaseClient The DatabaseClient used to run the statements.
+     * @param connectionFactory The ConnectionFactory, whose metadata tells PostgreSQL from H2.
+     * @param toDoIdGenerator The generator of new _ToDo_ ids.
+     */
+    public ReactiveToDoRepository(DatabaseClient databaseClient, ConnectionFactory connectionFactory,
+                                  ToDoIdGenerator toDoIdGenerator) {
+        this.databaseClient = databaseClient;
+        this.toDoIdGenerator = toDoIdGenerator;
+        this.postgres = connectionFactory.getMetadata().getName().toLowerCase(Locale.ROOT).contains("postgres");
+    }
+
+    /**
+     * Inserts new _ToDo_ rows with one batched statement, assigning their ids, versions and updated_at instants.
+     * @param toDos The new _ToDo_ entities.
+     * @return The inserted _ToDo_ entities, in the same order, once the statement completed.
+     */
+    public Flux<ToDo> insertAll(List<ToDo> toDos) {
+        if (toDos.isEmpty()) {
+            return Flux.empty();
+        }
+        Instant now = Instant.now();
+        for (ToDo toDo : toDos) {
+            if (toDo.getToDoId() == null) {
+                toDo.setToDoId(toDoIdGenerator.generate());
+            }
+            toDo.setVersion(0L);
+            toDo.setUpdatedAt(now);
+        }
+
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(INSERT);
+            for (int i = 0; i < toDos.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                ToDo toDo = toDos.get(i);
+                statement.bind(0, toDo.getToDoId());
+                bindNullable(statement, 1, toDo.getTitle(), String.class);
+                bindNullable(statement, 2, toDo.getDescription(), String.class);
+                bindNullable(statement, 3, toDo.getDueDate(), LocalDate.class);
+                statement.bind(4, toDo.getVersion());
+                statement.bind(5, toDo.getUpdatedAt());
+            }
+            return Flux.from(statement.execute()).concatMap(result -> result.getRowsUpdated());
+        }).thenMany(Flux.fromIterable(toDos));
+    }
+
+    /**
+     * Fetches one keyset page of the _ToDo_ rows matching the given filter, ordered by (due_date, to_do_id), those
+     * without a due date last.
+     * After a cursor with a due date, the row value comparison starts a range scan of the (due_date, to_do_id)
+     * index at the cursor; only if that leaves the page short are the first rows without a due date read.
+     * @param filter The filter the rows must match.
+     * @param cursor The position to continue from, or null for the first page.
+     * @param limit The maximum number of rows to fetch.
+     * @return The matching rows placed after the cursor.
+     */
+    public Flux<ToDo> findPage(ToDoFilter filter, ToDoCursor cursor, int limit) {
+        List<String> conditions = new ArrayList<>(4);
+        Map<String, Object> parameters = new HashMap<>();
+        if (filter.dueFrom() != null) {
+            conditions.add("due_date >= :dueFrom");
+            parameters.put("dueFrom", filter.dueFrom());
+        }
+        if (filter.dueTo() != null) {
+            conditions.add("due_date <= :dueTo");
+            parameters.put("dueTo", filter.dueTo());
+        }
+        if (filter.text() != null) {
+            conditions.add("(lower(title) like :pattern escape '\\' or lower(description) like :pattern escape '\\')");
+            parameters.put("pattern", "%" + ToDoSpecifications.escapeLike(filter.text().toLowerCase(Locale.ROOT)) + "%");
+        }
+        if (cursor == null) {
+            return select(conditions, parameters, limit);
+        }
+        if (cursor.dueDate() == null) {
+            conditions.add("due_date is null and to_do_id > :toDoId");
+            parameters.put("toDoId", cursor.toDoId());
+            return select(conditions, parameters, limit);
+        }
+
+        List<String> datedConditions = new ArrayList<>(conditions);
+        Map<String, Object> datedParameters = new HashMap<>(parameters);
+        datedConditions.add("(due_date, to_do_id) > (:dueDate, :toDoId)");
+        datedParameters.put("dueDate", cursor.dueDate());
+        datedParameters.put("toDoId", cursor.toDoId());
+        boolean undatedMatch = filter.dueFrom() == null && filter.dueTo() == null;
+        return select(datedConditions, datedParameters, limit)
+                .collectList()
+                .flatMapMany(dated -> {
+                    if (dated.size() == limit || !undatedMatch) {
+                        return Flux.fromIterable(dated);
+                    }
+                    List<String> undatedConditions = new ArrayList<>(conditions);
+                    undatedConditions.add("due_date is null");
+                    return Flux.fromIterable(dated).concatWith(
+                            select(undatedConditions, parameters, limit - dated.size()));
+                });
+    }
+
+    /**
+     * Selects the _ToDo_ rows matching every given condition, in the keyset order.
+     * @param conditions The SQL conditions, joined with and.
+     * @param parameters The values of their named parameters.
+     * @param limit The maximum number of rows to fetch.
+     * @return The matching rows.
+     */
+    private Flux<ToDo> select(List<String> conditions, Map<String, Object> parameters, int limit) {
+        String where = conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+        return databaseClient.sql(SELECT + where + KEYSET_ORDER + " limit " + limit)
+                .bindValues(parameters)
+                .map(ReactiveToDoRepository::toToDo)
+                .all();
+    }
+
+    /**
+     * Streams every _ToDo_ row ordered by (due_date, to_do_id), fetching FETCH_SIZE rows per round trip as the
+     * subscriber requests them.
+     * @return A Flux over all _ToDo_ rows.
+     */
+    public Flux<ToDo> streamAll() {
+        return databaseClient.sql(SELECT + KEYSET_ORDER)
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(ReactiveToDoRepository::toToDo)
+                .all();
+    }
+
+    /**
+     * Fetches the _ToDo_ row with the given id.
+     * @param id The unique identifier of the _ToDo_ row.
+     * @return A Mono emitting the _ToDo_ entity, or completing empty if not found.
+     */
+    public Mono<ToDo> findById(UUID id) {
+        return databaseClient.sql(SELECT + WHERE_ID)
+                .bind("toDoId", id)
+                .map(ReactiveToDoRepository::toToDo)
+                .one();
+    }
+
+    /**
+     * Tells whether a _ToDo_ row with the given id exists.
+     * @param id The unique identifier of the _ToDo_ row.
+     * @return A Mono emitting true if the row exists.
+     */
+    public Mono<Boolean> existsById(UUID id) {
+        return databaseClient.sql("select 1 from tb_todos" + WHERE_ID)
+                .bind("toDoId", id)
+                .map(row -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * Reads the version of the _ToDo_ list, with one primary key lookup.
+     * @return A Mono emitting the version of the _ToDo_ list.
+     */
+    public Mono<ToDoListVersion> findListVersion() {
+        return databaseClient.sql("select version from tb_todo_list_version where id = 1")
+                .map(row -> new ToDoListVersion(row.get(0, Long.class)))
+                .one();
+    }
+
+    /**
+     * Increments the version of the _ToDo_ list, once the write it stands for committed.
+     * @return A Mono completing once the row is updated.
+     */
+    public Mono<Void> incrementListVersion() {
+        return databaseClient.sql("update tb_todo_list_version set version = version + 1 where id = 1")
+                .then();
+    }
+
+    /**
+     * Updates the _ToDo_ row with the same id as the given entity in a single statement returning the new row.
+     * @param toDo The _ToDo_ entity carrying the id to update and the new field values.
+     * @param expectedVersion The version the row must have, or null to update whatever its version.
+     * @return A Mono emitting the updated _ToDo_ entity, or completing empty if no row matched.
+     */
+    public Mono<ToDo> updateReturning(ToDo toDo, Long expectedVersion) {
+        String update = "update " + SET_FIELDS + (expectedVersion == null ? WHERE_ID : WHERE_ID_AND_VERSION);
+        String sql = postgres ? update + " returning " + COLUMNS : "select " + COLUMNS + " from final table (" + update + ")";
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("title", nullable(toDo.getTitle(), String.class));
+        parameters.put("description", nullable(toDo.getDescription(), String.class));
+        parameters.put("dueDate", nullable(toDo.getDueDate(), LocalDate.class));
+        parameters.put("updatedAt", Instant.now());
+        parameters.put("toDoId", toDo.getToDoId());
+        if (expectedVersion != null) {
+            parameters.put("version", expectedVersion);
+        }
+        return databaseClient.sql(sql)
+                .bindValues(parameters)
+                .map(ReactiveToDoRepository::toToDo)
+                .one();
+    }
+
+    /**
+     * Deletes the _ToDo_ row with the given id in a single statement returning the deleted row.
+     * @param id The unique identifier of the _ToDo_ row.
+     * @param expectedVersion The version the row must have, or null to delete whatever its version.
+     * @return A Mono emitting the deleted _ToDo_ entity, or completing empty if no row matched.
+     */
+    public Mono<ToDo> deleteReturning(UUID id, Long expectedVersion) {
+        String delete = "delete from tb_todos" + (expectedVersion == null ? WHERE_ID : WHERE_ID_AND_VERSION);
+        String sql = postgres ? delete + " returning " + COLUMNS : "select " + COLUMNS + " from old table (" + delete + ")";
+
+        DatabaseClient.GenericExecuteSpec statement = databaseClient.sql(sql).bind("toDoId", id);
+        if (expectedVersion != null) {
+            statement = statement.bind("version", expectedVersion);
+        }
+        return statement.map(ReactiveToDoRepository::toToDo).one();
+    }
+
+    /**
+     * Deletes the _ToDo_ rows with the given ids in a single statement returning the ids that existed.
+     * @param ids The unique identifiers of the _ToDo_ rows.
+     * @return The ids of the deleted rows.
+     */
+    public Flux<UUID> deleteAllById(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        String delete = "delete from tb_todos where to_do_id in (:ids)";
+        String sql = postgres ? delete + " returning to_do_id" : "select to_do_id from old table (" + delete + ")";
+        return databaseClient.sql(sql)
+                .bind("ids", ids)
+                .map(row -> row.get(0, UUID.class))
+                .all();
+    }
+
+    /**
+     * Maps a _ToDo_ row to a new entity.
+     * @param row The row, holding every column of COLUMNS.
+     * @return The _ToDo_ entity.
+     */
+    private static ToDo toToDo(Readable row) {
+        ToDo toDo = new ToDo();
+        toDo.setToDoId(row.get("to_do_id", UUID.class));
+        toDo.setTitle(row.get("title", String.class));
+        toDo.setDescription(row.get("description", String.class));
+        toDo.setDueDate(row.get("due_date", LocalDate.class));
+        toDo.setVersion(row.get("version", Long.class));
+        toDo.setUpdatedAt(row.get("updated_at", Instant.class));
+        return toDo;
+    }
+
+    private static <T> void bindNullable(Statement statement, int index, T value, Class<T> type) {
+        if (value == null) {
+            statement.bindNull(index, type);
+        } else {
+            statement.bind(index, value);
+        }
+    }
+
+    private static <T> Object nullable(T value, Class<T> type) {
+        return value == null ? Parameters.in(type) : value;
+    }
+}
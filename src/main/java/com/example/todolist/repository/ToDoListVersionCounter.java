@@ -0,0 +1,161 @@
+package com.example.todolist.repository;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Increments the version of the _ToDo_ list, kept in the single row of tb_todo_list_version, once the writes it
+ * stands for have committed.
+ * <p>
+ * Writers only count an increment after their commit and never wait for it. A single thread applies the counted
+ * increments, all those counted meanwhile with one UPDATE in a transaction of its own, so that the row is locked for
+ * that statement alone instead of for the whole of every write transaction, and writers do not queue behind each
+ * other. As the version changes after the data it stands for is visible, on the primary as on the replicas, which
+ * apply the commits in order, a list ETag read before its page can only be older than the body, never newer.
+ * <p>
+ * Readers of this instance call awaitIncrements first, so that a client sees its own changes right away; other
+ * instances see them once the increment committed.
+ */
+@Component
+@Profile("!reactive & !embedded")
+public class ToDoListVersionCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToDoListVersionCounter.class);
+
+    /**
+     * Pause before retrying an increment the database rejected.
+     */
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(1);
+    /**
+     * Longest time a reader waits for the increments counted before it; it reads the current version afterwards.
+     */
+    private static final Duration AWAIT_TIMEOUT = Duration.ofSeconds(5);
+
+    private final ToDoRepository toDoRepository;
+
+    // a lock rather than synchronized, as waiting in synchronized code pins the carrier of a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition incremented = lock.newCondition();
+    private long counted;
+    private long applied;
+    private boolean applying;
+
+    /**
+     * Constructs a ToDoListVersionCounter.
+     * @param toDoRepository The ToDoRepository running the increments.
+     */
+    public ToDoListVersionCounter(ToDoRepository toDoRepository) {
+        this.toDoRepository = toDoRepository;
+    }
+
+    /**
+     * Counts an increment of the list version once the current transaction has committed, and none if it rolls
+     * back; right away when there is no transaction.
+     */
+    public void incrementAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                increment();
+            }
+        });
+    }
+
+    /**
+     * Waits until the increments counted so far are applied, for at most AWAIT_TIMEOUT.
+     * Must be called outside any transaction, as it would otherwise hold a connection while waiting.
+     */
+    public void awaitIncrements() {
+        lock.lock();
+        try {
+            long target = counted;
+            long remaining = AWAIT_TIMEOUT.toNanos();
+            while (applied < target && remaining > 0) {
+                remaining = incremented.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies the increments still counted before shutdown, while the connection pool is still open.
+     */
+    @PreDestroy
+    public void stop() {
+        awaitIncrements();
+    }
+
+    private void increment() {
+        lock.lock();
+        try {
+            counted++;
+            if (!applying) {
+                applying = true;
+                Thread.ofVirtual().name("todo-list-version").start(this::apply);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies the counted increments until none is left, one UPDATE for all those counted before it started.
+     */
+    private void apply() {
+        while (true) {
+            long target;
+            lock.lock();
+            try {
+                if (applied == counted) {
+                    applying = false;
+                    return;
+                }
+                target = counted;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                toDoRepository.incrementListVersion();
+            } catch (RuntimeException e) {
+                logger.warn("List version increment failed, retrying in {} ms", RETRY_DELAY.toMillis(), e);
+                try {
+                    TimeUnit.NANOSECONDS.sleep(RETRY_DELAY.toNanos());
+                } catch (InterruptedException interrupted) {
+                    // the next increment counted starts over with those left
+                    lock.lock();
+                    try {
+                        applying = false;
+                    } finally {
+                        lock.unlock();
+                    }
+                    return;
+                }
+                continue;
+            }
+            lock.lock();
+            try {
+                applied = target;
+                incremented.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.entity.ToDoOutboxMessage;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for managing the ToDoOutboxMessage entities waiting to be published.
+ */
+public interface ToDoOutboxRepository extends JpaRepository<ToDoOutboxMessage, UUID> {
+
+    /**
+     * Locks the oldest messages that no other transaction has locked, skipping those that are, so that several
+     * relays share the outbox without waiting for each other (FOR UPDATE SKIP LOCKED on PostgreSQL).
+     * Must be called inside a transaction; the messages stay locked until it ends.
+     * @param limit The maximum number of messages to lock.
+     * @return The locked messages, oldest first.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2")) // -2 = SKIP LOCKED in Hibernate
+    @Query("select m from ToDoOutboxMessage m order by m.messageId asc")
+    List<ToDoOutboxMessage> lockOldest(Limit limit);
+}
@@ -0,0 +1,223 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.service.ToDoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Background maintenance of the monthly partitions of a tb_todos partitioned by due_date, see the migration in
+ * db/partitioning/postgresql.
+ * <p>
+ * Partitions are kept ready for the current month and the next todo.partitioning.months-ahead months; due dates
+ * beyond them land in the default partition, and are moved into their own partition once its month comes within
+ * reach. With todo.partitioning.retention-months, the _ToDo_ records due before the retained months are deleted
+ * through ToDoService, by batches of ToDoService.JDBC_BATCH_SIZE, so that each deletion evicts the cache, changes
+ * the list version and publishes its ToDoChangeEvent like any other: the outbox, the server-sent events, the
+ * statistics and the reminders see them. The partitions of those months, empty by then, are dropped.
+ * Each partition change and each batch runs in its own transaction under an advisory lock, so that several
+ * instances may run the maintenance at once.
+ * <p>
+ * PostgreSQL only. Enabled by todo.partitioning.enabled=true; runs at startup and then on todo.partitioning.cron.
+ */
+@Component
+@Profile("!reactive & !embedded")
+@ConditionalOnProperty(name = "todo.partitioning.enabled", havingValue = "true")
+public class ToDoPartitionMaintainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToDoPartitionMaintainer.class);
+    private static final long ADVISORY_LOCK_KEY = 0x746f646f5f70L; // "todo_p"
+    private static final Pattern PARTITION_NAME = Pattern.compile("tb_todos_p(\\d{4})_(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ToDoService toDoService;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    /**
+     * Constructs a ToDoPartitionMaintainer.
+     * @param jdbcTemplate The JdbcTemplate running the DDL.
+     * @param transactionManager The PlatformTransactionManager running each partition change.
+     * @param toDoService The ToDoService deleting the records due before the retained months.
+     * @param monthsAhead The number of months after the current one whose partitions are kept ready.
+     * @param retentionMonths The number of months before the current one whose partitions are kept, or 0 to keep all.
+     */
+    public ToDoPartitionMaintainer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                   ToDoService toDoService,
+                                   @Value("${todo.partitioning.months-ahead:12}") int monthsAhead,
+                                   @Value("${todo.partitioning.retention-months:0}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.toDoService = toDoService;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    /**
+     * Maintains the partitions once the application is up, so that the months ahead are ready from the start.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        maintain();
+    }
+
+    /**
+     * Creates the missing partitions, deletes the expired records and drops the partitions they left empty.
+     */
+    @Scheduled(cron = "${todo.partitioning.cron:0 0 3 * * *}")
+    public void maintain() {
+        Plan plan = plan(YearMonth.now(), oldestInDefaultPartition(), existingPartitions(), monthsAhead, retentionMonths);
+        for (YearMonth month : plan.create()) {
+            transactionTemplate.executeWithoutResult(status -> createPartition(month));
+        }
+        if (plan.retainedFrom() != null) {
+            deleteExpired(plan.retainedFrom().atDay(1));
+        }
+        for (YearMonth month : plan.drop()) {
+            transactionTemplate.executeWithoutResult(status -> dropPartition(month));
+        }
+    }
+
+    /**
+     * Computes the partitions to create and to drop.
+     * @param current The current month.
+     * @param oldestInDefault The month of the oldest due date in the default partition, or null if it is empty.
+     * @param existing The months that have a partition.
+     * @param monthsAhead The number of months after the current one whose partitions are kept ready.
+     * @param retentionMonths The number of months before the current one whose partitions are kept, or 0 to keep all.
+     * @return The partitions to create, oldest first, and those to drop.
+     */
+    public static Plan plan(YearMonth current, YearMonth oldestInDefault, Set<YearMonth> existing,
+                            int monthsAhead, int retentionMonths) {
+        YearMonth retainedFrom = retentionMonths > 0 ? current.minusMonths(retentionMonths) : null;
+        YearMonth first = oldestInDefault != null && oldestInDefault.isBefore(current) ? oldestInDefault : current;
+        if (retainedFrom != null && first.isBefore(retainedFrom)) {
+            first = retainedFrom;
+        }
+        List<YearMonth> create = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(current.plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+            if (!existing.contains(month)) {
+                create.add(month);
+            }
+        }
+        List<YearMonth> drop = retainedFrom == null ? List.of()
+                : existing.stream().filter(month -> month.isBefore(retainedFrom)).sorted().toList();
+        return new Plan(create, drop, retainedFrom);
+    }
+
+    /**
+     * Partitions to create and to drop.
+     * @param create The months to create a partition for, oldest first.
+     * @param drop The months whose partition is dropped.
+     * @param retainedFrom The oldest month kept, or null when everything is kept.
+     */
+    public record Plan(List<YearMonth> create, List<YearMonth> drop, YearMonth retainedFrom) {
+    }
+
+    /**
+     * Creates the partition of a month, moving the rows it covers out of the default partition first, as a default
+     * partition holding rows of the new range would make the attachment fail.
+     */
+    private void createPartition(YearMonth month) {
+        lock();
+        String partition = partitionName(month);
+        if (existingPartitions().contains(month)) {
+            return;
+        }
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        jdbcTemplate.execute("create table " + partition + " (like tb_todos including defaults including constraints)");
+        int moved = jdbcTemplate.update("with moved as (delete from tb_todos_default where due_date >= ? and due_date < ? returning *) "
+                + "insert into " + partition + " select * from moved", from, to);
+        jdbcTemplate.execute("alter table tb_todos attach partition " + partition
+                + " for values from ('" + from + "') to ('" + to + "')");
+        logger.info("Created partition {} with {} records moved from the default partition", partition, moved);
+    }
+
+    /**
+     * Deletes the records due before the given date, a batch of ids read from the (due_date, to_do_id) index at a
+     * time, until none is left.
+     */
+    private void deleteExpired(LocalDate retainedFrom) {
+        int deleted = 0;
+        List<UUID> ids;
+        do {
+            ids = jdbcTemplate.queryForList("select to_do_id from tb_todos where due_date < ? order by due_date, to_do_id "
+                    + "limit " + ToDoService.JDBC_BATCH_SIZE, UUID.class, retainedFrom);
+            if (ids.isEmpty()) {
+                break;
+            }
+            List<UUID> batch = ids;
+            deleted += transactionTemplate.execute(status -> {
+                lock();
+                return toDoService.deleteAll(batch).size();
+            });
+        } while (ids.size() == ToDoService.JDBC_BATCH_SIZE);
+        if (deleted > 0) {
+            logger.info("Deleted {} records due before {}, older than the retention", deleted, retainedFrom);
+        }
+    }
+
+    /**
+     * Drops the partition of a month once its records are deleted; one still holding records written since, with a
+     * due date already expired, is left for the next run.
+     */
+    private void dropPartition(YearMonth month) {
+        lock();
+        String partition = partitionName(month);
+        if (!existingPartitions().contains(month)) {
+            return;
+        }
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("select exists (select 1 from " + partition + ")", Boolean.class))) {
+            logger.info("Partition {} still holds records, dropped on the next run", partition);
+            return;
+        }
+        jdbcTemplate.execute("drop table " + partition);
+        logger.info("Dropped partition {}, older than the retention", partition);
+    }
+
+    private void lock() {
+        jdbcTemplate.query("select pg_advisory_xact_lock(?)", rs -> null, ADVISORY_LOCK_KEY);
+    }
+
+    private YearMonth oldestInDefaultPartition() {
+        LocalDate oldest = jdbcTemplate.queryForObject("select min(due_date) from tb_todos_default", LocalDate.class);
+        return oldest == null ? null : YearMonth.from(oldest);
+    }
+
+    private Set<YearMonth> existingPartitions() {
+        Set<YearMonth> months = new TreeSet<>();
+        jdbcTemplate.query("select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid "
+                + "where i.inhparent = 'tb_todos'::regclass", rs -> {
+            Matcher name = PARTITION_NAME.matcher(rs.getString(1));
+            if (name.matches()) {
+                months.add(YearMonth.of(Integer.parseInt(name.group(1)), Integer.parseInt(name.group(2))));
+            }
+        });
+        return months;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("tb_todos_p%04d_%02d", month.getYear(), month.getMonthValue());
+    }
+}
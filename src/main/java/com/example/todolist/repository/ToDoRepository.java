@@ -1,14 +1,132 @@
 package com.example.todolist.repository;
 
+import com.example.todolist.dtos.ToDoDueDate;
+import com.example.todolist.dtos.ToDoDueDateCount;
 import com.example.todolist.entity.ToDo;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing _ToDo_ entities.
- * Extends JpaRepository providing CRUD operations for _ToDo_ entities with UUID as the entity identifier.
+ * Extends JpaRepository providing CRUD operations for _ToDo_ entities with UUID as the entity identifier,
+ * JpaSpecificationExecutor running the filtered list queries built from ToDoSpecifications,
+ * and ToDoRepositoryCustom providing single statement updates and deletes.
  */
-public interface ToDoRepository extends JpaRepository<ToDo, UUID> {
+public interface ToDoRepository extends JpaRepository<ToDo, UUID>, JpaSpecificationExecutor<ToDo>,
+        ToDoRepositoryCustom {
 
-}
\ No newline at end of file
+    /**
+     * Fetches the first keyset page of _ToDo_ entities ordered by (dueDate, toDoId), those without a due date last.
+     * @param limit The maximum number of entities to fetch.
+     * @return The first entities of the ordered list.
+     */
+    @Query("select t from ToDo t order by t.dueDate asc nulls last, t.toDoId asc")
+    List<ToDo> findFirstPage(Limit limit);
+
+    /**
+     * Fetches the keyset page of _ToDo_ entities with a due date that follows the given (dueDate, toDoId) position.
+     * The row value comparison lets the database start a range scan of the (due_date, to_do_id) index at the
+     * position; the entities without a due date, which it never matches, are read by findFirstPageNoDueDate.
+     * @param dueDate The due date of the last entity of the previous page.
+     * @param toDoId The id of the last entity of the previous page.
+     * @param limit The maximum number of entities to fetch.
+     * @return The entities with a due date placed after the given position.
+     */
+    @Query("select t from ToDo t where (t.dueDate, t.toDoId) > (:dueDate, :toDoId) " +
+            "order by t.dueDate asc, t.toDoId asc")
+    List<ToDo> findPageAfter(@Param("dueDate") LocalDate dueDate, @Param("toDoId") UUID toDoId, Limit limit);
+
+    /**
+     * Fetches the first _ToDo_ entities without a due date, which follow the last one with a due date.
+     * Ordered by the whole (due_date, to_do_id) key, so that the database reads the null due date range of that
+     * index rather than filtering the primary key.
+     * @param limit The maximum number of entities to fetch.
+     * @return The first entities without a due date, ordered by id.
+     */
+    @Query("select t from ToDo t where t.dueDate is null order by t.dueDate asc, t.toDoId asc")
+    List<ToDo> findFirstPageNoDueDate(Limit limit);
+
+    /**
+     * Fetches the keyset page of _ToDo_ entities without a due date that follows the one with the given id.
+     * @param toDoId The id of the last entity of the previous page, which had no due date.
+     * @param limit The maximum number of entities to fetch.
+     * @return The entities without a due date placed after the given one.
+     */
+    @Query("select t from ToDo t where t.dueDate is null and t.toDoId > :toDoId order by t.dueDate asc, t.toDoId asc")
+    List<ToDo> findPageAfterNoDueDate(@Param("toDoId") UUID toDoId, Limit limit);
+
+    /**
+     * Streams every _ToDo_ entity ordered by (dueDate, toDoId), those without a due date last, through a server
+     * side cursor.
+     * Must be consumed inside a transaction and closed afterwards.
+     * @return A stream over all _ToDo_ entities.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from ToDo t order by t.dueDate asc nulls last, t.toDoId asc")
+    Stream<ToDo> streamAll();
+
+    /**
+     * Streams the id and due date of the _ToDo_ entities due in the given range through a server side cursor,
+     * reading only the (due_date, to_do_id) index. Must be consumed inside a transaction and closed afterwards.
+     * @param from The first due date of the range.
+     * @param to The last due date of the range.
+     * @return A stream over the ids and due dates, ordered by due date.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.todolist.dtos.ToDoDueDate(t.toDoId, t.dueDate) from ToDo t " +
+            "where t.dueDate between :from and :to order by t.dueDate asc, t.toDoId asc")
+    Stream<ToDoDueDate> streamDueDatesBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Fetches which of the given ids belong to existing _ToDo_ entities, with their due dates, without loading
+     * the entities.
+     * @param ids The ids to look up.
+     * @return The ids that exist and their due dates.
+     */
+    @Query("select new com.example.todolist.dtos.ToDoDueDate(t.toDoId, t.dueDate) from ToDo t where t.toDoId in :ids")
+    List<ToDoDueDate> findExistingDueDates(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Counts the _ToDo_ entities per due date in one aggregate query, without loading any entity.
+     * @return One count per distinct due date, including null for the entities without one.
+     */
+    @Query("select new com.example.todolist.dtos.ToDoDueDateCount(t.dueDate, count(t)) from ToDo t group by t.dueDate")
+    List<ToDoDueDateCount> countByDueDate();
+
+    /**
+     * Reads the version of the _ToDo_ list, with one primary key lookup.
+     * @return The number of the last committed write.
+     */
+    @Query(value = "select version from tb_todo_list_version where id = 1", nativeQuery = true)
+    long findListVersion();
+
+    /**
+     * Increments the version of the _ToDo_ list, in a transaction of its own.
+     * Called by ToDoListVersionCounter once the writes it stands for committed, so that the row is locked for this
+     * statement only.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "update tb_todo_list_version set version = version + 1 where id = 1", nativeQuery = true)
+    void incrementListVersion();
+}
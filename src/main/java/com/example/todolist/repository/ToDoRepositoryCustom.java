@@ -0,0 +1,31 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.repository.ToDoStore.UpdatedToDo;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository fragment with single statement mutations of _ToDo_ entities.
+ * Each operation changes the row and reads it back in one round trip, without loading it first.
+ */
+public interface ToDoRepositoryCustom {
+
+    /**
+     * Overwrites the fields of the _ToDo_ row matching the entity id, increments its version
+     * and returns the updated row with the due date it had before.
+     * @param toDo The _ToDo_ entity carrying the id and the new field values.
+     * @param expectedVersion The version the row must have, or null to update whatever its version.
+     * @return An Optional containing the updated _ToDo_ entity, or an empty Optional if no row matched.
+     */
+    Optional<UpdatedToDo> updateReturning(ToDo toDo, Long expectedVersion);
+
+    /**
+     * Deletes the _ToDo_ row with the given id and returns it as it was before deletion.
+     * @param id The unique identifier of the _ToDo_ row to delete.
+     * @param expectedVersion The version the row must have, or null to delete whatever its version.
+     * @return An Optional containing the deleted _ToDo_ entity, or an empty Optional if no row matched.
+     */
+    Optional<ToDo> deleteReturning(UUID id, Long expectedVersion);
+}
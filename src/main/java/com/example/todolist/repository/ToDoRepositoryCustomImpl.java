@@ -0,0 +1,190 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.repository.ToDoStore.UpdatedToDo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Implementation of ToDoRepositoryCustom.
+ * PostgreSQL uses UPDATE/DELETE ... RETURNING and H2 the equivalent OLD TABLE delta table.
+ * Since Hibernate does not see these statements, they maintain the version and updated_at columns themselves.
+ * Updates also return the due date the row had before: PostgreSQL reads it by joining the row locked beforehand,
+ * and H2 returns the old row, from which the updated one follows.
+ * Other databases fall back to a lookup followed by dirty checking or removal, which costs one more statement.
+ */
+class ToDoRepositoryCustomImpl implements ToDoRepositoryCustom {
+
+    private static final String SET_FIELDS = "tb_todos set title = :title, description = :description, " +
+            "due_date = :dueDate, version = version + 1, updated_at = :updatedAt";
+    private static final String WHERE_ID = " where to_do_id = :toDoId";
+    private static final String WHERE_ID_AND_VERSION = WHERE_ID + " and version = :version";
+
+    private final EntityManager entityManager;
+    private volatile Dialect dialect;
+
+    /**
+     * Constructs a ToDoRepositoryCustomImpl with the specified EntityManager.
+     * @param entityManager The EntityManager used to run the statements.
+     */
+    ToDoRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Optional<UpdatedToDo> updateReturning(ToDo toDo, Long expectedVersion) {
+        String where = expectedVersion == null ? WHERE_ID : WHERE_ID_AND_VERSION;
+        String sql = dialect() instanceof PostgreSQLDialect
+                ? "update " + SET_FIELDS + " from (select due_date as previous_due_date from tb_todos" + WHERE_ID +
+                  " for update) previous" + where + " returning tb_todos.*, previous.previous_due_date"
+                : dialect() instanceof H2Dialect ? "select * from old table (update " + SET_FIELDS + where + ")"
+                : null;
+        if (sql == null) {
+            ToDo foundToDo = findWithVersion(toDo.getToDoId(), expectedVersion);
+            if (foundToDo == null) {
+                return Optional.empty();
+            }
+            LocalDate previousDueDate = foundToDo.getDueDate();
+            foundToDo.setTitle(toDo.getTitle());
+            foundToDo.setDescription(toDo.getDescription());
+            foundToDo.setDueDate(toDo.getDueDate());
+            return Optional.of(new UpdatedToDo(foundToDo, previousDueDate));
+        }
+
+        Instant updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS); // the precision of updated_at
+        Query query = entityManager.createNativeQuery(sql)
+                .setParameter("title", toDo.getTitle())
+                .setParameter("description", toDo.getDescription())
+                .setParameter("dueDate", toDo.getDueDate())
+                .setParameter("updatedAt", updatedAt)
+                .setParameter("toDoId", toDo.getToDoId());
+        if (dialect() instanceof PostgreSQLDialect) {
+            List<Object[]> rows = scalars(withVersion(query, expectedVersion))
+                    .addScalar("previous_due_date", LocalDate.class)
+                    .getResultList();
+            return rows.stream().findFirst().map(row -> new UpdatedToDo(toToDo(row), (LocalDate) row[6]));
+        }
+
+        // the old row gives the previous due date, and the updated row is the old one with the values just written
+        return singleResult(withVersion(query, expectedVersion)).map(previous -> {
+            ToDo updatedToDo = new ToDo();
+            updatedToDo.setToDoId(previous.getToDoId());
+            updatedToDo.setTitle(toDo.getTitle());
+            updatedToDo.setDescription(toDo.getDescription());
+            updatedToDo.setDueDate(toDo.getDueDate());
+            updatedToDo.setVersion(previous.getVersion() + 1);
+            updatedToDo.setUpdatedAt(updatedAt);
+            return new UpdatedToDo(updatedToDo, previous.getDueDate());
+        });
+    }
+
+    @Override
+    public Optional<ToDo> deleteReturning(UUID id, Long expectedVersion) {
+        String delete = "delete from tb_todos" + (expectedVersion == null ? WHERE_ID : WHERE_ID_AND_VERSION);
+        String sql = dialect() instanceof PostgreSQLDialect ? delete + " returning *"
+                : dialect() instanceof H2Dialect ? "select * from old table (" + delete + ")"
+                : null;
+        if (sql == null) {
+            ToDo foundToDo = findWithVersion(id, expectedVersion);
+            if (foundToDo != null) {
+                entityManager.remove(foundToDo);
+            }
+            return Optional.ofNullable(foundToDo);
+        }
+
+        Query query = entityManager.createNativeQuery(sql).setParameter("toDoId", id);
+        return singleResult(withVersion(query, expectedVersion));
+    }
+
+    /**
+     * Loads the _ToDo_ entity with the given id for the fallback path, if it has the expected version.
+     * @param id The unique identifier of the _ToDo_ entity.
+     * @param expectedVersion The version the entity must have, or null for any version.
+     * @return The managed _ToDo_ entity, or null if not found or if its version differs.
+     */
+    private ToDo findWithVersion(UUID id, Long expectedVersion) {
+        ToDo foundToDo = entityManager.find(ToDo.class, id);
+        if (foundToDo == null || (expectedVersion != null && !expectedVersion.equals(foundToDo.getVersion()))) {
+            return null;
+        }
+        return foundToDo;
+    }
+
+    /**
+     * Binds the expected version when the statement checks it.
+     * @param query The statement to run.
+     * @param expectedVersion The version the row must have, or null if the statement does not check it.
+     * @return The statement.
+     */
+    private static Query withVersion(Query query, Long expectedVersion) {
+        return expectedVersion == null ? query : query.setParameter("version", expectedVersion);
+    }
+
+    /**
+     * Runs a statement returning at most one _ToDo_ row and maps it to a new, detached entity.
+     * The row is read as scalars rather than as an entity, so a stale instance already held by the persistence
+     * context is never returned in place of the row that was just written or deleted.
+     * @param query The statement to run.
+     * @return An Optional containing the returned _ToDo_ entity, or an empty Optional if no row matched.
+     */
+    private Optional<ToDo> singleResult(Query query) {
+        List<Object[]> rows = scalars(query).getResultList();
+        return rows.stream().findFirst().map(ToDoRepositoryCustomImpl::toToDo);
+    }
+
+    /**
+     * Declares the _ToDo_ columns a statement returns, in the order read by toToDo.
+     * @param query The statement to run.
+     * @return The statement as a NativeQuery returning rows of scalars.
+     */
+    @SuppressWarnings("unchecked")
+    private static NativeQuery<Object[]> scalars(Query query) {
+        return query.unwrap(NativeQuery.class)
+                .addScalar("to_do_id", UUID.class)
+                .addScalar("title", String.class)
+                .addScalar("description", String.class)
+                .addScalar("due_date", LocalDate.class)
+                .addScalar("version", Long.class)
+                .addScalar("updated_at", Instant.class);
+    }
+
+    /**
+     * Maps a row of scalars declared by scalars to a new, detached entity.
+     * @param row The row.
+     * @return The _ToDo_ entity.
+     */
+    private static ToDo toToDo(Object[] row) {
+        ToDo toDo = new ToDo();
+        toDo.setToDoId((UUID) row[0]);
+        toDo.setTitle((String) row[1]);
+        toDo.setDescription((String) row[2]);
+        toDo.setDueDate((LocalDate) row[3]);
+        toDo.setVersion((Long) row[4]);
+        toDo.setUpdatedAt((Instant) row[5]);
+        return toDo;
+    }
+
+    /**
+     * Resolves the Hibernate dialect once.
+     * @return The dialect of the underlying database.
+     */
+    private Dialect dialect() {
+        if (dialect == null) {
+            dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect();
+        }
+        return dialect;
+    }
+}
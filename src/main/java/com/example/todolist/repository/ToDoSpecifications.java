@@ -0,0 +1,112 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.entity.ToDo;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Specifications used to filter and page _ToDo_ entities.
+ * Their predicates are written to match the indexes created by the migrations:
+ * the (due_date, to_do_id) B-tree and the trigram indexes on lower(title) and lower(description).
+ * Due date bounds compare the column itself, so that PostgreSQL also prunes the partitions of a tb_todos
+ * partitioned by due_date that lie outside the window.
+ */
+public final class ToDoSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private ToDoSpecifications() {
+    }
+
+    /**
+     * Matches _ToDo_ entities due on or after the given date.
+     * @param dueFrom The earliest due date, inclusive.
+     * @return The specification.
+     */
+    public static Specification<ToDo> dueOnOrAfter(LocalDate dueFrom) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<LocalDate>get("dueDate"), dueFrom);
+    }
+
+    /**
+     * Matches _ToDo_ entities due on or before the given date.
+     * @param dueTo The latest due date, inclusive.
+     * @return The specification.
+     */
+    public static Specification<ToDo> dueOnOrBefore(LocalDate dueTo) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.<LocalDate>get("dueDate"), dueTo);
+    }
+
+    /**
+     * Matches _ToDo_ entities whose title or description contains the given text, ignoring case.
+     * @param text The searched text; LIKE wildcards in it are matched literally.
+     * @return The specification.
+     */
+    public static Specification<ToDo> textContains(String text) {
+        String pattern = "%" + escapeLike(text.toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.<String>get("title")), pattern, LIKE_ESCAPE),
+                cb.like(cb.lower(root.<String>get("description")), pattern, LIKE_ESCAPE));
+    }
+
+    /**
+     * Matches _ToDo_ entities placed after the given (dueDate, toDoId) position in the keyset order.
+     * After a due date, only entities with a due date match, from a lower bound on due_date at which the database
+     * starts its range scan of the (due_date, to_do_id) index; those without one follow them and are matched by
+     * withoutDueDate.
+     * @param dueDate The due date of the last entity of the previous page, or null if it had none.
+     * @param toDoId The id of the last entity of the previous page.
+     * @return The specification.
+     */
+    public static Specification<ToDo> after(LocalDate dueDate, UUID toDoId) {
+        if (dueDate == null) {
+            return (root, query, cb) -> cb.and(
+                    cb.isNull(root.get("dueDate")), cb.greaterThan(root.<UUID>get("toDoId"), toDoId));
+        }
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.<LocalDate>get("dueDate"), dueDate),
+                cb.or(cb.greaterThan(root.<LocalDate>get("dueDate"), dueDate),
+                        cb.greaterThan(root.<UUID>get("toDoId"), toDoId)));
+    }
+
+    /**
+     * Matches _ToDo_ entities without a due date.
+     * @return The specification.
+     */
+    public static Specification<ToDo> withoutDueDate() {
+        return (root, query, cb) -> cb.isNull(root.get("dueDate"));
+    }
+
+    /**
+     * Orders the _ToDo_ entities in the keyset order of the list: by due date, those without one last, then by id.
+     * A Sort cannot carry the null precedence into a criteria query, so the order is set by this specification,
+     * which matches every entity.
+     * @return The specification.
+     */
+    public static Specification<ToDo> inKeysetOrder() {
+        return (root, query, cb) -> {
+            HibernateCriteriaBuilder builder = (HibernateCriteriaBuilder) cb;
+            query.orderBy(builder.asc(root.get("dueDate"), false), builder.asc(root.get("toDoId")));
+            return null;
+        };
+    }
+
+    /**
+     * Escapes the LIKE wildcards of a text, so that it is matched literally.
+     * @param text The text to escape.
+     * @return The escaped text, using the backslash as escape character.
+     */
+    static String escapeLike(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for(char c: text.toCharArray()){
+            if(c == '%' || c == '_' || c == LIKE_ESCAPE){
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
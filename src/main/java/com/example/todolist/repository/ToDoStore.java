@@ -0,0 +1,157 @@
+package com.example.todolist.repository;
+
+import com.example.todolist.dtos.ToDoCursor;
+import com.example.todolist.dtos.ToDoDueDate;
+import com.example.todolist.dtos.ToDoDueDateCount;
+import com.example.todolist.dtos.ToDoFilter;
+import com.example.todolist.dtos.ToDoListVersion;
+import com.example.todolist.entity.ToDo;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Storage of _ToDo_ entities beneath ToDoService: JpaToDoStore on the relational database, or EmbeddedToDoStore
+ * on a local log file with the "embedded" profile.
+ * <p>
+ * Writes run in the transaction of the caller, managed by the PlatformTransactionManager of the storage. Lists are
+ * ordered by due date then id, with ids compared as unsigned bytes like the database does; entities without a due
+ * date come last, ordered by id, and are left out of due date ranges.
+ */
+public interface ToDoStore {
+
+    /**
+     * Finds a _ToDo_ entity by its unique identifier.
+     * @param id The unique identifier.
+     * @return The entity, or an empty Optional if not found.
+     */
+    Optional<ToDo> findById(UUID id);
+
+    /**
+     * Tells whether a _ToDo_ entity exists.
+     * @param id The unique identifier.
+     * @return true if the entity exists.
+     */
+    boolean existsById(UUID id);
+
+    /**
+     * Finds the _ToDo_ entities with the given ids.
+     * @param ids The unique identifiers.
+     * @return The entities found, in no particular order.
+     */
+    List<ToDo> findAllById(Collection<UUID> ids);
+
+    /**
+     * Counts the _ToDo_ entities.
+     * @return The number of entities.
+     */
+    long count();
+
+    /**
+     * Finds the _ToDo_ entities matching the given filter that follow the cursor, in list order.
+     * @param filter The filter the entities must match.
+     * @param cursor The position to continue from, or null to start from the beginning.
+     * @param limit The maximum number of entities to return.
+     * @return At most limit matching entities.
+     */
+    List<ToDo> findPage(ToDoFilter filter, ToDoCursor cursor, int limit);
+
+    /**
+     * Passes every _ToDo_ entity, in list order, to the given consumer, without holding them all in memory.
+     * Must be called inside a transaction.
+     * @param consumer The consumer receiving each entity.
+     */
+    void export(Consumer<ToDo> consumer);
+
+    /**
+     * Passes the id and due date of every _ToDo_ entity due in the given range to the given consumer, without
+     * loading the entities. Must be called inside a transaction.
+     * @param from The first due date of the range.
+     * @param to The last due date of the range.
+     * @param consumer The consumer receiving each id and due date.
+     */
+    void exportDueDates(LocalDate from, LocalDate to, Consumer<ToDoDueDate> consumer);
+
+    /**
+     * Waits until the list version reflects the writes this instance committed so far, for stores that change it
+     * after the commit. Must be called outside any transaction.
+     */
+    default void awaitListVersion() {
+    }
+
+    /**
+     * Reads the version of the _ToDo_ list, which every committed write changes, without loading any entity.
+     * @return The version of the _ToDo_ list.
+     */
+    ToDoListVersion findListVersion();
+
+    /**
+     * Counts the _ToDo_ entities per due date, without loading any entity.
+     * @return One count per distinct due date, including null for the entities without one.
+     */
+    List<ToDoDueDateCount> countByDueDate();
+
+    /**
+     * Creates a new _ToDo_ entity, assigning its id if it has none, its initial version and its change instant.
+     * @param toDo The new entity.
+     * @return The created entity.
+     */
+    ToDo create(ToDo toDo);
+
+    /**
+     * Saves an entity read earlier, provided it still has the version it was read with.
+     * @param toDo The entity, with the version it was read with.
+     * @return The saved entity and its previous due date.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the entity changed or was deleted since.
+     */
+    UpdatedToDo merge(ToDo toDo);
+
+    /**
+     * Updates the title, description and due date of an entity, without loading it first where the storage allows.
+     * @param toDo The entity carrying the id to update and the new field values.
+     * @param expectedVersion The version the entity must have, or null to update whatever its version.
+     * @return The updated entity and its previous due date, or an empty Optional if no entity matched.
+     */
+    Optional<UpdatedToDo> update(ToDo toDo, Long expectedVersion);
+
+    /**
+     * Deletes an entity.
+     * @param id The unique identifier of the entity to delete.
+     * @param expectedVersion The version the entity must have, or null to delete whatever its version.
+     * @return The deleted entity, or an empty Optional if no entity matched.
+     */
+    Optional<ToDo> delete(UUID id, Long expectedVersion);
+
+    /**
+     * Creates several new entities, as create does for each.
+     * @param toDos The new entities.
+     */
+    void createAll(List<ToDo> toDos);
+
+    /**
+     * Updates the title, description and due date of several entities.
+     * @param toDos The entities carrying the id to update and the new field values.
+     * @return For each given entity, in the same order, the updated entity and its previous due date, or an empty
+     * Optional if not found.
+     */
+    List<Optional<UpdatedToDo>> updateAll(List<ToDo> toDos);
+
+    /**
+     * Deletes several entities.
+     * @param ids The unique identifiers of the entities to delete.
+     * @return The ids that existed and were deleted, with their due dates.
+     */
+    List<ToDoDueDate> deleteAll(Collection<UUID> ids);
+
+    /**
+     * A _ToDo_ entity as updated, with its due date before the update.
+     * @param toDo The updated entity.
+     * @param previousDueDate The due date before the update.
+     */
+    record UpdatedToDo(ToDo toDo, LocalDate previousDueDate) {
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.todolist.service;
+
+import com.example.todolist.dtos.ToDoCursor;
+import com.example.todolist.dtos.ToDoFilter;
+import com.example.todolist.dtos.ToDoListVersion;
+import com.example.todolist.dtos.ToDoPage;
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.exceptions.ToDoVersionMismatchException;
+import com.example.todolist.metrics.ToDoMetrics;
+import com.example.todolist.repository.ReactiveToDoRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Non-blocking counterpart of ToDoService, used by ReactiveToDoController in the "reactive" profile.
+ * Operations have the same semantics and limits as those of ToDoService, but return a Mono or a Flux and never block
+ * the calling thread. Lookups by id are not cached, since Spring's cache abstraction would need an asynchronous cache.
+ * Writes run in a transaction, then increment the list version in a statement of their own once it committed.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveToDoService {
+
+    private final ReactiveToDoRepository toDoRepository;
+    private final ToDoMetrics toDoMetrics;
+    private final TransactionalOperator transactionalOperator;
+
+    /**
+     * Constructs a ReactiveToDoService with the specified ReactiveToDoRepository.
+     * @param toDoRepository The ReactiveToDoRepository to be used by the service.
+     * @param toDoMetrics The ToDoMetrics recording list result sizes.
+     * @param transactionalOperator The TransactionalOperator running the writes.
+     */
+    public ReactiveToDoService(ReactiveToDoRepository toDoRepository, ToDoMetrics toDoMetrics,
+                               TransactionalOperator transactionalOperator) {
+        this.toDoRepository = toDoRepository;
+        this.toDoMetrics = toDoMetrics;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    /**
+     * Saves a new _ToDo_ entity.
+     * @param toDo The _ToDo_ entity to save.
+     * @return A Mono emitting the saved _ToDo_ entity.
+     */
+    public Mono<ToDo> save(ToDo toDo) {
+        return write(toDoRepository.insertAll(List.of(toDo)).single(), savedToDo -> true);
+    }
+
+    /**
+     * Retrieves one keyset page of the _ToDo_ entities matching the given filter,
+     * sorted by due date and id in ascending order.
+     * @param filter The filter the entities must match.
+     * @param cursor The position to continue from, or null for the first page.
+     * @param size The requested page size, clamped to [1, ToDoService.MAX_PAGE_SIZE].
+     * @return A Mono emitting the page of matching _ToDo_ entities and the cursor of the following page.
+     */
+    public Mono<ToDoPage> getList(ToDoFilter filter, ToDoCursor cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), ToDoService.MAX_PAGE_SIZE);
+
+        // one extra row tells whether a next page exists
+        return toDoRepository.findPage(filter, cursor, pageSize + 1).collectList().map(toDoList -> {
+            if (toDoList.size() <= pageSize) {
+                toDoMetrics.recordListSize(toDoList.size());
+                return new ToDoPage(toDoList, null);
+            }
+
+            List<ToDo> content = toDoList.subList(0, pageSize);
+            toDoMetrics.recordListSize(pageSize);
+            return new ToDoPage(content, ToDoCursor.after(content.get(pageSize - 1)));
+        });
+    }
+
+    /**
+     * Streams every _ToDo_ entity, sorted by due date and id in ascending order.
+     * Rows are fetched as the subscriber requests them, so memory use does not depend on the table size.
+     * @return A Flux over all _ToDo_ entities.
+     */
+    public Flux<ToDo> export() {
+        return toDoRepository.streamAll();
+    }
+
+    /**
+     * Retrieves a _ToDo_ entity by its unique identifier.
+     * @param id The unique identifier of the _ToDo_ entity to retrieve.
+     * @return A Mono emitting the retrieved _ToDo_ entity, or completing empty if not found.
+     */
+    public Mono<ToDo> getById(UUID id) {
+        return toDoRepository.findById(id);
+    }
+
+    /**
+     * Reads the version of the _ToDo_ list, from which the list ETag is derived, without reading any entity.
+     * Every write below increments it once committed.
+     * @return A Mono emitting the version of the _ToDo_ list.
+     */
+    public Mono<ToDoListVersion> getListVersion() {
+        return toDoRepository.findListVersion();
+    }
+
+    /**
+     * Deletes a _ToDo_ entity by its unique identifier, in a single statement that also returns the deleted row.
+     * @param id The unique identifier of the _ToDo_ entity to delete.
+     * @param expectedVersion The version the entity must have, or null to delete whatever its version.
+     * @return A Mono emitting the deleted _ToDo_ entity, or completing empty if not found.
+     * The Mono fails with ToDoVersionMismatchException if the entity exists with another version than the expected one.
+     */
+    public Mono<ToDo> delete(UUID id, Long expectedVersion) {
+        return write(toDoRepository.deleteReturning(id, expectedVersion), deletedToDo -> true)
+                .switchIfEmpty(Mono.defer(() -> versionMismatch(id, expectedVersion)));
+    }
+
+    /**
+     * Updates the _ToDo_ entity with the same id as the provided one, in a single statement that also returns
+     * the updated row.
+     * @param toDo The _ToDo_ entity carrying the id to update and the new field values.
+     * @param expectedVersion The version the entity must have, or null to update whatever its version.
+     * @return A Mono emitting the updated _ToDo_ entity, or completing empty if not found.
+     * The Mono fails with ToDoVersionMismatchException if the entity exists with another version than the expected one.
+     */
+    public Mono<ToDo> update(ToDo toDo, Long expectedVersion) {
+        return write(toDoRepository.updateReturning(toDo, expectedVersion), updatedToDo -> true)
+                .switchIfEmpty(Mono.defer(() -> versionMismatch(toDo.getToDoId(), expectedVersion)));
+    }
+
+    /**
+     * Saves several new _ToDo_ entities in a single transaction, with one batched INSERT statement.
+     * @param toDos The new _ToDo_ entities to save.
+     * @return A Mono emitting the saved _ToDo_ entities, in the same order.
+     */
+    public Mono<List<ToDo>> saveAll(List<ToDo> toDos) {
+        return write(toDoRepository.insertAll(toDos).collectList(), savedToDos -> !savedToDos.isEmpty());
+    }
+
+    /**
+     * Updates several _ToDo_ entities in a single transaction, one UPDATE statement per entity.
+     * @param toDos The _ToDo_ entities carrying the id to update and the new field values.
+     * @return A Mono emitting, for each given entity in the same order, the updated _ToDo_ entity
+     * or an empty Optional if not found.
+     */
+    public Mono<List<Optional<ToDo>>> updateAll(List<ToDo> toDos) {
+        return write(Flux.fromIterable(toDos)
+                .concatMap(toDo -> toDoRepository.updateReturning(toDo, null).map(Optional::of).defaultIfEmpty(Optional.empty()))
+                .collectList(), updatedToDos -> updatedToDos.stream().anyMatch(Optional::isPresent));
+    }
+
+    /**
+     * Deletes several _ToDo_ entities in a single transaction, with one DELETE statement per chunk of
+     * ToDoService.JDBC_BATCH_SIZE ids.
+     * @param ids The unique identifiers of the _ToDo_ entities to delete.
+     * @return A Mono emitting the identifiers that existed and were deleted.
+     */
+    public Mono<Set<UUID>> deleteAll(List<UUID> ids) {
+        return write(Flux.fromIterable(ids)
+                .buffer(ToDoService.JDBC_BATCH_SIZE)
+                .concatMap(toDoRepository::deleteAllById)
+                .<Set<UUID>>collect(HashSet::new, Set::add), deletedIds -> !deletedIds.isEmpty());
+    }
+
+    /**
+     * Runs a write in a transaction, then, if it changed a row, increments the list version in a statement of its
+     * own, so that the version row is locked for that statement only and changes after the data it stands for.
+     * @param write The write to run.
+     * @param changed Tells from the result of the write whether it changed a row.
+     * @return A Mono emitting the result of the write once the list version was incremented.
+     */
+    private <T> Mono<T> write(Mono<T> write, Predicate<T> changed) {
+        return transactionalOperator.transactional(write)
+                .flatMap(result -> changed.test(result)
+                        ? toDoRepository.incrementListVersion().thenReturn(result)
+                        : Mono.just(result));
+    }
+
+    /**
+     * Tells a version mismatch apart from a missing entity when a conditional statement matched no row.
+     * Costs one more statement, on the failure path only.
+     * @param id The unique identifier of the targeted entity.
+     * @param expectedVersion The version the entity had to have, or null if the statement was not conditional.
+     * @return A Mono completing empty if the entity does not exist, or failing with ToDoVersionMismatchException.
+     */
+    private Mono<ToDo> versionMismatch(UUID id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return Mono.empty();
+        }
+        return toDoRepository.existsById(id)
+                .flatMap(exists -> exists ? Mono.error(new ToDoVersionMismatchException(id)) : Mono.empty());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.todolist.service;
+
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs concurrent calls with equal keys once: the first caller of a key runs the call, and callers arriving while it
+ * is in flight wait for it and receive its result, or its exception, instead of running their own.
+ * A flight is forgotten as soon as it completes, so nothing is cached beyond the time of the call.
+ * @param <K> The type of the keys, which must implement equals and hashCode.
+ * @param <V> The type of the results.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+    private final Duration timeout;
+    private final Runnable onCollapsed;
+
+    /**
+     * Constructs a SingleFlight.
+     * @param timeout The longest time a caller waits for the call in flight.
+     * @param onCollapsed Run for each caller that joined a call in flight rather than running its own.
+     */
+    public SingleFlight(Duration timeout, Runnable onCollapsed) {
+        this.timeout = timeout;
+        this.onCollapsed = onCollapsed;
+    }
+
+    /**
+     * Runs the call, or joins the call in flight for an equal key.
+     * @param key The key identifying identical calls.
+     * @param call The call to run if none is in flight for the key.
+     * @return The result of the call.
+     * @throws QueryTimeoutException if the call in flight did not complete within the timeout.
+     */
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = flights.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            onCollapsed.run();
+            return await(inFlight);
+        }
+        try {
+            V result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * Get the number of calls in flight.
+     * @return The number of keys whose call is running.
+     */
+    public int getInFlightCount() {
+        return flights.size();
+    }
+
+    private V await(CompletableFuture<V> inFlight) {
+        try {
+            return inFlight.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw (Error) e.getCause();
+        } catch (TimeoutException e) {
+            throw new QueryTimeoutException("Identical read still running after " + timeout.toMillis() + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Interrupted while waiting for an identical read", e);
+        }
+    }
+}
@@ -1,75 +1,384 @@
 package com.example.todolist.service;
 
+import com.example.todolist.dtos.ToDoCursor;
+import com.example.todolist.dtos.ToDoDueDate;
+import com.example.todolist.dtos.ToDoFilter;
+import com.example.todolist.dtos.ToDoListVersion;
+import com.example.todolist.dtos.ToDoPage;
 import com.example.todolist.entity.ToDo;
-import com.example.todolist.repository.ToDoRepository;
-import org.springframework.data.domain.Sort;
+import com.example.todolist.events.ToDoChangeEvent;
+import com.example.todolist.exceptions.ToDoVersionMismatchException;
+import com.example.todolist.metrics.ToDoMetrics;
+import com.example.todolist.repository.ToDoStore;
+import com.example.todolist.repository.ToDoStore.UpdatedToDo;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
- * Service class for managing _ToDo_ entities.
+ * Service class for managing _ToDo_ entities, kept in a ToDoStore: the relational database through JpaToDoStore,
+ * or the embedded log-structured store of the embedded profile.
+ * Every created, updated or deleted entity is published as a ToDoChangeEvent inside the transaction of the change,
+ * where ToDoOutboxWriter adds it to the outbox; the change feed receives it once the transaction commits.
+ * <p>
+ * Concurrent identical reads, by id, of the same list page or of the list version, share one database call and its
+ * result through a SingleFlight; only that call holds a connection, so a burst of identical reads costs one query
+ * and one connection. Reads are keyed with the number of changes committed so far as well, so that a read never
+ * joins a call started before a change its caller has seen committed.
  */
 @Service
+@Profile("!reactive")
 public class ToDoService {
 
-    private final ToDoRepository toDoRepository;
+    /**
+     * Page size used when the client does not ask for one.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * Upper bound for the page size a client may ask for.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Number of entities flushed together by bulk operations, matching hibernate.jdbc.batch_size.
+     */
+    public static final int JDBC_BATCH_SIZE = 50;
 
     /**
-     * Constructs a ToDoService with the specified ToDoRepository.
-     * @param toDoRepository The ToDoRepository to be used by the service.
+     * Upper bound for the number of elements of a bulk operation.
      */
-    public ToDoService(ToDoRepository toDoRepository) {
-        this.toDoRepository = toDoRepository;
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    /**
+     * Name of the cache holding _ToDo_ entities looked up by id.
+     */
+    public static final String CACHE_NAME = "todos";
+
+    private final ToDoStore toDoStore;
+    private final ToDoMetrics toDoMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AtomicLong committedChanges = new AtomicLong();
+    private final SingleFlight<ByIdRead, Optional<ToDo>> byIdReads;
+    private final SingleFlight<ListRead, ToDoPage> listReads;
+    private final SingleFlight<Long, ToDoListVersion> listVersionReads;
+
+    /**
+     * Constructs a ToDoService with the specified ToDoStore.
+     * @param toDoStore The ToDoStore to be used by the service.
+     * @param toDoMetrics The ToDoMetrics recording list result sizes and collapsed reads.
+     * @param eventPublisher The ApplicationEventPublisher receiving a ToDoChangeEvent for every change.
+     * @param cacheManager The CacheManager holding the cache of _ToDo_ entities by id.
+     * @param transactionManager The PlatformTransactionManager running the read-only transaction of shared reads.
+     * @param singleFlightTimeout The longest time a read waits for the identical read in flight.
+     */
+    public ToDoService(ToDoStore toDoStore, ToDoMetrics toDoMetrics, ApplicationEventPublisher eventPublisher,
+                       CacheManager cacheManager, PlatformTransactionManager transactionManager,
+                       @Value("${todo.single-flight.timeout:5s}") Duration singleFlightTimeout) {
+        this.toDoStore = toDoStore;
+        this.toDoMetrics = toDoMetrics;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.byIdReads = new SingleFlight<>(singleFlightTimeout, () -> toDoMetrics.readCollapsed("getById"));
+        this.listReads = new SingleFlight<>(singleFlightTimeout, () -> toDoMetrics.readCollapsed("getList"));
+        this.listVersionReads = new SingleFlight<>(singleFlightTimeout, () -> toDoMetrics.readCollapsed("getListVersion"));
     }
 
     /**
-     * Saves a _ToDo_ entity.
+     * Saves a _ToDo_ entity and publishes its creation, or its update if it was persisted already.
      * @param toDo The _ToDo_ entity to save.
      * @return The saved _ToDo_ entity.
      */
+    @Transactional
+    @CacheEvict(cacheNames = CACHE_NAME, key = "#toDo.toDoId", condition = "#toDo.toDoId != null")
+    @Timed(value = ToDoMetrics.SERVICE_TIMER, extraTags = {"operation", "save"})
     public ToDo save(ToDo toDo) {
-        return toDoRepository.save(toDo);
+        if (toDo.getVersion() == null) {
+            ToDo savedToDo = toDoStore.create(toDo);
+            eventPublisher.publishEvent(ToDoChangeEvent.created(savedToDo));
+            return savedToDo;
+        }
+        UpdatedToDo savedToDo = toDoStore.merge(toDo);
+        eventPublisher.publishEvent(ToDoChangeEvent.updated(savedToDo.toDo(), savedToDo.previousDueDate()));
+        return savedToDo.toDo();
     }
 
     /**
-     * Retrieves a list of all _ToDo_ entities, sorted by due date in ascending order.
-     * @return A list of _ToDo_ entities.
+     * Retrieves one keyset page of _ToDo_ entities, sorted by due date and id in ascending order.
+     * Runs in a read-only transaction, so Hibernate keeps no snapshots for dirty checking.
+     * @param cursor The position to continue from, or null for the first page.
+     * @param size The requested page size, clamped to [1, MAX_PAGE_SIZE].
+     * @return The page of _ToDo_ entities and the cursor of the following page.
      */
-    public List<ToDo> getList() {
-        Sort sort = Sort.by("dueDate").ascending();
-        return toDoRepository.findAll(sort);
+    @Timed(value = ToDoMetrics.SERVICE_TIMER, extraTags = {"operation", "getList"})
+    public ToDoPage getList(ToDoCursor cursor, int size) {
+        return getList(ToDoFilter.NONE, cursor, size);
+    }
+
+    /**
+     * Retrieves one keyset page of the _ToDo_ entities matching the given filter,
+     * sorted by due date and id in ascending order.
+     * The filter is evaluated by the store, so only matching entities leave it.
+     * Identical concurrent reads share one query, so the returned page must not be modified.
+     * @param filter The filter the entities must match.
+     * @param cursor The position to continue from, or null for the first page.
+     * @param size The requested page size, clamped to [1, MAX_PAGE_SIZE].
+     * @return The page of matching _ToDo_ entities and the cursor of the following page.
+     */
+    @Timed(value = ToDoMetrics.SERVICE_TIMER, extraTags = {"operation", "getList"})
+    public ToDoPage getList(ToDoFilter filter, ToDoCursor cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        ListRead read = new ListRead(committedChanges.get(), filter.dueFrom(), filter.dueTo(),
+                filter.text() == null ? null : filter.text().toLowerCase(Locale.ROOT), cursor, pageSize);
+        return listReads.execute(read, () -> readOnlyTransaction.execute(status -> findPage(filter, cursor, pageSize)));
+    }
+
+    /**
+     * Runs the query of one keyset page.
+     * @param filter The filter the entities must match.
+     * @param cursor The position to continue from, or null for the first page.
+     * @param pageSize The page size, within [1, MAX_PAGE_SIZE].
+     * @return The page of matching _ToDo_ entities and the cursor of the following page.
+     */
+    private ToDoPage findPage(ToDoFilter filter, ToDoCursor cursor, int pageSize) {
+        // one extra entity tells whether a next page exists
+        List<ToDo> toDoList = toDoStore.findPage(filter, cursor, pageSize + 1);
+
+        if (toDoList.size() <= pageSize) {
+            toDoMetrics.recordListSize(toDoList.size());
+            return new ToDoPage(toDoList, null);
+        }
+
+        List<ToDo> content = toDoList.subList(0, pageSize);
+        toDoMetrics.recordListSize(pageSize);
+        return new ToDoPage(content, ToDoCursor.after(content.get(pageSize - 1)));
+    }
+
+    /**
+     * Streams every _ToDo_ entity, sorted by due date and id in ascending order, to the given consumer.
+     * The store hands out entities one by one, so memory use does not depend on the size of the list.
+     * @param consumer The consumer receiving each _ToDo_ entity.
+     */
+    @Transactional(readOnly = true)
+    @Timed(value = ToDoMetrics.SERVICE_TIMER, extraTags = {"operation", "export"})
+    public void export(Consumer<ToDo> consumer) {
+        toDoStore.export(consumer);
     }
 
     /**
      * Retrieves a _ToDo_ entity by its unique identifier.
+     * Found entities are cached until they are updated, deleted or expire; misses are not cached.
+     * The returned entity may be shared with concurrent callers and must not be modified.
+     * Concurrent cache misses for the same id share one query.
      * @param id The unique identifier of the _ToDo_ entity to retrieve.
      * @return An Optional containing the retrieved _ToDo_ entity, or an empty Optional if not found.
      */
+    @Cacheable(cacheNames = CACHE_NAME, key = "#id", unless = "#result == null")
+    @Timed(value = ToDoMetrics.SERVICE_TIMER, extraTags = {"operation", "getById"})
     public Optional<ToDo> getById(UUID id) {
-        return toDoRepository.findById(id);
+        return byIdReads.execute(new ByIdRead(committedChanges.get(), id),
+                () -> readOnlyTransaction.execute(status -> toDoStore.findById(id)));
+    }
+
+    /**
+     * Reads the aggregate state of the _ToDo_ list, from which the list ETag is derived, without loading any entity.
+     * Identical concurrent reads share one query.
+     * @return The aggregate state of the _ToDo_ list.
+     */
+    @Timed(value = ToDoMetrics.SERVICE_TIMER, extraTags = {"operation", "getListVersion"})
+    public ToDoListVersion getListVersion() {
+        toDoStore.awaitListVersion();
+        return listVersionReads.execute(committedChanges.get(),
+                () -> readOnlyTransaction.execute(status -> toDoStore.findListVersion()));
+    }
+
+    /**
+     * Counts a committed change, so that reads started afterwards no longer join reads in flight before it.
+     * @param event The change event.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ToDoChangeEvent event) {
+        committedChanges.incrementAndGet();
     }
 
     /**
-     * Deletes a _ToDo_ entity by its unique identifier.
+     * Deletes a _ToDo_ entity by its unique identifier, in a single statement that also returns the deleted row.
      * @param id The unique identifier of the _ToDo_ entity to delete.
+     * @param expectedVersion The version the entity must have, or null to delete whatever its version.
      * @return An Optional containing the deleted _ToDo_ entity, or an empty Optional if not found.
+     * @throws ToDoVersionMismatchException if the entity exists with another version than the expected one.
      */
-    public Optional<ToDo> delete(UUID id) {
-        Optional<ToDo> foundToDo = getById(id);
-        toDoRepository.deleteById(id);
-        return foundToDo;
+    @Transactional
+    @CacheEvict(cacheNames = CACHE_NAME, key = "#id")
+    @Timed(value = ToDoMetrics.SERVICE_TIMER, extraTags = {"operation", "delete"})
+    public Optional<ToDo> delete(UUID id, Long expectedVersion) {
+        Optional<ToDo> deletedToDo = toDoStore.delete(id, expectedVersion);
+        checkVersionMismatch(deletedToDo, id, expectedVersion);
+        deletedToDo.ifPresent(deleted -> eventPublisher.publishEvent(ToDoChangeEvent.deleted(id, deleted.getDueDate())));
+        return deletedToDo;
     }
 
     /**
-     * Saves the provided _ToDo_ entity by updating it in the database.
+     * Updates the _ToDo_ entity with the same id as the provided one, in a single statement that also returns
+     * the updated row, without loading it first.
      *
-     * @param toDo The _ToDo_ entity to be updated.
-     * @return The updated _ToDo_ entity after it's saved in the database.
+     * @param toDo The _ToDo_ entity carrying the id to update and the new field values.
+     * @param expectedVersion The version the entity must have, or null to update whatever its version.
+     * @return An Optional containing the updated _ToDo_ entity, or an empty Optional if not found.
+     * @throws ToDoVersionMismatchException if the entity exists with another version than the expected one.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CACHE_NAME, key = "#toDo.toDoId")
+    @Timed(value = ToDoMetrics.SERVICE_TIMER, extraTags = {"operation", "update"})
+    public Optional<ToDo> update(ToDo toDo, Long expectedVersion) {
+        Optional<UpdatedToDo> updatedToDo = toDoStore.update(toDo, expectedVersion);
+        checkVersionMismatch(updatedToDo, toDo.getToDoId(), expectedVersion);
+        updatedToDo.ifPresent(updated -> eventPublisher.publishEvent(
+                ToDoChangeEvent.updated(updated.toDo(), updated.previousDueDate())));
+        return updatedToDo.map(UpdatedToDo::toDo);
+    }
+
+    /**
+     * Saves several new _ToDo_ entities in a single transaction.
+     * JpaToDoStore flushes them by chunks of JDBC_BATCH_SIZE, which Hibernate sends as JDBC batches.
+     * @param toDos The new _ToDo_ entities to save.
+     * @return The saved _ToDo_ entities, in the same order.
+     */
+    @Transactional
+    @Timed(value = ToDoMetrics.SERVICE_TIMER, extraTags = {"operation", "saveAll"})
+    public List<ToDo> saveAll(List<ToDo> toDos) {
+        toDoStore.createAll(toDos);
+        toDos.forEach(toDo -> eventPublisher.publishEvent(ToDoChangeEvent.created(toDo)));
+        return toDos;
+    }
+
+    /**
+     * Updates several _ToDo_ entities in a single transaction.
+     * JpaToDoStore loads each chunk of JDBC_BATCH_SIZE entities with one query and writes it back as one JDBC batch.
+     * Only the updated entities are evicted from the cache, once the transaction has committed.
+     * @param toDos The _ToDo_ entities carrying the id to update and the new field values.
+     * @return For each given entity, in the same order, the updated _ToDo_ entity or an empty Optional if not found.
+     */
+    @Transactional
+    @Timed(value = ToDoMetrics.SERVICE_TIMER, extraTags = {"operation", "updateAll"})
+    public List<Optional<ToDo>> updateAll(List<ToDo> toDos) {
+        List<Optional<UpdatedToDo>> updatedToDos = toDoStore.updateAll(toDos);
+        List<Optional<ToDo>> updated = new ArrayList<>(updatedToDos.size());
+        List<UUID> updatedIds = new ArrayList<>(updatedToDos.size());
+        for (Optional<UpdatedToDo> updatedToDo : updatedToDos) {
+            updatedToDo.ifPresent(found -> {
+                eventPublisher.publishEvent(ToDoChangeEvent.updated(found.toDo(), found.previousDueDate()));
+                updatedIds.add(found.toDo().getToDoId());
+            });
+            updated.add(updatedToDo.map(UpdatedToDo::toDo));
+        }
+        evictAfterCommit(updatedIds);
+        return updated;
+    }
+
+    /**
+     * Deletes several _ToDo_ entities in a single transaction; JpaToDoStore runs one DELETE statement per chunk of
+     * JDBC_BATCH_SIZE ids. Only the deleted entities are evicted from the cache, once the transaction has committed.
+     * @param ids The unique identifiers of the _ToDo_ entities to delete.
+     * @return The identifiers that existed and were deleted.
+     */
+    @Transactional
+    @Timed(value = ToDoMetrics.SERVICE_TIMER, extraTags = {"operation", "deleteAll"})
+    public Set<UUID> deleteAll(List<UUID> ids) {
+        Set<UUID> deleted = new HashSet<>();
+        for (ToDoDueDate toDo : toDoStore.deleteAll(ids)) {
+            if (deleted.add(toDo.toDoId())) {
+                eventPublisher.publishEvent(ToDoChangeEvent.deleted(toDo.toDoId(), toDo.dueDate()));
+            }
+        }
+        evictAfterCommit(deleted);
+        return deleted;
+    }
+
+    /**
+     * Evicts the given ids from the cache once the current transaction has committed, so that a read running
+     * meanwhile cannot put the replaced state back; right away when there is no transaction.
+     * @param ids The unique identifiers of the changed _ToDo_ entities.
+     */
+    private void evictAfterCommit(Collection<UUID> ids) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null || ids.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ids.forEach(cache::evict);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(cache::evict);
+            }
+        });
+    }
+
+    /**
+     * Tells a version mismatch apart from a missing entity when a conditional statement matched no row.
+     * Costs one more statement, on the failure path only.
+     * @param result The entity returned by the conditional statement.
+     * @param id The unique identifier of the targeted entity.
+     * @param expectedVersion The version the entity had to have, or null if the statement was not conditional.
+     * @throws ToDoVersionMismatchException if no row matched but the entity exists.
+     */
+    private void checkVersionMismatch(Optional<?> result, UUID id, Long expectedVersion) {
+        if (result.isEmpty() && expectedVersion != null && toDoStore.existsById(id)) {
+            throw new ToDoVersionMismatchException(id);
+        }
+    }
+
+    /**
+     * Key of a read by id.
+     * @param committedChanges The number of changes committed when the read started.
+     * @param id The unique identifier read.
+     */
+    private record ByIdRead(long committedChanges, UUID id) {
+    }
+
+    /**
+     * Key of a read of one list page, with the searched text in lower case as the search ignores case.
+     * @param committedChanges The number of changes committed when the read started.
+     * @param dueFrom The earliest due date, or null.
+     * @param dueTo The latest due date, or null.
+     * @param text The searched text in lower case, or null.
+     * @param cursor The position to continue from, or null for the first page.
+     * @param pageSize The clamped page size.
      */
-    public ToDo update(ToDo toDo) {
-        return toDoRepository.save(toDo);
+    private record ListRead(long committedChanges, LocalDate dueFrom, LocalDate dueTo, String text, ToDoCursor cursor,
+                            int pageSize) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,247 @@
+package com.example.todolist.service;
+
+import com.example.todolist.dtos.ToDoDueDateCount;
+import com.example.todolist.dtos.ToDoFilter;
+import com.example.todolist.dtos.ToDoStatsDto;
+import com.example.todolist.events.ToDoChangeEvent;
+import com.example.todolist.metrics.ToDoMetrics;
+import com.example.todolist.repository.ToDoStore;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Statistics of the _ToDo_ list held in memory: the number of records and a histogram of their due dates.
+ * <p>
+ * Every committed ToDoChangeEvent updates the histogram, moving an updated record from its previous due date to its
+ * new one, so reading the statistics never touches the database. The number of overdue records, those due before
+ * the current day, is kept as a running count as well and only advances over the days passed when the day changes.
+ * <p>
+ * The histogram is rebuilt from one aggregate query once the application is up, and rebuilt again every
+ * todo.stats.reconcile-interval to correct the drift left by changes made without the service, such as those of
+ * other instances, of the partition retention or of manual SQL. Changes committed while the query runs are applied
+ * again on top of its result; one committed right before the query started may be counted twice, until the next
+ * reconciliation.
+ */
+@Component
+@Profile("!reactive")
+public class ToDoStatistics {
+
+    private final ToDoStore toDoStore;
+    private final ToDoMetrics toDoMetrics;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Histogram histogram = new Histogram();
+    private LocalDate day;
+    private long overdue;
+    private List<ToDoChangeEvent> changesWhileReconciling;
+    private boolean built;
+
+    /**
+     * Constructs a ToDoStatistics with the specified ToDoStore.
+     * @param toDoStore The ToDoStore running the aggregate query.
+     * @param toDoMetrics The ToDoMetrics recording the drift corrected by reconciliation.
+     */
+    public ToDoStatistics(ToDoStore toDoStore, ToDoMetrics toDoMetrics) {
+        this.toDoStore = toDoStore;
+        this.toDoMetrics = toDoMetrics;
+    }
+
+    /**
+     * Counts a change once the transaction that made it has committed.
+     * @param event The change event.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ToDoChangeEvent event) {
+        lock.lock();
+        try {
+            histogram.apply(event);
+            if (day != null) {
+                overdue += (isBefore(addedDueDate(event), day) ? 1 : 0) - (isBefore(removedDueDate(event), day) ? 1 : 0);
+            }
+            if (changesWhileReconciling != null) {
+                changesWhileReconciling.add(event);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads the statistics relative to the given day, without querying the database.
+     * @param today The day the overdue, due today and due this week counts are relative to.
+     * @return The statistics.
+     */
+    public ToDoStatsDto snapshot(LocalDate today) {
+        lock.lock();
+        try {
+            moveTo(today);
+            LocalDate weekEnd = today.plusDays(ToDoFilter.DEFAULT_UPCOMING_DAYS);
+            return new ToDoStatsDto(today, histogram.total, histogram.withoutDueDate, overdue,
+                    histogram.byDueDate.getOrDefault(today, 0L),
+                    sum(histogram.byDueDate.subMap(today, true, weekEnd, true)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Builds the statistics once the application is up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * Rebuilds the histogram from the database and records by how many records it was off.
+     */
+    @Scheduled(fixedDelayString = "${todo.stats.reconcile-interval:PT5M}",
+            initialDelayString = "${todo.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        lock.lock();
+        try {
+            changesWhileReconciling = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+
+        List<ToDoDueDateCount> counts;
+        try {
+            counts = toDoStore.countByDueDate();
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                changesWhileReconciling = null;
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+
+        Histogram rebuilt = new Histogram();
+        for (ToDoDueDateCount count : counts) {
+            rebuilt.add(count.dueDate(), count.count());
+        }
+        lock.lock();
+        try {
+            changesWhileReconciling.forEach(rebuilt::apply);
+            changesWhileReconciling = null;
+            if (built) {
+                toDoMetrics.statsReconciled(histogram.distanceTo(rebuilt));
+            }
+            histogram = rebuilt;
+            built = true;
+            day = null; // the overdue count is summed again on the next read
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Brings the overdue count to the given day. Must be called holding the lock.
+     * @param today The day the overdue count becomes relative to.
+     */
+    private void moveTo(LocalDate today) {
+        if (day == null || today.isBefore(day)) {
+            overdue = sum(histogram.byDueDate.headMap(today, false));
+        } else if (today.isAfter(day)) {
+            overdue += sum(histogram.byDueDate.subMap(day, true, today, false));
+        }
+        day = today;
+    }
+
+    /**
+     * Get the due date a change adds a record to.
+     * @param event The change event.
+     * @return The due date of the created or updated record, or null.
+     */
+    private static LocalDate addedDueDate(ToDoChangeEvent event) {
+        return event.type() == ToDoChangeEvent.Type.DELETED ? null : event.toDo().dueDate();
+    }
+
+    /**
+     * Get the due date a change removes a record from.
+     * @param event The change event.
+     * @return The previous due date of the updated or deleted record, or null.
+     */
+    private static LocalDate removedDueDate(ToDoChangeEvent event) {
+        return event.type() == ToDoChangeEvent.Type.CREATED ? null : event.previousDueDate();
+    }
+
+    private static boolean isBefore(LocalDate dueDate, LocalDate day) {
+        return dueDate != null && dueDate.isBefore(day);
+    }
+
+    private static long sum(Map<LocalDate, Long> counts) {
+        long sum = 0;
+        for (long count : counts.values()) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    /**
+     * Number of _ToDo_ records per due date.
+     */
+    private static final class Histogram {
+
+        private final TreeMap<LocalDate, Long> byDueDate = new TreeMap<>();
+        private long total;
+        private long withoutDueDate;
+
+        /**
+         * Counts a change.
+         * @param event The change event.
+         */
+        void apply(ToDoChangeEvent event) {
+            if (event.type() != ToDoChangeEvent.Type.CREATED) {
+                add(removedDueDate(event), -1);
+            }
+            if (event.type() != ToDoChangeEvent.Type.DELETED) {
+                add(addedDueDate(event), 1);
+            }
+        }
+
+        /**
+         * Adds records to the count of a due date.
+         * @param dueDate The due date, or null for the records without one.
+         * @param delta The number of records to add, negative to remove them.
+         */
+        void add(LocalDate dueDate, long delta) {
+            total += delta;
+            if (dueDate == null) {
+                withoutDueDate += delta;
+            } else {
+                byDueDate.merge(dueDate, delta, (count, added) -> count + added == 0 ? null : count + added);
+            }
+        }
+
+        /**
+         * Counts by how many records two histograms differ.
+         * @param other The other histogram.
+         * @return The sum of the absolute differences of every due date count.
+         */
+        long distanceTo(Histogram other) {
+            Set<LocalDate> dueDates = new HashSet<>(byDueDate.keySet());
+            dueDates.addAll(other.byDueDate.keySet());
+            long distance = Math.abs(withoutDueDate - other.withoutDueDate);
+            for (LocalDate dueDate : dueDates) {
+                distance += Math.abs(byDueDate.getOrDefault(dueDate, 0L) - other.byDueDate.getOrDefault(dueDate, 0L));
+            }
+            return distance;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.todolist.service;
+
+import com.example.todolist.dtos.ToDoMapper;
+import com.example.todolist.dtos.ToDoResponseDto;
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.exceptions.WriteBehindQueueFullException;
+import com.example.todolist.id.ToDoIdGenerator;
+import com.example.todolist.metrics.ToDoMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind buffer for the creation of _ToDo_ records, enabled by todo.write-behind.enabled=true.
+ * <p>
+ * New records get their id and are queued right away, so the caller does not wait for the database.
+ * A single flusher thread writes them with ToDoService.saveAll, which sends them as JDBC batches
+ * (multi-row inserts on PostgreSQL with reWriteBatchedInserts), as soon as batchSize records are queued
+ * or maxDelay after the previous flush. Until then, getPending serves them to readers.
+ * <p>
+ * The queue is a lock-free linked queue, bounded by a counter reserved with compare-and-set: when capacity
+ * records are waiting, new ones are refused with WriteBehindQueueFullException. Records violating a database
+ * constraint are split out of their batch and dropped, which is logged and counted; a batch failing otherwise
+ * is retried. ToDoController answers updates and deletions of records not written yet with 409 Conflict.
+ * On shutdown, which happens after the web server stopped taking requests, the queue is flushed
+ * before the connection pool closes.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "todo.write-behind.enabled", havingValue = "true")
+public class ToDoWriteBehindBuffer implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToDoWriteBehindBuffer.class);
+
+    /**
+     * Pause before retrying a batch the database rejected.
+     */
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(1);
+
+    private final ToDoService toDoService;
+    private final ToDoIdGenerator toDoIdGenerator;
+    private final ToDoMetrics toDoMetrics;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration maxDelay;
+    private final Duration shutdownTimeout;
+
+    private final Queue<ToDo> queue = new ConcurrentLinkedQueue<>();
+    /**
+     * Number of records accepted and not written yet, including a batch being written or retried.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+    /**
+     * Number of records in the queue, which trails size while records are being added or written.
+     */
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Map<UUID, ToDoResponseDto> pending = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private volatile Thread flusher;
+
+    /**
+     * Constructs a ToDoWriteBehindBuffer writing through the specified ToDoService.
+     * @param toDoService The ToDoService writing the batches.
+     * @param toDoIdGenerator The generator of the ids of new _ToDo_ records.
+     * @param toDoMetrics The ToDoMetrics recording queue depth, rejections and batch sizes.
+     * @param capacity The maximum number of records waiting to be written.
+     * @param batchSize The number of records that triggers a flush, and the maximum number written together.
+     * @param maxDelay The maximum time a record waits for its batch to fill up.
+     * @param shutdownTimeout The maximum time spent flushing the queue on shutdown.
+     */
+    @Autowired
+    public ToDoWriteBehindBuffer(ToDoService toDoService, ToDoIdGenerator toDoIdGenerator, ToDoMetrics toDoMetrics,
+                                 @Value("${todo.write-behind.capacity:10000}") int capacity,
+                                 @Value("${todo.write-behind.batch-size:500}") int batchSize,
+                                 @Value("${todo.write-behind.max-delay:50ms}") Duration maxDelay,
+                                 @Value("${todo.write-behind.shutdown-timeout:30s}") Duration shutdownTimeout) {
+        this.toDoService = toDoService;
+        this.toDoIdGenerator = toDoIdGenerator;
+        this.toDoMetrics = toDoMetrics;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.maxDelay = maxDelay;
+        this.shutdownTimeout = shutdownTimeout;
+        toDoMetrics.registerWriteBehindQueue(size);
+    }
+
+    /**
+     * Accepts a new _ToDo_ record to be written later.
+     * @param toDo The new _ToDo_ entity, without id.
+     * @return The accepted record, with its id.
+     * @throws WriteBehindQueueFullException if capacity records are waiting already, or the buffer is stopped.
+     */
+    public ToDoResponseDto enqueue(ToDo toDo) {
+        int reserved;
+        do {
+            reserved = size.get();
+            if (reserved >= capacity || !running) {
+                toDoMetrics.writeBehindRejected();
+                throw new WriteBehindQueueFullException(capacity);
+            }
+        } while (!size.compareAndSet(reserved, reserved + 1));
+
+        toDo.setToDoId(toDoIdGenerator.generate());
+        ToDoResponseDto accepted = ToDoMapper.toResponse(toDo);
+        pending.put(toDo.getToDoId(), accepted);
+        queue.offer(toDo);
+        if (queued.incrementAndGet() == batchSize) {
+            LockSupport.unpark(flusher);
+        }
+        return accepted;
+    }
+
+    /**
+     * Retrieves a _ToDo_ record that was accepted but is not written yet.
+     * @param id The unique identifier of the _ToDo_ record.
+     * @return An Optional containing the waiting record, or an empty Optional if it was written or never accepted.
+     */
+    public Optional<ToDoResponseDto> getPending(UUID id) {
+        return Optional.ofNullable(pending.get(id));
+    }
+
+    /**
+     * Get the number of records accepted and not written yet.
+     * @return The number of waiting records.
+     */
+    public int getQueuedCount() {
+        return size.get();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = Thread.ofPlatform().name("todo-write-behind").start(this::flushLoop);
+    }
+
+    /**
+     * Stops accepting records and writes those still queued, waiting at most shutdownTimeout.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = flusher;
+        LockSupport.unpark(thread);
+        try {
+            if (!thread.join(shutdownTimeout)) {
+                thread.interrupt();
+                logger.error("Write-behind flush timed out, {} records not written", size.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stopped after the web server, which stops in phases above DEFAULT_PHASE - 2048, so that no request is
+     * accepted once the final flush started.
+     * @return The lifecycle phase of the buffer.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    /**
+     * Writes a batch whenever one is full or maxDelay has passed, then everything left once stopped.
+     */
+    private void flushLoop() {
+        List<ToDo> batch = new ArrayList<>(batchSize);
+        long deadline = System.nanoTime() + maxDelay.toNanos();
+        while (running) {
+            long remaining = deadline - System.nanoTime();
+            // a failed batch is retried right away, flush already waited RETRY_DELAY
+            if (batch.isEmpty() && queued.get() < batchSize && remaining > 0) {
+                LockSupport.parkNanos(this, remaining); // may also return early, for an outdated unpark
+                continue;
+            }
+            flush(batch);
+            deadline = System.nanoTime() + maxDelay.toNanos();
+        }
+        while (!Thread.currentThread().isInterrupted() && (!batch.isEmpty() || !queue.isEmpty())) {
+            flush(batch);
+        }
+    }
+
+    /**
+     * Fills the batch up from the queue and writes it. A batch violating a database constraint is split in halves
+     * until the offending records are found, which are dropped; the others are written. The records not written
+     * yet are kept in the batch for the next call if writing failed otherwise.
+     * @param batch The records of a failed batch, or an empty list.
+     */
+    private void flush(List<ToDo> batch) {
+        ToDo toDo;
+        while (batch.size() < batchSize && (toDo = queue.poll()) != null) {
+            queued.decrementAndGet();
+            batch.add(toDo);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Deque<List<ToDo>> parts = new ArrayDeque<>();
+        parts.push(List.copyOf(batch));
+        batch.clear();
+        while (!parts.isEmpty()) {
+            List<ToDo> part = parts.pop();
+            try {
+                toDoService.saveAll(part);
+            } catch (DataIntegrityViolationException e) {
+                part.forEach(failed -> failed.setVersion(null)); // still new, so written with a plain insert again
+                if (part.size() == 1) {
+                    drop(part.get(0), e);
+                } else {
+                    parts.push(part.subList(part.size() / 2, part.size()));
+                    parts.push(part.subList(0, part.size() / 2));
+                }
+                continue;
+            } catch (RuntimeException e) {
+                toDoMetrics.writeBehindFlushFailed();
+                part.forEach(failed -> failed.setVersion(null));
+                batch.addAll(part);
+                parts.forEach(batch::addAll);
+                logger.warn("Write-behind batch of {} records not written, retrying", batch.size(), e);
+                LockSupport.parkNanos(this, RETRY_DELAY.toNanos());
+                return;
+            }
+
+            toDoMetrics.recordWriteBehindFlush(part.size());
+            for (ToDo written : part) {
+                pending.remove(written.getToDoId());
+            }
+            size.addAndGet(-part.size());
+        }
+    }
+
+    /**
+     * Gives up on a record the database refuses, which no retry would write.
+     * @param toDo The refused record.
+     * @param e The constraint violation reported for it.
+     */
+    private void drop(ToDo toDo, DataIntegrityViolationException e) {
+        toDoMetrics.writeBehindDropped();
+        logger.error("Write-behind record {} dropped, the database refused it: {}", toDo.getToDoId(),
+                e.getMostSpecificCause().getMessage());
+        pending.remove(toDo.getToDoId());
+        size.decrementAndGet();
+    }
+}
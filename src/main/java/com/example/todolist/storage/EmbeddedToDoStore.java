@@ -0,0 +1,757 @@
+package com.example.todolist.storage;
+
+import com.example.todolist.dtos.ToDoCursor;
+import com.example.todolist.dtos.ToDoDueDate;
+import com.example.todolist.dtos.ToDoDueDateCount;
+import com.example.todolist.dtos.ToDoFilter;
+import com.example.todolist.dtos.ToDoListVersion;
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.id.ToDoIdGenerator;
+import com.example.todolist.metrics.ToDoMetrics;
+import com.example.todolist.repository.ToDoStore;
+import com.example.todolist.storage.ToDoLog.Segment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * ToDoStore of the embedded profile: the _ToDo_ records live in a memory-mapped, append-only ToDoLog in
+ * todo.storage.embedded.directory, indexed in memory by id and in the keyset order of (dueDate, toDoId).
+ * <p>
+ * The indexes only hold the position of the latest version of each record in the log; records are decoded from the
+ * mapped segments when read. Both indexes are rebuilt by replaying the log on startup, which also drops a frame
+ * torn by a crash. Committed frames are forced to disk unless todo.storage.embedded.fsync is false.
+ * <p>
+ * Write transactions, begun by EmbeddedTransactionManager, run one at a time: their changes stay private to the
+ * transaction, which sees them in point reads, and are appended as one frame on commit. Reads outside a write
+ * transaction never wait for writers; they see the state of the last commit. Writes outside a transaction commit
+ * on their own.
+ * <p>
+ * Every todo.storage.embedded.compaction-interval, when the dead bytes of the sealed segments reach
+ * todo.storage.embedded.compaction-threshold of their size, their live records are appended again to the active
+ * segment, by chunks between writes, and the sealed segments are deleted.
+ */
+@Component
+@Profile("embedded")
+public class EmbeddedToDoStore implements ToDoStore, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedToDoStore.class);
+
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final int COMPACTION_CHUNK_SIZE = 500;
+    private static final long NO_COMMIT = Long.MIN_VALUE;
+    private static final UUID FIRST_ID = new UUID(0, 0);
+    private static final UUID LAST_ID = new UUID(-1L, -1L);
+
+    private final ToDoIdGenerator toDoIdGenerator;
+    private final ToDoMetrics toDoMetrics;
+    private final double compactionThreshold;
+
+    // held by the transaction writing, and by compaction while it appends, so frames are appended one at a time
+    private final ReentrantLock writerLock = new ReentrantLock();
+    // guards the indexes, the last commit time and the live bytes of the segments
+    private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private final Map<UUID, Entry> byId = new HashMap<>();
+    private final NavigableMap<IndexKey, Entry> byDueDate = new TreeMap<>();
+    private long lastCommitMicros = NO_COMMIT;
+
+    private final ToDoLog toDoLog;
+
+    /**
+     * Constructs an EmbeddedToDoStore, opening and replaying the log in the given directory.
+     * @param directory The directory of the log segments.
+     * @param segmentSize The size of the segment files, at most 2GB as they are mapped whole.
+     * @param fsync Whether each commit is forced to disk before returning.
+     * @param compactionThreshold The share of dead bytes in the sealed segments from which they are compacted.
+     * @param toDoIdGenerator The generator of the ids of new _ToDo_ records.
+     * @param toDoMetrics The ToDoMetrics counting the bytes reclaimed by compaction.
+     */
+    public EmbeddedToDoStore(@Value("${todo.storage.embedded.directory:data}") Path directory,
+                             @Value("${todo.storage.embedded.segment-size:64MB}") DataSize segmentSize,
+                             @Value("${todo.storage.embedded.fsync:true}") boolean fsync,
+                             @Value("${todo.storage.embedded.compaction-threshold:0.5}") double compactionThreshold,
+                             ToDoIdGenerator toDoIdGenerator, ToDoMetrics toDoMetrics) {
+        if (segmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("todo.storage.embedded.segment-size must not exceed 2GB");
+        }
+        this.toDoIdGenerator = toDoIdGenerator;
+        this.toDoMetrics = toDoMetrics;
+        this.compactionThreshold = compactionThreshold;
+        try {
+            this.toDoLog = ToDoLog.open(directory, (int) segmentSize.toBytes(), fsync, this::apply);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the log in " + directory, e);
+        }
+        log.info("Opened the log in {}: {} _ToDo_ records in {} bytes", directory, byId.size(), toDoLog.size());
+    }
+
+    @Override
+    public Optional<ToDo> findById(UUID id) {
+        Transaction transaction = currentTransaction();
+        return Optional.ofNullable(lookup(transaction == null ? null : transaction.writes, id));
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return findById(id).isPresent();
+    }
+
+    @Override
+    public List<ToDo> findAllById(Collection<UUID> ids) {
+        Transaction transaction = currentTransaction();
+        List<ToDo> found = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            ToDo toDo = lookup(transaction == null ? null : transaction.writes, id);
+            if (toDo != null) {
+                found.add(toDo);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public long count() {
+        indexLock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Walks the due date index from the first key the filter and the cursor allow; only the text criterion has to
+     * decode records it may then skip. Records without a due date come last, and only match without due date
+     * criterion.
+     */
+    @Override
+    public List<ToDo> findPage(ToDoFilter filter, ToDoCursor cursor, int limit) {
+        IndexKey from = null;
+        boolean fromInclusive = true;
+        if (cursor != null) {
+            from = new IndexKey(cursor.dueDate(), cursor.toDoId());
+            fromInclusive = false;
+        }
+        if (filter.dueFrom() != null) {
+            IndexKey dueFrom = new IndexKey(filter.dueFrom(), FIRST_ID);
+            if (from == null || dueFrom.compareTo(from) > 0) {
+                from = dueFrom;
+                fromInclusive = true;
+            }
+        }
+        String text = filter.text() == null ? null : filter.text().toLowerCase(Locale.ROOT);
+
+        List<ToDo> page = new ArrayList<>(Math.min(limit, 1024));
+        indexLock.readLock().lock();
+        try {
+            NavigableMap<IndexKey, Entry> range = from == null ? byDueDate : byDueDate.tailMap(from, fromInclusive);
+            if (filter.dueTo() != null) {
+                range = range.headMap(new IndexKey(filter.dueTo(), LAST_ID), true);
+            } else if (filter.dueFrom() != null) {
+                range = range.headMap(new IndexKey(null, FIRST_ID), false);
+            }
+            for (Entry entry : range.values()) {
+                if (page.size() == limit) {
+                    break;
+                }
+                ToDo toDo = decode(entry);
+                if (text == null || contains(toDo.getTitle(), text) || contains(toDo.getDescription(), text)) {
+                    page.add(toDo);
+                }
+            }
+        } finally {
+            indexLock.readLock().unlock();
+        }
+        return page;
+    }
+
+    /**
+     * Decodes the records by chunks under the read lock, and hands each chunk to the consumer without it, so that a
+     * slow consumer never holds up writers. Records changed between two chunks are seen in their latest state.
+     */
+    @Override
+    public void export(Consumer<ToDo> consumer) {
+        IndexKey after = null;
+        List<ToDo> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        do {
+            chunk.clear();
+            indexLock.readLock().lock();
+            try {
+                NavigableMap<IndexKey, Entry> range = after == null ? byDueDate : byDueDate.tailMap(after, false);
+                for (Map.Entry<IndexKey, Entry> entry : range.entrySet()) {
+                    if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                        break;
+                    }
+                    chunk.add(decode(entry.getValue()));
+                    after = entry.getKey();
+                }
+            } finally {
+                indexLock.readLock().unlock();
+            }
+            chunk.forEach(consumer);
+        } while (chunk.size() == EXPORT_CHUNK_SIZE);
+    }
+
+    /**
+     * Reads the keys of the due date index, which hold both the id and the due date, without decoding any record.
+     */
+    @Override
+    public void exportDueDates(LocalDate from, LocalDate to, Consumer<ToDoDueDate> consumer) {
+        List<ToDoDueDate> dueDates = new ArrayList<>();
+        indexLock.readLock().lock();
+        try {
+            for (IndexKey key : byDueDate.subMap(new IndexKey(from, FIRST_ID), true, new IndexKey(to, LAST_ID), true)
+                    .keySet()) {
+                dueDates.add(new ToDoDueDate(key.id(), key.dueDate()));
+            }
+        } finally {
+            indexLock.readLock().unlock();
+        }
+        dueDates.forEach(consumer);
+    }
+
+    /**
+     * Reads the time of the last commit, in microseconds, which commits keep strictly increasing and the log
+     * replay restores.
+     */
+    @Override
+    public ToDoListVersion findListVersion() {
+        indexLock.readLock().lock();
+        try {
+            return new ToDoListVersion(lastCommitMicros == NO_COMMIT ? 0 : lastCommitMicros);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ToDoDueDateCount> countByDueDate() {
+        List<ToDoDueDateCount> counts = new ArrayList<>();
+        indexLock.readLock().lock();
+        try {
+            LocalDate dueDate = null;
+            long count = 0;
+            for (IndexKey key : byDueDate.keySet()) {
+                if (count > 0 && !Objects.equals(dueDate, key.dueDate())) {
+                    counts.add(new ToDoDueDateCount(dueDate, count));
+                    count = 0;
+                }
+                dueDate = key.dueDate();
+                count++;
+            }
+            if (count > 0) {
+                counts.add(new ToDoDueDateCount(dueDate, count));
+            }
+        } finally {
+            indexLock.readLock().unlock();
+        }
+        return counts;
+    }
+
+    /**
+     * Assigns the id unless the record has one, version 0 and the update time, like JPA does on persist.
+     * @throws DuplicateKeyException if a record with the same id exists.
+     */
+    @Override
+    public ToDo create(ToDo toDo) {
+        return write(writes -> create(writes, toDo));
+    }
+
+    /**
+     * Replaces the record if it still has the version of the given one; the version is only incremented if a field
+     * changed, like JPA dirty checking does.
+     * @throws OptimisticLockingFailureException if the record was deleted or has another version.
+     */
+    @Override
+    public UpdatedToDo merge(ToDo toDo) {
+        return write(writes -> {
+            ToDo current = lookup(writes, toDo.getToDoId());
+            if (current == null || !current.getVersion().equals(toDo.getVersion())) {
+                throw new OptimisticLockingFailureException("_ToDo_ " + toDo.getToDoId()
+                        + " was updated or deleted by another transaction");
+            }
+            return new UpdatedToDo(replace(writes, current, toDo), current.getDueDate());
+        });
+    }
+
+    /**
+     * Updates the record and increments its version whether a field changed or not, like the conditional UPDATE
+     * statement of JpaToDoStore.
+     */
+    @Override
+    public Optional<UpdatedToDo> update(ToDo toDo, Long expectedVersion) {
+        return write(writes -> {
+            ToDo current = lookup(writes, toDo.getToDoId());
+            if (current == null || (expectedVersion != null && !expectedVersion.equals(current.getVersion()))) {
+                return Optional.empty();
+            }
+            ToDo updated = copy(current);
+            updated.setTitle(toDo.getTitle());
+            updated.setDescription(toDo.getDescription());
+            updated.setDueDate(toDo.getDueDate());
+            return Optional.of(new UpdatedToDo(stage(writes, updated), current.getDueDate()));
+        });
+    }
+
+    @Override
+    public Optional<ToDo> delete(UUID id, Long expectedVersion) {
+        return write(writes -> {
+            ToDo current = lookup(writes, id);
+            if (current == null || (expectedVersion != null && !expectedVersion.equals(current.getVersion()))) {
+                return Optional.empty();
+            }
+            writes.put(id, null);
+            return Optional.of(current);
+        });
+    }
+
+    @Override
+    public void createAll(List<ToDo> toDos) {
+        write(writes -> {
+            toDos.forEach(toDo -> create(writes, toDo));
+            return null;
+        });
+    }
+
+    @Override
+    public List<Optional<UpdatedToDo>> updateAll(List<ToDo> toDos) {
+        return write(writes -> {
+            List<Optional<UpdatedToDo>> updated = new ArrayList<>(toDos.size());
+            for (ToDo toDo : toDos) {
+                ToDo current = lookup(writes, toDo.getToDoId());
+                if (current == null) {
+                    updated.add(Optional.empty());
+                    continue;
+                }
+                ToDo changes = copy(current);
+                changes.setTitle(toDo.getTitle());
+                changes.setDescription(toDo.getDescription());
+                changes.setDueDate(toDo.getDueDate());
+                updated.add(Optional.of(new UpdatedToDo(replace(writes, current, changes), current.getDueDate())));
+            }
+            return updated;
+        });
+    }
+
+    @Override
+    public List<ToDoDueDate> deleteAll(Collection<UUID> ids) {
+        return write(writes -> {
+            List<ToDoDueDate> deleted = new ArrayList<>();
+            for (UUID id : ids) {
+                ToDo current = lookup(writes, id);
+                if (current != null) {
+                    writes.put(id, null);
+                    deleted.add(new ToDoDueDate(id, current.getDueDate()));
+                }
+            }
+            return deleted;
+        });
+    }
+
+    /**
+     * Compacts the sealed segments once their dead bytes reach the compaction threshold.
+     * @return The number of bytes reclaimed, 0 if the segments were not compacted.
+     */
+    @Scheduled(fixedDelayString = "${todo.storage.embedded.compaction-interval:PT1M}",
+            initialDelayString = "${todo.storage.embedded.compaction-interval:PT1M}")
+    public long compact() {
+        List<Segment> sealed;
+        writerLock.lock();
+        try {
+            sealed = toDoLog.sealedSegments();
+        } finally {
+            writerLock.unlock();
+        }
+        if (sealed.isEmpty()) {
+            return 0;
+        }
+
+        long used = 0;
+        long live = 0;
+        Set<Segment> targets = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<UUID> relocated = new ArrayList<>();
+        indexLock.readLock().lock();
+        try {
+            for (Segment segment : sealed) {
+                used += segment.end();
+                live += segment.liveBytes();
+                targets.add(segment);
+            }
+            if (used - live < compactionThreshold * used) {
+                return 0;
+            }
+            byId.forEach((id, entry) -> {
+                if (targets.contains(entry.segment())) {
+                    relocated.add(id);
+                }
+            });
+        } finally {
+            indexLock.readLock().unlock();
+        }
+
+        for (int from = 0; from < relocated.size(); from += COMPACTION_CHUNK_SIZE) {
+            relocate(relocated.subList(from, Math.min(from + COMPACTION_CHUNK_SIZE, relocated.size())), targets);
+        }
+
+        writerLock.lock();
+        try {
+            toDoLog.force(); // the relocated records must be durable before their previous copies are deleted
+            long reclaimed = toDoLog.deleteThrough(sealed.get(sealed.size() - 1).id());
+            toDoMetrics.storageCompacted(reclaimed);
+            log.info("Compacted {} segments: relocated {} _ToDo_ records, reclaimed {} bytes", sealed.size(),
+                    relocated.size(), reclaimed);
+            return reclaimed;
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not delete the compacted segments", e);
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Forces the log to disk and releases its directory.
+     */
+    @Override
+    public void destroy() throws IOException {
+        writerLock.lock();
+        try {
+            toDoLog.close();
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Begins a transaction; a write transaction holds the writer lock until it ends.
+     * @param readOnly Whether the transaction is read-only.
+     * @return The transaction.
+     */
+    Transaction begin(boolean readOnly) {
+        if (!readOnly) {
+            writerLock.lock();
+        }
+        return new Transaction(readOnly ? null : new LinkedHashMap<>());
+    }
+
+    /**
+     * Appends the changes of a write transaction as one frame, then makes them visible to readers.
+     * @param transaction The transaction to commit.
+     * @throws DataAccessResourceFailureException if the frame could not be appended.
+     */
+    void commit(Transaction transaction) {
+        if (transaction.writes == null || transaction.writes.isEmpty()) {
+            return;
+        }
+        ToDoLogFormat.PayloadWriter payload = new ToDoLogFormat.PayloadWriter(ToDoLogFormat.KIND_COMMIT,
+                Math.max(ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now()), lastCommitMicros + 1));
+        transaction.writes.forEach((id, toDo) -> {
+            if (toDo == null) {
+                payload.delete(id);
+            } else {
+                payload.put(toDo);
+            }
+        });
+        append(payload);
+    }
+
+    /**
+     * Ends a transaction, committed or not.
+     * @param transaction The transaction to end.
+     */
+    void end(Transaction transaction) {
+        if (transaction.writes != null) {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Get the transaction bound to the current thread by EmbeddedTransactionManager.
+     * @return The transaction, or null outside of a transaction.
+     */
+    Transaction currentTransaction() {
+        return (Transaction) TransactionSynchronizationManager.getResource(this);
+    }
+
+    /**
+     * Appends live records of the compacted segments again, skipping those written or deleted since they were
+     * listed. The frame keeps the time of the last commit, as relocation changes nothing readers can see.
+     * @param ids The ids of the records to relocate.
+     * @param targets The segments being compacted.
+     */
+    private void relocate(List<UUID> ids, Set<Segment> targets) {
+        writerLock.lock();
+        try {
+            ToDoLogFormat.PayloadWriter payload = new ToDoLogFormat.PayloadWriter(ToDoLogFormat.KIND_COMPACTION,
+                    lastCommitMicros);
+            indexLock.readLock().lock();
+            try {
+                for (UUID id : ids) {
+                    Entry entry = byId.get(id);
+                    if (entry != null && targets.contains(entry.segment())) {
+                        payload.put(decode(entry));
+                    }
+                }
+            } finally {
+                indexLock.readLock().unlock();
+            }
+            if (payload.opCount() > 0) {
+                append(payload);
+            }
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    /**
+     * Appends a frame and applies it to the indexes. Must be called holding the writer lock.
+     * @param payload The frame payload.
+     */
+    private void append(ToDoLogFormat.PayloadWriter payload) {
+        ToDoLog.Appended appended;
+        try {
+            appended = toDoLog.append(payload.toByteArray());
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Could not append to the log", e);
+        }
+        indexLock.writeLock().lock();
+        try {
+            apply(appended.segment(), appended.payloadOffset());
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies one frame of the log to the indexes and the last commit time, on commit and when replaying the log.
+     * @param segment The segment holding the frame.
+     * @param payloadOffset The offset of the frame payload.
+     */
+    private void apply(Segment segment, int payloadOffset) {
+        ByteBuffer buffer = segment.buffer();
+        lastCommitMicros = Math.max(lastCommitMicros, buffer.getLong(payloadOffset + 1));
+        int opCount = buffer.getInt(payloadOffset + 1 + Long.BYTES);
+        int offset = payloadOffset + 1 + Long.BYTES + Integer.BYTES;
+        for (int i = 0; i < opCount; i++) {
+            ToDoLogFormat.Op op = ToDoLogFormat.readOp(buffer, offset);
+            offset += op.length();
+            Entry previous = op.type() == ToDoLogFormat.OP_PUT
+                    ? byId.put(op.id(), new Entry(segment, op.offset(), op.length(), op.dueDate()))
+                    : byId.remove(op.id());
+            if (previous != null) {
+                byDueDate.remove(new IndexKey(previous.dueDate(), op.id()));
+                previous.segment().addLiveBytes(-previous.length());
+            }
+            if (op.type() == ToDoLogFormat.OP_PUT) {
+                Entry entry = byId.get(op.id());
+                byDueDate.put(new IndexKey(op.dueDate(), op.id()), entry);
+                segment.addLiveBytes(op.length());
+            }
+        }
+    }
+
+    /**
+     * Runs a change in the write transaction of the current thread, or else in a transaction of its own.
+     * @param change The change, staging records, or null for deletions, in the writes of the transaction.
+     * @return The result of the change.
+     * @throws InvalidDataAccessApiUsageException if the current transaction is read-only.
+     */
+    private <T> T write(Function<Map<UUID, ToDo>, T> change) {
+        Transaction transaction = currentTransaction();
+        if (transaction != null) {
+            if (transaction.writes == null) {
+                throw new InvalidDataAccessApiUsageException("Write attempted in a read-only transaction");
+            }
+            return change.apply(transaction.writes);
+        }
+        Transaction autoCommit = begin(false);
+        try {
+            T result = change.apply(autoCommit.writes);
+            commit(autoCommit);
+            return result;
+        } finally {
+            end(autoCommit);
+        }
+    }
+
+    private ToDo create(Map<UUID, ToDo> writes, ToDo toDo) {
+        if (toDo.getToDoId() == null) {
+            toDo.setToDoId(toDoIdGenerator.generate());
+        } else if (lookup(writes, toDo.getToDoId()) != null) {
+            throw new DuplicateKeyException("_ToDo_ " + toDo.getToDoId() + " already exists");
+        }
+        toDo.setVersion(0L);
+        toDo.setUpdatedAt(now());
+        writes.put(toDo.getToDoId(), copy(toDo));
+        return toDo;
+    }
+
+    /**
+     * Stages the new field values of a record, unless none of them changed.
+     * @param writes The writes of the transaction.
+     * @param current The current state of the record.
+     * @param changes The record carrying the new field values.
+     * @return The record as it is after the change.
+     */
+    private ToDo replace(Map<UUID, ToDo> writes, ToDo current, ToDo changes) {
+        if (Objects.equals(current.getTitle(), changes.getTitle())
+                && Objects.equals(current.getDescription(), changes.getDescription())
+                && Objects.equals(current.getDueDate(), changes.getDueDate())) {
+            return current;
+        }
+        ToDo updated = copy(current);
+        updated.setTitle(changes.getTitle());
+        updated.setDescription(changes.getDescription());
+        updated.setDueDate(changes.getDueDate());
+        return stage(writes, updated);
+    }
+
+    /**
+     * Stages a new version of a record.
+     * @param writes The writes of the transaction.
+     * @param updated The record with the new field values and the current version.
+     * @return A copy of the staged record.
+     */
+    private static ToDo stage(Map<UUID, ToDo> writes, ToDo updated) {
+        updated.setVersion(updated.getVersion() + 1);
+        updated.setUpdatedAt(now());
+        writes.put(updated.getToDoId(), updated);
+        return copy(updated);
+    }
+
+    /**
+     * Reads a record as the transaction sees it.
+     * @param writes The writes of the transaction, or null.
+     * @param id The unique identifier of the record.
+     * @return A new instance of the record, or null if it does not exist.
+     */
+    private ToDo lookup(Map<UUID, ToDo> writes, UUID id) {
+        if (writes != null && writes.containsKey(id)) {
+            ToDo written = writes.get(id);
+            return written == null ? null : copy(written);
+        }
+        indexLock.readLock().lock();
+        try {
+            Entry entry = byId.get(id);
+            return entry == null ? null : decode(entry);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    private static ToDo decode(Entry entry) {
+        return ToDoLogFormat.readToDo(entry.segment().buffer(), entry.offset());
+    }
+
+    private static ToDo copy(ToDo toDo) {
+        ToDo copy = new ToDo();
+        copy.setToDoId(toDo.getToDoId());
+        copy.setTitle(toDo.getTitle());
+        copy.setDescription(toDo.getDescription());
+        copy.setDueDate(toDo.getDueDate());
+        copy.setVersion(toDo.getVersion());
+        copy.setUpdatedAt(toDo.getUpdatedAt());
+        return copy;
+    }
+
+    private static boolean contains(String value, String lowerCaseText) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(lowerCaseText);
+    }
+
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS); // the precision kept in the log
+    }
+
+    /**
+     * Transaction of the embedded store, bound to its thread by EmbeddedTransactionManager.
+     */
+    static final class Transaction {
+
+        // staged records by id, null for deletions; null for a read-only transaction
+        private final Map<UUID, ToDo> writes;
+        private boolean rollbackOnly;
+
+        private Transaction(Map<UUID, ToDo> writes) {
+            this.writes = writes;
+        }
+
+        boolean isRollbackOnly() {
+            return rollbackOnly;
+        }
+
+        void setRollbackOnly() {
+            rollbackOnly = true;
+        }
+    }
+
+    /**
+     * Position of the latest version of a record in the log.
+     * @param segment The segment holding its put operation.
+     * @param offset The offset of the put operation.
+     * @param length The length of the put operation.
+     * @param dueDate The due date of the record, its key in the due date index.
+     */
+    private record Entry(Segment segment, int offset, int length, LocalDate dueDate) {
+    }
+
+    /**
+     * Key of the due date index, in the keyset order of the list: by due date, records without one last, then by
+     * id compared as unsigned bytes, like the database compares uuids.
+     * @param dueDate The due date, or null.
+     * @param id The unique identifier.
+     */
+    private record IndexKey(LocalDate dueDate, UUID id) implements Comparable<IndexKey> {
+
+        @Override
+        public int compareTo(IndexKey other) {
+            if (dueDate != other.dueDate) {
+                if (dueDate == null || other.dueDate == null) {
+                    return dueDate == null ? 1 : -1;
+                }
+                int byDueDate = dueDate.compareTo(other.dueDate);
+                if (byDueDate != 0) {
+                    return byDueDate;
+                }
+            }
+            int byHigh = Long.compareUnsigned(id.getMostSignificantBits(), other.id.getMostSignificantBits());
+            return byHigh != 0 ? byHigh
+                    : Long.compareUnsigned(id.getLeastSignificantBits(), other.id.getLeastSignificantBits());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.todolist.storage;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * PlatformTransactionManager of the embedded profile, running the @Transactional methods of ToDoService against
+ * the EmbeddedToDoStore.
+ * A write transaction holds the single writer lock of the store from its beginning to its end and appends its
+ * changes as one frame on commit; rolling back discards them. Read-only transactions take no lock.
+ * Isolation levels and timeouts are ignored: write transactions are serialized and reads see the last commit.
+ */
+@Component("transactionManager")
+@Profile("embedded")
+public class EmbeddedTransactionManager extends AbstractPlatformTransactionManager {
+
+    private final EmbeddedToDoStore store;
+
+    /**
+     * Constructs an EmbeddedTransactionManager with the specified EmbeddedToDoStore.
+     * @param store The EmbeddedToDoStore whose transactions are managed.
+     */
+    public EmbeddedTransactionManager(EmbeddedToDoStore store) {
+        this.store = store;
+    }
+
+    @Override
+    protected Object doGetTransaction() {
+        return new TransactionObject(store.currentTransaction());
+    }
+
+    @Override
+    protected boolean isExistingTransaction(Object transaction) {
+        return ((TransactionObject) transaction).transaction != null;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        EmbeddedToDoStore.Transaction begun = store.begin(definition.isReadOnly());
+        ((TransactionObject) transaction).transaction = begun;
+        TransactionSynchronizationManager.bindResource(store, begun);
+    }
+
+    @Override
+    protected Object doSuspend(Object transaction) {
+        ((TransactionObject) transaction).transaction = null;
+        return TransactionSynchronizationManager.unbindResource(store);
+    }
+
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+        TransactionSynchronizationManager.bindResource(store, suspendedResources);
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        store.commit(((TransactionObject) status.getTransaction()).transaction);
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+        // the staged changes were never appended, ending the transaction drops them
+    }
+
+    @Override
+    protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+        ((TransactionObject) status.getTransaction()).transaction.setRollbackOnly();
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        TransactionObject transactionObject = (TransactionObject) transaction;
+        TransactionSynchronizationManager.unbindResource(store);
+        store.end(transactionObject.transaction);
+    }
+
+    /**
+     * Transaction object holding the store transaction of the current thread, if any.
+     */
+    private static final class TransactionObject implements SmartTransactionObject {
+
+        private EmbeddedToDoStore.Transaction transaction;
+
+        private TransactionObject(EmbeddedToDoStore.Transaction transaction) {
+            this.transaction = transaction;
+        }
+
+        @Override
+        public boolean isRollbackOnly() {
+            return transaction.isRollbackOnly();
+        }
+
+        @Override
+        public void flush() {
+            // changes are staged in memory until commit
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.example.todolist.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of the embedded store, split in fixed-size segment files mapped in memory.
+ * <p>
+ * Frames are appended to the active segment; when one does not fit, the active segment is forced to disk and sealed,
+ * and a new one is created, so only the last segment can hold a torn frame after a crash. Opening the log replays
+ * every frame whose checksum matches and truncates the last segment at the first one that does not. Compaction
+ * relocates the live records of the sealed segments, then records the id of the last compacted segment in the
+ * compacted-through file before deleting them, so that segments left behind by a crash are deleted on next open.
+ * <p>
+ * Not thread safe: appends, compaction and closing are serialized by the caller. Segment buffers may be read
+ * concurrently with appends, since appends only write past the frames already handed out.
+ */
+final class ToDoLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ToDoLog.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("todos-(\\d{16})\\.log");
+    private static final String MARKER_FILE = "compacted-through";
+    private static final String LOCK_FILE = "LOCK";
+    private static final int ZEROS_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private Segment active;
+
+    /**
+     * Receives the frames replayed when the log is opened.
+     */
+    @FunctionalInterface
+    interface FrameVisitor {
+
+        /**
+         * Receives one valid frame.
+         * @param segment The segment holding the frame.
+         * @param payloadOffset The offset of the frame payload inside the segment.
+         */
+        void visit(Segment segment, int payloadOffset);
+    }
+
+    /**
+     * Location of an appended frame.
+     * @param segment The segment holding the frame.
+     * @param payloadOffset The offset of the frame payload inside the segment.
+     */
+    record Appended(Segment segment, int payloadOffset) {
+    }
+
+    /**
+     * One segment file and its mapping.
+     */
+    static final class Segment {
+
+        private final long id;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private int end;
+        private long liveBytes;
+
+        private Segment(long id, Path path, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        long id() {
+            return id;
+        }
+
+        /**
+         * Get the mapping of the segment, for absolute reads only.
+         * @return The buffer mapping the whole segment file.
+         */
+        ByteBuffer buffer() {
+            return buffer;
+        }
+
+        /**
+         * Get the number of bytes used by the header and the frames.
+         * @return The offset the next frame is appended at.
+         */
+        int end() {
+            return end;
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+
+        /**
+         * Get the number of bytes of the put operations still referenced by the index; maintained by the store.
+         * @return The live bytes of the segment.
+         */
+        long liveBytes() {
+            return liveBytes;
+        }
+
+        void addLiveBytes(long delta) {
+            liveBytes += delta;
+        }
+    }
+
+    /**
+     * Opens the log in the given directory, creating it if needed, and replays its frames.
+     * @param directory The directory of the segment files.
+     * @param segmentSize The size of new segment files.
+     * @param fsync Whether every append is forced to disk before returning.
+     * @param visitor The visitor receiving each replayed frame, in log order.
+     * @return The opened log, ready for appends.
+     * @throws IOException if the directory cannot be read or written.
+     * @throws IllegalStateException if the directory is used by another store, or a sealed segment is corrupt.
+     */
+    static ToDoLog open(Path directory, int segmentSize, boolean fsync, FrameVisitor visitor) throws IOException {
+        Files.createDirectories(directory);
+        ToDoLog toDoLog = new ToDoLog(directory, segmentSize, fsync);
+        try {
+            toDoLog.recover(visitor);
+        } catch (IOException | RuntimeException e) {
+            toDoLog.close();
+            throw e;
+        }
+        return toDoLog;
+    }
+
+    private ToDoLog(Path directory, int segmentSize, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        this.lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.lock = lockChannel.tryLock();
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Log directory " + directory + " is used by another store");
+        }
+    }
+
+    /**
+     * Appends one frame to the active segment, rolling to a new segment if it does not fit.
+     * @param payload The frame payload.
+     * @return The location of the frame.
+     * @throws IOException if a new segment cannot be created.
+     */
+    Appended append(byte[] payload) throws IOException {
+        int frameLength = ToDoLogFormat.FRAME_HEADER_SIZE + payload.length;
+        if (frameLength > active.capacity() - active.end) {
+            active.buffer.force();
+            active = createSegment(active.id + 1,
+                    Math.max(segmentSize, ToDoLogFormat.SEGMENT_HEADER_SIZE + frameLength));
+        }
+        int offset = active.end;
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        active.buffer.putInt(offset, payload.length);
+        active.buffer.putInt(offset + Integer.BYTES, (int) crc.getValue());
+        active.buffer.put(offset + ToDoLogFormat.FRAME_HEADER_SIZE, payload);
+        active.end += frameLength;
+        if (fsync) {
+            active.buffer.force(offset, frameLength);
+        }
+        return new Appended(active, offset + ToDoLogFormat.FRAME_HEADER_SIZE);
+    }
+
+    /**
+     * Get the segments no longer appended to, oldest first.
+     * @return The sealed segments.
+     */
+    List<Segment> sealedSegments() {
+        return new ArrayList<>(segments.headMap(active.id).values());
+    }
+
+    /**
+     * Get the size of the segment files.
+     * @return The sum of the sizes of the segment files.
+     */
+    long size() {
+        long size = 0;
+        for (Segment segment : segments.values()) {
+            size += segment.capacity();
+        }
+        return size;
+    }
+
+    /**
+     * Forces the active segment to disk.
+     */
+    void force() {
+        active.buffer.force();
+    }
+
+    /**
+     * Deletes the sealed segments up to the given one, whose live records must have been relocated and forced.
+     * @param segmentId The id of the last segment to delete.
+     * @return The number of bytes of the deleted segment files.
+     * @throws IOException if the marker cannot be written or a segment file cannot be deleted.
+     */
+    long deleteThrough(long segmentId) throws IOException {
+        if (segmentId >= active.id) {
+            throw new IllegalArgumentException("The active segment cannot be deleted");
+        }
+        writeMarker(segmentId);
+        long reclaimed = 0;
+        Map<Long, Segment> deleted = segments.headMap(segmentId, true);
+        for (Segment segment : deleted.values()) {
+            Files.deleteIfExists(segment.path);
+            reclaimed += segment.capacity();
+        }
+        deleted.clear();
+        return reclaimed;
+    }
+
+    /**
+     * Forces the active segment and releases the directory.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (active != null) {
+                active.buffer.force();
+            }
+        } finally {
+            lock.release();
+            lockChannel.close();
+        }
+    }
+
+    /**
+     * Replays the segments in order, deleting those already compacted and truncating the last one after its last
+     * valid frame.
+     */
+    private void recover(FrameVisitor visitor) throws IOException {
+        long compactedThrough = readMarker();
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : paths.toList()) {
+                Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    files.put(Long.parseLong(matcher.group(1)), path);
+                }
+            }
+        }
+        for (Map.Entry<Long, Path> file : files.headMap(compactedThrough, true).entrySet()) {
+            log.info("Deleting segment {}, compacted before the last shutdown", file.getValue());
+            Files.delete(file.getValue());
+        }
+
+        Map<Long, Path> remaining = files.tailMap(compactedThrough, false);
+        for (Map.Entry<Long, Path> file : remaining.entrySet()) {
+            boolean last = file.getKey().equals(files.lastKey());
+            Segment segment = mapSegment(file.getKey(), file.getValue());
+            if (segment.buffer.capacity() < ToDoLogFormat.SEGMENT_HEADER_SIZE
+                    || segment.buffer.getInt(0) != ToDoLogFormat.MAGIC) {
+                if (!last) {
+                    throw new IllegalStateException("Segment " + segment.path + " is not a log segment");
+                }
+                // created right before a crash, its header never reached the disk
+                log.warn("Reinitializing segment {}, whose header is missing", segment.path);
+                Files.delete(segment.path);
+                break;
+            }
+            if (segment.buffer.getInt(Integer.BYTES) != ToDoLogFormat.FORMAT_VERSION) {
+                throw new IllegalStateException("Segment " + segment.path + " has unsupported format version "
+                        + segment.buffer.getInt(Integer.BYTES));
+            }
+            segments.put(segment.id, segment);
+            scan(segment, last, visitor);
+        }
+
+        if (segments.isEmpty()) {
+            long firstId = Math.max(compactedThrough, files.isEmpty() ? 0 : files.lastKey() - 1) + 1;
+            active = createSegment(firstId, segmentSize);
+        } else {
+            active = segments.lastEntry().getValue();
+        }
+    }
+
+    /**
+     * Visits the valid frames of a segment and sets its end.
+     * @param segment The segment.
+     * @param last Whether it is the last segment, the only one allowed to end with a torn frame.
+     * @param visitor The visitor receiving each frame.
+     */
+    private void scan(Segment segment, boolean last, FrameVisitor visitor) {
+        ByteBuffer buffer = segment.buffer;
+        int offset = ToDoLogFormat.SEGMENT_HEADER_SIZE;
+        CRC32C crc = new CRC32C();
+        while (offset + ToDoLogFormat.FRAME_HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            if (length == 0) {
+                break;
+            }
+            int payloadOffset = offset + ToDoLogFormat.FRAME_HEADER_SIZE;
+            boolean valid = length > 0 && length <= buffer.capacity() - payloadOffset;
+            if (valid) {
+                crc.reset();
+                crc.update(buffer.slice(payloadOffset, length));
+                valid = (int) crc.getValue() == buffer.getInt(offset + Integer.BYTES);
+            }
+            if (!valid) {
+                if (!last) {
+                    throw new IllegalStateException("Sealed segment " + segment.path + " is corrupt at offset " + offset);
+                }
+                log.warn("Truncating segment {} at offset {}, after a frame torn by a crash", segment.path, offset);
+                break;
+            }
+            visitor.visit(segment, payloadOffset);
+            offset = payloadOffset + length;
+        }
+        segment.end = offset;
+        if (last) {
+            zeroTail(segment);
+        }
+    }
+
+    /**
+     * Clears whatever a torn write left after the end of the last segment, so that it cannot be mistaken for frames.
+     * @param segment The last segment.
+     */
+    private static void zeroTail(Segment segment) {
+        ByteBuffer buffer = segment.buffer;
+        int dirty = segment.end;
+        while (dirty + Long.BYTES <= buffer.capacity() && buffer.getLong(dirty) == 0) {
+            dirty += Long.BYTES;
+        }
+        while (dirty < buffer.capacity() && buffer.get(dirty) == 0) {
+            dirty++;
+        }
+        if (dirty == buffer.capacity()) {
+            return;
+        }
+        byte[] zeros = new byte[ZEROS_SIZE];
+        for (int offset = dirty; offset < buffer.capacity(); offset += zeros.length) {
+            buffer.put(offset, zeros, 0, Math.min(zeros.length, buffer.capacity() - offset));
+        }
+        segment.buffer.force();
+    }
+
+    private Segment createSegment(long id, int size) throws IOException {
+        Path path = directory.resolve(String.format("todos-%016d.log", id));
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        buffer.putInt(0, ToDoLogFormat.MAGIC);
+        buffer.putInt(Integer.BYTES, ToDoLogFormat.FORMAT_VERSION);
+        buffer.force();
+        Segment segment = new Segment(id, path, buffer);
+        segment.end = ToDoLogFormat.SEGMENT_HEADER_SIZE;
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private static Segment mapSegment(long id, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new Segment(id, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+        }
+    }
+
+    private long readMarker() throws IOException {
+        Path marker = directory.resolve(MARKER_FILE);
+        return Files.exists(marker) ? Long.parseLong(Files.readString(marker, StandardCharsets.US_ASCII).strip()) : 0;
+    }
+
+    /**
+     * Replaces the marker file atomically, so that it always holds a whole id.
+     */
+    private void writeMarker(long segmentId) throws IOException {
+        Path temporary = directory.resolve(MARKER_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(Long.toString(segmentId).getBytes(StandardCharsets.US_ASCII)));
+            channel.force(true);
+        }
+        Files.move(temporary, directory.resolve(MARKER_FILE), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+}
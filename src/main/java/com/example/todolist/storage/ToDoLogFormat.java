@@ -0,0 +1,196 @@
+package com.example.todolist.storage;
+
+import com.example.todolist.entity.ToDo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Binary layout of the log of the embedded store, big-endian throughout.
+ * <p>
+ * A segment starts with an 8 byte header, MAGIC then FORMAT_VERSION, followed by frames. A frame is its payload
+ * length, the CRC32C of the payload, then the payload: its kind, a timestamp in epoch microseconds, the number of
+ * operations and the operations. A put operation carries a whole _ToDo_ record and a delete operation its id only.
+ * The zero bytes following the last frame of a segment read as a zero length, which ends the segment.
+ */
+final class ToDoLogFormat {
+
+    static final int MAGIC = 0x54444C47; // "TDLG"
+    static final int FORMAT_VERSION = 1;
+    static final int SEGMENT_HEADER_SIZE = 8;
+    static final int FRAME_HEADER_SIZE = 8;
+
+    /** Frame of committed changes; its timestamp is the commit time. */
+    static final byte KIND_COMMIT = 0;
+    /** Frame of records relocated by compaction; its timestamp is the one of the last commit. */
+    static final byte KIND_COMPACTION = 1;
+
+    static final byte OP_PUT = 1;
+    static final byte OP_DELETE = 2;
+
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final int NULL_LENGTH = -1;
+
+    private ToDoLogFormat() {
+    }
+
+    /**
+     * Builder of one frame payload.
+     */
+    static final class PayloadWriter {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private int opCount;
+
+        /**
+         * Starts a payload.
+         * @param kind KIND_COMMIT or KIND_COMPACTION.
+         * @param micros The timestamp of the frame, in epoch microseconds.
+         */
+        PayloadWriter(byte kind, long micros) {
+            try {
+                out.writeByte(kind);
+                out.writeLong(micros);
+                out.writeInt(0); // operation count, patched by toByteArray
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Appends the put operation of a record.
+         * @param toDo The record, with its id, version and updatedAt set.
+         */
+        void put(ToDo toDo) {
+            try {
+                out.writeByte(OP_PUT);
+                out.writeLong(toDo.getToDoId().getMostSignificantBits());
+                out.writeLong(toDo.getToDoId().getLeastSignificantBits());
+                out.writeLong(toDo.getVersion());
+                out.writeLong(toDo.getUpdatedAt() == null ? NULL_LONG
+                        : ChronoUnit.MICROS.between(Instant.EPOCH, toDo.getUpdatedAt()));
+                out.writeLong(toDo.getDueDate() == null ? NULL_LONG : toDo.getDueDate().toEpochDay());
+                writeString(toDo.getTitle());
+                writeString(toDo.getDescription());
+                opCount++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Appends the delete operation of a record.
+         * @param id The unique identifier of the deleted record.
+         */
+        void delete(UUID id) {
+            try {
+                out.writeByte(OP_DELETE);
+                out.writeLong(id.getMostSignificantBits());
+                out.writeLong(id.getLeastSignificantBits());
+                opCount++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        int opCount() {
+            return opCount;
+        }
+
+        byte[] toByteArray() {
+            byte[] payload = bytes.toByteArray();
+            ByteBuffer.wrap(payload).putInt(1 + Long.BYTES, opCount);
+            return payload;
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                out.writeInt(NULL_LENGTH);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(utf8.length);
+            out.write(utf8);
+        }
+    }
+
+    /**
+     * Operation read back from a payload, without its strings.
+     * @param type OP_PUT or OP_DELETE.
+     * @param id The unique identifier of the record.
+     * @param version The version of the put record, or 0 for a delete.
+     * @param dueDate The due date of the put record, or null.
+     * @param offset The offset of the operation inside the segment.
+     * @param length The length of the operation in bytes.
+     */
+    record Op(byte type, UUID id, long version, LocalDate dueDate, int offset, int length) {
+    }
+
+    /**
+     * Reads the operation starting at the given offset of a segment.
+     * @param segment The segment buffer.
+     * @param offset The offset of the operation.
+     * @return The operation.
+     * @throws IllegalStateException if the operation type is unknown.
+     */
+    static Op readOp(ByteBuffer segment, int offset) {
+        byte type = segment.get(offset);
+        UUID id = new UUID(segment.getLong(offset + 1), segment.getLong(offset + 9));
+        if (type == OP_DELETE) {
+            return new Op(type, id, 0, null, offset, 17);
+        }
+        if (type != OP_PUT) {
+            throw new IllegalStateException("Unknown log operation " + type + " at offset " + offset);
+        }
+        long version = segment.getLong(offset + 17);
+        long dueDate = segment.getLong(offset + 33);
+        int position = offset + 41;
+        int titleLength = segment.getInt(position);
+        position += Integer.BYTES + Math.max(titleLength, 0);
+        int descriptionLength = segment.getInt(position);
+        position += Integer.BYTES + Math.max(descriptionLength, 0);
+        return new Op(type, id, version, dueDate == NULL_LONG ? null : LocalDate.ofEpochDay(dueDate), offset,
+                position - offset);
+    }
+
+    /**
+     * Decodes the record of the put operation starting at the given offset of a segment.
+     * @param segment The segment buffer.
+     * @param offset The offset of the put operation.
+     * @return A new _ToDo_ entity.
+     */
+    static ToDo readToDo(ByteBuffer segment, int offset) {
+        ToDo toDo = new ToDo();
+        toDo.setToDoId(new UUID(segment.getLong(offset + 1), segment.getLong(offset + 9)));
+        toDo.setVersion(segment.getLong(offset + 17));
+        long updatedAt = segment.getLong(offset + 25);
+        toDo.setUpdatedAt(updatedAt == NULL_LONG ? null : Instant.EPOCH.plus(updatedAt, ChronoUnit.MICROS));
+        long dueDate = segment.getLong(offset + 33);
+        toDo.setDueDate(dueDate == NULL_LONG ? null : LocalDate.ofEpochDay(dueDate));
+        int position = offset + 41;
+        String title = readString(segment, position);
+        position += Integer.BYTES + (title == null ? 0 : segment.getInt(position));
+        toDo.setTitle(title);
+        toDo.setDescription(readString(segment, position));
+        return toDo;
+    }
+
+    private static String readString(ByteBuffer segment, int position) {
+        int length = segment.getInt(position);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        segment.get(position + Integer.BYTES, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,10 @@
+-- Schema used by the tests and benchmarks; H2 has no trigram indexes, so the text search scans.
+CREATE TABLE IF NOT EXISTS tb_todos (
+    to_do_id    uuid         NOT NULL,
+    title       varchar(255),
+    description varchar(255),
+    due_date    date,
+    CONSTRAINT tb_todos_pkey PRIMARY KEY (to_do_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_todos_due_date_id ON tb_todos (due_date, to_do_id);
@@ -0,0 +1,10 @@
+-- Changes of _ToDo_ records written in the same transaction as the change, until ToDoOutboxRelay publishes them.
+-- message_id is a UUIDv7, so the primary key index also serves the relay's oldest-first order.
+CREATE TABLE IF NOT EXISTS tb_todo_outbox (
+    message_id  uuid                        NOT NULL,
+    event_type  varchar(16)                 NOT NULL,
+    to_do_id    uuid                        NOT NULL,
+    payload     varchar(2048)               NOT NULL,
+    created_at  timestamp(6) with time zone NOT NULL,
+    CONSTRAINT tb_todo_outbox_pkey PRIMARY KEY (message_id)
+);
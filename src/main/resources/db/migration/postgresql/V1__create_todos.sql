@@ -0,0 +1,12 @@
+-- Baseline of the schema previously created by hibernate.ddl-auto=update.
+-- Existing databases are baselined at this version by spring.flyway.baseline-on-migrate.
+CREATE TABLE IF NOT EXISTS tb_todos (
+    to_do_id    uuid         NOT NULL,
+    title       varchar(255),
+    description varchar(255),
+    due_date    date,
+    CONSTRAINT tb_todos_pkey PRIMARY KEY (to_do_id)
+);
+
+-- Keyset pagination order; also serves due_date range filters as its leading column
+CREATE INDEX IF NOT EXISTS idx_todos_due_date_id ON tb_todos (due_date, to_do_id);
@@ -0,0 +1,7 @@
+-- Trigram indexes serving the case insensitive "lower(column) LIKE '%text%'" search of GET /todos?q=.
+-- Built concurrently, so writes are not blocked on large tables; Flyway runs this migration outside a transaction.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_todos_title_trgm
+    ON tb_todos USING gin (lower(title) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_todos_description_trgm
+    ON tb_todos USING gin (lower(description) gin_trgm_ops);
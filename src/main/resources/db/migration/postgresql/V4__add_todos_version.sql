@@ -0,0 +1,4 @@
+-- Row version and last change instant, backing the ETag and Last-Modified headers.
+-- Non-volatile defaults, so PostgreSQL adds the columns without rewriting existing rows.
+ALTER TABLE tb_todos ADD COLUMN version bigint NOT NULL DEFAULT 0;
+ALTER TABLE tb_todos ADD COLUMN updated_at timestamp(6) with time zone NOT NULL DEFAULT current_timestamp;
@@ -0,0 +1,17 @@
+-- One row per shard of the due-date reminders, leased by the ToDoReminderScheduler of one instance at a time.
+-- A _ToDo_ record belongs to the shard of the hash of its id; fired_through is the instant up to which the reminders
+-- of the shard were fired, from which the next owner catches up.
+CREATE TABLE IF NOT EXISTS tb_reminder_leases (
+    shard         integer                     NOT NULL,
+    lease_owner   varchar(64),
+    expires_at    timestamp(6) with time zone,
+    fired_through timestamp(6) with time zone,
+    CONSTRAINT tb_reminder_leases_pkey PRIMARY KEY (shard)
+);
+
+-- Instances running the reminders, renewed with their leases, so that one holding no shard yet counts in the share.
+CREATE TABLE IF NOT EXISTS tb_reminder_members (
+    member_name varchar(64)                 NOT NULL,
+    expires_at  timestamp(6) with time zone NOT NULL,
+    CONSTRAINT tb_reminder_members_pkey PRIMARY KEY (member_name)
+);
@@ -0,0 +1,3 @@
+-- Keyset pagination and due_date range index, created by V1 on new databases only: databases baselined at V1 get it
+-- here if the schema they came with lacked it.
+CREATE INDEX IF NOT EXISTS idx_todos_due_date_id ON tb_todos (due_date, to_do_id);
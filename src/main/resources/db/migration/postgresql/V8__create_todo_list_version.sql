@@ -0,0 +1,11 @@
+-- Version of the whole _ToDo_ list, incremented in the transaction of every write to tb_todos, so that the list
+-- ETag costs one primary key read instead of an aggregate over every row. A version becomes visible with the
+-- changes it stands for, as both commit together.
+CREATE TABLE IF NOT EXISTS tb_todo_list_version (
+    id      integer NOT NULL,
+    version bigint  NOT NULL,
+    CONSTRAINT tb_todo_list_version_pkey PRIMARY KEY (id)
+);
+
+INSERT INTO tb_todo_list_version (id, version)
+SELECT 1, 0 WHERE NOT EXISTS (SELECT 1 FROM tb_todo_list_version WHERE id = 1);
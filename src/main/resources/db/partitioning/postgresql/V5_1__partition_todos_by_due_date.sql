@@ -0,0 +1,35 @@
+-- Opt-in migration, applied only when classpath:db/partitioning/{vendor} is added to spring.flyway.locations:
+-- rebuilds tb_todos as a table partitioned by due_date range, so that date windows scan only their partitions and
+-- vacuum and index maintenance work on one partition at a time.
+-- All rows are copied into the default partition under an exclusive lock, so run it in a maintenance window;
+-- ToDoPartitionMaintainer then moves them into monthly partitions.
+ALTER TABLE tb_todos RENAME TO tb_todos_unpartitioned;
+ALTER TABLE tb_todos_unpartitioned RENAME CONSTRAINT tb_todos_pkey TO tb_todos_unpartitioned_pkey;
+DROP INDEX IF EXISTS idx_todos_due_date_id;
+DROP INDEX IF EXISTS idx_todos_title_trgm;
+DROP INDEX IF EXISTS idx_todos_description_trgm;
+
+-- The partition key must belong to the primary key, and therefore may not be null
+CREATE TABLE tb_todos (
+    to_do_id    uuid                        NOT NULL,
+    title       varchar(255),
+    description varchar(255),
+    due_date    date                        NOT NULL,
+    version     bigint                      NOT NULL DEFAULT 0,
+    updated_at  timestamp(6) with time zone NOT NULL DEFAULT current_timestamp,
+    CONSTRAINT tb_todos_pkey PRIMARY KEY (to_do_id, due_date)
+) PARTITION BY RANGE (due_date);
+
+CREATE TABLE tb_todos_default PARTITION OF tb_todos DEFAULT;
+
+-- Created on the partitioned table, hence on every partition, including those attached later
+CREATE INDEX idx_todos_due_date_id ON tb_todos (due_date, to_do_id);
+CREATE INDEX idx_todos_title_trgm ON tb_todos USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX idx_todos_description_trgm ON tb_todos USING gin (lower(description) gin_trgm_ops);
+
+-- Records created before due dates were required are kept as due today
+INSERT INTO tb_todos (to_do_id, title, description, due_date, version, updated_at)
+SELECT to_do_id, title, description, coalesce(due_date, current_date), version, updated_at
+FROM tb_todos_unpartitioned;
+
+DROP TABLE tb_todos_unpartitioned;
@@ -0,0 +1,310 @@
+package com.example.todolist;
+
+import com.example.todolist.dtos.ToDoCursor;
+import com.example.todolist.dtos.ToDoFilter;
+import com.example.todolist.dtos.ToDoListVersion;
+import com.example.todolist.dtos.ToDoPage;
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.exceptions.ToDoVersionMismatchException;
+import com.example.todolist.repository.ToDoStore;
+import com.example.todolist.service.ToDoService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class contains the integration tests of the ToDoService class shared by every ToDoStore, run by
+ * ToDoServiceTests against H2, by PostgresToDoServiceTests against PostgreSQL and by EmbeddedToDoServiceTests
+ * against the embedded store.
+ */
+public abstract class AbstractToDoServiceTests {
+    // Dependencies
+    @Autowired protected ToDoService service;
+    @Autowired protected ToDoStore store;
+
+    // Test data
+    protected List<ToDo> savedToDos;
+
+    /**
+     * Empties the store, as the inherited tests run outside a test transaction and their changes are committed,
+     * then saves a few _ToDo_ entities sharing due dates, so that ordering has to fall back on the id.
+     */
+    @BeforeEach
+    public void setUp() {
+        List<UUID> ids = new ArrayList<>();
+        service.export(toDo -> ids.add(toDo.getToDoId()));
+        service.deleteAll(ids);
+
+        savedToDos = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < 7; i++) {
+            ToDo toDo = new ToDo();
+            toDo.setTitle("Task " + i);
+            toDo.setDescription("Testing keyset pagination.");
+            toDo.setDueDate(today.plusDays(i % 3));
+            savedToDos.add(store.create(toDo));
+        }
+        // the database orders uuids byte-wise, which matches their canonical string form and not UUID.compareTo
+        savedToDos.sort(Comparator.comparing(ToDo::getDueDate).thenComparing(toDo -> toDo.getToDoId().toString()));
+    }
+
+    /**
+     * Test case to verify that following the cursors visits every _ToDo_ exactly once and in order.
+     */
+    @Test
+    public void testGetListShouldWalkAllPagesInOrder() {
+        List<UUID> visited = new ArrayList<>();
+        ToDoCursor cursor = null;
+        int pages = 0;
+        do {
+            ToDoPage page = service.getList(cursor, 3);
+            page.content().forEach(toDo -> visited.add(toDo.getToDoId()));
+            cursor = page.next();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(savedToDos.stream().map(ToDo::getToDoId).toList(), visited);
+    }
+
+    /**
+     * Test case to verify that the _ToDo_ entities without a due date come last, ordered by id, in the pages of the
+     * plain and of the text filtered list alike, and are left out of due date ranges.
+     */
+    @Test
+    public void testGetListShouldPageToDosWithoutDueDateLast() {
+        List<ToDo> undated = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ToDo toDo = new ToDo();
+            toDo.setTitle("Someday " + i);
+            toDo.setDescription("Testing keyset pagination.");
+            undated.add(store.create(toDo));
+        }
+        undated.sort(Comparator.comparing(toDo -> toDo.getToDoId().toString()));
+        List<UUID> expected = new ArrayList<>(savedToDos.stream().map(ToDo::getToDoId).toList());
+        undated.forEach(toDo -> expected.add(toDo.getToDoId()));
+        LocalDate today = LocalDate.now();
+
+        for (ToDoFilter filter : List.of(ToDoFilter.NONE, ToDoFilter.of(null, null, null, null, "keyset", today))) {
+            List<UUID> visited = new ArrayList<>();
+            ToDoCursor cursor = null;
+            do {
+                ToDoPage page = service.getList(filter, cursor, 2);
+                page.content().forEach(toDo -> visited.add(toDo.getToDoId()));
+                cursor = page.next() == null ? null : ToDoCursor.decode(page.next().encode());
+            } while (cursor != null);
+            assertEquals(expected, visited);
+        }
+        assertEquals(savedToDos.size(), service.getList(ToDoFilter.of(today, null, null, null, null, today), null, 20)
+                .content().size());
+    }
+
+    /**
+     * Test case to verify that the page size is clamped to the allowed range.
+     */
+    @Test
+    public void testGetListShouldClampPageSize() {
+        assertEquals(1, service.getList(null, 0).content().size());
+        assertEquals(savedToDos.size(), service.getList(null, Integer.MAX_VALUE).content().size());
+    }
+
+    /**
+     * Test case to verify that a due date range is applied across every page of the filtered list.
+     */
+    @Test
+    public void testGetListShouldFilterByDueDateAcrossPages() {
+        LocalDate today = LocalDate.now();
+        ToDoFilter filter = ToDoFilter.of(today.plusDays(1), today.plusDays(2), null, null, null, today);
+
+        List<UUID> visited = new ArrayList<>();
+        ToDoCursor cursor = null;
+        do {
+            ToDoPage page = service.getList(filter, cursor, 2);
+            page.content().forEach(toDo -> visited.add(toDo.getToDoId()));
+            cursor = page.next();
+        } while (cursor != null);
+
+        assertEquals(savedToDos.stream().filter(toDo -> toDo.getDueDate().isAfter(today))
+                .map(ToDo::getToDoId).toList(), visited);
+    }
+
+    /**
+     * Test case to verify the overdue and upcoming windows.
+     */
+    @Test
+    public void testGetListShouldFilterByWindow() {
+        LocalDate today = LocalDate.now();
+
+        assertTrue(service.getList(ToDoFilter.of(null, null, ToDoFilter.WINDOW_OVERDUE, null, null, today), null, 10)
+                .content().isEmpty());
+        assertEquals(5, service.getList(ToDoFilter.of(null, null, ToDoFilter.WINDOW_UPCOMING, 1, null, today), null, 10)
+                .content().size());
+    }
+
+    /**
+     * Test case to verify the case insensitive text search, with LIKE wildcards matched literally.
+     */
+    @Test
+    public void testGetListShouldSearchTitleAndDescription() {
+        ToDo toDo = new ToDo();
+        toDo.setTitle("Pay 100% of the rent");
+        toDo.setDescription("Before the 5th.");
+        toDo.setDueDate(LocalDate.now());
+        store.create(toDo);
+
+        LocalDate today = LocalDate.now();
+        assertEquals(List.of(toDo.getToDoId()), service.getList(ToDoFilter.of(null, null, null, null, "100%", today), null, 10)
+                .content().stream().map(ToDo::getToDoId).toList());
+        assertEquals(1, service.getList(ToDoFilter.of(null, null, null, null, "BEFORE THE", today), null, 10)
+                .content().size());
+        assertEquals(savedToDos.size(), service.getList(ToDoFilter.of(null, null, null, null, "keyset", today), null, 10)
+                .content().size());
+        assertTrue(service.getList(ToDoFilter.of(null, null, null, null, "Task_", today), null, 10).content().isEmpty());
+    }
+
+    /**
+     * Test case to verify that updates increment the version and honour the expected one.
+     */
+    @Test
+    public void testUpdateShouldIncrementAndCheckVersion() {
+        ToDo toDo = savedToDos.get(0);
+        long version = store.findById(toDo.getToDoId()).orElseThrow().getVersion();
+        ToDo changes = new ToDo();
+        changes.setToDoId(toDo.getToDoId());
+        changes.setTitle("Changed");
+        changes.setDescription(toDo.getDescription());
+        changes.setDueDate(toDo.getDueDate());
+
+        ToDo updatedToDo = service.update(changes, version).orElseThrow();
+
+        assertEquals(version + 1, updatedToDo.getVersion());
+        assertNotNull(updatedToDo.getUpdatedAt());
+        assertThrows(ToDoVersionMismatchException.class, () -> service.update(changes, version));
+        assertThrows(ToDoVersionMismatchException.class, () -> service.delete(toDo.getToDoId(), version));
+        assertTrue(service.update(changes, null).isPresent());
+        changes.setToDoId(UUID.randomUUID());
+        assertTrue(service.update(changes, 0L).isEmpty());
+        assertTrue(service.delete(UUID.randomUUID(), 0L).isEmpty());
+        assertTrue(service.delete(toDo.getToDoId(), version + 2).isPresent());
+    }
+
+    /**
+     * Test case to verify that the list version increases on every insert, update and delete, and stays put when a
+     * write changed nothing.
+     */
+    @Test
+    public void testListVersionShouldChangeOnEveryWrite() {
+        ToDoListVersion initial = service.getListVersion();
+
+        ToDo toDo = savedToDos.get(0);
+        toDo.setTitle("Changed");
+        service.update(toDo, null);
+        ToDoListVersion updated = service.getListVersion();
+        assertTrue(updated.version() > initial.version());
+        assertNotEquals(initial.eTag(null, "json"), updated.eTag(null, "json"));
+
+        service.delete(toDo.getToDoId(), null);
+        ToDoListVersion deleted = service.getListVersion();
+        assertTrue(deleted.version() > updated.version());
+
+        ToDo created = new ToDo();
+        created.setTitle("Created");
+        created.setDescription("Changes the list version.");
+        service.saveAll(List.of(created));
+        ToDoListVersion inserted = service.getListVersion();
+        assertTrue(inserted.version() > deleted.version());
+
+        assertTrue(service.delete(UUID.randomUUID(), null).isEmpty());
+        assertTrue(service.deleteAll(List.of(UUID.randomUUID())).isEmpty());
+        assertEquals(inserted, service.getListVersion());
+    }
+
+    /**
+     * Test case to verify that a cursor survives the encode/decode round trip.
+     */
+    @Test
+    public void testCursorShouldRoundTrip() {
+        ToDoCursor cursor = ToDoCursor.after(savedToDos.get(0));
+
+        assertEquals(cursor, ToDoCursor.decode(cursor.encode()));
+        ToDoCursor withoutDueDate = new ToDoCursor(null, savedToDos.get(0).getToDoId());
+        assertEquals(withoutDueDate, ToDoCursor.decode(withoutDueDate.encode()));
+    }
+
+    /**
+     * Test case to verify that the export streams every _ToDo_ in order.
+     */
+    @Test
+    public void testExportShouldStreamAllToDos() {
+        List<UUID> exported = new ArrayList<>();
+        service.export(toDo -> exported.add(toDo.getToDoId()));
+
+        assertEquals(savedToDos.stream().map(ToDo::getToDoId).toList(), exported);
+    }
+
+    /**
+     * Test case to verify that a bulk save assigns ids and persists every _ToDo_.
+     */
+    @Test
+    public void testSaveAllShouldPersistEveryToDo() {
+        List<ToDo> newToDos = new ArrayList<>();
+        for (int i = 0; i < ToDoService.JDBC_BATCH_SIZE + 5; i++) {
+            ToDo toDo = new ToDo();
+            toDo.setTitle("Imported " + i);
+            toDo.setDescription("Testing bulk creation.");
+            toDo.setDueDate(LocalDate.now());
+            newToDos.add(toDo);
+        }
+
+        List<ToDo> saved = service.saveAll(newToDos);
+
+        assertTrue(saved.stream().allMatch(toDo -> toDo.getToDoId().version() == 7));
+        assertEquals(savedToDos.size() + newToDos.size(), store.count());
+    }
+
+    /**
+     * Test case to verify that a bulk update changes known _ToDo_ entities and reports unknown ones.
+     */
+    @Test
+    public void testUpdateAllShouldUpdateKnownToDos() {
+        ToDo known = new ToDo();
+        known.setToDoId(savedToDos.get(0).getToDoId());
+        known.setTitle("Renamed");
+        known.setDescription("Testing bulk update.");
+        known.setDueDate(LocalDate.now().plusDays(10));
+        ToDo unknown = new ToDo();
+        unknown.setToDoId(UUID.randomUUID());
+
+        List<Optional<ToDo>> updated = service.updateAll(List.of(known, unknown));
+
+        assertTrue(updated.get(0).isPresent());
+        assertTrue(updated.get(1).isEmpty());
+        assertEquals("Renamed", store.findById(known.getToDoId()).orElseThrow().getTitle());
+    }
+
+    /**
+     * Test case to verify that a bulk delete removes known _ToDo_ entities only.
+     */
+    @Test
+    public void testDeleteAllShouldReturnDeletedIds() {
+        UUID knownId = savedToDos.get(0).getToDoId();
+        UUID unknownId = UUID.randomUUID();
+
+        Set<UUID> deleted = service.deleteAll(List.of(knownId, unknownId));
+
+        assertEquals(Set.of(knownId), deleted);
+        assertFalse(store.existsById(knownId));
+        assertEquals(savedToDos.size() - 1, store.count());
+    }
+}
\ No newline at end of file
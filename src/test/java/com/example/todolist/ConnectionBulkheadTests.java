@@ -0,0 +1,80 @@
+package com.example.todolist;
+
+import com.example.todolist.datasource.ConnectionBulkhead;
+import com.example.todolist.exceptions.ConnectionBulkheadFullException;
+import org.h2.jdbcx.JdbcDataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class contains unit tests for the ConnectionBulkhead placed in front of the connection pool.
+ */
+public class ConnectionBulkheadTests {
+    // Dependencies
+    private ConnectionBulkhead bulkhead;
+
+    /**
+     * Creates a bulkhead of two permits in front of an in-memory database.
+     */
+    @BeforeEach
+    public void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:bulkhead");
+        bulkhead = new ConnectionBulkhead(dataSource, 2, Duration.ofMillis(50), 1);
+    }
+
+    /**
+     * Test case to verify that callers beyond the permits fail fast once the wait time is over.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testGetConnectionBeyondPermitsShouldFail() throws Exception {
+        try (Connection first = bulkhead.getConnection(); Connection second = bulkhead.getConnection()) {
+            assertEquals(0, bulkhead.getAvailablePermits());
+            assertThrows(ConnectionBulkheadFullException.class, bulkhead::getConnection);
+        }
+
+        assertEquals(2, bulkhead.getAvailablePermits());
+    }
+
+    /**
+     * Test case to verify that callers beyond the waiting limit are rejected without waiting.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testGetConnectionBeyondWaitingLimitShouldFailAtOnce() throws Exception {
+        bulkhead = new ConnectionBulkhead(bulkhead.getTargetDataSource(), 1, Duration.ofSeconds(10), 0);
+        try (Connection first = bulkhead.getConnection()) {
+            long start = System.nanoTime();
+            assertThrows(ConnectionBulkheadFullException.class, bulkhead::getConnection);
+            assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+        }
+
+        assertEquals(1, bulkhead.getAvailablePermits());
+    }
+
+    /**
+     * Test case to verify that closing a connection twice gives its permit back only once.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testCloseTwiceShouldReleaseOnce() throws Exception {
+        Connection connection = bulkhead.getConnection();
+        assertTrue(connection.isValid(1));
+
+        connection.close();
+        connection.close();
+
+        assertEquals(2, bulkhead.getAvailablePermits());
+        assertTrue(connection.isClosed());
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.todolist;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+
+/**
+ * This class runs the integration tests of the ToDoService class against the embedded store of the "embedded"
+ * profile, whose log is kept in a temporary directory.
+ */
+@SpringBootTest
+@ActiveProfiles("embedded")
+public class EmbeddedToDoServiceTests extends AbstractToDoServiceTests {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void storageProperties(DynamicPropertyRegistry registry) {
+        registry.add("todo.storage.embedded.directory", directory::toString);
+        registry.add("todo.storage.embedded.fsync", () -> "false");
+    }
+}
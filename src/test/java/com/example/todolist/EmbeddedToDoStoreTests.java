@@ -0,0 +1,178 @@
+package com.example.todolist;
+
+import com.example.todolist.dtos.ToDoFilter;
+import com.example.todolist.dtos.ToDoListVersion;
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.id.UuidV7Generator;
+import com.example.todolist.metrics.ToDoMetrics;
+import com.example.todolist.storage.EmbeddedToDoStore;
+import com.example.todolist.storage.EmbeddedTransactionManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.example.todolist.ToDoFixtures.newToDo;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class contains tests for the log of EmbeddedToDoStore: recovery on reopening, truncation of a frame torn by a
+ * crash, compaction and transactions.
+ */
+public class EmbeddedToDoStoreTests {
+    // Dependencies
+    @TempDir private Path directory;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Test data
+    private EmbeddedToDoStore store;
+
+    /**
+     * Closes the store left open by a test.
+     */
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (store != null) {
+            store.destroy();
+        }
+    }
+
+    /**
+     * Test case to verify that reopening the log restores the committed records and the list version.
+     */
+    @Test
+    public void testReopenShouldRecoverCommittedState() throws IOException {
+        store = open(DataSize.ofMegabytes(1));
+        ToDo kept = store.create(newToDo("Kept", LocalDate.now()));
+        ToDo deleted = store.create(newToDo("Deleted", null));
+        kept.setTitle("Renamed");
+        store.update(kept, 0L);
+        store.delete(deleted.getToDoId(), null);
+        ToDoListVersion version = store.findListVersion();
+
+        reopen(DataSize.ofMegabytes(1));
+
+        ToDo recovered = store.findById(kept.getToDoId()).orElseThrow();
+        assertEquals("Renamed", recovered.getTitle());
+        assertEquals(1L, recovered.getVersion());
+        assertFalse(store.existsById(deleted.getToDoId()));
+        assertEquals(version, store.findListVersion());
+    }
+
+    /**
+     * Test case to verify that a torn last frame is dropped on reopening, and that appends continue after the last
+     * valid frame.
+     */
+    @Test
+    public void testTornFrameShouldBeTruncated() throws IOException {
+        store = open(DataSize.ofMegabytes(1));
+        ToDo committed = store.create(newToDo("Committed", LocalDate.now()));
+        ToDo torn = store.create(newToDo("Torn", LocalDate.now()));
+        store.destroy();
+        store = null;
+
+        // flip the last byte of the last frame, as if the crash happened while it was written
+        Path segment = segments().get(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        int last = bytes.length - 1;
+        while (bytes[last] == 0) {
+            last--;
+        }
+        bytes[last] ^= 0x5A;
+        Files.write(segment, bytes);
+
+        store = open(DataSize.ofMegabytes(1));
+        assertTrue(store.existsById(committed.getToDoId()));
+        assertFalse(store.existsById(torn.getToDoId()));
+
+        ToDo appended = store.create(newToDo("Appended", LocalDate.now()));
+        reopen(DataSize.ofMegabytes(1));
+        assertEquals(2, store.count());
+        assertTrue(store.existsById(appended.getToDoId()));
+    }
+
+    /**
+     * Test case to verify that compaction deletes the sealed segments once they are mostly dead, keeping the latest
+     * version of every record.
+     */
+    @Test
+    public void testCompactionShouldReclaimDeadSegments() throws IOException {
+        store = open(DataSize.ofKilobytes(4));
+        ToDo toDo = store.create(newToDo("Rewritten", LocalDate.now()));
+        ToDo untouched = store.create(newToDo("Untouched", LocalDate.now().plusDays(1)));
+        for (int i = 0; i < 200; i++) {
+            toDo.setTitle("Rewritten " + i);
+            store.update(toDo, null);
+        }
+        int segmentsBefore = segments().size();
+
+        long reclaimed = store.compact();
+
+        assertTrue(segmentsBefore > 2);
+        assertTrue(reclaimed > 0);
+        assertTrue(segments().size() < segmentsBefore);
+        assertEquals(reclaimed, meterRegistry.get("todo.storage.compaction.reclaimed").counter().count());
+
+        reopen(DataSize.ofKilobytes(4));
+        assertEquals("Rewritten 199", store.findById(toDo.getToDoId()).orElseThrow().getTitle());
+        assertEquals(200L, store.findById(toDo.getToDoId()).orElseThrow().getVersion());
+        assertEquals("Untouched", store.findById(untouched.getToDoId()).orElseThrow().getTitle());
+        assertEquals(2, store.count());
+    }
+
+    /**
+     * Test case to verify that a write transaction sees its own changes, hides them from the store until it
+     * commits, and drops them when rolled back.
+     */
+    @Test
+    public void testTransactionShouldCommitOrRollBackAsOne() {
+        store = open(DataSize.ofMegabytes(1));
+        TransactionTemplate transaction = new TransactionTemplate(new EmbeddedTransactionManager(store));
+
+        UUID rolledBackId = transaction.execute(status -> {
+            ToDo toDo = store.create(newToDo("Rolled back", null));
+            assertTrue(store.existsById(toDo.getToDoId()));
+            assertEquals(0, store.count());
+            status.setRollbackOnly();
+            return toDo.getToDoId();
+        });
+        List<ToDo> committed = transaction.execute(status -> {
+            List<ToDo> toDos = List.of(newToDo("First", null), newToDo("Second", null));
+            store.createAll(toDos);
+            return toDos;
+        });
+
+        assertFalse(store.existsById(rolledBackId));
+        assertEquals(2, store.count());
+        // without due date, the records are listed in the byte-wise order of their ids
+        assertEquals(committed.stream().map(toDo -> toDo.getToDoId().toString()).sorted().toList(),
+                store.findPage(ToDoFilter.NONE, null, 10).stream().map(toDo -> toDo.getToDoId().toString()).toList());
+    }
+
+    private EmbeddedToDoStore open(DataSize segmentSize) {
+        return new EmbeddedToDoStore(directory, segmentSize, false, 0.5, new UuidV7Generator(),
+                new ToDoMetrics(meterRegistry));
+    }
+
+    private void reopen(DataSize segmentSize) throws IOException {
+        store.destroy();
+        store = open(segmentSize);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.todolist;
+
+import com.example.todolist.reminder.HierarchicalTimingWheel;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class contains tests for HierarchicalTimingWheel: expiry across the levels of the wheel, rescheduling and
+ * cancelling, checked against the deadlines themselves.
+ */
+public class HierarchicalTimingWheelTests {
+
+    private static final long START = 1_700_000_000_000L;
+
+    /**
+     * Test case to verify that keys expire on the first tick at or after their deadline, whichever level of the
+     * wheel they waited in, and in deadline order.
+     */
+    @Test
+    public void testKeysShouldExpireOnTheirTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(Duration.ofMillis(10), 8, START);
+        wheel.schedule("level 0", START + 25);
+        wheel.schedule("level 1", START + 500);
+        wheel.schedule("level 3", START + 10 * 8 * 8 * 8 * 3 + 7);
+        List<String> expired = new ArrayList<>();
+
+        wheel.advance(START + 29, (key, deadline) -> expired.add(key));
+        assertEquals(List.of(), expired);
+        wheel.advance(START + 30, (key, deadline) -> expired.add(key));
+        assertEquals(List.of("level 0"), expired);
+        wheel.advance(START + 499, (key, deadline) -> expired.add(key));
+        assertEquals(List.of("level 0"), expired);
+        wheel.advance(START + 500, (key, deadline) -> expired.add(key));
+        assertEquals(List.of("level 0", "level 1"), expired);
+        wheel.advance(START + 15_360, (key, deadline) -> expired.add(key));
+        assertEquals(List.of("level 0", "level 1"), expired);
+        wheel.advance(START + 15_370, (key, deadline) -> expired.add(key));
+        assertEquals(List.of("level 0", "level 1", "level 3"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    /**
+     * Test case to verify that rescheduling replaces the deadline, that cancelled keys never expire, and that
+     * deadlines already passed expire on the next advance.
+     */
+    @Test
+    public void testRescheduleAndCancelShouldReplaceTheDeadline() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(Duration.ofMillis(10), 8, START);
+        wheel.schedule("moved", START + 5_000);
+        wheel.schedule("moved", START + 40);
+        wheel.schedule("cancelled", START + 40);
+        wheel.schedule("overdue", START - 1_000);
+        assertTrue(wheel.cancel("cancelled"));
+        assertFalse(wheel.cancel("cancelled"));
+        assertEquals(2, wheel.size());
+
+        Map<String, Long> expired = new HashMap<>();
+        wheel.advance(START, expired::put);
+        assertEquals(Map.of("overdue", START - 1_000), expired);
+        wheel.advance(START + 10_000, expired::put);
+        assertEquals(Map.of("overdue", START - 1_000, "moved", START + 40), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    /**
+     * Test case to verify, over random deadlines, reschedules and cancels, that every key expires exactly once, on
+     * the first tick at or after its last deadline.
+     */
+    @Test
+    public void testRandomScheduleShouldMatchDeadlines() {
+        long tick = 10;
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(Duration.ofMillis(tick), 16, START);
+        Random random = new Random(42);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int key = 0; key < 5_000; key++) {
+            long deadline = START + random.nextLong(10_000_000);
+            wheel.schedule(key, deadline);
+            deadlines.put(key, deadline);
+        }
+        for (int key = 0; key < 5_000; key += 7) {
+            long deadline = START + random.nextLong(10_000_000);
+            wheel.schedule(key, deadline);
+            deadlines.put(key, deadline);
+        }
+        for (int key = 3; key < 5_000; key += 11) {
+            wheel.cancel(key);
+            deadlines.remove(key);
+        }
+
+        Map<Integer, Long> expired = new HashMap<>();
+        long now = START;
+        while (now < START + 10_100_000) {
+            now += random.nextLong(50_000);
+            long reached = Math.floorDiv(now, tick) * tick;
+            wheel.advance(now, (key, deadline) -> {
+                assertNull(expired.put(key, deadline), "expired twice");
+                assertTrue(Math.ceilDiv(deadline, tick) * tick <= reached, "expired early");
+            });
+            for (Map.Entry<Integer, Long> entry : deadlines.entrySet()) {
+                if (Math.ceilDiv(entry.getValue(), tick) * tick <= reached) {
+                    assertEquals(entry.getValue(), expired.get(entry.getKey()), "not expired on time");
+                }
+            }
+        }
+        assertEquals(deadlines, expired);
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.todolist;
+
+import com.example.todolist.id.UuidV7Generator;
+import com.example.todolist.metrics.ToDoMetrics;
+import com.example.todolist.repository.JpaToDoStore;
+import com.example.todolist.repository.ToDoListVersionCounter;
+import com.example.todolist.service.ToDoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * This class contains integration tests for the ToDoService class against PostgreSQL, started by Testcontainers, so
+ * that the PostgreSQL statements of ToDoRepositoryCustomImpl (UPDATE and DELETE ... RETURNING) are run, including
+ * their version mismatch and missing record cases. It is skipped where Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({ToDoService.class, JpaToDoStore.class, ToDoListVersionCounter.class, UuidV7Generator.class, ToDoMetrics.class,
+        SimpleMeterRegistry.class})
+public class PostgresToDoServiceTests extends AbstractToDoServiceTests {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+}
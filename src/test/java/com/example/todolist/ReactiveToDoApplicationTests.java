@@ -0,0 +1,127 @@
+package com.example.todolist;
+
+import com.example.todolist.dtos.ToDoBatchResultDto;
+import com.example.todolist.dtos.ToDoRecordDto;
+import com.example.todolist.dtos.ToDoResponseDto;
+import com.example.todolist.service.ReactiveToDoService;
+import com.example.todolist.service.ToDoService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class contains end to end tests of the "reactive" profile: WebFlux, the reactive service and R2DBC
+ * against an in-memory H2 database migrated by Flyway.
+ */
+@SpringBootTest
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+public class ReactiveToDoApplicationTests {
+    // Dependencies
+    @Autowired private WebTestClient webTestClient;
+    @Autowired private ApplicationContext applicationContext;
+
+    /**
+     * Test case to verify that the reactive profile replaces the blocking stack instead of adding to it.
+     */
+    @Test
+    public void testReactiveProfileShouldReplaceBlockingStack() {
+        assertEquals(1, applicationContext.getBeanNamesForType(ReactiveToDoService.class).length);
+        assertEquals(0, applicationContext.getBeanNamesForType(ToDoService.class).length);
+        assertEquals(0, applicationContext.getBeanNamesForType(DataSource.class).length);
+    }
+
+    /**
+     * Test case to verify a create, read, conditional update, list, export and delete round trip.
+     */
+    @Test
+    public void testRoundTripShouldPersistThroughR2dbc() {
+        LocalDate dueDate = LocalDate.now().plusDays(1);
+        ToDoResponseDto created = webTestClient.post().uri("/todos").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ToDoRecordDto("Reactive 100% done", "Written through R2DBC", dueDate))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ToDoResponseDto.class).returnResult().getResponseBody();
+        UUID id = Objects.requireNonNull(created).toDoId();
+
+        webTestClient.get().uri("/todos/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"0\"")
+                .expectBody().jsonPath("$.title").isEqualTo("Reactive 100% done");
+
+        webTestClient.put().uri("/todos/{id}", id).header("If-Match", "\"1\"").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ToDoRecordDto("Stale", "Written through R2DBC", dueDate))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+        webTestClient.put().uri("/todos/{id}", id).header("If-Match", "\"0\"").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ToDoRecordDto("Reactive", "Updated through R2DBC", dueDate))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"1\"")
+                .expectBody().jsonPath("$.description").isEqualTo("Updated through R2DBC");
+
+        webTestClient.get().uri("/todos?q={q}&links=none", "updated THROUGH")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$[0].toDoId").isEqualTo(id.toString());
+        webTestClient.get().uri("/todos?q={q}", "100%")
+                .exchange()
+                .expectStatus().isNoContent();
+
+        List<ToDoResponseDto> exported = webTestClient.get().uri("/todos").accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ToDoResponseDto.class).returnResult().getResponseBody();
+        assertTrue(Objects.requireNonNull(exported).stream().anyMatch(toDo -> toDo.toDoId().equals(id)));
+
+        webTestClient.delete().uri("/todos/{id}", id)
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get().uri("/todos/{id}", id)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    /**
+     * Test case to verify that bulk creation and deletion report each element.
+     */
+    @Test
+    public void testBatchShouldReportEachElement() {
+        LocalDate dueDate = LocalDate.now().plusDays(2);
+        List<ToDoRecordDto> toDos = List.of(new ToDoRecordDto("Batch 1", "First", dueDate),
+                new ToDoRecordDto("", "Invalid", dueDate), new ToDoRecordDto("Batch 2", "Second", dueDate));
+
+        List<ToDoBatchResultDto> created = webTestClient.post().uri("/todos/batch").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(toDos)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ToDoBatchResultDto.class).returnResult().getResponseBody();
+        assertEquals(List.of(201, 400, 201), Objects.requireNonNull(created).stream().map(ToDoBatchResultDto::status).toList());
+
+        UUID unknownId = UUID.randomUUID();
+        webTestClient.method(HttpMethod.DELETE).uri("/todos/batch").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(created.get(0).toDoId(), unknownId, created.get(2).toDoId()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].status").isEqualTo(200)
+                .jsonPath("$[1].status").isEqualTo(404)
+                .jsonPath("$[2].status").isEqualTo(200);
+    }
+}
@@ -0,0 +1,539 @@
+package com.example.todolist;
+
+import com.example.todolist.controller.ReactiveExceptionHandler;
+import com.example.todolist.controller.ReactiveToDoController;
+import com.example.todolist.dtos.ToDoCursor;
+import com.example.todolist.dtos.ToDoFilter;
+import com.example.todolist.dtos.ToDoListVersion;
+import com.example.todolist.dtos.ToDoPage;
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.exceptions.ToDoVersionMismatchException;
+import com.example.todolist.metrics.ToDoMetrics;
+import com.example.todolist.service.ReactiveToDoService;
+import com.example.todolist.service.ToDoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.hamcrest.Matchers.containsString;
+
+/**
+ * This class contains unit tests for the ReactiveToDoController class. It replays the scenarios of
+ * ToDoControllerTests against the WebFlux layer of the "reactive" profile, mocking the reactive service.
+ */
+@WebFluxTest(ReactiveToDoController.class)
+@ActiveProfiles("reactive")
+@Import({ReactiveExceptionHandler.class, ToDoMetrics.class, SimpleMeterRegistry.class})
+public class ReactiveToDoControllerTests {
+    // Constants
+    private static final String END_POINT_PATH = "/todos";
+
+    // Dependencies
+    @Autowired private WebTestClient webTestClient;
+    @Autowired private ObjectMapper objectMapper;
+    @MockBean private ReactiveToDoService service;
+
+    // Test data
+    private String title;
+    private String description;
+    private LocalDate dueDate;
+    private UUID toDoId;
+    private ToDo mockToDo;
+    private ToDoListVersion listVersion;
+
+    /**
+     * Sets up test data before each test case.
+     */
+    @BeforeEach
+    public void setUp() {
+        title = "Task 1.";
+        description = "Testing Spring Boot reactive restful API.";
+        dueDate = LocalDate.now();
+        toDoId = UUID.randomUUID();
+
+        mockToDo = new ToDo();
+        mockToDo.setTitle(title);
+        mockToDo.setDescription(description);
+        mockToDo.setDueDate(dueDate);
+        mockToDo.setVersion(3L);
+        mockToDo.setUpdatedAt(Instant.parse("2024-03-01T10:15:30Z"));
+
+        listVersion = new ToDoListVersion(3);
+        Mockito.when(service.getListVersion()).thenReturn(Mono.just(listVersion));
+    }
+
+    /**
+     * Test case to verify the creation of a _ToDo_.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testCreateToDoShouldReturn201Created() throws Exception {
+        Mockito.when(service.save(Mockito.any(ToDo.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        webTestClient.post().uri(END_POINT_PATH).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(mockToDo))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.title").isEqualTo(title)
+                .jsonPath("$.description").isEqualTo(description)
+                .jsonPath("$.dueDate").isEqualTo(dueDate.toString());
+    }
+
+    /**
+     * Test case to verify handling of missing parameters during _ToDo_ creation.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testMissingParametersCreateToDoShouldReturn400BadRequest() throws Exception {
+        mockToDo.setTitle("");
+        mockToDo.setDescription("");
+        mockToDo.setDueDate(null);
+
+        webTestClient.post().uri(END_POINT_PATH).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(mockToDo))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors.title").exists()
+                .jsonPath("$.path").isEqualTo(END_POINT_PATH);
+
+        Mockito.verifyNoInteractions(service);
+    }
+
+    /**
+     * Test case to verify the successful retrieval of a list of ToDos.
+     */
+    @Test
+    public void testGetToDoListShouldReturn200OK() {
+        mockToDo.setToDoId(toDoId);
+        Mockito.when(service.getList(ToDoFilter.NONE, null, ToDoService.DEFAULT_PAGE_SIZE))
+                .thenReturn(Mono.just(new ToDoPage(List.of(mockToDo), null)));
+
+        webTestClient.get().uri(END_POINT_PATH)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist("Link")
+                .expectHeader().valueEquals("ETag", listVersion.eTag(null, "json"))
+                .expectBody()
+                .jsonPath("$[0].links[0].href").value(containsString(END_POINT_PATH + "/" + toDoId))
+                .jsonPath("$[0].title").isEqualTo(title)
+                .jsonPath("$[0].description").isEqualTo(description)
+                .jsonPath("$[0].dueDate").isEqualTo(dueDate.toString());
+    }
+
+    /**
+     * Test case to verify that links=none leaves the per record links out of the list.
+     */
+    @Test
+    public void testGetToDoListWithoutLinksShouldReturn200OK() {
+        mockToDo.setToDoId(toDoId);
+        ToDoCursor next = new ToDoCursor(dueDate, toDoId);
+        Mockito.when(service.getList(ToDoFilter.NONE, null, ToDoService.DEFAULT_PAGE_SIZE))
+                .thenReturn(Mono.just(new ToDoPage(List.of(mockToDo), next)));
+
+        webTestClient.get().uri(END_POINT_PATH + "?links=none")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value("Link", containsString("links=none"))
+                .expectBody()
+                .jsonPath("$[0].title").isEqualTo(title)
+                .jsonPath("$[0].links").doesNotExist();
+    }
+
+    /**
+     * Test case to verify that a partial page links to the following one through its continuation token.
+     */
+    @Test
+    public void testGetToDoListShouldLinkNextPage() {
+        mockToDo.setToDoId(toDoId);
+        ToDoCursor cursor = ToDoCursor.after(mockToDo);
+        ToDoCursor next = new ToDoCursor(dueDate.plusDays(1), UUID.randomUUID());
+        Mockito.when(service.getList(ToDoFilter.NONE, cursor, 1)).thenReturn(Mono.just(new ToDoPage(List.of(mockToDo), next)));
+
+        webTestClient.get().uri(END_POINT_PATH + "?cursor={cursor}&size=1", cursor.encode())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value("Link", containsString("cursor=" + next.encode()))
+                .expectHeader().value("Link", containsString("size=1"))
+                .expectHeader().value("Link", containsString("rel=\"next\""))
+                .expectBody()
+                .jsonPath("$[0].title").isEqualTo(title);
+    }
+
+    /**
+     * Test case to verify that the filter parameters reach the service and are carried over to the next page link.
+     */
+    @Test
+    public void testFilteredGetToDoListShouldLinkNextPageWithFilter() {
+        mockToDo.setToDoId(toDoId);
+        ToDoCursor next = new ToDoCursor(dueDate, toDoId);
+        ToDoFilter filter = new ToDoFilter(dueDate, dueDate.plusDays(7), "rent");
+        Mockito.when(service.getList(filter, null, ToDoService.DEFAULT_PAGE_SIZE))
+                .thenReturn(Mono.just(new ToDoPage(List.of(mockToDo), next)));
+
+        webTestClient.get().uri(END_POINT_PATH + "?dueFrom={from}&dueTo={to}&q={q}", dueDate, dueDate.plusDays(7), " rent ")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value("Link", containsString("dueFrom=" + dueDate))
+                .expectHeader().value("Link", containsString("q="))
+                .expectBody()
+                .jsonPath("$[0].title").isEqualTo(title);
+    }
+
+    /**
+     * Test case to verify that an unsupported due date window is rejected.
+     */
+    @Test
+    public void testInvalidWindowGetToDoListShouldReturn400BadRequest() {
+        webTestClient.get().uri(END_POINT_PATH + "?window=someday")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        Mockito.verifyNoInteractions(service);
+    }
+
+    /**
+     * Test case to verify that the list answers 304 from the list ETag alone, without fetching a page.
+     */
+    @Test
+    public void testGetToDoListWithCurrentETagShouldReturn304NotModified() {
+        String eTag = listVersion.eTag(null, "json");
+
+        webTestClient.get().uri(END_POINT_PATH).header("If-None-Match", eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals("ETag", eTag);
+
+        Mockito.verify(service, Mockito.never()).getList(Mockito.any(), Mockito.any(), Mockito.anyInt());
+    }
+
+    /**
+     * Test case to verify that a malformed continuation token is rejected.
+     */
+    @Test
+    public void testInvalidCursorGetToDoListShouldReturn400BadRequest() {
+        webTestClient.get().uri(END_POINT_PATH + "?cursor=not-a-cursor")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        Mockito.verifyNoInteractions(service);
+    }
+
+    /**
+     * Test case to verify the export of all ToDos as newline delimited JSON.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testExportToDoListShouldStreamNdjson() throws Exception {
+        mockToDo.setToDoId(toDoId);
+        Mockito.when(service.export()).thenReturn(Flux.just(mockToDo, mockToDo));
+
+        String body = webTestClient.get().uri(END_POINT_PATH).accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        String[] lines = Objects.requireNonNull(body).split("\n");
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertEquals(title, objectMapper.readTree(lines[1]).get("title").asText());
+    }
+
+    /**
+     * Test case to verify the handling of an empty list of ToDos.
+     */
+    @Test
+    public void testGetToDoListShouldReturn204NoContent() {
+        Mockito.when(service.getList(ToDoFilter.NONE, null, ToDoService.DEFAULT_PAGE_SIZE))
+                .thenReturn(Mono.just(new ToDoPage(new ArrayList<>(), null)));
+
+        webTestClient.get().uri(END_POINT_PATH)
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    /**
+     * Test case to verify the successful retrieval of a specific _ToDo_ by its ID.
+     */
+    @Test
+    public void testGetToDoShouldReturn200OK() {
+        Mockito.when(service.getById(toDoId)).thenReturn(Mono.just(mockToDo));
+
+        webTestClient.get().uri(END_POINT_PATH + "/" + toDoId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"3\"")
+                .expectHeader().valueEquals("Last-Modified", "Fri, 01 Mar 2024 10:15:30 GMT")
+                .expectBody()
+                .jsonPath("$.title").isEqualTo(title)
+                .jsonPath("$.description").isEqualTo(description)
+                .jsonPath("$.dueDate").isEqualTo(dueDate.toString());
+    }
+
+    /**
+     * Test case to verify that a _ToDo_ still matching If-None-Match or If-Modified-Since is answered with 304.
+     */
+    @Test
+    public void testGetToDoNotModifiedShouldReturn304NotModified() {
+        Mockito.when(service.getById(toDoId)).thenReturn(Mono.just(mockToDo));
+        String requestURI = END_POINT_PATH + "/" + toDoId;
+
+        webTestClient.get().uri(requestURI).header("If-None-Match", "\"3\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+        webTestClient.get().uri(requestURI).header("If-Modified-Since", "Fri, 01 Mar 2024 10:15:30 GMT")
+                .exchange()
+                .expectStatus().isNotModified();
+        webTestClient.get().uri(requestURI).header("If-None-Match", "\"2\"")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    /**
+     * Test case to verify the handling of a GET request for a non-existent _ToDo_ ID.
+     */
+    @Test
+    public void testWrongIdGetToShouldReturn404NotFound() {
+        Mockito.when(service.getById(toDoId)).thenReturn(Mono.empty());
+
+        webTestClient.get().uri(END_POINT_PATH + "/" + toDoId)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404);
+    }
+
+    /**
+     * Test case to verify the successful update of a _ToDo_.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testUpdateToDoShouldReturn200OK() throws Exception {
+        String newTitle = "Task 2";
+        mockToDo.setTitle(newTitle);
+        Mockito.when(service.update(Mockito.argThat(toDo -> toDoId.equals(toDo.getToDoId())), Mockito.isNull()))
+                .thenAnswer(invocation -> {
+                    ToDo updatedToDo = invocation.getArgument(0);
+                    updatedToDo.setVersion(4L);
+                    updatedToDo.setUpdatedAt(Instant.now());
+                    return Mono.just(updatedToDo);
+                });
+
+        webTestClient.put().uri(END_POINT_PATH + "/" + toDoId).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(mockToDo))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectHeader().valueEquals("ETag", "\"4\"")
+                .expectBody()
+                .jsonPath("$.title").isEqualTo(newTitle);
+
+        Mockito.verify(service, Mockito.never()).getById(toDoId);
+    }
+
+    /**
+     * Test case to verify that the version of an If-Match header reaches the service and that a mismatch answers 412.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testStaleIfMatchUpdateToDoShouldReturn412PreconditionFailed() throws Exception {
+        String requestURI = END_POINT_PATH + "/" + toDoId;
+        String requestBody = objectMapper.writeValueAsString(mockToDo);
+        Mockito.when(service.update(Mockito.any(ToDo.class), Mockito.eq(2L)))
+                .thenReturn(Mono.error(new ToDoVersionMismatchException(toDoId)));
+
+        webTestClient.put().uri(requestURI).header("If-Match", "\"2\"").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requestBody)
+                .exchange()
+                .expectStatus().isEqualTo(412);
+        webTestClient.put().uri(requestURI).header("If-Match", "W/\"3\"").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(requestBody)
+                .exchange()
+                .expectStatus().isEqualTo(412);
+
+        Mockito.verify(service, Mockito.times(1)).update(Mockito.any(ToDo.class), Mockito.any());
+    }
+
+    /**
+     * Test case to verify the handling of an update request for a non-existent _ToDo_ ID.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testWrongIdUpdateToDoShouldReturn404NotFound() throws Exception {
+        mockToDo.setToDoId(toDoId);
+        Mockito.when(service.update(Mockito.any(ToDo.class), Mockito.isNull())).thenReturn(Mono.empty());
+
+        webTestClient.put().uri(END_POINT_PATH + "/" + toDoId).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(mockToDo))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    /**
+     * Test case to verify the handling of an update request with wrong parameters.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testWrongParametersUpdateToDoShouldReturn400BadRequest() throws Exception {
+        mockToDo.setTitle("");
+
+        webTestClient.put().uri(END_POINT_PATH + "/" + toDoId).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(mockToDo))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        Mockito.verifyNoInteractions(service);
+    }
+
+    /**
+     * Test case to verify the successful deletion of a _ToDo_.
+     */
+    @Test
+    public void testDeleteToDoShouldReturn200OK() {
+        Mockito.when(service.delete(toDoId, null)).thenReturn(Mono.just(mockToDo));
+
+        webTestClient.delete().uri(END_POINT_PATH + "/" + toDoId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo(title)
+                .jsonPath("$.description").isEqualTo(description)
+                .jsonPath("$.dueDate").isEqualTo(dueDate.toString());
+    }
+
+    /**
+     * Test case to verify the handling of a delete request for a non-existent _ToDo_ ID.
+     */
+    @Test
+    public void testWrongIdDeleteToDoShouldReturn404NotFound() {
+        Mockito.when(service.delete(toDoId, null)).thenReturn(Mono.empty());
+
+        webTestClient.delete().uri(END_POINT_PATH + "/" + toDoId)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    /**
+     * Test case to verify that a bulk creation saves valid elements and reports invalid ones.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCreateToDoBatchShouldReportEachElement() throws Exception {
+        Mockito.when(service.saveAll(Mockito.anyList())).thenAnswer(invocation -> {
+            List<ToDo> toDos = invocation.getArgument(0);
+            toDos.forEach(toDo -> toDo.setToDoId(toDoId));
+            return Mono.just(toDos);
+        });
+        ToDo invalidToDo = new ToDo();
+        invalidToDo.setTitle("");
+
+        webTestClient.post().uri(END_POINT_PATH + "/batch").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(List.of(invalidToDo, mockToDo)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].index").isEqualTo(0)
+                .jsonPath("$[0].status").isEqualTo(400)
+                .jsonPath("$[0].errors.title").exists()
+                .jsonPath("$[1].index").isEqualTo(1)
+                .jsonPath("$[1].status").isEqualTo(201)
+                .jsonPath("$[1].toDoId").isEqualTo(toDoId.toString())
+                .jsonPath("$[1].toDo.title").isEqualTo(title);
+
+        Mockito.verify(service).saveAll(Mockito.argThat(toDos -> toDos.size() == 1));
+    }
+
+    /**
+     * Test case to verify that a bulk update reports unknown ids as not found.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testUpdateToDoBatchShouldReportUnknownIds() throws Exception {
+        UUID unknownId = UUID.randomUUID();
+        mockToDo.setToDoId(toDoId);
+        Mockito.when(service.updateAll(Mockito.anyList())).thenReturn(Mono.just(List.of(Optional.of(mockToDo), Optional.empty())));
+        ToDo unknownToDo = new ToDo();
+        BeanUtils.copyProperties(mockToDo, unknownToDo);
+        unknownToDo.setToDoId(unknownId);
+
+        webTestClient.put().uri(END_POINT_PATH + "/batch").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(List.of(mockToDo, unknownToDo)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].status").isEqualTo(200)
+                .jsonPath("$[0].toDo.title").isEqualTo(title)
+                .jsonPath("$[1].status").isEqualTo(404)
+                .jsonPath("$[1].toDoId").isEqualTo(unknownId.toString());
+    }
+
+    /**
+     * Test case to verify that a bulk deletion reports which ids were deleted.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testDeleteToDoBatchShouldReportEachId() throws Exception {
+        UUID unknownId = UUID.randomUUID();
+        Mockito.when(service.deleteAll(List.of(toDoId, unknownId))).thenReturn(Mono.just(Set.of(toDoId)));
+
+        webTestClient.method(HttpMethod.DELETE).uri(END_POINT_PATH + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(List.of(toDoId, unknownId)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].status").isEqualTo(200)
+                .jsonPath("$[1].status").isEqualTo(404);
+    }
+
+    /**
+     * Test case to verify that bulk requests above the size limit are rejected.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testTooLargeBatchShouldReturn413PayloadTooLarge() throws Exception {
+        List<UUID> ids = Collections.nCopies(ToDoService.MAX_BATCH_SIZE + 1, toDoId);
+
+        webTestClient.method(HttpMethod.DELETE).uri(END_POINT_PATH + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(objectMapper.writeValueAsString(ids))
+                .exchange()
+                .expectStatus().isEqualTo(413);
+
+        Mockito.verifyNoInteractions(service);
+    }
+}
@@ -1,22 +1,38 @@
 package com.example.todolist;
 
 import com.example.todolist.controller.ToDoController;
+import com.example.todolist.dtos.ToDoCursor;
+import com.example.todolist.dtos.ToDoFilter;
+import com.example.todolist.dtos.ToDoListVersion;
+import com.example.todolist.dtos.ToDoPage;
+import com.example.todolist.dtos.ToDoStatsDto;
 import com.example.todolist.entity.ToDo;
 import com.example.todolist.exceptions.ToDoNotFoundException;
+import com.example.todolist.exceptions.ToDoVersionMismatchException;
+import com.example.todolist.metrics.ToDoMetrics;
 import com.example.todolist.service.ToDoService;
+import com.example.todolist.service.ToDoStatistics;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -27,6 +43,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * to focus only on the web layer, mocking the service layer dependencies.
  */
 @WebMvcTest(ToDoController.class)
+@Import({ToDoMetrics.class, SimpleMeterRegistry.class})
 public class ToDoControllerTests {
     // Constants
     private static final String END_POINT_PATH = "/todos";
@@ -35,6 +52,7 @@ public class ToDoControllerTests {
     @Autowired private MockMvc mockMvc;
     @Autowired private ObjectMapper objectMapper;
     @MockBean private ToDoService service;
+    @MockBean private ToDoStatistics statistics;
 
     // Test data
     private String title;
@@ -57,6 +75,10 @@ public class ToDoControllerTests {
         mockToDo.setTitle(title);
         mockToDo.setDescription(description);
         mockToDo.setDueDate(dueDate);
+        mockToDo.setVersion(3L);
+        mockToDo.setUpdatedAt(Instant.parse("2024-03-01T10:15:30Z"));
+
+        Mockito.when(service.getListVersion()).thenReturn(new ToDoListVersion(3));
     }
 
     /**
@@ -67,7 +89,7 @@ public class ToDoControllerTests {
     @Test
     public void testCreateToDoShouldReturn201Created() throws Exception {
         ToDo newToDo = mockToDo;
-        Mockito.when(service.save(newToDo)).thenReturn(newToDo);
+        Mockito.when(service.save(Mockito.any(ToDo.class))).thenAnswer(invocation -> invocation.getArgument(0));
         String requestBody = objectMapper.writeValueAsString(newToDo);
 
         mockMvc.perform(post(END_POINT_PATH).contentType("application/json")
@@ -99,6 +121,26 @@ public class ToDoControllerTests {
                 .andDo(print());
     }
 
+    /**
+     * Test case to verify that a title longer than its column is refused before reaching the data source.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testTooLongTitleCreateToDoShouldReturn400BadRequest() throws Exception {
+        ToDo newToDo = mockToDo;
+        newToDo.setTitle("x".repeat(256));
+
+        String requestBody = objectMapper.writeValueAsString(newToDo);
+        mockMvc.perform(post(END_POINT_PATH).contentType("application/json")
+                        .content(requestBody))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.title", is("size must be between 0 and 255")))
+                .andDo(print());
+
+        Mockito.verifyNoInteractions(service);
+    }
+
     /**
      * Test case to verify the successful retrieval of a list of ToDos.
      *
@@ -109,18 +151,155 @@ public class ToDoControllerTests {
         ToDo savedToDo = mockToDo;
         savedToDo.setToDoId(toDoId);
         List<ToDo> toDoList = List.of(mockToDo);
-        Mockito.when(service.getList()).thenReturn(toDoList);
+        Mockito.when(service.getList(ToDoFilter.NONE, null, ToDoService.DEFAULT_PAGE_SIZE)).thenReturn(new ToDoPage(toDoList, null));
         String requestBody = objectMapper.writeValueAsString(savedToDo);
 
         mockMvc.perform(get(END_POINT_PATH).contentType("application/json")
             .content(requestBody))
             .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("Link"))
+            .andExpect(jsonPath("$[0].links[0].href", is("http://localhost" + END_POINT_PATH + "/" + toDoId)))
             .andExpect(jsonPath("$[0].title", is(title)))
             .andExpect(jsonPath("$[0].description", is(description)))
             .andExpect(jsonPath("$[0].dueDate", is(dueDate.toString())))
             .andDo(print());
 
-        Mockito.verify(service, Mockito.times(1)).getList();
+        Mockito.verify(service, Mockito.times(1)).getList(ToDoFilter.NONE, null, ToDoService.DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Test case to verify that links=none leaves the per record links out of the list.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testGetToDoListWithoutLinksShouldReturn200OK() throws Exception {
+        mockToDo.setToDoId(toDoId);
+        ToDoCursor next = new ToDoCursor(dueDate, toDoId);
+        Mockito.when(service.getList(ToDoFilter.NONE, null, ToDoService.DEFAULT_PAGE_SIZE)).thenReturn(new ToDoPage(List.of(mockToDo), next));
+
+        mockMvc.perform(get(END_POINT_PATH).param("links", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title", is(title)))
+                .andExpect(jsonPath("$[0].links").doesNotExist())
+                .andExpect(header().string("Link", containsString("links=none")))
+                .andDo(print());
+    }
+
+    /**
+     * Test case to verify that a partial page links to the following one through its continuation token.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testGetToDoListShouldLinkNextPage() throws Exception {
+        mockToDo.setToDoId(toDoId);
+        ToDoCursor cursor = ToDoCursor.after(mockToDo);
+        ToDoCursor next = new ToDoCursor(dueDate.plusDays(1), UUID.randomUUID());
+        Mockito.when(service.getList(ToDoFilter.NONE, cursor, 1)).thenReturn(new ToDoPage(List.of(mockToDo), next));
+
+        mockMvc.perform(get(END_POINT_PATH).param("cursor", cursor.encode()).param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Link", containsString("cursor=" + next.encode())))
+                .andExpect(header().string("Link", containsString("size=1")))
+                .andExpect(header().string("Link", containsString("rel=\"next\"")))
+                .andExpect(jsonPath("$[0].title", is(title)))
+                .andDo(print());
+    }
+
+    /**
+     * Test case to verify that the filter parameters reach the service and are carried over to the next page link.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testFilteredGetToDoListShouldLinkNextPageWithFilter() throws Exception {
+        mockToDo.setToDoId(toDoId);
+        ToDoCursor next = new ToDoCursor(dueDate, toDoId);
+        ToDoFilter filter = new ToDoFilter(dueDate, dueDate.plusDays(7), "rent");
+        Mockito.when(service.getList(filter, null, ToDoService.DEFAULT_PAGE_SIZE)).thenReturn(new ToDoPage(List.of(mockToDo), next));
+
+        mockMvc.perform(get(END_POINT_PATH).param("dueFrom", dueDate.toString())
+                        .param("dueTo", dueDate.plusDays(7).toString()).param("q", " rent "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title", is(title)))
+                .andExpect(header().string("Link", containsString("dueFrom=" + dueDate)))
+                .andExpect(header().string("Link", containsString("q=")))
+                .andDo(print());
+    }
+
+    /**
+     * Test case to verify that an unsupported due date window is rejected.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testInvalidWindowGetToDoListShouldReturn400BadRequest() throws Exception {
+        mockMvc.perform(get(END_POINT_PATH).param("window", "someday"))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+
+        Mockito.verifyNoInteractions(service);
+    }
+
+    /**
+     * Test case to verify that the list answers 304 from the list ETag alone, without fetching a page.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testGetToDoListWithCurrentETagShouldReturn304NotModified() throws Exception {
+        String eTag = service.getListVersion().eTag(null, "json");
+
+        mockMvc.perform(get(END_POINT_PATH).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andDo(print());
+
+        Mockito.verify(service, Mockito.never()).getList(Mockito.any(), Mockito.any(), Mockito.anyInt());
+    }
+
+    /**
+     * Test case to verify that a malformed continuation token is rejected.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testInvalidCursorGetToDoListShouldReturn400BadRequest() throws Exception {
+        mockMvc.perform(get(END_POINT_PATH).param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+
+        Mockito.verifyNoInteractions(service);
+    }
+
+    /**
+     * Test case to verify the export of all ToDos as newline delimited JSON.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExportToDoListShouldStreamNdjson() throws Exception {
+        mockToDo.setToDoId(toDoId);
+        Mockito.doAnswer(invocation -> {
+            Consumer<ToDo> consumer = invocation.getArgument(0);
+            consumer.accept(mockToDo);
+            consumer.accept(mockToDo);
+            return null;
+        }).when(service).export(Mockito.any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get(END_POINT_PATH).accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString().split("\n");
+
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertEquals(title, objectMapper.readTree(lines[1]).get("title").asText());
     }
 
     /**
@@ -130,13 +309,32 @@ public class ToDoControllerTests {
      */
     @Test
     public void testGetToDoListShouldReturn204NoContent() throws Exception {
-        Mockito.when(service.getList()).thenReturn(new ArrayList<>());
+        Mockito.when(service.getList(ToDoFilter.NONE, null, ToDoService.DEFAULT_PAGE_SIZE)).thenReturn(new ToDoPage(new ArrayList<>(), null));
 
         mockMvc.perform(get(END_POINT_PATH))
                 .andExpect(status().isNoContent())
                 .andDo(print());
     }
 
+    /**
+     * Test case to verify that the statistics are answered without the list service.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testGetToDoStatsShouldReturn200OK() throws Exception {
+        Mockito.when(statistics.snapshot(Mockito.any(LocalDate.class)))
+                .thenReturn(new ToDoStatsDto(dueDate, 10, 1, 2, 3, 4));
+
+        mockMvc.perform(get(END_POINT_PATH + "/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(10)))
+                .andExpect(jsonPath("$.overdue", is(2)))
+                .andExpect(jsonPath("$.dueThisWeek", is(4)))
+                .andDo(print());
+        Mockito.verifyNoInteractions(service);
+    }
+
     /**
      * Test case to verify the successful retrieval of a specific _ToDo_ by its ID.
      *
@@ -153,6 +351,32 @@ public class ToDoControllerTests {
                 .andExpect(jsonPath("$.title", is(title)))
                 .andExpect(jsonPath("$.description", is(description)))
                 .andExpect(jsonPath("$.dueDate", is(dueDate.toString())))
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(header().string("Last-Modified", "Fri, 01 Mar 2024 10:15:30 GMT"))
+                .andDo(print());
+
+        Mockito.verify(service, Mockito.times(1)).getById(toDoId);
+    }
+
+    /**
+     * Test case to verify that a _ToDo_ still matching If-None-Match or If-Modified-Since is answered with 304.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testGetToDoNotModifiedShouldReturn304NotModified() throws Exception {
+        Mockito.when(service.getById(toDoId)).thenReturn(Optional.of(mockToDo));
+        String requestURI = END_POINT_PATH + "/" + toDoId;
+
+        mockMvc.perform(get(requestURI).header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""))
+                .andDo(print());
+        mockMvc.perform(get(requestURI).header("If-Modified-Since", "Fri, 01 Mar 2024 10:15:30 GMT"))
+                .andExpect(status().isNotModified())
+                .andDo(print());
+        mockMvc.perform(get(requestURI).header("If-None-Match", "\"2\""))
+                .andExpect(status().isOk())
                 .andDo(print());
     }
 
@@ -183,16 +407,47 @@ public class ToDoControllerTests {
         newToDo.setTitle(newTitle);
         String requestURI = END_POINT_PATH + "/" + toDoId;
         String requestBody = objectMapper.writeValueAsString(newToDo);
-        Optional<ToDo> savedToDo = Optional.ofNullable(mockToDo);
-        Mockito.when(service.getById(toDoId)).thenReturn(savedToDo);
-        Mockito.when(service.update(newToDo)).thenReturn(newToDo);
+        Mockito.when(service.update(Mockito.argThat(toDo -> toDoId.equals(toDo.getToDoId())), Mockito.isNull()))
+                .thenAnswer(invocation -> {
+                    ToDo updatedToDo = invocation.getArgument(0);
+                    updatedToDo.setVersion(4L);
+                    updatedToDo.setUpdatedAt(Instant.now());
+                    return Optional.of(updatedToDo);
+                });
 
         mockMvc.perform(put(requestURI, toDoId).contentType("application/json")
                 .content(requestBody))
                 .andExpect(content().contentType("application/json"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.title", is(newTitle)))
+                .andExpect(header().string("ETag", "\"4\""))
+                .andDo(print());
+
+        Mockito.verify(service, Mockito.never()).getById(toDoId);
+    }
+
+    /**
+     * Test case to verify that the version of an If-Match header reaches the service and that a mismatch answers 412.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testStaleIfMatchUpdateToDoShouldReturn412PreconditionFailed() throws Exception {
+        String requestURI = END_POINT_PATH + "/" + toDoId;
+        String requestBody = objectMapper.writeValueAsString(mockToDo);
+        Mockito.when(service.update(Mockito.any(ToDo.class), Mockito.eq(2L)))
+                .thenThrow(new ToDoVersionMismatchException(toDoId));
+
+        mockMvc.perform(put(requestURI).header("If-Match", "\"2\"").contentType("application/json")
+                        .content(requestBody))
+                .andExpect(status().isPreconditionFailed())
                 .andDo(print());
+        mockMvc.perform(put(requestURI).header("If-Match", "W/\"3\"").contentType("application/json")
+                        .content(requestBody))
+                .andExpect(status().isPreconditionFailed())
+                .andDo(print());
+
+        Mockito.verify(service, Mockito.times(1)).update(Mockito.any(ToDo.class), Mockito.any());
     }
 
     /**
@@ -206,7 +461,7 @@ public class ToDoControllerTests {
         newToDo.setToDoId(toDoId);
         String requestURI = END_POINT_PATH + "/" + toDoId;
         String requestBody = objectMapper.writeValueAsString(newToDo);
-        Mockito.doThrow(ToDoNotFoundException.class).when(service).getById(toDoId);
+        Mockito.when(service.update(Mockito.any(ToDo.class), Mockito.isNull())).thenReturn(Optional.empty());
 
         mockMvc.perform(put(requestURI).contentType("application/json")
                 .content(requestBody))
@@ -242,8 +497,7 @@ public class ToDoControllerTests {
     public void testDeleteToDoShouldReturn200OK() throws Exception {
         Optional<ToDo> savedToDo = Optional.ofNullable(mockToDo);
         String requestURI = END_POINT_PATH + "/" + toDoId;
-        Mockito.when(service.getById(toDoId)).thenReturn(savedToDo);
-        Mockito.when(service.delete(toDoId)).thenReturn(savedToDo);
+        Mockito.when(service.delete(toDoId, null)).thenReturn(savedToDo);
 
         mockMvc.perform(delete(requestURI))
                 .andExpect(status().isOk())
@@ -260,10 +514,104 @@ public class ToDoControllerTests {
     @Test
     public void testWrongIdDeleteToDoShouldReturn404NotFound() throws Exception {
         String requestURI = END_POINT_PATH + "/" + toDoId;
-        Mockito.doThrow(ToDoNotFoundException.class).when(service).delete(toDoId);
+        Mockito.doThrow(ToDoNotFoundException.class).when(service).delete(toDoId, null);
 
         mockMvc.perform(delete(requestURI))
             .andExpect(status().isNotFound())
             .andDo(print());
     }
+
+    /**
+     * Test case to verify that a bulk creation saves valid elements and reports invalid ones.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCreateToDoBatchShouldReportEachElement() throws Exception {
+        Mockito.when(service.saveAll(Mockito.anyList())).thenAnswer(invocation -> {
+            List<ToDo> toDos = invocation.getArgument(0);
+            toDos.forEach(toDo -> toDo.setToDoId(toDoId));
+            return toDos;
+        });
+        ToDo invalidToDo = new ToDo();
+        invalidToDo.setTitle("");
+        String requestBody = objectMapper.writeValueAsString(List.of(invalidToDo, mockToDo));
+
+        mockMvc.perform(post(END_POINT_PATH + "/batch").contentType("application/json")
+                        .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].index", is(0)))
+                .andExpect(jsonPath("$[0].status", is(400)))
+                .andExpect(jsonPath("$[0].errors.title").exists())
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].status", is(201)))
+                .andExpect(jsonPath("$[1].toDoId", is(toDoId.toString())))
+                .andExpect(jsonPath("$[1].toDo.title", is(title)))
+                .andDo(print());
+
+        Mockito.verify(service).saveAll(Mockito.argThat(toDos -> toDos.size() == 1));
+    }
+
+    /**
+     * Test case to verify that a bulk update reports unknown ids as not found.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testUpdateToDoBatchShouldReportUnknownIds() throws Exception {
+        UUID unknownId = UUID.randomUUID();
+        mockToDo.setToDoId(toDoId);
+        Mockito.when(service.updateAll(Mockito.anyList())).thenReturn(List.of(Optional.of(mockToDo), Optional.empty()));
+        ToDo unknownToDo = new ToDo();
+        BeanUtils.copyProperties(mockToDo, unknownToDo);
+        unknownToDo.setToDoId(unknownId);
+        String requestBody = objectMapper.writeValueAsString(List.of(mockToDo, unknownToDo));
+
+        mockMvc.perform(put(END_POINT_PATH + "/batch").contentType("application/json")
+                        .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(200)))
+                .andExpect(jsonPath("$[0].toDo.title", is(title)))
+                .andExpect(jsonPath("$[1].status", is(404)))
+                .andExpect(jsonPath("$[1].toDoId", is(unknownId.toString())))
+                .andDo(print());
+    }
+
+    /**
+     * Test case to verify that a bulk deletion reports which ids were deleted.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testDeleteToDoBatchShouldReportEachId() throws Exception {
+        UUID unknownId = UUID.randomUUID();
+        Mockito.when(service.deleteAll(List.of(toDoId, unknownId))).thenReturn(Set.of(toDoId));
+        String requestBody = objectMapper.writeValueAsString(List.of(toDoId, unknownId));
+
+        mockMvc.perform(delete(END_POINT_PATH + "/batch").contentType("application/json")
+                        .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(200)))
+                .andExpect(jsonPath("$[1].status", is(404)))
+                .andDo(print());
+    }
+
+    /**
+     * Test case to verify that bulk requests above the size limit are rejected.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testTooLargeBatchShouldReturn413PayloadTooLarge() throws Exception {
+        List<UUID> ids = Collections.nCopies(ToDoService.MAX_BATCH_SIZE + 1, toDoId);
+        String requestBody = objectMapper.writeValueAsString(ids);
+
+        mockMvc.perform(delete(END_POINT_PATH + "/batch").contentType("application/json")
+                        .content(requestBody))
+                .andExpect(status().isPayloadTooLarge())
+                .andDo(print());
+
+        Mockito.verifyNoInteractions(service);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,265 @@
+package com.example.todolist;
+
+import com.example.todolist.codec.ToDoMediaTypes;
+import com.example.todolist.codec.ToDoProtobufCodec;
+import com.example.todolist.codec.ZstdCompressionFilter;
+import com.example.todolist.controller.ToDoController;
+import com.example.todolist.dtos.ToDoFilter;
+import com.example.todolist.dtos.ToDoListVersion;
+import com.example.todolist.dtos.ToDoPage;
+import com.example.todolist.dtos.ToDoRecordDto;
+import com.example.todolist.dtos.ToDoResponseDto;
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.metrics.ToDoMetrics;
+import com.example.todolist.service.ToDoService;
+import com.example.todolist.service.ToDoStatistics;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.luben.zstd.ZstdInputStream;
+import com.google.protobuf.CodedOutputStream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.example.todolist.ToDoFixtures.storedToDo;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * This class contains tests for the binary encodings of the _ToDo_ endpoints, negotiated through the Accept and
+ * Content-Type headers, and for the zstd compression of responses.
+ */
+@WebMvcTest(ToDoController.class)
+@Import({ToDoMetrics.class, SimpleMeterRegistry.class})
+public class ToDoEncodingTests {
+    // Constants
+    private static final String END_POINT_PATH = "/todos";
+
+    // Dependencies
+    @Autowired private MockMvc mockMvc;
+    @Autowired private Jackson2ObjectMapperBuilder objectMapperBuilder;
+    @MockBean private ToDoService service;
+    @MockBean private ToDoStatistics statistics;
+
+    // Test data
+    private ToDo mockToDo;
+    private ToDoResponseDto expectedResponse;
+
+    /**
+     * Sets up test data before each test case.
+     */
+    @BeforeEach
+    public void setUp() {
+        mockToDo = toDo(0);
+        expectedResponse = new ToDoResponseDto(mockToDo.getToDoId(), mockToDo.getTitle(), mockToDo.getDescription(),
+                mockToDo.getDueDate());
+
+        Mockito.when(service.getListVersion()).thenReturn(new ToDoListVersion(3));
+    }
+
+    /**
+     * Test case to verify that a _ToDo_ is answered as a Protocol Buffers ToDo message.
+     */
+    @Test
+    public void testGetToDoAsProtobufShouldReturnToDoMessage() throws Exception {
+        Mockito.when(service.getById(mockToDo.getToDoId())).thenReturn(Optional.of(mockToDo));
+
+        MvcResult result = mockMvc.perform(get(END_POINT_PATH + "/{id}", mockToDo.getToDoId())
+                        .accept(ToDoMediaTypes.APPLICATION_PROTOBUF_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ToDoMediaTypes.APPLICATION_PROTOBUF_VALUE))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        assertEquals(expectedResponse, ToDoProtobufCodec.readToDo(new ByteArrayInputStream(body)));
+    }
+
+    /**
+     * Test case to verify that a _ToDo_ sent as CBOR is created and answered as CBOR.
+     */
+    @Test
+    public void testCreateToDoFromCborShouldReturn201Created() throws Exception {
+        Mockito.when(service.save(Mockito.any(ToDo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ObjectMapper cborMapper = objectMapperBuilder.factory(new CBORFactory()).build();
+        ToDoRecordDto toDoRecord = new ToDoRecordDto(mockToDo.getTitle(), mockToDo.getDescription(), mockToDo.getDueDate());
+
+        MvcResult result = mockMvc.perform(post(END_POINT_PATH).contentType(ToDoMediaTypes.APPLICATION_CBOR)
+                        .accept(ToDoMediaTypes.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(toDoRecord)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(ToDoMediaTypes.APPLICATION_CBOR))
+                .andReturn();
+
+        ToDoResponseDto created = cborMapper.readValue(result.getResponse().getContentAsByteArray(), ToDoResponseDto.class);
+        assertEquals(toDoRecord.title(), created.title());
+        assertEquals(toDoRecord.dueDate(), created.dueDate());
+    }
+
+    /**
+     * Test case to verify that an invalid _ToDo_ sent as Protocol Buffers is rejected by validation.
+     */
+    @Test
+    public void testInvalidProtobufRecordShouldReturn400BadRequest() throws Exception {
+        ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+        ToDoProtobufCodec.writeRecord(new ToDoRecordDto("", "Missing a title.", null), requestBody);
+
+        mockMvc.perform(post(END_POINT_PATH).contentType(ToDoMediaTypes.APPLICATION_PROTOBUF)
+                        .accept(ToDoMediaTypes.APPLICATION_PROTOBUF_VALUE + ", application/json;q=0.5")
+                        .content(requestBody.toByteArray()))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType("application/json"));
+        Mockito.verifyNoInteractions(service);
+    }
+
+    /**
+     * Test case to verify that a list page is answered as Smile, without the links of its records.
+     */
+    @Test
+    public void testGetToDoListAsSmileShouldReturnRecords() throws Exception {
+        Mockito.when(service.getList(ToDoFilter.NONE, null, ToDoService.DEFAULT_PAGE_SIZE))
+                .thenReturn(new ToDoPage(List.of(mockToDo, toDo(1)), null));
+        ObjectMapper smileMapper = objectMapperBuilder.factory(new SmileFactory()).build();
+
+        MvcResult result = mockMvc.perform(get(END_POINT_PATH).accept(ToDoMediaTypes.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ToDoMediaTypes.APPLICATION_SMILE))
+                .andReturn();
+
+        List<ToDoResponseDto> toDos = smileMapper.readValue(result.getResponse().getContentAsByteArray(),
+                new TypeReference<>() {});
+        assertEquals(2, toDos.size());
+        assertEquals(expectedResponse, toDos.get(0));
+    }
+
+    /**
+     * Test case to verify that each media type and links mode of the list has an ETag of its own, so that the ETag of
+     * one representation never revalidates another.
+     */
+    @Test
+    public void testListETagShouldDependOnTheRepresentation() throws Exception {
+        Mockito.when(service.getList(ToDoFilter.NONE, null, ToDoService.DEFAULT_PAGE_SIZE))
+                .thenReturn(new ToDoPage(List.of(mockToDo), null));
+
+        String json = mockMvc.perform(get(END_POINT_PATH).accept("application/json"))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.VARY, org.hamcrest.Matchers.hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String jsonWithoutLinks = mockMvc.perform(get(END_POINT_PATH).param("links", "none").accept("application/json"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String smile = mockMvc.perform(get(END_POINT_PATH).accept(ToDoMediaTypes.APPLICATION_SMILE))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String preferred = mockMvc.perform(get(END_POINT_PATH)
+                        .header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/x-protobuf"))
+                .andExpect(content().contentType(ToDoMediaTypes.APPLICATION_PROTOBUF_VALUE))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertEquals(4, Set.of(json, jsonWithoutLinks, smile, preferred).size());
+        assertEquals(json, mockMvc.perform(get(END_POINT_PATH)).andReturn().getResponse().getHeader(HttpHeaders.ETAG));
+        mockMvc.perform(get(END_POINT_PATH).accept(ToDoMediaTypes.APPLICATION_SMILE).header(HttpHeaders.IF_NONE_MATCH, json))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(END_POINT_PATH).accept(ToDoMediaTypes.APPLICATION_SMILE).header(HttpHeaders.IF_NONE_MATCH, smile))
+                .andExpect(status().isNotModified());
+    }
+
+    /**
+     * Test case to verify that fields unknown to the schema are skipped when reading a ToDoRecord message.
+     */
+    @Test
+    public void testProtobufRecordShouldSkipUnknownFields() throws IOException {
+        ByteArrayOutputStream message = new ByteArrayOutputStream();
+        CodedOutputStream output = CodedOutputStream.newInstance(message);
+        output.writeString(1, "Task 1.");
+        output.writeString(15, "added by a newer schema");
+        output.writeSInt32(3, (int) LocalDate.of(2030, 1, 1).toEpochDay());
+        output.writeString(2, "Testing Protocol Buffers.");
+        output.flush();
+
+        assertEquals(new ToDoRecordDto("Task 1.", "Testing Protocol Buffers.", LocalDate.of(2030, 1, 1)),
+                ToDoProtobufCodec.readRecord(new ByteArrayInputStream(message.toByteArray())));
+    }
+
+    /**
+     * Test case to verify that a large list page is compressed with zstd for a client accepting it, with its ETag
+     * made weak, which still revalidates the page.
+     */
+    @Test
+    public void testLargeResponseShouldBeCompressedWithZstd() throws Exception {
+        List<ToDo> toDos = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            toDos.add(toDo(i));
+        }
+        Mockito.when(service.getList(ToDoFilter.NONE, null, ToDoService.DEFAULT_PAGE_SIZE))
+                .thenReturn(new ToDoPage(toDos, null));
+
+        MvcResult plain = mockMvc.perform(get(END_POINT_PATH).accept("application/json"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn();
+        MvcResult compressed = mockMvc.perform(get(END_POINT_PATH).accept("application/json")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br, zstd"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, ZstdCompressionFilter.ZSTD))
+                .andExpect(header().stringValues(HttpHeaders.VARY, org.hamcrest.Matchers.hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn();
+
+        String eTag = plain.getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals("W/" + eTag, compressed.getResponse().getHeader(HttpHeaders.ETAG));
+        mockMvc.perform(get(END_POINT_PATH).accept("application/json").header(HttpHeaders.ACCEPT_ENCODING, "zstd")
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/" + eTag))
+                .andExpect(status().isNotModified());
+
+        byte[] compressedBody = compressed.getResponse().getContentAsByteArray();
+        byte[] plainBody = plain.getResponse().getContentAsByteArray();
+        assertTrue(compressedBody.length < plainBody.length / 2);
+        try (ZstdInputStream decompressed = new ZstdInputStream(new ByteArrayInputStream(compressedBody))) {
+            assertArrayEquals(plainBody, decompressed.readAllBytes());
+        }
+    }
+
+    /**
+     * Test case to verify that a response below the minimum size, or refused zstd, is sent uncompressed.
+     */
+    @Test
+    public void testSmallResponseShouldNotBeCompressed() throws Exception {
+        Mockito.when(service.getById(mockToDo.getToDoId())).thenReturn(Optional.of(mockToDo));
+
+        mockMvc.perform(get(END_POINT_PATH + "/{id}", mockToDo.getToDoId()).accept(ToDoMediaTypes.APPLICATION_PROTOBUF_VALUE)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "zstd"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().exists(HttpHeaders.CONTENT_LENGTH));
+
+        Mockito.when(service.getList(ToDoFilter.NONE, null, ToDoService.DEFAULT_PAGE_SIZE))
+                .thenReturn(new ToDoPage(List.of(mockToDo, toDo(1), toDo(2), toDo(3), toDo(4),
+                        toDo(5), toDo(6), toDo(7), toDo(8), toDo(9)), null));
+        mockMvc.perform(get(END_POINT_PATH).accept("application/json").header(HttpHeaders.ACCEPT_ENCODING, "zstd;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    private static ToDo toDo(int i) {
+        return storedToDo("Task " + i + ".", LocalDate.now().plusDays(i));
+    }
+}
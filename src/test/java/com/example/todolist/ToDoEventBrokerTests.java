@@ -0,0 +1,189 @@
+package com.example.todolist;
+
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.events.ToDoChangeEvent;
+import com.example.todolist.events.ToDoEventBroker;
+import com.example.todolist.events.ToDoEventBroker.OverflowPolicy;
+import com.example.todolist.metrics.ToDoMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * This class contains tests for the change feed: the overflow policies of ToDoEventBroker, with deliveries held
+ * back so that subscriber queues fill up, and the /todos/events stream of the running application.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ToDoEventBrokerTests {
+    // Constants
+    private static final String END_POINT_PATH = "/todos";
+
+    // Dependencies
+    @Autowired private MockMvc mockMvc;
+    private MeterRegistry meterRegistry;
+    private ToDoMetrics toDoMetrics;
+    private ToDoEventBroker heldBackBroker;
+
+    /**
+     * Creates the metrics of a broker whose deliveries never run.
+     */
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        toDoMetrics = new ToDoMetrics(meterRegistry);
+    }
+
+    /**
+     * Closes the held back broker, if any.
+     */
+    @AfterEach
+    public void tearDown() {
+        if (heldBackBroker != null) {
+            heldBackBroker.destroy();
+        }
+    }
+
+    /**
+     * Test case to verify that a subscriber whose queue is full is disconnected.
+     */
+    @Test
+    public void testFullQueueShouldDisconnectSubscriber() {
+        heldBackBroker = heldBackBroker(OverflowPolicy.DISCONNECT);
+        heldBackBroker.subscribe(null);
+
+        publish(heldBackBroker, 2);
+        assertEquals(1, heldBackBroker.getSubscriberCount());
+
+        publish(heldBackBroker, 1);
+        assertEquals(0, heldBackBroker.getSubscriberCount());
+        assertEquals(1, meterRegistry.counter("todo.events.disconnected").count());
+    }
+
+    /**
+     * Test case to verify that a subscriber whose queue is full loses its oldest events but stays connected.
+     */
+    @Test
+    public void testFullQueueShouldDropOldestEvents() {
+        heldBackBroker = heldBackBroker(OverflowPolicy.DROP_OLDEST);
+        heldBackBroker.subscribe(null);
+
+        publish(heldBackBroker, 5);
+
+        assertEquals(1, heldBackBroker.getSubscriberCount());
+        assertEquals(3, meterRegistry.counter("todo.events.dropped").count());
+        assertEquals(1, meterRegistry.get("todo.events.subscribers").gauge().value());
+    }
+
+    /**
+     * Test case to verify that created, updated and deleted records are streamed as named events.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testChangesShouldBeStreamed() throws Exception {
+        MvcResult stream = mockMvc.perform(get(END_POINT_PATH + "/events").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String toDoId = create("Streamed");
+        mockMvc.perform(put(END_POINT_PATH + "/" + toDoId).contentType(MediaType.APPLICATION_JSON)
+                        .content(body("Streamed and updated")))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete(END_POINT_PATH + "/" + toDoId)).andExpect(status().isOk());
+
+        String events = awaitContent(stream, "{\"toDoId\":\"" + toDoId + "\"}");
+        assertTrue(events.indexOf("event:created") < events.indexOf("event:updated"));
+        assertTrue(events.indexOf("event:updated") < events.indexOf("event:deleted"));
+        assertTrue(events.contains("\"title\":\"Streamed and updated\""));
+    }
+
+    /**
+     * Test case to verify that a client resuming with Last-Event-ID receives the events it missed, and that an
+     * unknown Last-Event-ID gets a reset event.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testLastEventIdShouldReplayMissedEvents() throws Exception {
+        MvcResult stream = mockMvc.perform(get(END_POINT_PATH + "/events")).andReturn();
+        String firstId = create("Before disconnect");
+        Matcher lastEventId = Pattern.compile("id:(\\S+)\\nevent:created\\ndata:\\{\"toDoId\":\"" + firstId + "\"")
+                .matcher(awaitContent(stream, firstId));
+        assertTrue(lastEventId.find());
+
+        String missedId = create("While disconnected");
+        MvcResult resumed = mockMvc.perform(get(END_POINT_PATH + "/events").header("Last-Event-ID", lastEventId.group(1)))
+                .andReturn();
+        String replayed = awaitContent(resumed, missedId);
+        assertFalse(replayed.contains(firstId));
+
+        MvcResult reset = mockMvc.perform(get(END_POINT_PATH + "/events").header("Last-Event-ID", "unknown-1"))
+                .andReturn();
+        assertTrue(awaitContent(reset, "event:reset").contains("id:"));
+    }
+
+    private ToDoEventBroker heldBackBroker(OverflowPolicy overflowPolicy) {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        return new ToDoEventBroker(objectMapper, toDoMetrics, 16, 2, overflowPolicy, Duration.ZERO, task -> {});
+    }
+
+    private static void publish(ToDoEventBroker broker, int count) {
+        for (int i = 0; i < count; i++) {
+            ToDo toDo = new ToDo();
+            toDo.setToDoId(UUID.randomUUID());
+            toDo.setTitle("Event " + i);
+            toDo.setDescription("Testing the change feed.");
+            toDo.setDueDate(LocalDate.now());
+            broker.onChange(ToDoChangeEvent.created(toDo));
+        }
+    }
+
+    private String create(String title) throws Exception {
+        String response = mockMvc.perform(post(END_POINT_PATH).contentType(MediaType.APPLICATION_JSON).content(body(title)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Matcher toDoId = Pattern.compile("\"toDoId\":\"([^\"]+)\"").matcher(response);
+        assertTrue(toDoId.find());
+        return toDoId.group(1);
+    }
+
+    private static String body(String title) {
+        return "{\"title\":\"" + title + "\",\"description\":\"Testing the change feed.\",\"dueDate\":\"2999-01-01\"}";
+    }
+
+    /**
+     * Waits for the frames written by the delivery thread to contain the given text.
+     */
+    private static String awaitContent(MvcResult stream, String expected) throws Exception {
+        Callable<String> content = () -> stream.getResponse().getContentAsString();
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!content.call().contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(content.call().contains(expected), content.call());
+        return content.call();
+    }
+}
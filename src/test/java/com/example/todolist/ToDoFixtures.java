@@ -0,0 +1,53 @@
+package com.example.todolist;
+
+import com.example.todolist.entity.ToDo;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Builds the _ToDo_ entities the tests save or return from mocks.
+ */
+final class ToDoFixtures {
+
+    private ToDoFixtures() {
+    }
+
+    /**
+     * Builds a new, unsaved _ToDo_ entity due today.
+     * @param title The title.
+     * @return The _ToDo_ entity.
+     */
+    static ToDo newToDo(String title) {
+        return newToDo(title, LocalDate.now());
+    }
+
+    /**
+     * Builds a new, unsaved _ToDo_ entity.
+     * @param title The title.
+     * @param dueDate The due date, or null.
+     * @return The _ToDo_ entity.
+     */
+    static ToDo newToDo(String title, LocalDate dueDate) {
+        ToDo toDo = new ToDo();
+        toDo.setTitle(title);
+        toDo.setDescription("Testing the ToDo API.");
+        toDo.setDueDate(dueDate);
+        return toDo;
+    }
+
+    /**
+     * Builds a _ToDo_ entity as read from the store, with a random id, a version and an update instant.
+     * @param title The title.
+     * @param dueDate The due date, or null.
+     * @return The _ToDo_ entity.
+     */
+    static ToDo storedToDo(String title, LocalDate dueDate) {
+        ToDo toDo = newToDo(title, dueDate);
+        toDo.setToDoId(UUID.randomUUID());
+        toDo.setVersion(3L);
+        toDo.setUpdatedAt(Instant.parse("2024-03-01T10:15:30Z"));
+        return toDo;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.todolist;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * This class contains tests for the Micrometer meters of the _ToDo_ API and their Prometheus exposition.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class ToDoMetricsTests {
+    // Constants
+    private static final String END_POINT_PATH = "/todos";
+
+    // Dependencies
+    @Autowired private MockMvc mockMvc;
+    @Autowired private MeterRegistry meterRegistry;
+
+    /**
+     * Test case to verify that service operations are timed and list sizes recorded.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testGetListShouldBeTimed() throws Exception {
+        mockMvc.perform(get(END_POINT_PATH));
+
+        assertTrue(meterRegistry.get("todo.service").tag("operation", "getList").timer().count() > 0);
+        assertTrue(meterRegistry.get("todo.service.list.size").summary().count() > 0);
+    }
+
+    /**
+     * Test case to verify that not found errors are counted.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testNotFoundShouldBeCounted() throws Exception {
+        double before = meterRegistry.counter("todo.errors.not.found").count();
+
+        mockMvc.perform(get(END_POINT_PATH + "/" + UUID.randomUUID())).andExpect(status().isNotFound());
+
+        assertEquals(before + 1, meterRegistry.counter("todo.errors.not.found").count());
+    }
+
+    /**
+     * Test case to verify that validation failures are counted per field.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testValidationFailureShouldBeCounted() throws Exception {
+        double before = meterRegistry.counter("todo.errors.validation", "field", "title").count();
+
+        mockMvc.perform(post(END_POINT_PATH).contentType("application/json")
+                        .content("{\"title\":\"\",\"description\":\"Testing metrics.\",\"dueDate\":\"2999-01-01\"}"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(before + 1, meterRegistry.counter("todo.errors.validation", "field", "title").count());
+    }
+
+    /**
+     * Test case to verify the Prometheus scrape endpoint, including connection pool and Hibernate gauges.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testPrometheusEndpointShouldExposeMeters() throws Exception {
+        mockMvc.perform(get(END_POINT_PATH));
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("todo_service_seconds_bucket")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("hibernate_statements_total")));
+    }
+}
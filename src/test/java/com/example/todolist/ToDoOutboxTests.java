@@ -0,0 +1,121 @@
+package com.example.todolist;
+
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.entity.ToDoOutboxMessage;
+import com.example.todolist.events.ToDoChangeEvent;
+import com.example.todolist.exceptions.ToDoVersionMismatchException;
+import com.example.todolist.outbox.InMemoryToDoOutboxSink;
+import com.example.todolist.outbox.ToDoOutboxRelay;
+import com.example.todolist.outbox.ToDoOutboxSink;
+import com.example.todolist.repository.ToDoOutboxRepository;
+import com.example.todolist.service.ToDoService;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.example.todolist.ToDoFixtures.newToDo;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class contains tests for the transactional outbox: ToDoService writes each change to the outbox in the
+ * transaction of the change, and ToDoOutboxRelay publishes it to the in-memory sink.
+ * The scheduled relay is pushed far out, so the tests run it themselves.
+ */
+@SpringBootTest(properties = "todo.outbox.relay.interval=PT1H")
+public class ToDoOutboxTests {
+    // Dependencies
+    @Autowired private ToDoService service;
+    @Autowired private ToDoOutboxRepository outboxRepository;
+    @Autowired private ToDoOutboxRelay relay;
+    @Autowired private MeterRegistry meterRegistry;
+    @SpyBean private InMemoryToDoOutboxSink sink;
+
+    /**
+     * Publishes what earlier tests left in the outbox and forgets it.
+     */
+    @BeforeEach
+    public void setUp() {
+        relay.drain();
+        sink.clear();
+    }
+
+    /**
+     * Test case to verify that create, update and delete are written to the outbox and relayed in order.
+     */
+    @Test
+    public void testChangesShouldBeRelayedInOrder() {
+        double publishedBefore = meterRegistry.get("todo.outbox.lag").timer().count();
+        ToDo toDo = service.save(newToDo("Outbox"));
+        toDo.setTitle("Outbox updated");
+        service.update(toDo, null);
+        service.delete(toDo.getToDoId(), null);
+
+        assertEquals(3, outboxRepository.count());
+        assertEquals(3, relay.drain());
+
+        List<ToDoOutboxMessage> messages = sink.getMessages();
+        assertEquals(List.of(ToDoChangeEvent.Type.CREATED, ToDoChangeEvent.Type.UPDATED, ToDoChangeEvent.Type.DELETED),
+                messages.stream().map(ToDoOutboxMessage::getEventType).toList());
+        assertTrue(messages.stream().allMatch(message -> message.getToDoId().equals(toDo.getToDoId())));
+        assertTrue(messages.get(1).getPayload().contains("\"title\":\"Outbox updated\""));
+        assertEquals(0, outboxRepository.count());
+        assertEquals(publishedBefore + 3, meterRegistry.get("todo.outbox.lag").timer().count());
+    }
+
+    /**
+     * Test case to verify that failed changes leave nothing in the outbox.
+     */
+    @Test
+    public void testFailedChangeShouldNotBeWritten() {
+        ToDo toDo = service.save(newToDo("Outbox"));
+        relay.drain();
+
+        assertThrows(ToDoVersionMismatchException.class, () -> service.delete(toDo.getToDoId(), 41L));
+        ToDo unknownToDo = newToDo("Unknown");
+        unknownToDo.setToDoId(UUID.randomUUID());
+        assertEquals(Optional.empty(), service.update(unknownToDo, null));
+
+        assertEquals(0, outboxRepository.count());
+    }
+
+    /**
+     * Test case to verify that a batch the sink rejects stays in the outbox and is published by the next run.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testFailedBatchShouldBeRetried() throws Exception {
+        double failuresBefore = meterRegistry.counter("todo.outbox.failures").count();
+        Mockito.doThrow(new IOException("Sink down")).doCallRealMethod().when(sink).publish(Mockito.anyList());
+        service.saveAll(List.of(newToDo("Batch 1"), newToDo("Batch 2")));
+
+        assertEquals(0, relay.drain());
+        assertEquals(2, outboxRepository.count());
+        assertEquals(failuresBefore + 1, meterRegistry.counter("todo.outbox.failures").count());
+
+        assertEquals(2, relay.drain());
+        assertEquals(2, sink.getMessages().size());
+        assertEquals(0, outboxRepository.count());
+    }
+
+    /**
+     * Test case to verify that an enabled relay without a sink refuses to start instead of publishing nowhere.
+     */
+    @Test
+    public void testRelayWithoutSinkShouldFailToStart() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> new ToDoOutboxRelay(
+                outboxRepository, new StaticListableBeanFactory().getBeanProvider(ToDoOutboxSink.class), null, null, 500));
+        assertTrue(exception.getMessage().contains("todo.outbox.sink"));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.todolist;
+
+import com.example.todolist.repository.ToDoPartitionMaintainer;
+import com.example.todolist.repository.ToDoPartitionMaintainer.Plan;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class contains tests for the partition plan of ToDoPartitionMaintainer; the DDL itself needs PostgreSQL.
+ */
+public class ToDoPartitionMaintainerTests {
+
+    /**
+     * Test case to verify that a freshly partitioned table gets partitions from its oldest due date to the months
+     * ahead, and that nothing is dropped without retention.
+     */
+    @Test
+    public void testPlanShouldCoverDefaultPartitionAndMonthsAhead() {
+        Plan plan = ToDoPartitionMaintainer.plan(YearMonth.of(2026, 10), YearMonth.of(2025, 3), Set.of(), 2, 0);
+
+        assertEquals(Stream.iterate(YearMonth.of(2025, 3), month -> month.plusMonths(1)).limit(22).toList(), plan.create());
+        assertEquals(YearMonth.of(2026, 12), plan.create().get(plan.create().size() - 1));
+        assertTrue(plan.drop().isEmpty());
+        assertNull(plan.retainedFrom());
+    }
+
+    /**
+     * Test case to verify that only missing partitions within the retention are created, and older ones dropped.
+     */
+    @Test
+    public void testPlanShouldApplyRetention() {
+        Set<YearMonth> existing = Set.of(YearMonth.of(2024, 1), YearMonth.of(2026, 9), YearMonth.of(2026, 10));
+
+        Plan plan = ToDoPartitionMaintainer.plan(YearMonth.of(2026, 10), YearMonth.of(2023, 5), existing, 1, 12);
+
+        assertEquals(YearMonth.of(2025, 10), plan.retainedFrom());
+        assertEquals(YearMonth.of(2025, 10), plan.create().get(0));
+        assertEquals(12, plan.create().size());
+        assertFalse(plan.create().contains(YearMonth.of(2026, 9)));
+        assertFalse(plan.create().contains(YearMonth.of(2026, 10)));
+        assertEquals(YearMonth.of(2026, 11), plan.create().get(11));
+        assertEquals(List.of(YearMonth.of(2024, 1)), plan.drop());
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.todolist;
+
+import com.example.todolist.exceptions.RateLimitExceededException;
+import com.example.todolist.metrics.ToDoMetrics;
+import com.example.todolist.ratelimit.RateLimitBucket;
+import com.example.todolist.ratelimit.ToDoRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * This class contains tests for rate limiting: the buckets of the running application, whose list bucket lets
+ * two requests through per client and refills very slowly, and the refill of a standalone limiter.
+ */
+@SpringBootTest(properties = {"todo.rate-limit.enabled=true", "todo.rate-limit.list.rate=0.001", "todo.rate-limit.list.burst=2"})
+@AutoConfigureMockMvc
+public class ToDoRateLimiterTests {
+    // Constants
+    private static final String END_POINT_PATH = "/todos";
+
+    // Dependencies
+    @Autowired private MockMvc mockMvc;
+    @Autowired private MeterRegistry meterRegistry;
+
+    /**
+     * Test case to verify that a client looping on the list is refused with 429 and Retry-After, while its reads
+     * and other clients are not.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testClientOverItsLimitShouldBeRefused() throws Exception {
+        RequestPostProcessor client = from("10.0.0.1");
+        double rejectedBefore = rejected();
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get(END_POINT_PATH).with(client)).andExpect(status().is2xxSuccessful());
+        }
+        mockMvc.perform(get(END_POINT_PATH).with(client))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.status", is(429)))
+                .andExpect(jsonPath("$.path", is(END_POINT_PATH)));
+
+        mockMvc.perform(get(END_POINT_PATH + "/" + UUID.randomUUID()).with(client)).andExpect(status().isNotFound());
+        mockMvc.perform(get(END_POINT_PATH).with(from("10.0.0.2"))).andExpect(status().is2xxSuccessful());
+        assertEquals(rejectedBefore + 1, rejected());
+    }
+
+    /**
+     * Test case to verify that a bucket lets a burst through, then refills at the configured rate.
+     *
+     * @throws InterruptedException if interrupted while waiting for the refill
+     */
+    @Test
+    public void testBucketShouldRefill() throws InterruptedException {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("todo.rate-limit.write.rate", "20")
+                .withProperty("todo.rate-limit.write.burst", "3");
+        ToDoRateLimiter limiter = new ToDoRateLimiter(new ToDoMetrics(new SimpleMeterRegistry()), environment,
+                100, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("client", RateLimitBucket.WRITE);
+        }
+        RateLimitExceededException refused = assertThrows(RateLimitExceededException.class,
+                () -> limiter.acquire("client", RateLimitBucket.WRITE));
+        assertTrue(refused.getRetryAfter().compareTo(Duration.ofMillis(50)) <= 0);
+
+        Thread.sleep(refused.getRetryAfter().toMillis() + 5);
+        limiter.acquire("client", RateLimitBucket.WRITE);
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire("client", RateLimitBucket.WRITE));
+    }
+
+    private double rejected() {
+        return meterRegistry.counter("todo.ratelimit.requests", "bucket", "list", "outcome", "rejected").count();
+    }
+
+    private static RequestPostProcessor from(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.todolist;
+
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.reminder.ToDoReminderCallback;
+import com.example.todolist.reminder.ToDoReminderLeases;
+import com.example.todolist.reminder.ToDoReminderLeases.Lease;
+import com.example.todolist.reminder.ToDoReminderLeases.Plan;
+import com.example.todolist.reminder.ToDoReminderScheduler;
+import com.example.todolist.repository.ToDoStore;
+import com.example.todolist.service.ToDoService;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.example.todolist.ToDoFixtures.newToDo;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class contains tests for the due-date reminders: ToDoReminderScheduler keeps the timing wheel in step with
+ * the changes of ToDoService, picks up the changes made without it on reload, and ToDoReminderLeases shares the
+ * shards among the instances.
+ * The scheduler is advanced by the tests to the due instants, so each test takes due dates after those of the
+ * tests before it; leases last long enough for a renewal that comes late not to lose them.
+ */
+@SpringBootTest(properties = {
+        "todo.reminders.enabled=true",
+        "todo.reminders.zone=UTC",
+        "todo.reminders.time=09:00",
+        "todo.reminders.shards=8",
+        "todo.reminders.horizon-days=30",
+        "todo.reminders.lease.duration=PT1H",
+        "todo.reminders.lease.renew-interval=PT0.2S",
+        "todo.reminders.reload-interval=PT1H"
+})
+public class ToDoReminderTests {
+    // Dependencies
+    @Autowired private ToDoService service;
+    @Autowired private ToDoStore store;
+    @Autowired private ToDoReminderScheduler scheduler;
+    @Autowired private ToDoReminderLeases leases;
+    @Autowired private RecordingCallback callback;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private MeterRegistry meterRegistry;
+    @Autowired private TaskScheduler taskScheduler;
+
+    // Test data
+    private static LocalDate nextDueDate = LocalDate.now(ZoneOffset.UTC).plusDays(2);
+
+    /**
+     * Forgets the reminders fired by earlier tests.
+     */
+    @BeforeEach
+    public void setUp() {
+        callback.reminded.clear();
+    }
+
+    /**
+     * Test case to verify that the single instance holds every shard, and that creations, due date changes and
+     * deletions move the reminders, while other updates leave them in place.
+     */
+    @Test
+    public void testChangesShouldMoveReminders() {
+        assertEquals(8, scheduler.ownedShards().size());
+        assertEquals(8, jdbcTemplate.queryForObject("select count(*) from tb_reminder_leases where lease_owner = ?",
+                Integer.class, leases.owner()));
+
+        LocalDate dueDate = takeDueDates(2);
+        Instant dueAt = dueDate.atTime(9, 0).toInstant(ZoneOffset.UTC);
+        ToDo created = service.save(newToDo("Created", dueDate));
+        ToDo renamed = service.save(newToDo("Renamed", dueDate));
+        ToDo moved = service.save(newToDo("Moved", dueDate));
+        ToDo deleted = service.save(newToDo("Deleted", dueDate));
+        renamed.setTitle("Renamed again");
+        service.update(renamed, null);
+        moved.setDueDate(dueDate.plusDays(1));
+        service.update(moved, null);
+        service.delete(deleted.getToDoId(), null);
+
+        scheduler.fireDue(dueAt.minusSeconds(1));
+        assertTrue(callback.reminded.isEmpty());
+
+        scheduler.fireDue(dueAt);
+        assertTrue(callback.reminded.containsAll(List.of(created.getToDoId(), renamed.getToDoId())));
+        assertFalse(callback.reminded.contains(moved.getToDoId()));
+        assertFalse(callback.reminded.contains(deleted.getToDoId()));
+
+        scheduler.fireDue(dueAt.plusSeconds(86_400));
+        assertTrue(callback.reminded.contains(moved.getToDoId()));
+        assertEquals(1, Collections.frequency(callback.reminded, created.getToDoId()));
+    }
+
+    /**
+     * Test case to verify that the next reload schedules a record created without the service, and cancels the
+     * reminder of a record deleted without it.
+     */
+    @Test
+    public void testReloadShouldPickUpChangesMadeElsewhere() {
+        LocalDate dueDate = takeDueDates(1);
+        Instant dueAt = dueDate.atTime(9, 0).toInstant(ZoneOffset.UTC);
+        ToDo deletedElsewhere = service.save(newToDo("Deleted elsewhere", dueDate));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ToDo createdElsewhere = transaction.execute(status -> store.create(newToDo("Created elsewhere", dueDate)));
+        transaction.executeWithoutResult(status -> store.delete(deletedElsewhere.getToDoId(), null));
+        double staleBefore = meterRegistry.get("todo.reminders.stale").counter().count();
+
+        scheduler.reload();
+        scheduler.fireDue(dueAt);
+
+        assertTrue(callback.reminded.contains(createdElsewhere.getToDoId()));
+        assertFalse(callback.reminded.contains(deletedElsewhere.getToDoId()));
+        assertEquals(0, meterRegistry.get("todo.reminders.stale").counter().count() - staleBefore);
+    }
+
+    /**
+     * Test case to verify that an instance joining takes free shards up to its share, and that the instance
+     * holding them all releases its excess.
+     */
+    @Test
+    public void testLeasesShouldSpreadOverInstances() {
+        Instant now = Instant.parse("2026-10-17T10:00:00Z");
+        Instant live = now.plusSeconds(30);
+        List<Lease> heldByA = IntStream.range(0, 8).mapToObj(shard -> new Lease(shard, "a", live, null)).toList();
+
+        Plan planA = ToDoReminderLeases.plan("a", Set.of("a", "b", "c"), heldByA, now, 8);
+        assertEquals(List.of(0, 1, 2), planA.renew());
+        assertEquals(List.of(3, 4, 5, 6, 7), planA.release());
+        assertTrue(planA.acquire().isEmpty());
+
+        List<Lease> afterRelease = new ArrayList<>(heldByA.subList(0, 3));
+        IntStream.range(3, 8).forEach(shard -> afterRelease.add(new Lease(shard, null, null, now)));
+        afterRelease.set(7, new Lease(7, "b", now.minusSeconds(1), now)); // expired
+        Plan planB = ToDoReminderLeases.plan("b", Set.of("a", "b", "c"), afterRelease, now, 8);
+        assertEquals(List.of(), planB.renew());
+        assertEquals(List.of(7, 3, 4), planB.acquire());
+    }
+
+    /**
+     * Test case to verify that the leases are still renewed while the thread of the shared task scheduler is held up,
+     * as by a long outbox drain or reload.
+     */
+    @Test
+    public void testLeasesShouldBeRenewedWhileTheTaskSchedulerIsBusy() throws Exception {
+        CountDownLatch busy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ScheduledFuture<?> blocker = taskScheduler.scheduleWithFixedDelay(() -> {
+            busy.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, Duration.ofHours(1));
+        try {
+            assertTrue(busy.await(5, TimeUnit.SECONDS));
+            OffsetDateTime before = memberExpiry();
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (!memberExpiry().isAfter(before) && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            assertTrue(memberExpiry().isAfter(before), "leases not renewed while the task scheduler was busy");
+            assertEquals(8, scheduler.ownedShards().size());
+        } finally {
+            release.countDown();
+            blocker.cancel(false);
+        }
+    }
+
+    private OffsetDateTime memberExpiry() {
+        return jdbcTemplate.queryForObject("select expires_at from tb_reminder_members where member_name = ?",
+                OffsetDateTime.class, leases.owner());
+    }
+
+    /**
+     * Takes due dates no earlier test advanced the scheduler to.
+     * @param days The number of consecutive due dates needed.
+     * @return The first of them.
+     */
+    private static LocalDate takeDueDates(int days) {
+        LocalDate first = nextDueDate;
+        nextDueDate = nextDueDate.plusDays(days);
+        return first;
+    }
+
+    /**
+     * ToDoReminderCallback recording the ids of the reminded _ToDo_ records.
+     */
+    public static class RecordingCallback implements ToDoReminderCallback {
+
+        private final List<UUID> reminded = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void remind(ToDo toDo, Instant dueAt) {
+            reminded.add(toDo.getToDoId());
+        }
+    }
+
+    @TestConfiguration
+    static class Configuration {
+
+        @Bean
+        RecordingCallback recordingCallback() {
+            return new RecordingCallback();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.todolist;
+
+import com.example.todolist.datasource.ReplicaRoutingDataSource;
+import com.example.todolist.datasource.ReplicaStickinessFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * This class contains tests for read replica routing, against two local H2 databases standing for the primary and
+ * a replica that does not replicate, so that each read shows where it was routed. A third replica never exists,
+ * and must be kept out of the routing by the health checks.
+ */
+@SpringBootTest(properties = {
+        "todo.datasource.replica.urls=" + ToDoReplicaRoutingTests.REPLICA_URL + ",jdbc:h2:mem:todo-missing-replica;IFEXISTS=TRUE",
+        "todo.datasource.replica.connection-timeout=250ms",
+        "todo.datasource.replica.health-check-interval=100ms",
+        "todo.datasource.replica.stickiness=1m"
+})
+@AutoConfigureMockMvc
+@DirtiesContext // stops the health checks and closes the replica pools
+public class ToDoReplicaRoutingTests {
+    // Constants
+    static final String REPLICA_URL = "jdbc:h2:mem:todo-replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+    private static final String END_POINT_PATH = "/todos";
+
+    // Dependencies
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ReplicaRoutingDataSource routingDataSource;
+    @Autowired private MeterRegistry meterRegistry;
+
+    /**
+     * Creates the schema of the replica.
+     */
+    @BeforeAll
+    public static void migrateReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").locations("classpath:db/migration/h2").load().migrate();
+    }
+
+    /**
+     * Waits for the health checks to find the replica.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @BeforeEach
+    public void awaitHealthyReplica() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (routingDataSource.getHealthyReplicaCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, routingDataSource.getHealthyReplicaCount());
+    }
+
+    /**
+     * Test case to verify that reads go to the healthy replica only.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testReadsShouldGoToHealthyReplica() throws Exception {
+        UUID replicaOnlyId = insertIntoReplica("Only on the replica");
+
+        mockMvc.perform(get(END_POINT_PATH + "/" + replicaOnlyId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("Only on the replica")));
+        assertEquals(1, meterRegistry.get("todo.datasource.replicas.healthy").gauge().value());
+    }
+
+    /**
+     * Test case to verify that a client reads its own writes from the primary within the stickiness window, while
+     * other clients, and the same client once the window ended, read from the replica.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testWriterShouldReadOwnWrites() throws Exception {
+        var created = mockMvc.perform(post(END_POINT_PATH).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Primary\",\"description\":\"Written to the primary.\",\"dueDate\":\"2999-01-01\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReplicaStickinessFilter.COOKIE_NAME))
+                .andReturn().getResponse();
+        Matcher toDoId = Pattern.compile("\"toDoId\":\"([^\"]+)\"").matcher(created.getContentAsString());
+        assertTrue(toDoId.find());
+        Cookie sticky = created.getCookie(ReplicaStickinessFilter.COOKIE_NAME);
+
+        String path = END_POINT_PATH + "/" + toDoId.group(1);
+        mockMvc.perform(get(path)).andExpect(status().isNotFound());
+        Cookie expired = new Cookie(ReplicaStickinessFilter.COOKIE_NAME, Long.toString(System.currentTimeMillis() - 1));
+        mockMvc.perform(get(path).cookie(expired)).andExpect(status().isNotFound());
+
+        mockMvc.perform(get(path).cookie(sticky))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("Primary")));
+    }
+
+    private static UUID insertIntoReplica(String title) throws SQLException {
+        UUID id = UUID.randomUUID();
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO tb_todos (to_do_id, title, description, due_date) VALUES (?, ?, ?, ?)")) {
+            insert.setObject(1, id);
+            insert.setString(2, title);
+            insert.setString(3, "Testing read replicas.");
+            insert.setObject(4, LocalDate.of(2999, 1, 1));
+            insert.executeUpdate();
+        }
+        return id;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.todolist;
+
+import com.example.todolist.dtos.ToDoRecordDto;
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.id.ToDoIdAssigner;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.sql.Connection;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class contains tests for the native image hints of ToDoRuntimeHints.
+ */
+public class ToDoRuntimeHintsTests {
+    // Dependencies
+    private final RuntimeHints hints = new RuntimeHints();
+
+    /**
+     * Registers the hints.
+     */
+    @BeforeEach
+    public void setUp() {
+        new ToDoRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    /**
+     * Test case to verify that the entity and the request body can be bound to and from JSON.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testJsonTypesShouldBeBindable() throws Exception {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ToDo.class.getMethod("getTitle")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ToDo.class.getMethod("setDueDate", LocalDate.class)).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ToDoRecordDto.class.getMethod("title")).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(ToDoIdAssigner.class.getMethod("assignToDoId", ToDo.class)).test(hints));
+    }
+
+    /**
+     * Test case to verify that the migrations of every vendor and the connection proxies are included.
+     */
+    @Test
+    public void testMigrationsAndProxiesShouldBeIncluded() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/postgresql/V1__create_todos.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/migration/h2/V5__create_todo_outbox.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/partitioning/postgresql/V5_1__partition_todos_by_due_date.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class).test(hints));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.todolist;
+
+import com.example.todolist.dtos.ToDoDueDate;
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.repository.ToDoRepository;
+import com.example.todolist.service.ToDoService;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class contains tests for the read-through cache in front of ToDoService.getById.
+ * The repository is mocked so that database round trips can be counted.
+ */
+@SpringBootTest
+public class ToDoServiceCacheTests {
+    // Dependencies
+    @Autowired private ToDoService service;
+    @Autowired private CacheManager cacheManager;
+    @MockBean private ToDoRepository repository;
+
+    // Test data
+    private UUID toDoId;
+    private ToDo savedToDo;
+
+    /**
+     * Sets up test data and clears the cache before each test case.
+     */
+    @BeforeEach
+    public void setUp() {
+        cacheManager.getCache(ToDoService.CACHE_NAME).clear();
+
+        toDoId = UUID.randomUUID();
+        savedToDo = new ToDo();
+        savedToDo.setToDoId(toDoId);
+        savedToDo.setTitle("Task 1.");
+        savedToDo.setDescription("Testing the ToDo cache.");
+        savedToDo.setDueDate(LocalDate.now());
+        Mockito.when(repository.findById(toDoId)).thenReturn(Optional.of(savedToDo));
+        Mockito.when(repository.save(Mockito.any(ToDo.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    /**
+     * Test case to verify that repeated lookups are served from the cache.
+     */
+    @Test
+    public void testGetByIdShouldHitCache() {
+        assertEquals(Optional.of(savedToDo), service.getById(toDoId));
+        assertEquals(Optional.of(savedToDo), service.getById(toDoId));
+
+        Mockito.verify(repository, Mockito.times(1)).findById(toDoId);
+        assertEquals(1, nativeCache().stats().hitCount());
+    }
+
+    /**
+     * Test case to verify that lookups of unknown ids are not cached.
+     */
+    @Test
+    public void testGetByIdShouldNotCacheMisses() {
+        UUID unknownId = UUID.randomUUID();
+        Mockito.when(repository.findById(unknownId)).thenReturn(Optional.empty());
+
+        assertTrue(service.getById(unknownId).isEmpty());
+        assertTrue(service.getById(unknownId).isEmpty());
+
+        Mockito.verify(repository, Mockito.times(2)).findById(unknownId);
+    }
+
+    /**
+     * Test case to verify that update and delete invalidate the cached entry.
+     */
+    @Test
+    public void testUpdateAndDeleteShouldEvictCache() {
+        service.getById(toDoId);
+        service.update(savedToDo, null);
+        service.getById(toDoId);
+        service.delete(toDoId, null);
+        service.getById(toDoId);
+
+        // one lookup after each invalidation
+        Mockito.verify(repository, Mockito.times(3)).findById(toDoId);
+    }
+
+    /**
+     * Test case to verify that saving an entity with a known id invalidates the cached entry.
+     */
+    @Test
+    public void testSaveShouldEvictCache() {
+        service.getById(toDoId);
+        service.save(savedToDo);
+        service.getById(toDoId);
+
+        Mockito.verify(repository, Mockito.times(2)).findById(toDoId);
+    }
+
+    /**
+     * Test case to verify that bulk updates and deletes only invalidate the cached entries they changed.
+     */
+    @Test
+    public void testBulkChangesShouldOnlyEvictChangedEntries() {
+        UUID otherId = UUID.randomUUID();
+        ToDo other = new ToDo();
+        other.setToDoId(otherId);
+        other.setTitle("Task 2.");
+        other.setDescription("Testing the ToDo cache.");
+        Mockito.when(repository.findById(otherId)).thenReturn(Optional.of(other));
+        Mockito.when(repository.findAllById(List.of(toDoId))).thenReturn(List.of(savedToDo));
+        Mockito.when(repository.findExistingDueDates(List.of(toDoId)))
+                .thenReturn(List.of(new ToDoDueDate(toDoId, savedToDo.getDueDate())));
+
+        service.getById(toDoId);
+        service.getById(otherId);
+        service.updateAll(List.of(savedToDo));
+        service.getById(toDoId);
+        service.getById(otherId);
+        service.deleteAll(List.of(toDoId));
+        service.getById(toDoId);
+        service.getById(otherId);
+
+        Mockito.verify(repository, Mockito.times(3)).findById(toDoId);
+        Mockito.verify(repository, Mockito.times(1)).findById(otherId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> nativeCache() {
+        return ((CaffeineCache) cacheManager.getCache(ToDoService.CACHE_NAME)).getNativeCache();
+    }
+}
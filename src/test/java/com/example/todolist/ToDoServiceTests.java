@@ -0,0 +1,56 @@
+package com.example.todolist;
+
+import com.example.todolist.dtos.ToDoListVersion;
+import com.example.todolist.id.UuidV7Generator;
+import com.example.todolist.metrics.ToDoMetrics;
+import com.example.todolist.repository.JpaToDoStore;
+import com.example.todolist.repository.ToDoListVersionCounter;
+import com.example.todolist.service.ToDoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.example.todolist.ToDoFixtures.newToDo;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class contains integration tests for the ToDoService class. It utilizes Spring Boot's @DataJpaTest annotation
+ * to run the service against an in-memory database, through JpaToDoStore.
+ */
+@DataJpaTest
+@Import({ToDoService.class, JpaToDoStore.class, ToDoListVersionCounter.class, UuidV7Generator.class, ToDoMetrics.class,
+        SimpleMeterRegistry.class})
+public class ToDoServiceTests extends AbstractToDoServiceTests {
+    // Dependencies
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    /**
+     * Test case to verify that the list version is left alone while a write transaction runs, so that its row is
+     * not locked by it, changes once the write committed, and stays put when the write rolled back.
+     */
+    @Test
+    public void testListVersionShouldChangeAfterCommit() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        ToDoListVersion before = service.getListVersion();
+
+        transaction.executeWithoutResult(status -> {
+            store.create(newToDo("Committed"));
+            assertEquals(before, store.findListVersion());
+        });
+        ToDoListVersion committed = service.getListVersion();
+        assertTrue(committed.version() > before.version());
+
+        transaction.executeWithoutResult(status -> {
+            store.create(newToDo("Rolled back"));
+            status.setRollbackOnly();
+        });
+        assertEquals(committed, service.getListVersion());
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.todolist;
+
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.repository.ToDoRepository;
+import com.example.todolist.service.SingleFlight;
+import com.example.todolist.service.ToDoService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class contains tests for the coalescing of concurrent identical reads in ToDoService.
+ * The repository is mocked and blocks until every caller has joined the read in flight.
+ */
+@SpringBootTest
+public class ToDoSingleFlightTests {
+    // Dependencies
+    @Autowired private ToDoService service;
+    @Autowired private MeterRegistry meterRegistry;
+    @MockBean private ToDoRepository repository;
+
+    // Test data
+    private static final int CALLERS = 8;
+    private UUID toDoId;
+    private CountDownLatch release;
+
+    /**
+     * Sets up the id read by the callers and the latch holding the read in flight.
+     */
+    @BeforeEach
+    public void setUp() {
+        toDoId = UUID.randomUUID();
+        release = new CountDownLatch(1);
+    }
+
+    /**
+     * Test case to verify that concurrent lookups of the same id share one query and its result.
+     */
+    @Test
+    public void testConcurrentGetByIdShouldShareOneQuery() throws Exception {
+        ToDo toDo = new ToDo();
+        toDo.setToDoId(toDoId);
+        toDo.setTitle("Task 1.");
+        Mockito.when(repository.findById(toDoId)).thenAnswer(invocation -> {
+            release.await();
+            return Optional.of(toDo);
+        });
+
+        for (Future<Optional<ToDo>> result : getByIdConcurrently()) {
+            assertSame(toDo, result.get().orElseThrow());
+        }
+        Mockito.verify(repository, Mockito.times(1)).findById(toDoId);
+    }
+
+    /**
+     * Test case to verify that the error of a shared query reaches every caller.
+     */
+    @Test
+    public void testConcurrentGetByIdShouldShareTheError() throws Exception {
+        TransientDataAccessResourceException failure = new TransientDataAccessResourceException("Connection lost");
+        Mockito.when(repository.findById(toDoId)).thenAnswer(invocation -> {
+            release.await();
+            throw failure;
+        });
+
+        for (Future<Optional<ToDo>> result : getByIdConcurrently()) {
+            ExecutionException thrown = assertThrows(ExecutionException.class, result::get);
+            assertSame(failure, thrown.getCause());
+        }
+        Mockito.verify(repository, Mockito.times(1)).findById(toDoId);
+    }
+
+    /**
+     * Test case to verify that a caller stops waiting for a read in flight after the timeout.
+     */
+    @Test
+    public void testWaitingShouldTimeOut() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(Duration.ofMillis(50), () -> {});
+        CountDownLatch started = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+                started.countDown();
+                awaitRelease();
+                return "result";
+            }));
+            started.await();
+
+            assertThrows(QueryTimeoutException.class, () -> singleFlight.execute("key", () -> "other result"));
+            release.countDown();
+            assertEquals("result", leader.get());
+        }
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    /**
+     * Looks up the test id from CALLERS threads, releasing the repository once all but the first joined its read.
+     * @return The results of the callers.
+     */
+    private List<Future<Optional<ToDo>>> getByIdConcurrently() throws InterruptedException {
+        double collapsedBefore = collapsedCount();
+        List<Future<Optional<ToDo>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> service.getById(toDoId)));
+            }
+            try {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (collapsedCount() - collapsedBefore < CALLERS - 1 && System.nanoTime() < deadline) {
+                    Thread.sleep(5);
+                }
+            } finally {
+                release.countDown();
+            }
+        }
+        assertEquals(CALLERS - 1, collapsedCount() - collapsedBefore);
+        return results;
+    }
+
+    private double collapsedCount() {
+        Counter counter = meterRegistry.find("todo.singleflight.collapsed").tag("operation", "getById").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
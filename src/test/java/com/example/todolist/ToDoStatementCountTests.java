@@ -0,0 +1,168 @@
+package com.example.todolist;
+
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.entity.ToDoOutboxMessage;
+import com.example.todolist.repository.ToDoListVersionCounter;
+import com.example.todolist.repository.ToDoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * This class counts the SQL statements each mutation request sends to the database.
+ * It runs the whole application against an in-memory database with Hibernate statistics enabled.
+ * A successful change costs two more statements, the insert of its outbox message and the increment of the list
+ * version, which runs after the commit on another thread and is waited for; RecordedStatements tells them apart.
+ */
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.todolist.ToDoStatementCountTests$RecordedStatements",
+        "todo.outbox.relay.enabled=false"}) // the relay would add its own statements
+@AutoConfigureMockMvc
+public class ToDoStatementCountTests {
+    // Constants
+    private static final String END_POINT_PATH = "/todos";
+
+    // Dependencies
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private ToDoRepository repository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private ToDoListVersionCounter listVersionCounter;
+
+    // Test data
+    private ToDo savedToDo;
+    private Statistics statistics;
+
+    /**
+     * Saves a _ToDo_ and resets the statistics before each test case.
+     */
+    @BeforeEach
+    public void setUp() {
+        ToDo toDo = new ToDo();
+        toDo.setTitle("Task 1.");
+        toDo.setDescription("Counting statements.");
+        toDo.setDueDate(LocalDate.now());
+        savedToDo = repository.save(toDo);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        RecordedStatements.STATEMENTS.clear();
+    }
+
+    /**
+     * Test case to verify that an update is a single UPDATE ... RETURNING statement, written with one outbox message
+     * and followed by one list version increment.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testUpdateToDoShouldRunOneStatementPerWrite() throws Exception {
+        savedToDo.setTitle("Task 2.");
+        String requestBody = objectMapper.writeValueAsString(savedToDo);
+
+        mockMvc.perform(put(END_POINT_PATH + "/" + savedToDo.getToDoId()).contentType("application/json")
+                        .content(requestBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("Task 2.")));
+
+        listVersionCounter.awaitIncrements();
+        assertEquals(1, RecordedStatements.count("update tb_todos "));
+        assertEquals(1, RecordedStatements.count("insert into tb_todo_outbox"));
+        assertEquals(1, statistics.getEntityStatistics(ToDoOutboxMessage.class.getName()).getInsertCount());
+        assertEquals(1, RecordedStatements.count("update tb_todo_list_version"));
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals("Task 2.", repository.findById(savedToDo.getToDoId()).orElseThrow().getTitle());
+    }
+
+    /**
+     * Test case to verify that an update of an unknown id is a single statement answered with 404.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testWrongIdUpdateToDoShouldRunOneStatement() throws Exception {
+        String requestBody = objectMapper.writeValueAsString(savedToDo);
+
+        mockMvc.perform(put(END_POINT_PATH + "/" + UUID.randomUUID()).contentType("application/json")
+                        .content(requestBody))
+                .andExpect(status().isNotFound());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Test case to verify that a deletion is a single DELETE ... RETURNING statement that still returns the deleted
+     * _ToDo_, written with one outbox message and followed by one list version increment.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testDeleteToDoShouldRunOneStatementPerWrite() throws Exception {
+        mockMvc.perform(delete(END_POINT_PATH + "/" + savedToDo.getToDoId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is(savedToDo.getTitle())));
+
+        listVersionCounter.awaitIncrements();
+        assertEquals(1, RecordedStatements.count("delete from tb_todos "));
+        assertEquals(1, RecordedStatements.count("insert into tb_todo_outbox"));
+        assertEquals(1, statistics.getEntityStatistics(ToDoOutboxMessage.class.getName()).getInsertCount());
+        assertEquals(1, RecordedStatements.count("update tb_todo_list_version"));
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertFalse(repository.existsById(savedToDo.getToDoId()));
+    }
+
+    /**
+     * Test case to verify that a deletion of an unknown id is a single statement answered with 404.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testWrongIdDeleteToDoShouldRunOneStatement() throws Exception {
+        mockMvc.perform(delete(END_POINT_PATH + "/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * StatementInspector recording the SQL Hibernate prepares, so that the tests can tell the statements apart.
+     */
+    public static class RecordedStatements implements StatementInspector {
+        private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+
+        /**
+         * Counts the recorded statements containing the given text, ignoring case.
+         * @param text The text to look for, such as the start of the statement.
+         * @return The number of recorded statements containing it.
+         */
+        static long count(String text) {
+            return STATEMENTS.stream().filter(sql -> sql.toLowerCase().contains(text)).count();
+        }
+    }
+}
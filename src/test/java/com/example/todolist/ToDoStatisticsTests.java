@@ -0,0 +1,100 @@
+package com.example.todolist;
+
+import com.example.todolist.dtos.ToDoDueDateCount;
+import com.example.todolist.dtos.ToDoStatsDto;
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.events.ToDoChangeEvent;
+import com.example.todolist.metrics.ToDoMetrics;
+import com.example.todolist.repository.ToDoStore;
+import com.example.todolist.service.ToDoService;
+import com.example.todolist.service.ToDoStatistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.example.todolist.ToDoFixtures.newToDo;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class contains tests for the in-memory statistics of the _ToDo_ list: their incremental maintenance by
+ * ToDoService, and their reconciliation with the database.
+ */
+@SpringBootTest
+public class ToDoStatisticsTests {
+    // Dependencies
+    @Autowired private ToDoService service;
+    @Autowired private ToDoStatistics statistics;
+
+    // Test data
+    private LocalDate today;
+
+    /**
+     * Reconciles the statistics, so that they start from what earlier tests left in the database.
+     */
+    @BeforeEach
+    public void setUp() {
+        today = LocalDate.now();
+        statistics.reconcile();
+    }
+
+    /**
+     * Test case to verify that creations, updates and deletions move the counters without querying the database.
+     */
+    @Test
+    public void testChangesShouldUpdateTheCounters() {
+        ToDoStatsDto before = statistics.snapshot(today);
+        ToDo overdue = service.save(newToDo("Statistics", today.minusDays(3)));
+        ToDo dueToday = service.save(newToDo("Statistics", today));
+        ToDo dueThisWeek = service.save(newToDo("Statistics", today.plusDays(5)));
+        service.save(newToDo("Statistics", null));
+        service.save(newToDo("Statistics", today.plusDays(30)));
+
+        assertEquals(new ToDoStatsDto(today, before.total() + 5, before.withoutDueDate() + 1, before.overdue() + 1,
+                before.dueToday() + 1, before.dueThisWeek() + 2), statistics.snapshot(today));
+
+        dueToday.setDueDate(today.minusDays(1));
+        service.update(dueToday, null);
+        service.delete(overdue.getToDoId(), null);
+        service.deleteAll(List.of(dueThisWeek.getToDoId()));
+
+        ToDoStatsDto after = new ToDoStatsDto(today, before.total() + 3, before.withoutDueDate() + 1,
+                before.overdue() + 1, before.dueToday(), before.dueThisWeek());
+        assertEquals(after, statistics.snapshot(today));
+
+        statistics.reconcile();
+        assertEquals(after, statistics.snapshot(today));
+    }
+
+    /**
+     * Test case to verify that reconciliation replaces drifted counters with the result of the aggregate query,
+     * and that the overdue count follows the day.
+     */
+    @Test
+    public void testReconcileShouldCorrectDrift() {
+        ToDoStore store = Mockito.mock(ToDoStore.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ToDoStatistics toDoStatistics = new ToDoStatistics(store, new ToDoMetrics(meterRegistry));
+        Mockito.when(store.countByDueDate()).thenReturn(List.of(new ToDoDueDateCount(today.minusDays(1), 2),
+                new ToDoDueDateCount(today, 1), new ToDoDueDateCount(null, 1)));
+        toDoStatistics.reconcile();
+        toDoStatistics.onChange(ToDoChangeEvent.created(newToDo("Statistics", today.plusDays(2))));
+
+        assertEquals(new ToDoStatsDto(today, 5, 1, 2, 1, 2), toDoStatistics.snapshot(today));
+        assertEquals(new ToDoStatsDto(today.plusDays(1), 5, 1, 3, 0, 1), toDoStatistics.snapshot(today.plusDays(1)));
+
+        // one overdue record was deleted behind the back of the service
+        Mockito.when(store.countByDueDate()).thenReturn(List.of(new ToDoDueDateCount(today.minusDays(1), 1),
+                new ToDoDueDateCount(today, 1), new ToDoDueDateCount(today.plusDays(2), 1), new ToDoDueDateCount(null, 1)));
+        toDoStatistics.reconcile();
+
+        assertEquals(new ToDoStatsDto(today, 4, 1, 1, 1, 2), toDoStatistics.snapshot(today));
+        assertEquals(1, meterRegistry.get("todo.stats.drift").counter().count());
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.todolist;
+
+import com.example.todolist.dtos.ToDoResponseDto;
+import com.example.todolist.entity.ToDo;
+import com.example.todolist.exceptions.WriteBehindQueueFullException;
+import com.example.todolist.id.UuidV7Generator;
+import com.example.todolist.metrics.ToDoMetrics;
+import com.example.todolist.repository.ToDoRepository;
+import com.example.todolist.service.ToDoService;
+import com.example.todolist.service.ToDoWriteBehindBuffer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.example.todolist.ToDoFixtures.newToDo;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * This class contains tests for the write-behind mode: creation through the running application, changes of records
+ * not written yet, and the queue bounds, batching, constraint violations and shutdown flush of standalone buffers writing through a mocked ToDoService.
+ */
+@SpringBootTest(properties = {"todo.write-behind.enabled=true", "todo.write-behind.max-delay=20ms"})
+@AutoConfigureMockMvc
+public class ToDoWriteBehindBufferTests {
+    // Constants
+    private static final String END_POINT_PATH = "/todos";
+
+    // Dependencies
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ToDoRepository repository;
+    @SpyBean private ToDoWriteBehindBuffer buffer;
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ToDoService service = Mockito.mock(ToDoService.class);
+    private final List<Integer> writtenBatchSizes = new CopyOnWriteArrayList<>();
+    private final Answer<List<ToDo>> recordBatchSize = invocation -> {
+        writtenBatchSizes.add(invocation.<List<ToDo>>getArgument(0).size());
+        return invocation.getArgument(0);
+    };
+    private ToDoWriteBehindBuffer standaloneBuffer;
+
+    /**
+     * Records the size of each batch the standalone buffers write.
+     */
+    @BeforeEach
+    public void setUp() {
+        Mockito.doAnswer(recordBatchSize).when(service).saveAll(Mockito.anyList());
+    }
+
+    /**
+     * Stops the standalone buffer, if any.
+     */
+    @AfterEach
+    public void tearDown() {
+        if (standaloneBuffer != null && standaloneBuffer.isRunning()) {
+            standaloneBuffer.stop();
+        }
+    }
+
+    /**
+     * Test case to verify that a creation is accepted at once, readable by id, and written shortly after.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testCreateToDoShouldBeAcceptedThenWritten() throws Exception {
+        String response = mockMvc.perform(post(END_POINT_PATH).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Write-behind\",\"description\":\"Queued first.\",\"dueDate\":\"2999-01-01\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", containsString(END_POINT_PATH + "/")))
+                .andReturn().getResponse().getContentAsString();
+        Matcher toDoId = Pattern.compile("\"toDoId\":\"([^\"]+)\"").matcher(response);
+        assertTrue(toDoId.find());
+        UUID id = UUID.fromString(toDoId.group(1));
+
+        mockMvc.perform(get(END_POINT_PATH + "/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("Write-behind")));
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!repository.existsById(id) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(repository.existsById(id));
+        mockMvc.perform(get(END_POINT_PATH + "/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""));
+    }
+
+    /**
+     * Test case to verify that updates and deletions of a record not written yet are answered with 409 Conflict.
+     *
+     * @throws Exception if any error occurs during the test execution
+     */
+    @Test
+    public void testChangesOfPendingToDoShouldReturn409Conflict() throws Exception {
+        UUID id = UUID.randomUUID();
+        Mockito.doReturn(Optional.of(new ToDoResponseDto(id, "Pending", "Not written yet.", LocalDate.now())))
+                .when(buffer).getPending(id);
+
+        mockMvc.perform(put(END_POINT_PATH + "/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Changed\",\"description\":\"Too early.\",\"dueDate\":\"2999-01-01\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(header().string("Retry-After", "1"));
+        mockMvc.perform(delete(END_POINT_PATH + "/" + id))
+                .andExpect(status().isConflict());
+        mockMvc.perform(delete(END_POINT_PATH + "/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"" + id + "\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(409)));
+    }
+
+    /**
+     * Test case to verify that records beyond the capacity are refused.
+     */
+    @Test
+    public void testFullQueueShouldRejectToDo() {
+        standaloneBuffer = standaloneBuffer(2, 100);
+        standaloneBuffer.start();
+
+        standaloneBuffer.enqueue(newToDo("First"));
+        standaloneBuffer.enqueue(newToDo("Second"));
+        assertThrows(WriteBehindQueueFullException.class, () -> standaloneBuffer.enqueue(newToDo("Third")));
+
+        assertEquals(2, standaloneBuffer.getQueuedCount());
+        assertEquals(1, meterRegistry.counter("todo.writebehind.rejected").count());
+    }
+
+    /**
+     * Test case to verify that full batches are written without waiting, and the rest on shutdown.
+     */
+    @Test
+    public void testQueueShouldBeWrittenByBatchesAndOnStop() {
+        standaloneBuffer = standaloneBuffer(100, 3);
+        standaloneBuffer.start();
+
+        List<UUID> ids = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            ids.add(standaloneBuffer.enqueue(newToDo("Task " + i)).toDoId());
+        }
+        Mockito.verify(service, Mockito.timeout(5000).times(2)).saveAll(Mockito.anyList());
+        assertEquals(List.of(3, 3), writtenBatchSizes);
+        assertTrue(standaloneBuffer.getPending(ids.get(6)).isPresent());
+
+        standaloneBuffer.stop();
+
+        assertEquals(List.of(3, 3, 1), writtenBatchSizes);
+        assertEquals(0, standaloneBuffer.getQueuedCount());
+        assertTrue(ids.stream().allMatch(id -> standaloneBuffer.getPending(id).isEmpty()));
+        assertThrows(WriteBehindQueueFullException.class, () -> standaloneBuffer.enqueue(newToDo("Too late")));
+    }
+
+    /**
+     * Test case to verify that a batch the database rejects stays pending and is written again.
+     */
+    @Test
+    public void testFailedBatchShouldBeRetried() {
+        Mockito.doThrow(new QueryTimeoutException("Database down")).doAnswer(recordBatchSize)
+                .when(service).saveAll(Mockito.anyList());
+        standaloneBuffer = standaloneBuffer(100, 2);
+        standaloneBuffer.start();
+
+        UUID id = standaloneBuffer.enqueue(newToDo("First")).toDoId();
+        standaloneBuffer.enqueue(newToDo("Second"));
+
+        Mockito.verify(service, Mockito.timeout(5000).times(2)).saveAll(Mockito.anyList());
+        assertEquals(List.of(2), writtenBatchSizes);
+        assertTrue(standaloneBuffer.getPending(id).isEmpty());
+        assertEquals(1, meterRegistry.counter("todo.writebehind.flush.failures").count());
+    }
+
+    /**
+     * Test case to verify that a record violating a database constraint is split out of its batch and dropped,
+     * while the others are written.
+     */
+    @Test
+    public void testConstraintViolationShouldDropOnlyTheOffendingRecord() {
+        Mockito.doAnswer(invocation -> {
+            if (invocation.<List<ToDo>>getArgument(0).stream().anyMatch(toDo -> toDo.getTitle().equals("Invalid"))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return recordBatchSize.answer(invocation);
+        }).when(service).saveAll(Mockito.anyList());
+        standaloneBuffer = standaloneBuffer(100, 4);
+        standaloneBuffer.start();
+
+        standaloneBuffer.enqueue(newToDo("First"));
+        standaloneBuffer.enqueue(newToDo("Second"));
+        UUID invalid = standaloneBuffer.enqueue(newToDo("Invalid")).toDoId();
+        standaloneBuffer.enqueue(newToDo("Fourth"));
+        standaloneBuffer.stop();
+
+        assertEquals(List.of(2, 1), writtenBatchSizes);
+        assertEquals(0, standaloneBuffer.getQueuedCount());
+        assertTrue(standaloneBuffer.getPending(invalid).isEmpty());
+        assertEquals(1, meterRegistry.counter("todo.writebehind.dropped").count());
+        assertEquals(0, meterRegistry.counter("todo.writebehind.flush.failures").count());
+    }
+
+    private ToDoWriteBehindBuffer standaloneBuffer(int capacity, int batchSize) {
+        return new ToDoWriteBehindBuffer(service, new UuidV7Generator(), new ToDoMetrics(meterRegistry),
+                capacity, batchSize, Duration.ofHours(1), Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.todolist;
+
+import com.example.todolist.id.UuidV7Generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * This class contains unit tests for the UuidV7Generator class.
+ */
+public class UuidV7GeneratorTests {
+
+    /**
+     * Test case to verify the version, variant and timestamp layout of generated ids.
+     */
+    @Test
+    public void testGenerateShouldFollowVersion7Layout() {
+        Instant now = Instant.parse("2026-01-01T00:00:00Z");
+        UuidV7Generator generator = new UuidV7Generator(Clock.fixed(now, ZoneOffset.UTC));
+
+        UUID id = generator.generate();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(now.toEpochMilli(), id.getMostSignificantBits() >>> 16);
+    }
+
+    /**
+     * Test case to verify that ids are strictly increasing in byte order, even within the same millisecond.
+     */
+    @Test
+    public void testGenerateShouldBeMonotonic() {
+        UuidV7Generator generator = new UuidV7Generator(Clock.fixed(Instant.now(), ZoneOffset.UTC));
+
+        // the database compares uuids byte-wise, which matches their canonical string form
+        String previous = generator.generate().toString();
+        for (int i = 0; i < 10_000; i++) {
+            String next = generator.generate().toString();
+            assertTrue(next.compareTo(previous) > 0, next + " should sort after " + previous);
+            previous = next;
+        }
+    }
+}